@@ -0,0 +1,391 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.CannotCompileException;
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.LoaderClassPath;
+import javassist.Modifier;
+import javassist.NotFoundException;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.MapperMethod.MethodSignature;
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.binding.MapperMethod.SqlCommand;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * A class implementing a mapper interface, generated with Javassist and used instead of a {@link MapperProxy} when
+ * {@link Configuration#isMapperClassGenerationEnabled()} is set.
+ * <p>
+ * A generated method calls the {@link SqlSession} with the id of its statement, resolved when the mapper is added to
+ * a configuration, and builds the parameter object in place the same way
+ * {@link ParamNameResolver#getNamedParams(Object[])} would.
+ * Methods that return a cursor, stream, map, optional, array, future or declared collection, that take a
+ * {@link org.apache.ibatis.session.RowBounds} or a {@link org.apache.ibatis.session.ResultHandler}, or whose statement
+ * cannot be resolved yet, call {@link #invoke(int, SqlSession, Object[])} which executes a {@link MapperMethod}.
+ * Default methods are inherited from the interface.
+ * <p>
+ * The generated code reads the statement ids from the instance it is constructed with, so one class is generated per
+ * mapper interface and shape of its methods, and shared by the configurations that load the interface.
+ *
+ * @param <T>
+ *          the mapper type
+ *
+ * @since 3.5.20
+ */
+public final class GeneratedMapperClass<T> {
+
+  private static final String CLASS_NAME_SEPARATOR = "$$MyBatisMapper$$";
+  private static final AtomicInteger classCounter = new AtomicInteger();
+  // Held by the mapper interface, so that the generated classes are unloaded with it
+  private static final GeneratedClasses generatedClasses = new GeneratedClasses();
+
+  private final Class<T> mapperInterface;
+  private final Configuration configuration;
+  private final Method[] methods;
+  private final MapperMethod[] mapperMethods;
+  private final String[] statements;
+  private final Constructor<?> constructor;
+
+  private GeneratedMapperClass(Class<T> mapperInterface, Configuration configuration)
+      throws CannotCompileException, NotFoundException, NoSuchMethodException {
+    this.mapperInterface = mapperInterface;
+    this.configuration = configuration;
+    this.methods = abstractMethods(mapperInterface);
+    this.mapperMethods = new MapperMethod[methods.length];
+    this.statements = new String[methods.length];
+    String[] bodies = new String[methods.length];
+    for (int i = 0; i < methods.length; i++) {
+      bodies[i] = statementBody(i, methods[i]);
+    }
+    this.constructor = generatedClass(bodies).getConstructor(SqlSession.class, GeneratedMapperClass.class);
+  }
+
+  /**
+   * Generates a class implementing the mapper interface.
+   *
+   * @param <T>
+   *          the mapper type
+   * @param mapperInterface
+   *          the mapper interface
+   * @param configuration
+   *          the configuration the statements of the mapper are resolved from
+   *
+   * @return the generated mapper class
+   */
+  public static <T> GeneratedMapperClass<T> generate(Class<T> mapperInterface, Configuration configuration) {
+    try {
+      return new GeneratedMapperClass<>(mapperInterface, configuration);
+    } catch (CannotCompileException | NotFoundException | NoSuchMethodException e) {
+      throw new BindingException("Error generating a class for mapper " + mapperInterface.getName() + ". Cause: " + e,
+          e);
+    }
+  }
+
+  public Class<T> getMapperInterface() {
+    return mapperInterface;
+  }
+
+  /**
+   * Returns a new instance of the generated class bound to a session.
+   *
+   * @param sqlSession
+   *          the session the statements are executed with
+   *
+   * @return the mapper
+   */
+  public T newInstance(SqlSession sqlSession) {
+    try {
+      return mapperInterface.cast(constructor.newInstance(sqlSession, this));
+    } catch (ReflectiveOperationException e) {
+      throw new BindingException("Error creating an instance of " + constructor.getDeclaringClass().getName()
+          + " for mapper " + mapperInterface.getName() + ". Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Returns the id of the statement a method calls directly. Called by generated methods.
+   *
+   * @param index
+   *          the index of the method in the generated class
+   *
+   * @return the statement id
+   */
+  public String getStatement(int index) {
+    return statements[index];
+  }
+
+  /**
+   * Executes a method through its {@link MapperMethod}. Called by generated methods that are not implemented with a
+   * direct call to the session.
+   *
+   * @param index
+   *          the index of the method in the generated class
+   * @param sqlSession
+   *          the session the mapper is bound to
+   * @param args
+   *          the arguments of the call
+   *
+   * @return the result of the method
+   */
+  public Object invoke(int index, SqlSession sqlSession, Object[] args) {
+    MapperMethod mapperMethod = mapperMethods[index];
+    if (mapperMethod == null) {
+      // MapperMethod is immutable, so building it twice on a race is harmless
+      mapperMethod = new MapperMethod(mapperInterface, methods[index], configuration);
+      mapperMethods[index] = mapperMethod;
+    }
+    return mapperMethod.execute(sqlSession, args);
+  }
+
+  private Class<?> generatedClass(String[] bodies) throws CannotCompileException, NotFoundException {
+    Map<List<String>, Class<?>> classes = generatedClasses.get(mapperInterface);
+    List<String> shape = new ArrayList<>(bodies.length);
+    for (int i = 0; i < bodies.length; i++) {
+      // The index of a method is part of its body, so the methods of a shape must have the same order
+      shape.add(methods[i] + " " + bodies[i]);
+    }
+    synchronized (classes) {
+      Class<?> generatedClass = classes.get(shape);
+      if (generatedClass == null) {
+        generatedClass = generateClass(bodies);
+        classes.put(shape, generatedClass);
+      }
+      return generatedClass;
+    }
+  }
+
+  private Class<?> generateClass(String[] bodies) throws CannotCompileException, NotFoundException {
+    ClassPool pool = new ClassPool(true);
+    pool.appendClassPath(new LoaderClassPath(mapperInterface.getClassLoader()));
+    pool.appendClassPath(new ClassClassPath(GeneratedMapperClass.class));
+    CtClass ctClass = pool.makeClass(mapperInterface.getName() + CLASS_NAME_SEPARATOR + classCounter.getAndIncrement());
+    ctClass.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
+    ctClass.addInterface(pool.get(mapperInterface.getName()));
+    ctClass.addField(CtField.make("private final " + SqlSession.class.getName() + " sqlSession;", ctClass));
+    ctClass.addField(
+        CtField.make("private final " + GeneratedMapperClass.class.getName() + " mapperClass;", ctClass));
+    CtConstructor ctConstructor = new CtConstructor(
+        new CtClass[] { pool.get(SqlSession.class.getName()), pool.get(GeneratedMapperClass.class.getName()) },
+        ctClass);
+    ctConstructor.setModifiers(Modifier.PUBLIC);
+    ctConstructor.setBody("{ super(); this.sqlSession = $1; this.mapperClass = $2; }");
+    ctClass.addConstructor(ctConstructor);
+    for (int i = 0; i < methods.length; i++) {
+      Method method = methods[i];
+      CtClass[] parameterTypes = new CtClass[method.getParameterCount()];
+      for (int j = 0; j < parameterTypes.length; j++) {
+        parameterTypes[j] = pool.get(typeName(method.getParameterTypes()[j]));
+      }
+      CtMethod ctMethod = new CtMethod(pool.get(typeName(method.getReturnType())), method.getName(), parameterTypes,
+          ctClass);
+      ctMethod.setModifiers(Modifier.PUBLIC);
+      String body = bodies[i];
+      try {
+        ctMethod.setBody(body == null ? invokeBody(i) : body);
+      } catch (CannotCompileException e) {
+        ctMethod.setBody(invokeBody(i));
+      }
+      ctClass.addMethod(ctMethod);
+    }
+    try {
+      return ctClass.toClass(mapperInterface);
+    } finally {
+      ctClass.detach();
+    }
+  }
+
+  private String invokeBody(int index) {
+    return "{ return ($r) this.mapperClass.invoke(" + index + ", this.sqlSession, $args); }";
+  }
+
+  private String statementBody(int index, Method method) {
+    SqlCommand command;
+    MethodSignature signature;
+    try {
+      command = new SqlCommand(configuration, mapperInterface, method);
+      signature = new MethodSignature(configuration, mapperInterface, method);
+    } catch (BindingException e) {
+      // reported by MapperMethod when the method is called, as a proxy would
+      return null;
+    }
+    Class<?> returnType = method.getReturnType();
+    if (signature.returnsFuture() || signature.hasRowBounds() || signature.hasResultHandler()
+        || !returnType.equals(signature.getReturnType())) {
+      return null;
+    }
+    String statement = "this.mapperClass.getStatement(" + index + ")";
+    String call;
+    switch (command.getType()) {
+      case INSERT:
+      case UPDATE:
+      case DELETE:
+        String result = rowCountResult(returnType);
+        if (result == null) {
+          return null;
+        }
+        call = "int rows = this.sqlSession." + command.getType().name().toLowerCase(Locale.ENGLISH) + "("
+            + statement + ", param); " + result;
+        break;
+      case SELECT:
+        if (signature.returnsMany()) {
+          if (!returnType.isAssignableFrom(List.class)) {
+            return null;
+          }
+          call = "return this.sqlSession.selectList(" + statement + ", param);";
+        } else if (signature.returnsMap() || signature.returnsCursor() || signature.returnsStream()
+            || signature.returnsOptional() || returnType.isPrimitive()) {
+          return null;
+        } else {
+          call = "return ($r) this.sqlSession.selectOne(" + statement + ", param);";
+        }
+        break;
+      default:
+        return null;
+    }
+    statements[index] = command.getName();
+    return "{ " + paramDeclaration(method) + " " + call + " }";
+  }
+
+  private static String rowCountResult(Class<?> returnType) {
+    if (void.class.equals(returnType)) {
+      return "return;";
+    } else if (int.class.equals(returnType)) {
+      return "return rows;";
+    } else if (Integer.class.equals(returnType)) {
+      return "return Integer.valueOf(rows);";
+    } else if (long.class.equals(returnType)) {
+      return "return (long) rows;";
+    } else if (Long.class.equals(returnType)) {
+      return "return Long.valueOf((long) rows);";
+    } else if (boolean.class.equals(returnType)) {
+      return "return rows > 0;";
+    } else if (Boolean.class.equals(returnType)) {
+      return "return Boolean.valueOf(rows > 0);";
+    }
+    return null;
+  }
+
+  /**
+   * Declares the parameter object, following {@link ParamNameResolver#getNamedParams(Object[])} for a method without
+   * special parameters.
+   */
+  private String paramDeclaration(Method method) {
+    String[] names = new ParamNameResolver(configuration, method).getNames();
+    if (names.length == 0) {
+      return "Object param = null;";
+    }
+    if (names.length == 1 && !hasParamAnnotation(method.getParameterAnnotations()[0])) {
+      if (method.getParameterTypes()[0].isPrimitive()) {
+        return "Object param = ($w) $1;";
+      }
+      return "Object param = " + ParamNameResolver.class.getName() + ".wrapToMapIfCollection($1, "
+          + literal(configuration.isUseActualParamName() ? names[0] : null) + ");";
+    }
+    Set<String> namedParams = new HashSet<>(Arrays.asList(names));
+    StringBuilder declaration = new StringBuilder();
+    declaration.append(Map.class.getName()).append(" param = new ").append(ParamMap.class.getName()).append("();");
+    for (int i = 0; i < names.length; i++) {
+      String value = "($w) $" + (i + 1);
+      declaration.append(" param.put(").append(literal(names[i])).append(", ").append(value).append(");");
+      String genericParamName = ParamNameResolver.GENERIC_NAME_PREFIX + (i + 1);
+      if (!namedParams.contains(genericParamName)) {
+        declaration.append(" param.put(").append(literal(genericParamName)).append(", ").append(value).append(");");
+      }
+    }
+    return declaration.toString();
+  }
+
+  private static boolean hasParamAnnotation(Annotation[] annotations) {
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof Param) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Collects the methods to implement, skipping default and static methods and the methods a default method
+   * overrides.
+   */
+  private static Method[] abstractMethods(Class<?> mapperInterface) {
+    Set<String> defaultMethods = new HashSet<>();
+    Map<String, Method> abstractMethods = new LinkedHashMap<>();
+    for (Method method : mapperInterface.getMethods()) {
+      String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+      if (method.isDefault()) {
+        defaultMethods.add(signature);
+      } else if (!java.lang.reflect.Modifier.isStatic(method.getModifiers()) && !isObjectMethod(method)) {
+        abstractMethods.putIfAbsent(signature + method.getReturnType().getName(), method);
+      }
+    }
+    List<Method> methods = new ArrayList<>();
+    for (Method method : abstractMethods.values()) {
+      if (!defaultMethods.contains(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+        methods.add(method);
+      }
+    }
+    return methods.toArray(new Method[0]);
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static String typeName(Class<?> type) {
+    return type.isArray() ? typeName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  private static String literal(String value) {
+    return value == null ? "null" : '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+  }
+
+  private static final class GeneratedClasses extends ClassValue<Map<List<String>, Class<?>>> {
+    @Override
+    protected Map<List<String>, Class<?>> computeValue(Class<?> type) {
+      return new HashMap<>();
+    }
+  }
+
+}
@@ -23,6 +23,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
@@ -55,6 +57,13 @@ public class MapperMethod {
   }
 
   public Object execute(SqlSession sqlSession, Object[] args) {
+    if (method.returnsFuture()) {
+      return sqlSession.executeAsync(session -> executeSync(session, args));
+    }
+    return executeSync(sqlSession, args);
+  }
+
+  private Object executeSync(SqlSession sqlSession, Object[] args) {
     Object result;
     switch (command.getType()) {
       case INSERT: {
@@ -82,6 +91,8 @@ public class MapperMethod {
           result = executeForMap(sqlSession, args);
         } else if (method.returnsCursor()) {
           result = executeForCursor(sqlSession, args);
+        } else if (method.returnsStream()) {
+          result = executeForStream(sqlSession, args);
         } else {
           Object param = method.convertArgsToSqlCommandParam(args);
           result = sqlSession.selectOne(command.getName(), param);
@@ -168,6 +179,18 @@ public class MapperMethod {
     return result;
   }
 
+  private <T> Stream<T> executeForStream(SqlSession sqlSession, Object[] args) {
+    Stream<T> result;
+    Object param = method.convertArgsToSqlCommandParam(args);
+    if (method.hasRowBounds()) {
+      RowBounds rowBounds = method.extractRowBounds(args);
+      result = sqlSession.selectStream(command.getName(), param, rowBounds);
+    } else {
+      result = sqlSession.selectStream(command.getName(), param);
+    }
+    return result;
+  }
+
   private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
     Object collection = config.getObjectFactory().create(method.getReturnType());
     MetaObject metaObject = config.newMetaObject(collection);
@@ -274,7 +297,9 @@ public class MapperMethod {
     private final boolean returnsMap;
     private final boolean returnsVoid;
     private final boolean returnsCursor;
+    private final boolean returnsStream;
     private final boolean returnsOptional;
+    private final boolean returnsFuture;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
@@ -283,16 +308,23 @@ public class MapperMethod {
 
     public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
       Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+      this.returnsFuture = CompletableFuture.class.equals(method.getReturnType());
+      if (returnsFuture) {
+        // the other properties describe the value the future is completed with
+        resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+            ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+      }
       if (resolvedReturnType instanceof Class<?>) {
         this.returnType = (Class<?>) resolvedReturnType;
       } else if (resolvedReturnType instanceof ParameterizedType) {
         this.returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
       } else {
-        this.returnType = method.getReturnType();
+        this.returnType = returnsFuture ? Object.class : method.getReturnType();
       }
-      this.returnsVoid = void.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || returnsFuture && Void.class.equals(this.returnType);
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
+      this.returnsStream = Stream.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
       this.mapKey = getMapKey(method);
       this.returnsMap = this.mapKey != null;
@@ -337,10 +369,34 @@ public class MapperMethod {
       return returnsVoid;
     }
 
+    /**
+     * Returns whether the method returns a {@link CompletableFuture}, in which case the statement is run with
+     * {@link SqlSession#executeAsync(java.util.function.Function)} and the other properties of this signature describe
+     * the value the future is completed with.
+     *
+     * @return {@code true} if the method returns a {@link CompletableFuture}
+     *
+     * @since 3.5.20
+     */
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
+
     public boolean returnsCursor() {
       return returnsCursor;
     }
 
+    /**
+     * Returns whether the method returns a {@link Stream}, which is read from a cursor and closes it when closed.
+     *
+     * @return {@code true} if the method returns a {@link Stream}
+     *
+     * @since 3.5.20
+     */
+    public boolean returnsStream() {
+      return returnsStream;
+    }
+
     /**
      * return whether return type is {@code java.util.Optional}.
      *
@@ -373,7 +429,7 @@ public class MapperMethod {
 
     private String getMapKey(Method method) {
       String mapKey = null;
-      if (Map.class.isAssignableFrom(method.getReturnType())) {
+      if (Map.class.isAssignableFrom(returnType)) {
         final MapKey mapKeyAnnotation = method.getAnnotation(MapKey.class);
         if (mapKeyAnnotation != null) {
           mapKey = mapKeyAnnotation.value();
@@ -21,6 +21,9 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.binding.MapperProxy.MapperMethodInvoker;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 
 /**
@@ -28,8 +31,12 @@ import org.apache.ibatis.session.SqlSession;
  */
 public class MapperProxyFactory<T> {
 
+  private static final Log log = LogFactory.getLog(MapperProxyFactory.class);
+
   private final Class<T> mapperInterface;
   private final Map<Method, MapperMethodInvoker> methodCache = new ConcurrentHashMap<>();
+  private volatile GeneratedMapperClass<T> generatedMapperClass;
+  private volatile boolean mapperClassGenerationFailed;
 
   public MapperProxyFactory(Class<T> mapperInterface) {
     this.mapperInterface = mapperInterface;
@@ -52,8 +59,36 @@ public class MapperProxyFactory<T> {
    * 调试时发现，sqlSession类型为 SqlSessionTemplate , 某一次调试，可能还有其他场景
    */
   public T newInstance(SqlSession sqlSession) {
+    Configuration configuration = sqlSession.getConfiguration();
+    if (configuration != null && configuration.isMapperClassGenerationEnabled()) {
+      GeneratedMapperClass<T> mapperClass = getGeneratedMapperClass(configuration);
+      if (mapperClass != null) {
+        return mapperClass.newInstance(sqlSession);
+      }
+    }
     final MapperProxy<T> mapperProxy = new MapperProxy<>(sqlSession, mapperInterface, methodCache);
     return newInstance(mapperProxy);
   }
 
+  private GeneratedMapperClass<T> getGeneratedMapperClass(Configuration configuration) {
+    GeneratedMapperClass<T> mapperClass = generatedMapperClass;
+    if (mapperClass == null && !mapperClassGenerationFailed) {
+      synchronized (this) {
+        mapperClass = generatedMapperClass;
+        if (mapperClass == null && !mapperClassGenerationFailed) {
+          try {
+            mapperClass = GeneratedMapperClass.generate(mapperInterface, configuration);
+            generatedMapperClass = mapperClass;
+          } catch (RuntimeException | LinkageError e) {
+            // e.g. Javassist is not on the classpath, proxies keep working without it
+            mapperClassGenerationFailed = true;
+            log.warn("Cannot generate a class for mapper " + mapperInterface.getName()
+                + ", falling back to a proxy. Cause: " + e);
+          }
+        }
+      }
+    }
+    return mapperClass;
+  }
+
 }
@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A mapped statement whose building is deferred until it is first looked up.
+ *
+ * @since 3.5.20
+ *
+ * @see Configuration#setLazyStatementBuildingEnabled(boolean)
+ */
+public class LazyStatementResolver {
+  private final String id;
+  private final String resource;
+  private final Runnable builder;
+
+  public LazyStatementResolver(String id, String resource, Runnable builder) {
+    this.id = id;
+    this.resource = resource;
+    this.builder = builder;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public void resolve() {
+    try {
+      builder.run();
+    } catch (RuntimeException e) {
+      throw new BuilderException("Error building mapped statement '" + id + "' of '" + resource + "'. Cause: " + e, e);
+    }
+  }
+}
@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -62,6 +63,7 @@ import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
+import org.apache.ibatis.builder.LazyStatementResolver;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.cursor.Cursor;
@@ -127,6 +129,10 @@ public class MapperAnnotationBuilder {
             && method.getAnnotation(ResultMap.class) == null) {
           parseResultMap(method);
         }
+        if (configuration.isLazyStatementBuildingEnabled()) {
+          parseStatementLazily(method);
+          continue;
+        }
         try {
           parseStatement(method);
         } catch (IncompleteElementException e) {
@@ -279,6 +285,13 @@ public class MapperAnnotationBuilder {
     return null;
   }
 
+  private void parseStatementLazily(Method method) {
+    if (getAnnotationWrapper(method, true, statementAnnotationTypes).isPresent()) {
+      configuration.addLazyStatement(new LazyStatementResolver(type.getName() + "." + method.getName(),
+          assistant.getResource(), () -> parseStatement(method)));
+    }
+  }
+
   void parseStatement(Method method) {
     final Class<?> parameterTypeClass = getParameterType(method);
     final LanguageDriver languageDriver = getLanguageDriver(method);
@@ -385,6 +398,16 @@ public class MapperAnnotationBuilder {
   private static Class<?> getReturnType(Method method, Class<?> type) {
     Class<?> returnType = method.getReturnType();
     Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, type);
+    if (CompletableFuture.class.equals(returnType)) {
+      // map the value the future is completed with
+      returnType = Object.class;
+      if (resolvedReturnType instanceof ParameterizedType) {
+        resolvedReturnType = ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0];
+      }
+      if (Void.class.equals(resolvedReturnType)) {
+        resolvedReturnType = void.class;
+      }
+    }
     if (resolvedReturnType instanceof Class) {
       returnType = (Class<?>) resolvedReturnType;
       if (returnType.isArray()) {
@@ -400,7 +423,8 @@ public class MapperAnnotationBuilder {
     } else if (resolvedReturnType instanceof ParameterizedType) {
       ParameterizedType parameterizedType = (ParameterizedType) resolvedReturnType;
       Class<?> rawType = (Class<?>) parameterizedType.getRawType();
-      if (Collection.class.isAssignableFrom(rawType) || Cursor.class.isAssignableFrom(rawType)) {
+      if (Collection.class.isAssignableFrom(rawType) || Cursor.class.isAssignableFrom(rawType)
+          || Stream.class.equals(rawType)) {
         Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
         if (actualTypeArguments != null && actualTypeArguments.length == 1) {
           Type returnTypeParameter = actualTypeArguments[0];
@@ -454,7 +478,8 @@ public class MapperAnnotationBuilder {
           result.jdbcType() == JdbcType.UNDEFINED ? null : result.jdbcType(),
           hasNestedSelect(result) ? nestedSelectId(result) : null,
           hasNestedResultMap ? nestedResultMapId(result) : null, null,
-          hasNestedResultMap ? findColumnPrefix(result) : null, typeHandler, flags, null, null, isLazy(result));
+          hasNestedResultMap ? findColumnPrefix(result) : null, typeHandler, flags, null, null, isLazy(result),
+          isBatch(result));
       resultMappings.add(resultMapping);
     }
   }
@@ -506,6 +531,11 @@ public class MapperAnnotationBuilder {
     return isLazy;
   }
 
+  private boolean isBatch(Result result) {
+    return result.one().select().length() > 0 && result.one().fetchType() == FetchType.BATCH
+        || result.many().select().length() > 0 && result.many().fetchType() == FetchType.BATCH;
+  }
+
   private boolean hasNestedSelect(Result result) {
     if (result.one().select().length() > 0 && result.many().select().length() > 0) {
       throw new BuilderException("Cannot use both @One and @Many annotations in the same @Result");
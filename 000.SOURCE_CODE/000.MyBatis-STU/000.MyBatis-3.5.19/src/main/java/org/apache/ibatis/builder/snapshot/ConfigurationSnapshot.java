@@ -0,0 +1,356 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.io.ClassIndex;
+import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * A precompiled snapshot of the mappers of a configuration file.
+ * <p>
+ * A snapshot holds the resolved mapper model of a configuration: its caches, parameter maps, result maps, mapped
+ * statements with their SQL node trees and parameter mappings, key generators and mapper types. It is created at build
+ * time, for instance by running this class as a program on the class path of the application:
+ *
+ * <pre>
+ * java org.apache.ibatis.builder.snapshot.ConfigurationSnapshot mybatis-config.xml target/classes/mybatis.snapshot
+ * </pre>
+ * <p>
+ * and passed to {@link SqlSessionFactoryBuilder#build(Reader, String, Properties, ConfigurationSnapshot)} at run time.
+ * The configuration file itself is still parsed, but its {@code <mappers>} are registered from the snapshot instead of
+ * being parsed when the snapshot is current: when the configuration file, the variables, the database id, the mapper
+ * files and the classes they refer to have the same checksums as when it was created, and the packages of mappers
+ * contain no new mapper. Otherwise the mappers are parsed as usual.
+ * <p>
+ * A snapshot can only be created when every SQL source, SQL node, key generator and cache comes from a mapper file or
+ * from mapper annotations. The {@code <sql>} fragments are not part of it, so mappers added to a restored
+ * configuration cannot include the fragments of the restored ones. Statements without dynamic SQL are restored with a
+ * {@link org.apache.ibatis.builder.StaticSqlSource}.
+ *
+ * @since 3.5.20
+ */
+public final class ConfigurationSnapshot {
+
+  private static final Log log = LogFactory.getLog(ConfigurationSnapshot.class);
+
+  private static final int MAGIC = 0x4D594253;
+  private static final byte VERSION = 1;
+  static final String CLASS_PREFIX = "class:";
+
+  private final long configChecksum;
+  private final long variablesChecksum;
+  private final String databaseId;
+  private final Map<String, Long> checksums;
+  private final Set<String> mapperTypes;
+  private final byte[] model;
+
+  private ConfigurationSnapshot(long configChecksum, long variablesChecksum, String databaseId,
+      Map<String, Long> checksums, Set<String> mapperTypes, byte[] model) {
+    this.configChecksum = configChecksum;
+    this.variablesChecksum = variablesChecksum;
+    this.databaseId = databaseId;
+    this.checksums = checksums;
+    this.mapperTypes = mapperTypes;
+    this.model = model;
+  }
+
+  /**
+   * Creates a snapshot of a configuration file, parsing it and its mappers.
+   *
+   * @param reader
+   *          the configuration file
+   * @param environment
+   *          the environment to use, or {@code null} for the default one
+   * @param properties
+   *          the variables, or {@code null}
+   *
+   * @return the snapshot
+   */
+  public static ConfigurationSnapshot create(Reader reader, String environment, Properties properties) {
+    String configXml = readConfig(reader);
+    Configuration configuration = new XMLConfigBuilder(new StringReader(configXml), environment, properties).parse();
+    // reports the elements that could not be resolved
+    configuration.getMappedStatementNames();
+    try {
+      ByteArrayOutputStream model = new ByteArrayOutputStream();
+      SnapshotWriter writer = new SnapshotWriter(configuration, new DataOutputStream(model));
+      writer.write();
+      Map<String, Long> checksums = new LinkedHashMap<>();
+      for (String resource : writer.getResources()) {
+        checksums.put(resource, checksum(resource));
+      }
+      Set<String> mapperTypes = new HashSet<>();
+      for (Class<?> mapperType : configuration.getMapperRegistry().getMappers()) {
+        mapperTypes.add(mapperType.getName());
+      }
+      return new ConfigurationSnapshot(checksumText(configXml), checksum(configuration.getVariables()),
+          configuration.getDatabaseId(), checksums, mapperTypes, model.toByteArray());
+    } catch (IOException e) {
+      throw new BuilderException("Error creating the configuration snapshot. Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write(OutputStream)}.
+   *
+   * @param inputStream
+   *          the input stream, which is not closed
+   *
+   * @return the snapshot
+   *
+   * @throws IOException
+   *           if the stream cannot be read or does not contain a snapshot of this version
+   */
+  public static ConfigurationSnapshot read(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(inputStream);
+    if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+      throw new IOException("Not a configuration snapshot of version " + VERSION);
+    }
+    long configChecksum = in.readLong();
+    long variablesChecksum = in.readLong();
+    String databaseId = in.readBoolean() ? in.readUTF() : null;
+    int count = in.readInt();
+    Map<String, Long> checksums = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      checksums.put(in.readUTF(), in.readLong());
+    }
+    count = in.readInt();
+    Set<String> mapperTypes = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      mapperTypes.add(in.readUTF());
+    }
+    byte[] model = new byte[in.readInt()];
+    in.readFully(model);
+    return new ConfigurationSnapshot(configChecksum, variablesChecksum, databaseId, checksums, mapperTypes, model);
+  }
+
+  /**
+   * Writes this snapshot.
+   *
+   * @param outputStream
+   *          the output stream, which is flushed but not closed
+   *
+   * @throws IOException
+   *           if the stream cannot be written
+   */
+  public void write(OutputStream outputStream) throws IOException {
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeLong(configChecksum);
+    out.writeLong(variablesChecksum);
+    out.writeBoolean(databaseId != null);
+    if (databaseId != null) {
+      out.writeUTF(databaseId);
+    }
+    out.writeInt(checksums.size());
+    for (Map.Entry<String, Long> entry : checksums.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeLong(entry.getValue());
+    }
+    out.writeInt(mapperTypes.size());
+    for (String mapperType : mapperTypes) {
+      out.writeUTF(mapperType);
+    }
+    out.writeInt(model.length);
+    out.write(model);
+    out.flush();
+  }
+
+  /**
+   * Registers the mappers of this snapshot if it is current for a configuration file.
+   *
+   * @param configuration
+   *          the configuration, whose settings, type aliases, type handlers and database id are already set
+   * @param configXml
+   *          the content of the configuration file
+   * @param mappers
+   *          the {@code <mappers>} element of the configuration file, or {@code null}
+   *
+   * @return {@code true} if the mappers were registered, {@code false} if they must be parsed because the snapshot is
+   *         stale
+   */
+  public boolean restore(Configuration configuration, String configXml, XNode mappers) {
+    String staleness = findStaleness(configuration, configXml, mappers);
+    if (staleness != null) {
+      if (log.isDebugEnabled()) {
+        log.debug("The configuration snapshot is stale, parsing the mappers: " + staleness);
+      }
+      return false;
+    }
+    try {
+      new SnapshotReader(configuration, new DataInputStream(new ByteArrayInputStream(model))).read();
+    } catch (IOException | ClassNotFoundException e) {
+      throw new BuilderException("Error restoring the configuration snapshot. Cause: " + e, e);
+    }
+    return true;
+  }
+
+  private String findStaleness(Configuration configuration, String configXml, XNode mappers) {
+    if (configChecksum != checksumText(configXml)) {
+      return "the configuration file changed";
+    }
+    if (variablesChecksum != checksum(configuration.getVariables())) {
+      return "the variables changed";
+    }
+    if (!Objects.equals(databaseId, configuration.getDatabaseId())) {
+      return "the database id changed";
+    }
+    for (Map.Entry<String, Long> entry : checksums.entrySet()) {
+      long checksum;
+      try {
+        checksum = checksum(entry.getKey());
+      } catch (IOException e) {
+        return "cannot read " + entry.getKey();
+      }
+      if (checksum != entry.getValue()) {
+        return entry.getKey() + " changed";
+      }
+    }
+    if (mappers != null) {
+      for (XNode child : mappers.getChildren()) {
+        if ("package".equals(child.getName())) {
+          ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
+          resolverUtil.find(new ResolverUtil.IsA(Object.class), child.getStringAttribute("name"),
+              ClassIndex.Kind.INTERFACE);
+          for (Class<?> type : resolverUtil.getClasses()) {
+            if (type.isInterface() && !mapperTypes.contains(type.getName())) {
+              return "the mapper " + type.getName() + " was added";
+            }
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  static boolean isUrl(String resource) {
+    try {
+      new URL(resource);
+      return true;
+    } catch (MalformedURLException e) {
+      return false;
+    }
+  }
+
+  static InputStream openResource(String resource) throws IOException {
+    return isUrl(resource) ? Resources.getUrlAsStream(resource) : Resources.getResourceAsStream(resource);
+  }
+
+  private static long checksum(String resource) throws IOException {
+    String path = resource.startsWith(CLASS_PREFIX)
+        ? resource.substring(CLASS_PREFIX.length()).replace('.', '/') + ".class" : resource;
+    CRC32 crc = new CRC32();
+    byte[] buffer = new byte[8192];
+    try (InputStream in = openResource(path)) {
+      for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+        crc.update(buffer, 0, n);
+      }
+    }
+    return crc.getValue();
+  }
+
+  private static long checksum(Properties variables) {
+    StringBuilder text = new StringBuilder();
+    if (variables != null) {
+      for (Map.Entry<Object, Object> entry : new TreeMap<>(variables).entrySet()) {
+        text.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+      }
+    }
+    return checksumText(text.toString());
+  }
+
+  private static long checksumText(String text) {
+    CRC32 crc = new CRC32();
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    crc.update(bytes, 0, bytes.length);
+    return crc.getValue();
+  }
+
+  /**
+   * Reads a configuration file, so that its checksum can be compared with the one of a snapshot.
+   *
+   * @param reader
+   *          the configuration file, which is closed
+   *
+   * @return the content of the configuration file
+   */
+  public static String readConfig(Reader reader) {
+    StringBuilder configXml = new StringBuilder();
+    char[] buffer = new char[8192];
+    try (Reader in = reader) {
+      for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+        configXml.append(buffer, 0, n);
+      }
+    } catch (IOException e) {
+      throw new BuilderException("Error reading the SQL Mapper Configuration. Cause: " + e, e);
+    }
+    return configXml.toString();
+  }
+
+  /**
+   * Creates a snapshot of a configuration file at build time.
+   *
+   * @param args
+   *          the class path resource of the configuration file, the file to write the snapshot to, and optionally the
+   *          environment
+   *
+   * @throws IOException
+   *           if the configuration file cannot be read or the snapshot cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      throw new IllegalArgumentException("Usage: " + ConfigurationSnapshot.class.getName()
+          + " <configuration resource> <snapshot file> [environment]");
+    }
+    ConfigurationSnapshot snapshot = create(Resources.getResourceAsReader(args[0]), args.length > 2 ? args[2] : null,
+        null);
+    try (OutputStream out = new FileOutputStream(args[1])) {
+      snapshot.write(out);
+    }
+  }
+
+}
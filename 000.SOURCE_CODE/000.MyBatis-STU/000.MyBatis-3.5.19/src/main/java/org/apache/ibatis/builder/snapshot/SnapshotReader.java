@@ -0,0 +1,463 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.annotations.DeleteProvider;
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.SelectProvider;
+import org.apache.ibatis.annotations.UpdateProvider;
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.builder.annotation.ProviderSqlSource;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
+import org.apache.ibatis.scripting.xmltags.IfSqlNode;
+import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
+import org.apache.ibatis.scripting.xmltags.SetSqlNode;
+import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TrimSqlNode;
+import org.apache.ibatis.scripting.xmltags.VarDeclSqlNode;
+import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Registers the mapper model written by {@link SnapshotWriter} in a configuration, rebuilding each element with the
+ * builders the mapper parsers use.
+ */
+final class SnapshotReader {
+
+  private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+  static {
+    for (Class<?> type : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class, long.class,
+        float.class, double.class, void.class }) {
+      PRIMITIVE_TYPES.put(type.getName(), type);
+    }
+  }
+
+  private final Configuration configuration;
+  private final DataInputStream in;
+  private final List<String> strings = new ArrayList<>();
+
+  SnapshotReader(Configuration configuration, DataInputStream in) {
+    this.configuration = configuration;
+    this.in = in;
+  }
+
+  void read() throws IOException, ClassNotFoundException {
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      configuration.addLoadedResource(readString());
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      readCache();
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      configuration.addParameterMap(readParameterMap());
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      configuration.addResultMap(readResultMap());
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      MappedStatement keyStatement = readStatement();
+      configuration.addMappedStatement(keyStatement);
+      configuration.addKeyGenerator(keyStatement.getId(), new SelectKeyGenerator(keyStatement, in.readBoolean()));
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      configuration.addMappedStatement(readStatement());
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      // the type is a loaded resource, so its annotations are not parsed again
+      configuration.addMapper(readClass());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readCache() throws IOException, ClassNotFoundException {
+    String id = readString();
+    Class<? extends Cache> type = (Class<? extends Cache>) readClass();
+    Class<? extends Cache> eviction = (Class<? extends Cache>) readClass();
+    Long flushInterval = readLong();
+    Integer size = readInteger();
+    boolean readWrite = in.readBoolean();
+    boolean blocking = in.readBoolean();
+    Properties properties = readProperties();
+    MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, null);
+    assistant.setCurrentNamespace(id);
+    assistant.useNewCache(type, eviction, flushInterval, size, readWrite, blocking, properties);
+  }
+
+  private ParameterMap readParameterMap() throws IOException, ClassNotFoundException {
+    String id = readString();
+    Class<?> type = readClass();
+    return new ParameterMap.Builder(configuration, id, type, readParameterMappings()).build();
+  }
+
+  private List<ParameterMapping> readParameterMappings() throws IOException, ClassNotFoundException {
+    int count = in.readInt();
+    List<ParameterMapping> parameterMappings = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String property = readString();
+      ParameterMode mode = readEnum(ParameterMode.class);
+      Class<?> javaType = readClass();
+      JdbcType jdbcType = readEnum(JdbcType.class);
+      Integer numericScale = readInteger();
+      TypeHandler<?> typeHandler = readTypeHandler(javaType, jdbcType);
+      parameterMappings.add(new ParameterMapping.Builder(configuration, property, javaType).mode(mode)
+          .jdbcType(jdbcType).numericScale(numericScale).typeHandler(typeHandler).resultMapId(readString())
+          .jdbcTypeName(readString()).expression(readString()).build());
+    }
+    return parameterMappings;
+  }
+
+  private ResultMap readResultMap() throws IOException, ClassNotFoundException {
+    String id = readString();
+    Class<?> type = readClass();
+    Boolean autoMapping = readBoolean();
+    boolean hasNestedResultMaps = in.readBoolean();
+    List<ResultMapping> resultMappings = readResultMappings();
+    Discriminator discriminator = null;
+    if (in.readBoolean()) {
+      ResultMapping resultMapping = readResultMapping();
+      int count = in.readInt();
+      Map<String, String> discriminatorMap = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        discriminatorMap.put(readString(), readString());
+      }
+      discriminator = new Discriminator.Builder(configuration, resultMapping, discriminatorMap).build();
+    }
+    ResultMap resultMap = new ResultMap.Builder(configuration, id, type, resultMappings, autoMapping)
+        .discriminator(discriminator).build();
+    if (hasNestedResultMaps) {
+      // may have been forced by a discriminated result map
+      resultMap.forceNestedResultMaps();
+    }
+    return resultMap;
+  }
+
+  private List<ResultMapping> readResultMappings() throws IOException, ClassNotFoundException {
+    int count = in.readInt();
+    List<ResultMapping> resultMappings = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      resultMappings.add(readResultMapping());
+    }
+    return resultMappings;
+  }
+
+  private ResultMapping readResultMapping() throws IOException, ClassNotFoundException {
+    ResultMapping.Builder builder = new ResultMapping.Builder(configuration, readString());
+    builder.column(readString());
+    Class<?> javaType = readClass();
+    JdbcType jdbcType = readEnum(JdbcType.class);
+    builder.javaType(javaType).jdbcType(jdbcType).typeHandler(readTypeHandler(javaType, jdbcType));
+    builder.nestedResultMapId(readString()).nestedQueryId(readString());
+    int count = in.readInt();
+    if (count >= 0) {
+      Set<String> notNullColumns = new HashSet<>();
+      for (int i = 0; i < count; i++) {
+        notNullColumns.add(readString());
+      }
+      builder.notNullColumns(notNullColumns);
+    }
+    builder.columnPrefix(readString());
+    count = in.readInt();
+    List<ResultFlag> flags = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      flags.add(readEnum(ResultFlag.class));
+    }
+    builder.flags(flags).composites(readResultMappings()).resultSet(readString()).foreignColumn(readString());
+    return builder.lazy(in.readBoolean()).batch(in.readBoolean()).build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private MappedStatement readStatement() throws IOException, ClassNotFoundException {
+    String id = readString();
+    String resource = readString();
+    SqlCommandType sqlCommandType = readEnum(SqlCommandType.class);
+    SqlSource sqlSource = readSqlSource();
+    MappedStatement.Builder builder = new MappedStatement.Builder(configuration, id, sqlSource, sqlCommandType)
+        .resource(resource);
+    builder.fetchSize(readInteger()).timeout(readInteger());
+    builder.statementType(readEnum(StatementType.class)).resultSetType(readEnum(ResultSetType.class));
+    String cacheId = readString();
+    builder.cache(cacheId == null ? null : configuration.getCache(cacheId));
+    builder.parameterMap(
+        in.readByte() == SnapshotWriter.REGISTERED ? configuration.getParameterMap(readString()) : readParameterMap());
+    int count = in.readInt();
+    List<ResultMap> resultMaps = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      resultMaps
+          .add(in.readByte() == SnapshotWriter.REGISTERED ? configuration.getResultMap(readString()) : readResultMap());
+    }
+    builder.resultMaps(resultMaps);
+    builder.flushCacheRequired(in.readBoolean()).useCache(in.readBoolean()).resultOrdered(in.readBoolean());
+    byte keyGenerator = in.readByte();
+    if (keyGenerator == SnapshotWriter.NO_KEY) {
+      builder.keyGenerator(NoKeyGenerator.INSTANCE);
+    } else if (keyGenerator == SnapshotWriter.JDBC3_KEY) {
+      builder.keyGenerator(Jdbc3KeyGenerator.INSTANCE);
+    } else if (keyGenerator == SnapshotWriter.SELECT_KEY) {
+      builder.keyGenerator(configuration.getKeyGenerator(readString()));
+    } else {
+      throw corrupted(keyGenerator);
+    }
+    builder.keyProperty(readString()).keyColumn(readString()).databaseId(readString());
+    builder.lang(configuration.getLanguageDriver((Class<? extends LanguageDriver>) readClass()));
+    builder.resultSets(readString()).dirtySelect(in.readBoolean()).tables(readString());
+    return builder.build();
+  }
+
+  private SqlSource readSqlSource() throws IOException, ClassNotFoundException {
+    byte tag = in.readByte();
+    if (tag == SnapshotWriter.STATIC_SQL) {
+      String sql = readString();
+      return new StaticSqlSource(configuration, sql, readParameterMappings());
+    }
+    if (tag == SnapshotWriter.DYNAMIC_SQL) {
+      return new DynamicSqlSource(configuration, readSqlNode());
+    }
+    if (tag == SnapshotWriter.PROVIDER_SQL) {
+      Class<?> mapperType = Resources.classForName(readString());
+      String methodName = readString();
+      for (Method method : mapperType.getMethods()) {
+        if (method.getName().equals(methodName) && !method.isBridge() && !method.isDefault()) {
+          Annotation provider = findProvider(method);
+          if (provider != null) {
+            return new ProviderSqlSource(configuration, provider, mapperType, method);
+          }
+        }
+      }
+      throw new BuilderException("Cannot find the SQL provider of " + mapperType.getName() + "." + methodName);
+    }
+    throw corrupted(tag);
+  }
+
+  /**
+   * Selects the provider annotation the way MapperAnnotationBuilder does: the one of the current database id, or else
+   * the one without a database id.
+   */
+  private Annotation findProvider(Method method) {
+    Annotation defaultProvider = null;
+    List<Annotation> providers = new ArrayList<>();
+    providers.addAll(Arrays.asList(method.getAnnotationsByType(SelectProvider.class)));
+    providers.addAll(Arrays.asList(method.getAnnotationsByType(InsertProvider.class)));
+    providers.addAll(Arrays.asList(method.getAnnotationsByType(UpdateProvider.class)));
+    providers.addAll(Arrays.asList(method.getAnnotationsByType(DeleteProvider.class)));
+    for (Annotation provider : providers) {
+      String databaseId = provider instanceof SelectProvider ? ((SelectProvider) provider).databaseId()
+          : provider instanceof InsertProvider ? ((InsertProvider) provider).databaseId()
+              : provider instanceof UpdateProvider ? ((UpdateProvider) provider).databaseId()
+                  : ((DeleteProvider) provider).databaseId();
+      if (databaseId.equals(configuration.getDatabaseId())) {
+        return provider;
+      }
+      if (databaseId.isEmpty()) {
+        defaultProvider = provider;
+      }
+    }
+    return defaultProvider;
+  }
+
+  private List<SqlNode> readSqlNodes() throws IOException {
+    int count = in.readInt();
+    List<SqlNode> nodes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      nodes.add(readSqlNode());
+    }
+    return nodes;
+  }
+
+  private SqlNode readSqlNode() throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case SnapshotWriter.NULL:
+        return null;
+      case SnapshotWriter.MIXED_NODE:
+        return new MixedSqlNode(readSqlNodes());
+      case SnapshotWriter.STATIC_TEXT_NODE:
+        return new StaticTextSqlNode(readString());
+      case SnapshotWriter.TEXT_NODE: {
+        String text = readString();
+        String injectionFilter = readString();
+        int flags = in.readInt();
+        return new TextSqlNode(text, injectionFilter == null ? null : Pattern.compile(injectionFilter, flags));
+      }
+      case SnapshotWriter.IF_NODE: {
+        String test = readString();
+        return new IfSqlNode(readSqlNode(), test);
+      }
+      case SnapshotWriter.CHOOSE_NODE: {
+        List<SqlNode> ifSqlNodes = readSqlNodes();
+        return new ChooseSqlNode(ifSqlNodes, readSqlNode());
+      }
+      case SnapshotWriter.WHERE_NODE:
+        return new WhereSqlNode(configuration, readSqlNode());
+      case SnapshotWriter.SET_NODE:
+        return new SetSqlNode(configuration, readSqlNode());
+      case SnapshotWriter.TRIM_NODE: {
+        SqlNode contents = readSqlNode();
+        String prefix = readString();
+        String prefixesToOverride = readString();
+        String suffix = readString();
+        return new TrimSqlNode(configuration, contents, prefix, prefixesToOverride, suffix, readString());
+      }
+      case SnapshotWriter.FOREACH_NODE: {
+        SqlNode contents = readSqlNode();
+        String collection = readString();
+        Boolean nullable = readBoolean();
+        String index = readString();
+        String item = readString();
+        String open = readString();
+        String close = readString();
+        return new ForEachSqlNode(configuration, contents, collection, nullable, index, item, open, close,
+            readString());
+      }
+      case SnapshotWriter.BIND_NODE: {
+        String name = readString();
+        return new VarDeclSqlNode(name, readString());
+      }
+      default:
+        throw corrupted(tag);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private TypeHandler<?> readTypeHandler(Class<?> javaType, JdbcType jdbcType)
+      throws IOException, ClassNotFoundException {
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    byte tag = in.readByte();
+    switch (tag) {
+      case SnapshotWriter.NULL:
+        return null;
+      case SnapshotWriter.UNKNOWN_HANDLER:
+        return registry.getUnknownTypeHandler();
+      case SnapshotWriter.REGISTERED_HANDLER:
+        return registry.getTypeHandler(javaType, jdbcType);
+      case SnapshotWriter.MAPPING_HANDLER:
+        return registry.getMappingTypeHandler((Class<? extends TypeHandler<?>>) readClass());
+      case SnapshotWriter.NEW_HANDLER:
+        return registry.getInstance(javaType, readClass());
+      default:
+        throw corrupted(tag);
+    }
+  }
+
+  private static IOException corrupted(byte tag) {
+    return new IOException("Corrupted configuration snapshot: unexpected tag " + tag);
+  }
+
+  private Class<?> readClass() throws IOException, ClassNotFoundException {
+    String name = readString();
+    if (name == null) {
+      return null;
+    }
+    Class<?> primitiveType = PRIMITIVE_TYPES.get(name);
+    return primitiveType != null ? primitiveType : Resources.classForName(name);
+  }
+
+  private <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+    String name = readString();
+    return name == null ? null : Enum.valueOf(type, name);
+  }
+
+  private Boolean readBoolean() throws IOException {
+    byte value = in.readByte();
+    return value == SnapshotWriter.NULL ? null : value == 1;
+  }
+
+  private Integer readInteger() throws IOException {
+    return in.readBoolean() ? in.readInt() : null;
+  }
+
+  private Long readLong() throws IOException {
+    return in.readBoolean() ? in.readLong() : null;
+  }
+
+  private Properties readProperties() throws IOException {
+    int count = in.readInt();
+    if (count < 0) {
+      return null;
+    }
+    Properties properties = new Properties();
+    for (int i = 0; i < count; i++) {
+      properties.setProperty(readString(), readString());
+    }
+    return properties;
+  }
+
+  private String readString() throws IOException {
+    int index = in.readInt();
+    if (index == SnapshotWriter.NULL_STRING) {
+      return null;
+    }
+    if (index != SnapshotWriter.NEW_STRING) {
+      return strings.get(index);
+    }
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    String value = new String(bytes, StandardCharsets.UTF_8);
+    strings.add(value);
+    return value;
+  }
+
+}
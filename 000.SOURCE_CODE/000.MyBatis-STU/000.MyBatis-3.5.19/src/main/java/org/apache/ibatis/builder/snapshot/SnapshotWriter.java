@@ -0,0 +1,584 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Property;
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.builder.annotation.ProviderSqlSource;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.PropertyParser;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
+import org.apache.ibatis.scripting.xmltags.IfSqlNode;
+import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
+import org.apache.ibatis.scripting.xmltags.SetSqlNode;
+import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TrimSqlNode;
+import org.apache.ibatis.scripting.xmltags.VarDeclSqlNode;
+import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Writes the mapper model of a configuration for a {@link ConfigurationSnapshot}. Strings are written once and then
+ * referred to by their index; the model is read back by {@link SnapshotReader} in the same order.
+ */
+final class SnapshotWriter {
+
+  static final int NULL_STRING = -1;
+  static final int NEW_STRING = -2;
+
+  static final byte NULL = 0;
+
+  static final byte STATIC_SQL = 1;
+  static final byte DYNAMIC_SQL = 2;
+  static final byte PROVIDER_SQL = 3;
+
+  static final byte MIXED_NODE = 1;
+  static final byte STATIC_TEXT_NODE = 2;
+  static final byte TEXT_NODE = 3;
+  static final byte IF_NODE = 4;
+  static final byte CHOOSE_NODE = 5;
+  static final byte WHERE_NODE = 6;
+  static final byte SET_NODE = 7;
+  static final byte TRIM_NODE = 8;
+  static final byte FOREACH_NODE = 9;
+  static final byte BIND_NODE = 10;
+
+  static final byte NO_KEY = 1;
+  static final byte JDBC3_KEY = 2;
+  static final byte SELECT_KEY = 3;
+
+  static final byte REGISTERED = 1;
+  static final byte INLINE = 2;
+
+  static final byte UNKNOWN_HANDLER = 1;
+  static final byte REGISTERED_HANDLER = 2;
+  static final byte MAPPING_HANDLER = 3;
+  static final byte NEW_HANDLER = 4;
+
+  private final Configuration configuration;
+  private final DataOutputStream out;
+  private final Map<String, Integer> strings = new HashMap<>();
+  private final Set<String> resources = new LinkedHashSet<>();
+  private final Set<Object> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+  private String statementId;
+
+  SnapshotWriter(Configuration configuration, DataOutputStream out) {
+    this.configuration = configuration;
+    this.out = out;
+  }
+
+  /**
+   * Returns the mapper files and the classes the model refers to, the latter prefixed with
+   * {@link ConfigurationSnapshot#CLASS_PREFIX}.
+   */
+  Set<String> getResources() {
+    return resources;
+  }
+
+  void write() throws IOException {
+    List<String> loadedResources = new ArrayList<>(configuration.getLoadedResources());
+    Collections.sort(loadedResources);
+    out.writeInt(loadedResources.size());
+    for (String resource : loadedResources) {
+      writeString(resource);
+      if (!resource.startsWith("namespace:") && !resource.startsWith("interface ")) {
+        resources.add(resource);
+      }
+    }
+    writeCaches();
+    List<ParameterMap> parameterMaps = distinct(configuration.getParameterMapNames(), configuration::getParameterMap,
+        ParameterMap::getId);
+    registered.addAll(parameterMaps);
+    out.writeInt(parameterMaps.size());
+    for (ParameterMap parameterMap : parameterMaps) {
+      writeParameterMap(parameterMap);
+    }
+    List<ResultMap> resultMaps = distinct(configuration.getResultMapNames(), configuration::getResultMap,
+        ResultMap::getId);
+    registered.addAll(resultMaps);
+    out.writeInt(resultMaps.size());
+    for (ResultMap resultMap : resultMaps) {
+      writeResultMap(resultMap);
+    }
+    List<SelectKeyGenerator> keyGenerators = new ArrayList<>();
+    for (String name : configuration.getKeyGeneratorNames()) {
+      KeyGenerator keyGenerator;
+      try {
+        keyGenerator = configuration.getKeyGenerator(name);
+      } catch (IllegalArgumentException e) {
+        // an ambiguous short name
+        continue;
+      }
+      if (keyGenerator.getClass() != SelectKeyGenerator.class) {
+        throw new BuilderException(
+            "Cannot snapshot the key generator " + name + " of type " + keyGenerator.getClass().getName());
+      }
+      if (name.equals(((SelectKeyGenerator) keyGenerator).getKeyStatement().getId())) {
+        keyGenerators.add((SelectKeyGenerator) keyGenerator);
+      }
+    }
+    keyGenerators.sort(Comparator.comparing(keyGenerator -> keyGenerator.getKeyStatement().getId()));
+    List<MappedStatement> statements = distinct(configuration.getMappedStatementNames(),
+        id -> configuration.getMappedStatement(id, false), MappedStatement::getId);
+    Set<MappedStatement> keyStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (SelectKeyGenerator keyGenerator : keyGenerators) {
+      keyStatements.add(keyGenerator.getKeyStatement());
+    }
+    statements.removeAll(keyStatements);
+    out.writeInt(keyGenerators.size());
+    for (SelectKeyGenerator keyGenerator : keyGenerators) {
+      writeStatement(keyGenerator.getKeyStatement());
+      out.writeBoolean(keyGenerator.isExecuteBefore());
+    }
+    out.writeInt(statements.size());
+    for (MappedStatement statement : statements) {
+      writeStatement(statement);
+    }
+    List<Class<?>> mapperTypes = new ArrayList<>(configuration.getMapperRegistry().getMappers());
+    mapperTypes.sort(Comparator.comparing(Class::getName));
+    out.writeInt(mapperTypes.size());
+    for (Class<?> mapperType : mapperTypes) {
+      writeClass(mapperType);
+    }
+    out.flush();
+  }
+
+  private static <T> List<T> distinct(Collection<String> names, Function<String, T> lookup,
+      Function<T, String> idFunction) {
+    List<T> values = new ArrayList<>();
+    for (String name : names) {
+      T value;
+      try {
+        value = lookup.apply(name);
+      } catch (IllegalArgumentException e) {
+        // an ambiguous short name
+        continue;
+      }
+      if (name.equals(idFunction.apply(value))) {
+        values.add(value);
+      }
+    }
+    values.sort(Comparator.comparing(idFunction));
+    return values;
+  }
+
+  private void writeCaches() throws IOException {
+    Map<String, Object> definitions = new HashMap<>();
+    for (String resource : resources) {
+      XNode mapper;
+      try (InputStream inputStream = ConfigurationSnapshot.openResource(resource)) {
+        mapper = new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver())
+            .evalNode("/mapper");
+      }
+      XNode cache = mapper.evalNode("cache");
+      if (cache != null) {
+        definitions.put(mapper.getStringAttribute("namespace"), cache);
+      }
+    }
+    for (Class<?> mapperType : configuration.getMapperRegistry().getMappers()) {
+      CacheNamespace cacheNamespace = mapperType.getAnnotation(CacheNamespace.class);
+      if (cacheNamespace != null) {
+        definitions.put(mapperType.getName(), cacheNamespace);
+      }
+    }
+    List<Cache> caches = distinct(configuration.getCacheNames(), configuration::getCache, Cache::getId);
+    out.writeInt(caches.size());
+    for (Cache cache : caches) {
+      Object definition = definitions.get(cache.getId());
+      writeString(cache.getId());
+      if (definition instanceof XNode) {
+        // same defaults as XMLMapperBuilder
+        XNode context = (XNode) definition;
+        writeClass(configuration.getTypeAliasRegistry().resolveAlias(context.getStringAttribute("type", "PERPETUAL")));
+        writeClass(configuration.getTypeAliasRegistry().resolveAlias(context.getStringAttribute("eviction", "LRU")));
+        Long flushInterval = context.getLongAttribute("flushInterval");
+        writeLong(flushInterval);
+        writeInteger(context.getIntAttribute("size"));
+        out.writeBoolean(!context.getBooleanAttribute("readOnly", false));
+        out.writeBoolean(context.getBooleanAttribute("blocking", false));
+        writeProperties(context.getChildrenAsProperties());
+      } else if (definition instanceof CacheNamespace) {
+        // same defaults as MapperAnnotationBuilder
+        CacheNamespace cacheNamespace = (CacheNamespace) definition;
+        writeClass(cacheNamespace.implementation());
+        writeClass(cacheNamespace.eviction());
+        writeLong(cacheNamespace.flushInterval() == 0 ? null : cacheNamespace.flushInterval());
+        writeInteger(cacheNamespace.size() == 0 ? null : cacheNamespace.size());
+        out.writeBoolean(cacheNamespace.readWrite());
+        out.writeBoolean(cacheNamespace.blocking());
+        Properties properties = null;
+        if (cacheNamespace.properties().length > 0) {
+          properties = new Properties();
+          for (Property property : cacheNamespace.properties()) {
+            properties.setProperty(property.name(),
+                PropertyParser.parse(property.value(), configuration.getVariables()));
+          }
+        }
+        writeProperties(properties);
+      } else {
+        throw new BuilderException("Cannot snapshot the cache " + cache.getId()
+            + ", which is not declared by a mapper file or a @CacheNamespace annotation");
+      }
+    }
+  }
+
+  private void writeParameterMap(ParameterMap parameterMap) throws IOException {
+    writeString(parameterMap.getId());
+    writeClass(parameterMap.getType());
+    writeParameterMappings(parameterMap.getParameterMappings());
+  }
+
+  private void writeParameterMappings(List<ParameterMapping> parameterMappings) throws IOException {
+    out.writeInt(parameterMappings.size());
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      writeString(parameterMapping.getProperty());
+      writeEnum(parameterMapping.getMode());
+      writeClass(parameterMapping.getJavaType());
+      writeEnum(parameterMapping.getJdbcType());
+      writeInteger(parameterMapping.getNumericScale());
+      writeTypeHandler(parameterMapping.getTypeHandler(), parameterMapping.getJavaType(),
+          parameterMapping.getJdbcType());
+      writeString(parameterMapping.getResultMapId());
+      writeString(parameterMapping.getJdbcTypeName());
+      writeString(parameterMapping.getExpression());
+    }
+  }
+
+  private void writeResultMap(ResultMap resultMap) throws IOException {
+    writeString(resultMap.getId());
+    writeClass(resultMap.getType());
+    writeBoolean(resultMap.getAutoMapping());
+    out.writeBoolean(resultMap.hasNestedResultMaps());
+    writeResultMappings(resultMap.getResultMappings());
+    Discriminator discriminator = resultMap.getDiscriminator();
+    out.writeBoolean(discriminator != null);
+    if (discriminator != null) {
+      writeResultMapping(discriminator.getResultMapping());
+      out.writeInt(discriminator.getDiscriminatorMap().size());
+      for (Map.Entry<String, String> entry : discriminator.getDiscriminatorMap().entrySet()) {
+        writeString(entry.getKey());
+        writeString(entry.getValue());
+      }
+    }
+  }
+
+  private void writeResultMappings(List<ResultMapping> resultMappings) throws IOException {
+    out.writeInt(resultMappings.size());
+    for (ResultMapping resultMapping : resultMappings) {
+      writeResultMapping(resultMapping);
+    }
+  }
+
+  private void writeResultMapping(ResultMapping resultMapping) throws IOException {
+    writeString(resultMapping.getProperty());
+    writeString(resultMapping.getColumn());
+    writeClass(resultMapping.getJavaType());
+    writeEnum(resultMapping.getJdbcType());
+    writeTypeHandler(resultMapping.getTypeHandler(), resultMapping.getJavaType(), resultMapping.getJdbcType());
+    writeString(resultMapping.getNestedResultMapId());
+    writeString(resultMapping.getNestedQueryId());
+    Set<String> notNullColumns = resultMapping.getNotNullColumns();
+    out.writeInt(notNullColumns == null ? -1 : notNullColumns.size());
+    if (notNullColumns != null) {
+      for (String column : notNullColumns) {
+        writeString(column);
+      }
+    }
+    writeString(resultMapping.getColumnPrefix());
+    out.writeInt(resultMapping.getFlags().size());
+    for (Enum<?> flag : resultMapping.getFlags()) {
+      writeEnum(flag);
+    }
+    writeResultMappings(resultMapping.getComposites());
+    writeString(resultMapping.getResultSet());
+    writeString(resultMapping.getForeignColumn());
+    out.writeBoolean(resultMapping.isLazy());
+    out.writeBoolean(resultMapping.isBatch());
+  }
+
+  private void writeStatement(MappedStatement statement) throws IOException {
+    statementId = statement.getId();
+    writeString(statement.getId());
+    writeString(statement.getResource());
+    writeEnum(statement.getSqlCommandType());
+    writeSqlSource(statement);
+    writeInteger(statement.getFetchSize());
+    writeInteger(statement.getTimeout());
+    writeEnum(statement.getStatementType());
+    writeEnum(statement.getResultSetType());
+    writeString(statement.getCache() == null ? null : statement.getCache().getId());
+    ParameterMap parameterMap = statement.getParameterMap();
+    if (registered.contains(parameterMap)) {
+      out.writeByte(REGISTERED);
+      writeString(parameterMap.getId());
+    } else {
+      out.writeByte(INLINE);
+      writeParameterMap(parameterMap);
+    }
+    out.writeInt(statement.getResultMaps().size());
+    for (ResultMap resultMap : statement.getResultMaps()) {
+      if (registered.contains(resultMap)) {
+        out.writeByte(REGISTERED);
+        writeString(resultMap.getId());
+      } else {
+        out.writeByte(INLINE);
+        writeResultMap(resultMap);
+      }
+    }
+    out.writeBoolean(statement.isFlushCacheRequired());
+    out.writeBoolean(statement.isUseCache());
+    out.writeBoolean(statement.isResultOrdered());
+    KeyGenerator keyGenerator = statement.getKeyGenerator();
+    if (keyGenerator.getClass() == NoKeyGenerator.class) {
+      out.writeByte(NO_KEY);
+    } else if (keyGenerator.getClass() == Jdbc3KeyGenerator.class) {
+      out.writeByte(JDBC3_KEY);
+    } else if (keyGenerator.getClass() == SelectKeyGenerator.class) {
+      out.writeByte(SELECT_KEY);
+      writeString(((SelectKeyGenerator) keyGenerator).getKeyStatement().getId());
+    } else {
+      throw unsupported("key generator", keyGenerator);
+    }
+    writeString(join(",", statement.getKeyProperties()));
+    writeString(join(",", statement.getKeyColumns()));
+    writeString(statement.getDatabaseId());
+    writeClass(statement.getLang().getClass());
+    writeString(join(",", statement.getResultSets()));
+    out.writeBoolean(statement.isDirtySelect());
+    writeString(join(",", statement.getTables()));
+  }
+
+  private void writeSqlSource(MappedStatement statement) throws IOException {
+    SqlSource sqlSource = statement.getSqlSource();
+    Class<?> type = sqlSource.getClass();
+    if (type == DynamicSqlSource.class) {
+      out.writeByte(DYNAMIC_SQL);
+      writeSqlNode(((DynamicSqlSource) sqlSource).getRootSqlNode());
+    } else if (type == RawSqlSource.class || type == StaticSqlSource.class) {
+      out.writeByte(STATIC_SQL);
+      // neither keeps nor needs the parameter object
+      BoundSql boundSql = sqlSource.getBoundSql(null);
+      writeString(boundSql.getSql());
+      writeParameterMappings(boundSql.getParameterMappings());
+    } else if (type == ProviderSqlSource.class) {
+      out.writeByte(PROVIDER_SQL);
+      String id = statement.getId();
+      int dot = id.lastIndexOf('.');
+      writeString(id.substring(0, dot));
+      writeString(id.substring(dot + 1));
+    } else {
+      throw unsupported("SQL source", sqlSource);
+    }
+  }
+
+  private void writeSqlNodes(List<SqlNode> nodes) throws IOException {
+    out.writeInt(nodes.size());
+    for (SqlNode node : nodes) {
+      writeSqlNode(node);
+    }
+  }
+
+  private void writeSqlNode(SqlNode node) throws IOException {
+    Class<?> type = node == null ? null : node.getClass();
+    if (type == null) {
+      out.writeByte(NULL);
+    } else if (type == MixedSqlNode.class) {
+      out.writeByte(MIXED_NODE);
+      writeSqlNodes(((MixedSqlNode) node).getContents());
+    } else if (type == StaticTextSqlNode.class) {
+      out.writeByte(STATIC_TEXT_NODE);
+      writeString(((StaticTextSqlNode) node).getText());
+    } else if (type == TextSqlNode.class) {
+      out.writeByte(TEXT_NODE);
+      writeString(((TextSqlNode) node).getText());
+      Pattern injectionFilter = ((TextSqlNode) node).getInjectionFilter();
+      writeString(injectionFilter == null ? null : injectionFilter.pattern());
+      out.writeInt(injectionFilter == null ? 0 : injectionFilter.flags());
+    } else if (type == IfSqlNode.class) {
+      out.writeByte(IF_NODE);
+      writeString(((IfSqlNode) node).getTest());
+      writeSqlNode(((IfSqlNode) node).getContents());
+    } else if (type == ChooseSqlNode.class) {
+      out.writeByte(CHOOSE_NODE);
+      writeSqlNodes(((ChooseSqlNode) node).getIfSqlNodes());
+      writeSqlNode(((ChooseSqlNode) node).getDefaultSqlNode());
+    } else if (type == WhereSqlNode.class) {
+      out.writeByte(WHERE_NODE);
+      writeSqlNode(((WhereSqlNode) node).getContents());
+    } else if (type == SetSqlNode.class) {
+      out.writeByte(SET_NODE);
+      writeSqlNode(((SetSqlNode) node).getContents());
+    } else if (type == TrimSqlNode.class) {
+      TrimSqlNode trim = (TrimSqlNode) node;
+      out.writeByte(TRIM_NODE);
+      writeSqlNode(trim.getContents());
+      writeString(trim.getPrefix());
+      writeString(String.join("|", trim.getPrefixesToOverride()));
+      writeString(trim.getSuffix());
+      writeString(String.join("|", trim.getSuffixesToOverride()));
+    } else if (type == ForEachSqlNode.class) {
+      ForEachSqlNode forEach = (ForEachSqlNode) node;
+      out.writeByte(FOREACH_NODE);
+      writeSqlNode(forEach.getContents());
+      writeString(forEach.getCollectionExpression());
+      writeBoolean(forEach.getNullable());
+      writeString(forEach.getIndex());
+      writeString(forEach.getItem());
+      writeString(forEach.getOpen());
+      writeString(forEach.getClose());
+      writeString(forEach.getSeparator());
+    } else if (type == VarDeclSqlNode.class) {
+      out.writeByte(BIND_NODE);
+      writeString(((VarDeclSqlNode) node).getName());
+      writeString(((VarDeclSqlNode) node).getExpression());
+    } else {
+      throw unsupported("SQL node", node);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeTypeHandler(TypeHandler<?> typeHandler, Class<?> javaType, JdbcType jdbcType) throws IOException {
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    if (typeHandler == null) {
+      out.writeByte(NULL);
+    } else if (typeHandler == registry.getUnknownTypeHandler()) {
+      out.writeByte(UNKNOWN_HANDLER);
+    } else if (javaType != null && registry.getTypeHandler(javaType, jdbcType) == typeHandler) {
+      out.writeByte(REGISTERED_HANDLER);
+    } else if (registry
+        .getMappingTypeHandler((Class<? extends TypeHandler<?>>) typeHandler.getClass()) == typeHandler) {
+      out.writeByte(MAPPING_HANDLER);
+      writeClass(typeHandler.getClass());
+    } else {
+      out.writeByte(NEW_HANDLER);
+      writeClass(typeHandler.getClass());
+    }
+  }
+
+  private BuilderException unsupported(String kind, Object value) {
+    return new BuilderException(
+        "Cannot snapshot the statement " + statementId + ", whose " + kind + " is a " + value.getClass().getName());
+  }
+
+  private static String join(String delimiter, String[] values) {
+    return values == null ? null : String.join(delimiter, values);
+  }
+
+  private void writeClass(Class<?> type) throws IOException {
+    writeString(type == null ? null : type.getName());
+    Class<?> elementType = type;
+    while (elementType != null && elementType.isArray()) {
+      elementType = elementType.getComponentType();
+    }
+    if (elementType != null && !elementType.isPrimitive() && elementType.getClassLoader() != null) {
+      resources.add(ConfigurationSnapshot.CLASS_PREFIX + elementType.getName());
+    }
+  }
+
+  private void writeEnum(Enum<?> value) throws IOException {
+    writeString(value == null ? null : value.name());
+  }
+
+  private void writeBoolean(Boolean value) throws IOException {
+    out.writeByte(value == null ? NULL : value ? 1 : 2);
+  }
+
+  private void writeInteger(Integer value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeInt(value);
+    }
+  }
+
+  private void writeLong(Long value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeLong(value);
+    }
+  }
+
+  private void writeProperties(Properties properties) throws IOException {
+    Set<String> names = properties == null ? null : properties.stringPropertyNames();
+    out.writeInt(names == null ? -1 : names.size());
+    if (names != null) {
+      for (String name : names) {
+        writeString(name);
+        writeString(properties.getProperty(name));
+      }
+    }
+  }
+
+  private void writeString(String value) throws IOException {
+    if (value == null) {
+      out.writeInt(NULL_STRING);
+      return;
+    }
+    Integer index = strings.get(value);
+    if (index != null) {
+      out.writeInt(index);
+      return;
+    }
+    strings.put(value, strings.size());
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(NEW_STRING);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+}
@@ -15,14 +15,23 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.snapshot.ConfigurationSnapshot;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
@@ -41,7 +50,9 @@ import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.CacheInvalidationScope;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.CursorFetchMode;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.transaction.TransactionFactory;
@@ -57,6 +68,8 @@ public class XMLConfigBuilder extends BaseBuilder {
   private final XPathParser parser;
   private String environment;
   private final ReflectorFactory localReflectorFactory = new DefaultReflectorFactory();
+  private ConfigurationSnapshot snapshot;
+  private String configXml;
 
   public XMLConfigBuilder(Reader reader) {
     this(reader, null, null);
@@ -75,6 +88,32 @@ public class XMLConfigBuilder extends BaseBuilder {
     this(configClass, new XPathParser(reader, true, props, new XMLMapperEntityResolver()), environment, props);
   }
 
+  /**
+   * Creates a builder that registers the mappers from a snapshot instead of parsing them when the snapshot is current
+   * for this configuration file.
+   *
+   * @param reader
+   *          the configuration file
+   * @param environment
+   *          the environment to use, or {@code null} for the default one
+   * @param props
+   *          the variables, or {@code null}
+   * @param snapshot
+   *          the snapshot created from this configuration file, or {@code null}
+   *
+   * @since 3.5.20
+   */
+  public XMLConfigBuilder(Reader reader, String environment, Properties props, ConfigurationSnapshot snapshot) {
+    this(ConfigurationSnapshot.readConfig(reader), environment, props, snapshot);
+  }
+
+  private XMLConfigBuilder(String configXml, String environment, Properties props, ConfigurationSnapshot snapshot) {
+    this(Configuration.class, new XPathParser(configXml, true, props, new XMLMapperEntityResolver()), environment,
+        props);
+    this.configXml = configXml;
+    this.snapshot = snapshot;
+  }
+
   public XMLConfigBuilder(InputStream inputStream) {
     this(inputStream, null, null);
   }
@@ -128,7 +167,10 @@ public class XMLConfigBuilder extends BaseBuilder {
       environmentsElement(root.evalNode("environments"));
       databaseIdProviderElement(root.evalNode("databaseIdProvider"));
       typeHandlersElement(root.evalNode("typeHandlers"));
-      mappersElement(root.evalNode("mappers"));
+      XNode mappers = root.evalNode("mappers");
+      if (snapshot == null || !snapshot.restore(configuration, configXml, mappers)) {
+        mappersElement(mappers);
+      }
     } catch (Exception e) {
       throw new BuilderException("Error parsing SQL Mapper Configuration. Cause: " + e, e);
     }
@@ -267,11 +309,25 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setProxyFactory((ProxyFactory) createInstance(props.getProperty("proxyFactory")));
     configuration.setLazyLoadingEnabled(booleanValueOf(props.getProperty("lazyLoadingEnabled"), false));
     configuration.setAggressiveLazyLoading(booleanValueOf(props.getProperty("aggressiveLazyLoading"), false));
+    configuration.setLazyLoadBatchSize(integerValueOf(props.getProperty("lazyLoadBatchSize"), 0));
+    configuration.setNestedQueryBatchSize(integerValueOf(props.getProperty("nestedQueryBatchSize"), 100));
     configuration.setUseColumnLabel(booleanValueOf(props.getProperty("useColumnLabel"), true));
     configuration.setUseGeneratedKeys(booleanValueOf(props.getProperty("useGeneratedKeys"), false));
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
+    configuration.setMultiRowInsertMaxRows(integerValueOf(props.getProperty("multiRowInsertMaxRows"), 0));
+    configuration
+        .setMultiRowInsertMaxParameters(integerValueOf(props.getProperty("multiRowInsertMaxParameters"), 2000));
+    configuration.setBatchGroupingMaxStatements(integerValueOf(props.getProperty("batchGroupingMaxStatements"), 0));
+    configuration.setCacheSingleFlightEnabled(booleanValueOf(props.getProperty("cacheSingleFlightEnabled"), false));
+    configuration.setCacheSingleFlightTimeout(integerValueOf(props.getProperty("cacheSingleFlightTimeout"), 10000));
+    configuration.setCacheInvalidationScope(
+        CacheInvalidationScope.valueOf(props.getProperty("cacheInvalidationScope", "NAMESPACE")));
+    configuration.setCacheSerializer((Serializer) createInstance(props.getProperty("cacheSerializer")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
     configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+    configuration.setCursorFetchMode(CursorFetchMode.valueOf(props.getProperty("cursorFetchMode", "ROW")));
+    configuration.setCursorChunkSize(integerValueOf(props.getProperty("cursorChunkSize"), null));
+    configuration.setBoundSqlTemplateCacheSize(integerValueOf(props.getProperty("boundSqlTemplateCacheSize"), 0));
     configuration.setDefaultResultSetType(resolveResultSetType(props.getProperty("defaultResultSetType")));
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
@@ -292,6 +348,15 @@ public class XMLConfigBuilder extends BaseBuilder {
         booleanValueOf(props.getProperty("argNameBasedConstructorAutoMapping"), false));
     configuration.setDefaultSqlProviderType(resolveClass(props.getProperty("defaultSqlProviderType")));
     configuration.setNullableOnForEach(booleanValueOf(props.getProperty("nullableOnForEach"), false));
+    configuration.setCompiledRowMappingEnabled(booleanValueOf(props.getProperty("compiledRowMappingEnabled"), false));
+    configuration
+        .setParallelMapperParsingEnabled(booleanValueOf(props.getProperty("parallelMapperParsingEnabled"), false));
+    configuration
+        .setLazyStatementBuildingEnabled(booleanValueOf(props.getProperty("lazyStatementBuildingEnabled"), false));
+    configuration.setParallelRowMappingBatchSize(integerValueOf(props.getProperty("parallelRowMappingBatchSize"), 0));
+    configuration.setLambdaInvokersEnabled(booleanValueOf(props.getProperty("lambdaInvokersEnabled"), false));
+    configuration
+        .setMapperClassGenerationEnabled(booleanValueOf(props.getProperty("mapperClassGenerationEnabled"), false));
   }
 
   private void environmentsElement(XNode context) throws Exception {
@@ -389,7 +454,11 @@ public class XMLConfigBuilder extends BaseBuilder {
     if (context == null) {
       return;
     }
-    for (XNode child : context.getChildren()) {
+    List<XNode> children = context.getChildren();
+    List<CompletableFuture<XPathParser>> documents = configuration.isParallelMapperParsingEnabled()
+        ? parseMapperDocuments(children) : null;
+    for (int i = 0; i < children.size(); i++) {
+      XNode child = children.get(i);
       if ("package".equals(child.getName())) {
         String mapperPackage = child.getStringAttribute("name");
         configuration.addMappers(mapperPackage);
@@ -397,7 +466,12 @@ public class XMLConfigBuilder extends BaseBuilder {
         String resource = child.getStringAttribute("resource");
         String url = child.getStringAttribute("url");
         String mapperClass = child.getStringAttribute("class");
-        if (resource != null && url == null && mapperClass == null) {
+        if (documents != null && documents.get(i) != null) {
+          String location = resource != null ? resource : url;
+          ErrorContext.instance().resource(location);
+          new XMLMapperBuilder(awaitMapperDocument(documents.get(i)), configuration, location,
+              configuration.getSqlFragments()).parseMapper();
+        } else if (resource != null && url == null && mapperClass == null) {
           ErrorContext.instance().resource(resource);
           try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
             XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource,
@@ -420,6 +494,57 @@ public class XMLConfigBuilder extends BaseBuilder {
         }
       }
     }
+    if (documents != null) {
+      // elements referring to mappers parsed after them are retried once, instead of after each mapper
+      configuration.parsePendingResultMaps(false);
+      configuration.parsePendingCacheRefs(false);
+      configuration.parsePendingStatements(false);
+    }
+  }
+
+  /**
+   * Starts reading and parsing the XML mapper documents on the common fork-join pool. The mappers are then built one
+   * after the other in declaration order, so they are registered in the same order as when parsed sequentially.
+   */
+  private List<CompletableFuture<XPathParser>> parseMapperDocuments(List<XNode> children) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    List<CompletableFuture<XPathParser>> documents = new ArrayList<>(children.size());
+    for (XNode child : children) {
+      String resource = child.getStringAttribute("resource");
+      String url = child.getStringAttribute("url");
+      String mapperClass = child.getStringAttribute("class");
+      if ("package".equals(child.getName()) || mapperClass != null || (resource == null) == (url == null)) {
+        documents.add(null);
+        continue;
+      }
+      documents.add(CompletableFuture.supplyAsync(() -> {
+        try (InputStream inputStream = resource != null ? Resources.getResourceAsStream(classLoader, resource)
+            : Resources.getUrlAsStream(url)) {
+          return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, ForkJoinPool.commonPool()));
+    }
+    return documents;
+  }
+
+  private XPathParser awaitMapperDocument(CompletableFuture<XPathParser> document) throws IOException {
+    try {
+      return document.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
   }
 
   private boolean isSpecifiedEnvironment(String id) {
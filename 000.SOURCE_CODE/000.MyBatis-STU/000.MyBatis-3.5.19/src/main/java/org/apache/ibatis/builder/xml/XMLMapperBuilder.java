@@ -84,7 +84,21 @@ public class XMLMapperBuilder extends BaseBuilder {
         resource, sqlFragments);
   }
 
-  private XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource,
+  /**
+   * Creates a builder for a mapper document that has already been parsed, for example on another thread.
+   *
+   * @param parser
+   *          the parser of the mapper document, created with {@link XMLMapperEntityResolver} and validation
+   * @param configuration
+   *          the configuration
+   * @param resource
+   *          the resource or url of the mapper document
+   * @param sqlFragments
+   *          the sql fragments shared by all mappers
+   *
+   * @since 3.5.20
+   */
+  public XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource,
       Map<String, XNode> sqlFragments) {
     super(configuration);
     this.builderAssistant = new MapperBuilderAssistant(configuration, resource);
@@ -94,14 +108,22 @@ public class XMLMapperBuilder extends BaseBuilder {
   }
 
   public void parse() {
+    parseMapper();
+    configuration.parsePendingResultMaps(false);
+    configuration.parsePendingCacheRefs(false);
+    configuration.parsePendingStatements(false);
+  }
+
+  /**
+   * Parses the mapper without retrying the elements of other mappers left incomplete. The caller retries them once,
+   * after all its mappers are parsed.
+   */
+  void parseMapper() {
     if (!configuration.isResourceLoaded(resource)) {
       configurationElement(parser.evalNode("/mapper"));
       configuration.addLoadedResource(resource);
       bindMapperForNamespace();
     }
-    configuration.parsePendingResultMaps(false);
-    configuration.parsePendingCacheRefs(false);
-    configuration.parsePendingStatements(false);
   }
 
   public XNode getSqlFragment(String refid) {
@@ -137,6 +159,10 @@ public class XMLMapperBuilder extends BaseBuilder {
     for (XNode context : list) {
       final XMLStatementBuilder statementParser = new XMLStatementBuilder(configuration, builderAssistant, context,
           requiredDatabaseId);
+      if (configuration.isLazyStatementBuildingEnabled()) {
+        statementParser.parseStatementNodeLazily();
+        continue;
+      }
       try {
         statementParser.parseStatementNode();
       } catch (IncompleteElementException e) {
@@ -348,13 +374,14 @@ public class XMLMapperBuilder extends BaseBuilder {
     String typeHandler = context.getStringAttribute("typeHandler");
     String resultSet = context.getStringAttribute("resultSet");
     String foreignColumn = context.getStringAttribute("foreignColumn");
-    boolean lazy = "lazy"
-        .equals(context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager"));
+    String fetchType = context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager");
+    boolean lazy = "lazy".equals(fetchType);
+    boolean batch = "batch".equals(fetchType);
     Class<?> javaTypeClass = resolveClass(javaType);
     Class<? extends TypeHandler<?>> typeHandlerClass = resolveClass(typeHandler);
     JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
     return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect,
-        nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+        nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy, batch);
   }
 
   private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings,
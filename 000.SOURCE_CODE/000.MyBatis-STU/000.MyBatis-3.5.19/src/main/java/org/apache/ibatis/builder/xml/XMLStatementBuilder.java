@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Locale;
 
 import org.apache.ibatis.builder.BaseBuilder;
+import org.apache.ibatis.builder.LazyStatementResolver;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -63,6 +64,29 @@ public class XMLStatementBuilder extends BaseBuilder {
       return;
     }
 
+    buildStatement(id, databaseId);
+  }
+
+  /**
+   * Registers the statement to be built on its first lookup instead of building it now.
+   *
+   * @since 3.5.20
+   *
+   * @see Configuration#setLazyStatementBuildingEnabled(boolean)
+   */
+  public void parseStatementNodeLazily() {
+    String id = context.getStringAttribute("id");
+    String databaseId = context.getStringAttribute("databaseId");
+
+    if (!databaseIdMatchesCurrent(id, databaseId, this.requiredDatabaseId)) {
+      return;
+    }
+
+    configuration.addLazyStatement(new LazyStatementResolver(builderAssistant.applyCurrentNamespace(id, false),
+        builderAssistant.getResource(), () -> buildStatement(id, databaseId)));
+  }
+
+  private void buildStatement(String id, String databaseId) {
     String nodeName = context.getNode().getNodeName();
     SqlCommandType sqlCommandType = SqlCommandType.valueOf(nodeName.toUpperCase(Locale.ENGLISH));
     boolean isSelect = sqlCommandType == SqlCommandType.SELECT;
@@ -116,10 +140,11 @@ public class XMLStatementBuilder extends BaseBuilder {
     String keyColumn = context.getStringAttribute("keyColumn");
     String resultSets = context.getStringAttribute("resultSets");
     boolean dirtySelect = context.getBooleanAttribute("affectData", Boolean.FALSE);
+    String tables = context.getStringAttribute("tables");
 
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType, fetchSize, timeout, parameterMap,
         parameterTypeClass, resultMap, resultTypeClass, resultSetTypeEnum, flushCache, useCache, resultOrdered,
-        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, dirtySelect);
+        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, dirtySelect, tables);
   }
 
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
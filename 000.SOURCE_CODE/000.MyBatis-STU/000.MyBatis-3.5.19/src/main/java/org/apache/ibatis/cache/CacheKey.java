@@ -15,8 +15,13 @@
  */
 package org.apache.ibatis.cache;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.StringJoiner;
 
@@ -46,20 +51,25 @@ public class CacheKey implements Cloneable, Serializable {
 
   private static final int DEFAULT_MULTIPLIER = 37;
   private static final int DEFAULT_HASHCODE = 17;
+  private static final int INITIAL_CAPACITY = 8;
+  private static final Object[] EMPTY_UPDATES = {};
 
-  private final int multiplier;
+  // The updates are kept in a flat array, but serialized as the list earlier versions used
+  private static final ObjectStreamField[] serialPersistentFields = { new ObjectStreamField("multiplier", int.class),
+      new ObjectStreamField("hashcode", int.class), new ObjectStreamField("checksum", long.class),
+      new ObjectStreamField("count", int.class), new ObjectStreamField("updateList", List.class) };
+
+  private int multiplier;
   private int hashcode;
   private long checksum;
   private int count;
-  // 8/21/2017 - Sonarlint flags this as needing to be marked transient. While true if content is not serializable, this
-  // is not always true and thus should not be marked transient.
-  private List<Object> updateList;
+  private Object[] updates;
 
   public CacheKey() {
     this.hashcode = DEFAULT_HASHCODE;
     this.multiplier = DEFAULT_MULTIPLIER;
     this.count = 0;
-    this.updateList = new ArrayList<>();
+    this.updates = EMPTY_UPDATES;
   }
 
   public CacheKey(Object[] objects) {
@@ -68,19 +78,20 @@ public class CacheKey implements Cloneable, Serializable {
   }
 
   public int getUpdateCount() {
-    return updateList.size();
+    return count;
   }
 
   public void update(Object object) {
     int baseHashCode = object == null ? 1 : ArrayUtil.hashCode(object);
 
-    count++;
+    if (count == updates.length) {
+      updates = Arrays.copyOf(updates, count == 0 ? INITIAL_CAPACITY : count * 2);
+    }
+    updates[count++] = object;
     checksum += baseHashCode;
     baseHashCode *= count;
 
     hashcode = multiplier * hashcode + baseHashCode;
-
-    updateList.add(object);
   }
 
   public void updateAll(Object[] objects) {
@@ -104,10 +115,11 @@ public class CacheKey implements Cloneable, Serializable {
       return false;
     }
 
-    for (int i = 0; i < updateList.size(); i++) {
-      Object thisObject = updateList.get(i);
-      Object thatObject = cacheKey.updateList.get(i);
-      if (!ArrayUtil.equals(thisObject, thatObject)) {
+    final Object[] thatUpdates = cacheKey.updates;
+    for (int i = 0; i < count; i++) {
+      Object thisObject = updates[i];
+      Object thatObject = thatUpdates[i];
+      if (thisObject != thatObject && !ArrayUtil.equals(thisObject, thatObject)) {
         return false;
       }
     }
@@ -124,15 +136,37 @@ public class CacheKey implements Cloneable, Serializable {
     StringJoiner returnValue = new StringJoiner(":");
     returnValue.add(String.valueOf(hashcode));
     returnValue.add(String.valueOf(checksum));
-    updateList.stream().map(ArrayUtil::toString).forEach(returnValue::add);
+    for (int i = 0; i < count; i++) {
+      returnValue.add(ArrayUtil.toString(updates[i]));
+    }
     return returnValue.toString();
   }
 
   @Override
   public CacheKey clone() throws CloneNotSupportedException {
     CacheKey clonedCacheKey = (CacheKey) super.clone();
-    clonedCacheKey.updateList = new ArrayList<>(updateList);
+    clonedCacheKey.updates = count == 0 ? EMPTY_UPDATES : Arrays.copyOf(updates, count);
     return clonedCacheKey;
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("multiplier", multiplier);
+    fields.put("hashcode", hashcode);
+    fields.put("checksum", checksum);
+    fields.put("count", count);
+    fields.put("updateList", new ArrayList<>(Arrays.asList(updates).subList(0, count)));
+    out.writeFields();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    multiplier = fields.get("multiplier", DEFAULT_MULTIPLIER);
+    hashcode = fields.get("hashcode", DEFAULT_HASHCODE);
+    checksum = fields.get("checksum", 0L);
+    List<?> updateList = (List<?>) fields.get("updateList", null);
+    updates = updateList == null || updateList.isEmpty() ? EMPTY_UPDATES : updateList.toArray();
+    count = updates.length;
+  }
+
 }
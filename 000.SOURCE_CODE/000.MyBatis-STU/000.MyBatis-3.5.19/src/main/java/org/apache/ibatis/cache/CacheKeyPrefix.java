@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.io.Serializable;
+
+/**
+ * The statement id and sql that start the {@link CacheKey} of a query, combined into one key element.
+ * <p>
+ * A prefix is interned per statement and sql by {@link org.apache.ibatis.mapping.MappedStatement#getCacheKeyPrefix
+ * MappedStatement#getCacheKeyPrefix(String)}, and its hash code is computed once. Keys of the same statement and sql
+ * therefore usually share the same prefix instance, which compares by identity instead of comparing the sql.
+ *
+ * @since 3.5.20
+ */
+public final class CacheKeyPrefix implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String id;
+  private final String sql;
+  private final int hashCode;
+
+  public CacheKeyPrefix(String id, String sql) {
+    this.id = id;
+    this.sql = sql;
+    this.hashCode = 31 * id.hashCode() + sql.hashCode();
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CacheKeyPrefix)) {
+      return false;
+    }
+    // Only prefixes that were not interned, e.g. deserialized ones, get here
+    CacheKeyPrefix other = (CacheKeyPrefix) obj;
+    return hashCode == other.hashCode && id.equals(other.id) && sql.equals(other.sql);
+  }
+
+  @Override
+  public String toString() {
+    return id + ":" + sql;
+  }
+
+}
@@ -15,19 +15,29 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 
 /**
+ * Logs the hit ratio of the decorated cache. The counters are updated atomically, so this decorator can be used
+ * outside of a {@link SynchronizedCache}.
+ *
  * @author Clinton Begin
  */
 public class LoggingCache implements Cache {
 
+  private static final AtomicIntegerFieldUpdater<LoggingCache> REQUESTS = AtomicIntegerFieldUpdater
+      .newUpdater(LoggingCache.class, "requests");
+  private static final AtomicIntegerFieldUpdater<LoggingCache> HITS = AtomicIntegerFieldUpdater
+      .newUpdater(LoggingCache.class, "hits");
+
   private final Log log;
   private final Cache delegate;
-  protected int requests;
-  protected int hits;
+  protected volatile int requests;
+  protected volatile int hits;
 
   public LoggingCache(Cache delegate) {
     this.delegate = delegate;
@@ -51,10 +61,10 @@ public class LoggingCache implements Cache {
 
   @Override
   public Object getObject(Object key) {
-    requests++;
+    REQUESTS.incrementAndGet(this);
     final Object value = delegate.getObject(key);
     if (value != null) {
-      hits++;
+      HITS.incrementAndGet(this);
     }
     if (log.isDebugEnabled()) {
       log.debug("Cache Hit Ratio [" + getId() + "]: " + getHitRatio());
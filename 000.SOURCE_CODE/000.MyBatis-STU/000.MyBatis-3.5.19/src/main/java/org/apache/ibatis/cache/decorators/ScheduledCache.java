@@ -16,17 +16,24 @@
 package org.apache.ibatis.cache.decorators;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import org.apache.ibatis.cache.Cache;
 
 /**
+ * Clears the decorated cache once the clear interval has elapsed. When several threads notice a stale cache at the same
+ * time only one of them clears it, so this decorator can be used outside of a {@link SynchronizedCache}.
+ *
  * @author Clinton Begin
  */
 public class ScheduledCache implements Cache {
 
+  private static final AtomicLongFieldUpdater<ScheduledCache> LAST_CLEAR = AtomicLongFieldUpdater
+      .newUpdater(ScheduledCache.class, "lastClear");
+
   private final Cache delegate;
-  protected long clearInterval;
-  protected long lastClear;
+  protected volatile long clearInterval;
+  protected volatile long lastClear;
 
   public ScheduledCache(Cache delegate) {
     this.delegate = delegate;
@@ -83,8 +90,12 @@ public class ScheduledCache implements Cache {
   }
 
   private boolean clearWhenStale() {
-    if (System.currentTimeMillis() - lastClear > clearInterval) {
-      clear();
+    final long now = System.currentTimeMillis();
+    final long last = lastClear;
+    if (now - last > clearInterval) {
+      if (LAST_CLEAR.compareAndSet(this, last, now)) {
+        delegate.clear();
+      }
       return true;
     }
     return false;
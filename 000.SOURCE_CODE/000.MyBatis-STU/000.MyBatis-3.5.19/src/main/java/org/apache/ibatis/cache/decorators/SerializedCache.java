@@ -15,19 +15,17 @@
  */
 package org.apache.ibatis.cache.decorators;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
 import java.io.Serializable;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.io.Resources;
-import org.apache.ibatis.io.SerialFilterChecker;
 
 /**
  * @author Clinton Begin
@@ -35,9 +33,25 @@ import org.apache.ibatis.io.SerialFilterChecker;
 public class SerializedCache implements Cache {
 
   private final Cache delegate;
+  private final Serializer serializer;
 
   public SerializedCache(Cache delegate) {
+    this(delegate, new JavaSerializer());
+  }
+
+  /**
+   * Creates a cache that stores the values serialized with the given serializer.
+   *
+   * @param delegate
+   *          the decorated cache
+   * @param serializer
+   *          the serializer of the values
+   *
+   * @since 3.5.20
+   */
+  public SerializedCache(Cache delegate, Serializer serializer) {
     this.delegate = delegate;
+    this.serializer = serializer;
   }
 
   @Override
@@ -55,13 +69,13 @@ public class SerializedCache implements Cache {
     if ((object != null) && !(object instanceof Serializable)) {
       throw new CacheException("SharedCache failed to make a copy of a non-serializable object: " + object);
     }
-    delegate.putObject(key, serialize((Serializable) object));
+    delegate.putObject(key, serializer.serialize(object));
   }
 
   @Override
   public Object getObject(Object key) {
     Object object = delegate.getObject(key);
-    return object == null ? null : deserialize((byte[]) object);
+    return object == null ? null : serializer.deserialize((byte[]) object);
   }
 
   @Override
@@ -84,29 +98,6 @@ public class SerializedCache implements Cache {
     return delegate.equals(obj);
   }
 
-  private byte[] serialize(Serializable value) {
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        ObjectOutputStream oos = new ObjectOutputStream(bos)) {
-      oos.writeObject(value);
-      oos.flush();
-      return bos.toByteArray();
-    } catch (Exception e) {
-      throw new CacheException("Error serializing object.  Cause: " + e, e);
-    }
-  }
-
-  private Serializable deserialize(byte[] value) {
-    SerialFilterChecker.check();
-    Serializable result;
-    try (ByteArrayInputStream bis = new ByteArrayInputStream(value);
-        ObjectInputStream ois = new CustomObjectInputStream(bis)) {
-      result = (Serializable) ois.readObject();
-    } catch (Exception e) {
-      throw new CacheException("Error deserializing object.  Cause: " + e, e);
-    }
-    return result;
-  }
-
   public static class CustomObjectInputStream extends ObjectInputStream {
 
     public CustomObjectInputStream(InputStream in) throws IOException {
@@ -115,7 +106,8 @@ public class SerializedCache implements Cache {
 
     @Override
     protected Class<?> resolveClass(ObjectStreamClass desc) throws ClassNotFoundException {
-      return Resources.classForName(desc.getName());
+      // like ObjectInputStream, the class is initialized when an instance is created, after the serial filter check
+      return Resources.classForName(desc.getName(), false);
     }
 
   }
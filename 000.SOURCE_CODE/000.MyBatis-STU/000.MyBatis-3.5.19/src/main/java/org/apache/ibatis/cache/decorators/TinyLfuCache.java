@@ -0,0 +1,463 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+
+/**
+ * Concurrent, frequency aware (W-TinyLFU) cache decorator.
+ * <p>
+ * New entries go to a small LRU admission window. An entry leaving the window only replaces the eviction candidate of
+ * the main segmented LRU if it was used more often recently, frequencies being estimated with a compact count-min
+ * sketch that is halved periodically. A one-off scan therefore cannot push frequently used entries out of the cache.
+ * <p>
+ * Unlike the other eviction decorators the entries are held by this decorator in a concurrent map, the decorated
+ * cache only provides the id. Reads are lock free and recorded in lossy striped buffers that are replayed against the
+ * eviction policy under a lock, so this decorator does not need to be wrapped in a {@link SynchronizedCache}. The
+ * decorated cache does not see the puts, gets and removals, only {@link #clear()} is forwarded to it.
+ *
+ * @since 3.5.20
+ */
+public class TinyLfuCache implements Cache {
+
+  private static final Object NULL_KEY = new Object();
+
+  private final Cache delegate;
+  private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+  private final ReadBuffer[] readBuffers;
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  // Guarded by evictionLock
+  private final AccessOrderQueue window = new AccessOrderQueue();
+  private final AccessOrderQueue probation = new AccessOrderQueue();
+  private final AccessOrderQueue protectedQueue = new AccessOrderQueue();
+  private final FrequencySketch sketch = new FrequencySketch();
+  private int maximumSize;
+  private int windowMaximum;
+  private int protectedMaximum;
+
+  public TinyLfuCache(Cache delegate) {
+    this.delegate = delegate;
+    int stripes = 1;
+    while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 64) {
+      stripes <<= 1;
+    }
+    this.readBuffers = new ReadBuffer[stripes];
+    for (int i = 0; i < stripes; i++) {
+      readBuffers[i] = new ReadBuffer();
+    }
+    setSize(1024);
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return data.size();
+  }
+
+  public void setSize(final int size) {
+    evictionLock.lock();
+    try {
+      maximumSize = Math.max(1, size);
+      windowMaximum = Math.max(1, maximumSize / 100);
+      protectedMaximum = (int) ((maximumSize - windowMaximum) * 0.8);
+      sketch.ensureCapacity(maximumSize);
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    final Object mapKey = key == null ? NULL_KEY : key;
+    for (;;) {
+      Node node = data.get(mapKey);
+      if (node == null) {
+        final Node created = new Node(mapKey, value);
+        node = data.putIfAbsent(mapKey, created);
+        if (node == null) {
+          evictionLock.lock();
+          try {
+            drainReadBuffers();
+            onAdd(created);
+          } finally {
+            evictionLock.unlock();
+          }
+          return;
+        }
+      }
+      node.value = value;
+      if (data.get(mapKey) == node) {
+        afterRead(node);
+        return;
+      }
+      // The entry was evicted or removed while its value was replaced, add it again instead of losing the put
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    final Node node = data.get(key == null ? NULL_KEY : key);
+    if (node == null) {
+      return null;
+    }
+    afterRead(node);
+    return node.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    final Node node = data.remove(key == null ? NULL_KEY : key);
+    if (node == null) {
+      return null;
+    }
+    evictionLock.lock();
+    try {
+      unlink(node);
+    } finally {
+      evictionLock.unlock();
+    }
+    return node.value;
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      data.clear();
+      for (ReadBuffer buffer : readBuffers) {
+        buffer.drain(this, false);
+      }
+      window.clear();
+      probation.clear();
+      protectedQueue.clear();
+    } finally {
+      evictionLock.unlock();
+    }
+    delegate.clear();
+  }
+
+  private void afterRead(Node node) {
+    final int index = spread((int) Thread.currentThread().getId()) & (readBuffers.length - 1);
+    if (readBuffers[index].offer(node) && evictionLock.tryLock()) {
+      try {
+        drainReadBuffers();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void drainReadBuffers() {
+    for (ReadBuffer buffer : readBuffers) {
+      buffer.drain(this, true);
+    }
+  }
+
+  private void onAdd(Node node) {
+    if (node.queue != Node.NEW || data.get(node.key) != node) {
+      // Removed or cleared before it could be added to the policy
+      node.queue = Node.DEAD;
+      return;
+    }
+    sketch.increment(node.key);
+    node.queue = Node.WINDOW;
+    window.add(node);
+    evict();
+  }
+
+  private void onAccess(Node node) {
+    if (node.queue == Node.NEW || node.queue == Node.DEAD) {
+      return;
+    }
+    sketch.increment(node.key);
+    if (node.queue == Node.PROBATION) {
+      probation.remove(node);
+      node.queue = Node.PROTECTED;
+      protectedQueue.add(node);
+      if (protectedQueue.size > protectedMaximum) {
+        final Node demoted = protectedQueue.poll();
+        demoted.queue = Node.PROBATION;
+        probation.add(demoted);
+      }
+    } else if (node.queue == Node.WINDOW) {
+      window.moveToBack(node);
+    } else {
+      protectedQueue.moveToBack(node);
+    }
+  }
+
+  private void evict() {
+    // Entries leaving the window become the admission candidates at the back of the probation queue
+    while (window.size > windowMaximum) {
+      final Node candidate = window.poll();
+      candidate.queue = Node.PROBATION;
+      probation.add(candidate);
+    }
+    while (window.size + probation.size + protectedQueue.size > maximumSize) {
+      final Node victim = probation.head != null ? probation.head
+          : protectedQueue.head != null ? protectedQueue.head : window.head;
+      final Node candidate = probation.tail;
+      if (candidate == null || candidate == victim
+          || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+        evictEntry(victim);
+      } else {
+        evictEntry(candidate);
+      }
+    }
+  }
+
+  private void evictEntry(Node node) {
+    unlink(node);
+    data.remove(node.key, node);
+  }
+
+  private void unlink(Node node) {
+    if (node.queue == Node.WINDOW) {
+      window.remove(node);
+    } else if (node.queue == Node.PROBATION) {
+      probation.remove(node);
+    } else if (node.queue == Node.PROTECTED) {
+      protectedQueue.remove(node);
+    }
+    node.queue = Node.DEAD;
+  }
+
+  static int spread(int x) {
+    x = (x >>> 16 ^ x) * 0x45d9f3b;
+    x = (x >>> 16 ^ x) * 0x45d9f3b;
+    return x >>> 16 ^ x;
+  }
+
+  private static final class Node {
+    static final int NEW = 0;
+    static final int WINDOW = 1;
+    static final int PROBATION = 2;
+    static final int PROTECTED = 3;
+    static final int DEAD = 4;
+
+    final Object key;
+    volatile Object value;
+
+    // Guarded by evictionLock
+    int queue = NEW;
+    Node prev;
+    Node next;
+
+    Node(Object key, Object value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /**
+   * A doubly linked list of nodes in access order, least recently used first.
+   */
+  private static final class AccessOrderQueue {
+    Node head;
+    Node tail;
+    int size;
+
+    void add(Node node) {
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+      size++;
+    }
+
+    Node poll() {
+      final Node node = head;
+      if (node != null) {
+        remove(node);
+      }
+      return node;
+    }
+
+    void remove(Node node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      size--;
+    }
+
+    void moveToBack(Node node) {
+      if (node != tail) {
+        remove(node);
+        add(node);
+      }
+    }
+
+    void clear() {
+      for (Node node = head; node != null; node = node.next) {
+        node.queue = Node.DEAD;
+      }
+      head = null;
+      tail = null;
+      size = 0;
+    }
+  }
+
+  /**
+   * A lossy ring buffer of read accesses. Writers never wait: when the buffer is full or contended the access is
+   * dropped, which only makes the frequency estimate slightly less accurate.
+   */
+  private static final class ReadBuffer {
+    static final int SIZE = 16;
+    static final int MASK = SIZE - 1;
+
+    final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(SIZE);
+    final AtomicInteger writeCounter = new AtomicInteger();
+    // Only written under evictionLock
+    volatile int readCounter;
+
+    /**
+     * Records an access.
+     *
+     * @return true if the buffer should be drained
+     */
+    boolean offer(Node node) {
+      final int tail = writeCounter.get();
+      final int size = tail - readCounter;
+      if (size >= SIZE) {
+        return true;
+      }
+      if (writeCounter.compareAndSet(tail, tail + 1)) {
+        buffer.lazySet(tail & MASK, node);
+      }
+      return size + 1 >= SIZE / 2;
+    }
+
+    void drain(TinyLfuCache cache, boolean apply) {
+      int head = readCounter;
+      final int tail = writeCounter.get();
+      for (; head != tail; head++) {
+        final Node node = buffer.get(head & MASK);
+        if (node == null) {
+          // Slot claimed but not written yet
+          break;
+        }
+        buffer.lazySet(head & MASK, null);
+        if (apply) {
+          cache.onAccess(node);
+        }
+      }
+      readCounter = head;
+    }
+  }
+
+  /**
+   * A count-min sketch of 4-bit counters estimating how often keys were used. All counters are halved once the number
+   * of increments reaches ten times the maximum size, so the estimate follows recent popularity.
+   */
+  private static final class FrequencySketch {
+    private static final long[] SEED = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+        0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    void ensureCapacity(int maximumSize) {
+      int length = 16;
+      while (length < maximumSize && length < 1 << 30) {
+        length <<= 1;
+      }
+      if (table == null || table.length < length) {
+        table = new long[length];
+        tableMask = length - 1;
+        additions = 0;
+      }
+      sampleSize = maximumSize > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : 10 * maximumSize;
+    }
+
+    int frequency(Object key) {
+      final int hash = spread(key.hashCode());
+      final int start = (hash & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++) {
+        final int index = indexOf(hash, i);
+        final int count = (int) (table[index] >>> (start + i << 2) & 0xfL);
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    void increment(Object key) {
+      final int hash = spread(key.hashCode());
+      final int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+        added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+      final int offset = counter << 2;
+      final long mask = 0xfL << offset;
+      if ((table[index] & mask) != mask) {
+        table[index] += 1L << offset;
+        return true;
+      }
+      return false;
+    }
+
+    private int indexOf(int hash, int depth) {
+      long value = (hash + SEED[depth]) * SEED[depth];
+      value += value >>> 32;
+      return (int) value & tableMask;
+    }
+
+    private void reset() {
+      int oddCounters = 0;
+      for (int i = 0; i < table.length; i++) {
+        oddCounters += Long.bitCount(table[i] & ONE_MASK);
+        table[i] = table[i] >>> 1 & RESET_MASK;
+      }
+      additions = (additions >>> 1) - (oddCounters >>> 2);
+    }
+  }
+
+}
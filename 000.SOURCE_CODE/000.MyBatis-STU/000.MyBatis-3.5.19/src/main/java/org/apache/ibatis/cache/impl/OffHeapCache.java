@@ -0,0 +1,355 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
+
+/**
+ * Cache that stores its values outside of the Java heap, in direct byte buffers.
+ * <p>
+ * Values are serialized into fixed size blocks carved out of arenas that are allocated on demand up to the configured
+ * capacity in bytes. The blocks of a value are chained, so that any free block can be reused whatever the size of the
+ * value. When a value does not fit, or when the configured number of entries is reached, the least recently used
+ * entries are evicted. Only the keys and a small index entry per value remain on the heap.
+ * <p>
+ * Values that are byte arrays, as produced by {@link SerializedCache} for read/write caches, are stored as is; other
+ * values must be serializable, they are serialized with the configured {@link Serializer} and each read returns a new
+ * copy. Values larger than the capacity are not cached.
+ * <p>
+ * Like {@link PerpetualCache} this cache is not thread safe. When declared with {@code <cache type="...">} it is
+ * decorated like the default cache except for the eviction policy, which it applies itself.
+ *
+ * @since 3.5.20
+ */
+public class OffHeapCache implements Cache {
+
+  private static final int MAX_ARENA_SIZE = 1 << 30;
+  private static final int NO_BLOCK = -1;
+  // Bytes reserved at the start of each block for the index of the next block
+  private static final int LINK_SIZE = 4;
+
+  private final String id;
+  private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long capacity = 64L * 1024 * 1024;
+  private int blockSize = 256;
+  private int size;
+  private Serializer serializer = new JavaSerializer();
+
+  private ByteBuffer[] arenas;
+  private int blocksPerArena;
+  private int blockCount;
+  // Blocks below this index have been handed out at least once, the others have never been used
+  private int usedBlockMark;
+  private int freeBlock = NO_BLOCK;
+  private int freeBlockCount;
+  private long evictionCount;
+
+  public OffHeapCache(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    return entries.size();
+  }
+
+  /**
+   * Sets the maximum number of entries, {@code 0} for no limit other than the capacity.
+   *
+   * @param size
+   *          the maximum number of entries
+   */
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Sets the serializer of the values that are not byte arrays. Default is Java serialization.
+   *
+   * @param serializer
+   *          the serializer
+   */
+  public void setSerializer(Serializer serializer) {
+    this.serializer = serializer;
+  }
+
+  /**
+   * Returns the maximum number of bytes stored off heap.
+   *
+   * @return the capacity in bytes
+   */
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the maximum number of bytes stored off heap. Default is 64 MB.
+   *
+   * @param capacity
+   *          the capacity in bytes
+   */
+  public void setCapacity(long capacity) {
+    ensureNotAllocated();
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns the size of the blocks values are stored in.
+   *
+   * @return the block size in bytes
+   */
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Sets the size of the blocks values are stored in. Small blocks waste less memory on small values, large blocks
+   * make large values faster to store and read. Default is 256 bytes.
+   *
+   * @param blockSize
+   *          the block size in bytes
+   */
+  public void setBlockSize(int blockSize) {
+    ensureNotAllocated();
+    if (blockSize <= LINK_SIZE || blockSize > MAX_ARENA_SIZE) {
+      throw new CacheException("Invalid block size " + blockSize + " for cache " + id);
+    }
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Returns the number of bytes taken by the blocks of the cached values.
+   *
+   * @return the used bytes
+   */
+  public long getUsedBytes() {
+    return (long) (usedBlockMark - freeBlockCount) * blockSize;
+  }
+
+  /**
+   * Returns the number of entries evicted to make room for new ones.
+   *
+   * @return the eviction count
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    removeObject(key);
+    if (value == null) {
+      return;
+    }
+    final boolean raw = value instanceof byte[];
+    final byte[] bytes = raw ? (byte[]) value : serialize(value);
+    final int blocks = blocksFor(bytes.length);
+    allocateArenas();
+    if (blocks > blockCount) {
+      return;
+    }
+    while (!entries.isEmpty() && (blocks > availableBlocks() || size > 0 && entries.size() >= size)) {
+      Iterator<Entry> eldest = entries.values().iterator();
+      releaseBlocks(eldest.next().firstBlock);
+      eldest.remove();
+      evictionCount++;
+    }
+    entries.put(key, new Entry(write(bytes, blocks), bytes.length, raw));
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    final Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    final byte[] bytes = read(entry);
+    return entry.raw ? bytes : serializer.deserialize(bytes);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    final Entry entry = entries.remove(key);
+    if (entry != null) {
+      releaseBlocks(entry.firstBlock);
+    }
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    entries.clear();
+    // The arenas are kept, all of their blocks become unused
+    usedBlockMark = 0;
+    freeBlock = NO_BLOCK;
+    freeBlockCount = 0;
+  }
+
+  private void ensureNotAllocated() {
+    if (arenas != null) {
+      throw new CacheException("Cannot reconfigure cache " + id + " once values have been stored.");
+    }
+  }
+
+  private void allocateArenas() {
+    if (arenas == null) {
+      final long blocks = Math.min(capacity / blockSize, Integer.MAX_VALUE);
+      blocksPerArena = MAX_ARENA_SIZE / blockSize;
+      blockCount = (int) blocks;
+      arenas = new ByteBuffer[(int) ((blocks + blocksPerArena - 1) / blocksPerArena)];
+    }
+  }
+
+  private int blocksFor(int length) {
+    final int payload = blockSize - LINK_SIZE;
+    return Math.max(1, (length + payload - 1) / payload);
+  }
+
+  private int availableBlocks() {
+    return blockCount - usedBlockMark + freeBlockCount;
+  }
+
+  private int allocateBlock() {
+    if (freeBlock != NO_BLOCK) {
+      final int block = freeBlock;
+      freeBlock = arena(block).getInt(offset(block));
+      freeBlockCount--;
+      return block;
+    }
+    final int block = usedBlockMark++;
+    final int arena = block / blocksPerArena;
+    if (arenas[arena] == null) {
+      final int blocks = Math.min(blocksPerArena, blockCount - arena * blocksPerArena);
+      arenas[arena] = ByteBuffer.allocateDirect(blocks * blockSize);
+    }
+    return block;
+  }
+
+  private void releaseBlocks(int firstBlock) {
+    int block = firstBlock;
+    while (block != NO_BLOCK) {
+      final ByteBuffer arena = arena(block);
+      final int offset = offset(block);
+      final int next = arena.getInt(offset);
+      arena.putInt(offset, freeBlock);
+      freeBlock = block;
+      freeBlockCount++;
+      block = next;
+    }
+  }
+
+  private int write(byte[] bytes, int blocks) {
+    final int payload = blockSize - LINK_SIZE;
+    final int firstBlock = allocateBlock();
+    int block = firstBlock;
+    int written = 0;
+    for (int i = 0; i < blocks; i++) {
+      final int next = i + 1 < blocks ? allocateBlock() : NO_BLOCK;
+      final ByteBuffer arena = arena(block);
+      final int offset = offset(block);
+      final int length = Math.min(payload, bytes.length - written);
+      arena.putInt(offset, next);
+      arena.position(offset + LINK_SIZE);
+      arena.put(bytes, written, length);
+      written += length;
+      block = next;
+    }
+    return firstBlock;
+  }
+
+  private byte[] read(Entry entry) {
+    final int payload = blockSize - LINK_SIZE;
+    final byte[] bytes = new byte[entry.length];
+    int block = entry.firstBlock;
+    int read = 0;
+    while (block != NO_BLOCK) {
+      final ByteBuffer arena = arena(block);
+      final int offset = offset(block);
+      final int length = Math.min(payload, bytes.length - read);
+      arena.position(offset + LINK_SIZE);
+      arena.get(bytes, read, length);
+      read += length;
+      block = arena.getInt(offset);
+    }
+    return bytes;
+  }
+
+  private ByteBuffer arena(int block) {
+    return arenas[block / blocksPerArena];
+  }
+
+  private int offset(int block) {
+    return block % blocksPerArena * blockSize;
+  }
+
+  private byte[] serialize(Object value) {
+    if (!(value instanceof Serializable)) {
+      throw new CacheException("OffHeapCache failed to store a non-serializable object: " + value);
+    }
+    return serializer.serialize(value);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  private static final class Entry {
+    private final int firstBlock;
+    private final int length;
+    private final boolean raw;
+
+    Entry(int firstBlock, int length, boolean raw) {
+      this.firstBlock = firstBlock;
+      this.length = length;
+      this.raw = raw;
+    }
+  }
+
+}
@@ -0,0 +1,737 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.io.SerialFilterChecker;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+
+/**
+ * Compact binary serializer for the values usually cached by MyBatis: beans, lists, maps, strings, numbers and dates.
+ * <p>
+ * A bean is written as the values of its properties in a fixed order, its class name and property names being written
+ * once per serialized value, and is read back by calling its default constructor and setters, as MyBatis does when it
+ * maps a row. A class is handled as a bean only when doing so cannot lose state: it must be serializable without
+ * custom serialization methods, and each of its serializable fields must be a property with a getter and a setter of
+ * the same type. Other values, such as lazy loading proxies, are written with Java serialization.
+ * <p>
+ * Deserialization is as safe as Java serialization: classes are loaded without being initialized, only serializable
+ * classes are instantiated, and each class is resolved through an {@link ObjectInputStream} once, so the serial filter
+ * configured for the JVM applies to it before it is used.
+ *
+ * @since 3.5.20
+ */
+public class BinarySerializer implements Serializer {
+
+  private static final byte VERSION = 1;
+
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte INTEGER = 3;
+  private static final byte LONG = 4;
+  private static final byte SHORT = 5;
+  private static final byte BYTE = 6;
+  private static final byte CHARACTER = 7;
+  private static final byte FLOAT = 8;
+  private static final byte DOUBLE = 9;
+  private static final byte STRING = 10;
+  private static final byte BIG_DECIMAL = 11;
+  private static final byte BIG_INTEGER = 12;
+  private static final byte DATE = 13;
+  private static final byte SQL_DATE = 14;
+  private static final byte SQL_TIME = 15;
+  private static final byte TIMESTAMP = 16;
+  private static final byte LOCAL_DATE = 17;
+  private static final byte LOCAL_TIME = 18;
+  private static final byte LOCAL_DATE_TIME = 19;
+  private static final byte INSTANT = 20;
+  private static final byte BYTES = 21;
+  private static final byte ARRAY_LIST = 22;
+  private static final byte LINKED_LIST = 23;
+  private static final byte HASH_SET = 24;
+  private static final byte LINKED_HASH_SET = 25;
+  private static final byte HASH_MAP = 26;
+  private static final byte LINKED_HASH_MAP = 27;
+  private static final byte OBJECT_ARRAY = 28;
+  private static final byte ENUM = 29;
+  private static final byte BEAN = 30;
+  private static final byte REFERENCE = 31;
+  private static final byte JAVA = 32;
+
+  private static final int NEW_CLASS = 0;
+  private static final Object[] NO_ARGUMENTS = {};
+  private static final Set<String> SERIALIZATION_METHODS = new HashSet<>(
+      Arrays.asList("writeObject", "readObject", "readObjectNoData", "writeReplace", "readResolve"));
+  private static final JavaSerializer JAVA_SERIALIZER = new JavaSerializer();
+
+  private static final Map<Class<?>, Byte> TAGS = new IdentityHashMap<>();
+  private static final BeanType NOT_A_BEAN = new BeanType(null, new String[0], new Invoker[0], new Invoker[0]);
+
+  static {
+    TAGS.put(Boolean.class, TRUE);
+    TAGS.put(Integer.class, INTEGER);
+    TAGS.put(Long.class, LONG);
+    TAGS.put(Short.class, SHORT);
+    TAGS.put(Byte.class, BYTE);
+    TAGS.put(Character.class, CHARACTER);
+    TAGS.put(Float.class, FLOAT);
+    TAGS.put(Double.class, DOUBLE);
+    TAGS.put(String.class, STRING);
+    TAGS.put(BigDecimal.class, BIG_DECIMAL);
+    TAGS.put(BigInteger.class, BIG_INTEGER);
+    TAGS.put(Date.class, DATE);
+    TAGS.put(java.sql.Date.class, SQL_DATE);
+    TAGS.put(Time.class, SQL_TIME);
+    TAGS.put(Timestamp.class, TIMESTAMP);
+    TAGS.put(LocalDate.class, LOCAL_DATE);
+    TAGS.put(LocalTime.class, LOCAL_TIME);
+    TAGS.put(LocalDateTime.class, LOCAL_DATE_TIME);
+    TAGS.put(Instant.class, INSTANT);
+    TAGS.put(byte[].class, BYTES);
+    TAGS.put(ArrayList.class, ARRAY_LIST);
+    TAGS.put(LinkedList.class, LINKED_LIST);
+    TAGS.put(HashSet.class, HASH_SET);
+    TAGS.put(LinkedHashSet.class, LINKED_HASH_SET);
+    TAGS.put(HashMap.class, HASH_MAP);
+    TAGS.put(LinkedHashMap.class, LINKED_HASH_MAP);
+    TAGS.put(Object[].class, OBJECT_ARRAY);
+  }
+
+  private final DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+  private final ObjectFactory objectFactory = new DefaultObjectFactory();
+  private final ConcurrentMap<Class<?>, BeanType> beanTypes = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Class<?>> checkedClasses = new ConcurrentHashMap<>();
+
+  public BinarySerializer() {
+    reflectorFactory.setLambdaInvokersEnabled(true);
+  }
+
+  @Override
+  public byte[] serialize(Object value) {
+    try {
+      Output output = new Output();
+      output.writeByte(VERSION);
+      output.writeValue(value);
+      return output.toByteArray();
+    } catch (CacheException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CacheException("Error serializing object.  Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) {
+    SerialFilterChecker.check();
+    try {
+      Input input = new Input(bytes);
+      if (input.readByte() != VERSION) {
+        throw new CacheException("Unsupported serialized value version.");
+      }
+      return input.readValue();
+    } catch (CacheException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CacheException("Error deserializing object.  Cause: " + e, e);
+    }
+  }
+
+  private BeanType getBeanType(Class<?> type) {
+    BeanType beanType = beanTypes.get(type);
+    if (beanType == null) {
+      beanType = beanTypes.computeIfAbsent(type, this::createBeanType);
+    }
+    return beanType == NOT_A_BEAN ? null : beanType;
+  }
+
+  private BeanType createBeanType(Class<?> type) {
+    if (!Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type) || type.isEnum()
+        || Modifier.isAbstract(type.getModifiers())) {
+      return NOT_A_BEAN;
+    }
+    Reflector reflector = reflectorFactory.findForClass(type);
+    if (!reflector.hasDefaultConstructor()) {
+      return NOT_A_BEAN;
+    }
+    List<String> names = new ArrayList<>();
+    // Java serialization does not write the fields of non serializable super classes either
+    for (Class<?> current = type; Serializable.class.isAssignableFrom(current); current = current.getSuperclass()) {
+      if (hasCustomSerialization(current)) {
+        return NOT_A_BEAN;
+      }
+      for (Field field : current.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+          continue;
+        }
+        String name = field.getName();
+        if (field.isSynthetic() || Modifier.isFinal(modifiers) || names.contains(name) || !reflector.hasGetter(name)
+            || !reflector.hasSetter(name) || reflector.getGetterType(name) != reflector.getSetterType(name)) {
+          return NOT_A_BEAN;
+        }
+        names.add(name);
+      }
+    }
+    Invoker[] getters = new Invoker[names.size()];
+    Invoker[] setters = new Invoker[names.size()];
+    for (int i = 0; i < getters.length; i++) {
+      getters[i] = reflector.getGetInvoker(names.get(i));
+      setters[i] = reflector.getSetInvoker(names.get(i));
+    }
+    return new BeanType(type, names.toArray(new String[0]), getters, setters);
+  }
+
+  private static boolean hasCustomSerialization(Class<?> type) {
+    for (Method method : type.getDeclaredMethods()) {
+      if (!Modifier.isStatic(method.getModifiers()) && SERIALIZATION_METHODS.contains(method.getName())) {
+        return true;
+      }
+    }
+    try {
+      type.getDeclaredField("serialPersistentFields");
+      return true;
+    } catch (NoSuchFieldException e) {
+      return false;
+    }
+  }
+
+  private Class<?> resolveClass(String name) throws Exception {
+    Class<?> type = checkedClasses.get(name);
+    if (type == null) {
+      // Not initialized, so that the bytes cannot run the static initializers of a class that is rejected
+      type = Resources.classForName(name, false);
+      if (!Serializable.class.isAssignableFrom(type)) {
+        throw new CacheException("Class " + name + " is not serializable.");
+      }
+      // Resolving the class through an ObjectInputStream applies the serial filter of the JVM
+      try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+          ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+        oos.writeObject(type);
+        oos.flush();
+        try (ObjectInputStream ois = new SerializedCache.CustomObjectInputStream(
+            new ByteArrayInputStream(bos.toByteArray()))) {
+          ois.readObject();
+        }
+      }
+      checkedClasses.put(name, type);
+    }
+    return type;
+  }
+
+  private static final class BeanType {
+    private final Class<?> type;
+    private final String[] names;
+    private final Invoker[] getters;
+    private final Invoker[] setters;
+
+    BeanType(Class<?> type, String[] names, Invoker[] getters, Invoker[] setters) {
+      this.type = type;
+      this.names = names;
+      this.getters = getters;
+      this.setters = setters;
+    }
+
+    Invoker getSetter(String name) {
+      for (int i = 0; i < names.length; i++) {
+        if (names[i].equals(name)) {
+          return setters[i];
+        }
+      }
+      return null;
+    }
+  }
+
+  private final class Output {
+    private byte[] buffer = new byte[256];
+    private int position;
+    private final Map<Object, Integer> references = new IdentityHashMap<>();
+    private final Map<Class<?>, Integer> classes = new HashMap<>();
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+
+    void writeValue(Object value) throws Exception {
+      if (value == null) {
+        writeByte(NULL);
+        return;
+      }
+      final Class<?> type = value.getClass();
+      final Byte tag = TAGS.get(type);
+      if (tag == null) {
+        writeObject(value, type);
+        return;
+      }
+      switch (tag) {
+        case TRUE:
+          writeByte((Boolean) value ? TRUE : FALSE);
+          break;
+        case INTEGER:
+          writeByte(INTEGER);
+          writeVarLong((Integer) value);
+          break;
+        case LONG:
+          writeByte(LONG);
+          writeVarLong((Long) value);
+          break;
+        case SHORT:
+          writeByte(SHORT);
+          writeVarLong((Short) value);
+          break;
+        case BYTE:
+          writeByte(BYTE);
+          writeByte((Byte) value);
+          break;
+        case CHARACTER:
+          writeByte(CHARACTER);
+          writeVarLong((Character) value);
+          break;
+        case FLOAT:
+          writeByte(FLOAT);
+          writeFixedLong(Float.floatToRawIntBits((Float) value), 4);
+          break;
+        case DOUBLE:
+          writeByte(DOUBLE);
+          writeFixedLong(Double.doubleToRawLongBits((Double) value), 8);
+          break;
+        case STRING:
+          writeByte(STRING);
+          writeString((String) value);
+          break;
+        case BIG_DECIMAL:
+          writeByte(BIG_DECIMAL);
+          writeVarLong(((BigDecimal) value).scale());
+          writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+          break;
+        case BIG_INTEGER:
+          writeByte(BIG_INTEGER);
+          writeBytes(((BigInteger) value).toByteArray());
+          break;
+        case DATE:
+        case SQL_DATE:
+        case SQL_TIME:
+          writeByte(tag);
+          writeVarLong(((Date) value).getTime());
+          break;
+        case TIMESTAMP:
+          writeByte(TIMESTAMP);
+          writeVarLong(((Timestamp) value).getTime());
+          writeVarLong(((Timestamp) value).getNanos());
+          break;
+        case LOCAL_DATE:
+          writeByte(LOCAL_DATE);
+          writeVarLong(((LocalDate) value).toEpochDay());
+          break;
+        case LOCAL_TIME:
+          writeByte(LOCAL_TIME);
+          writeVarLong(((LocalTime) value).toNanoOfDay());
+          break;
+        case LOCAL_DATE_TIME:
+          writeByte(LOCAL_DATE_TIME);
+          writeVarLong(((LocalDateTime) value).toLocalDate().toEpochDay());
+          writeVarLong(((LocalDateTime) value).toLocalTime().toNanoOfDay());
+          break;
+        case INSTANT:
+          writeByte(INSTANT);
+          writeVarLong(((Instant) value).getEpochSecond());
+          writeVarLong(((Instant) value).getNano());
+          break;
+        default:
+          writeObject(value, type);
+          break;
+      }
+    }
+
+    private void writeObject(Object value, Class<?> type) throws Exception {
+      final Integer reference = references.get(value);
+      if (reference != null) {
+        writeByte(REFERENCE);
+        writeVarLong(reference);
+        return;
+      }
+      if (value instanceof Enum) {
+        writeByte(ENUM);
+        writeClass(((Enum<?>) value).getDeclaringClass(), null);
+        writeString(((Enum<?>) value).name());
+        return;
+      }
+      references.put(value, references.size());
+      final Byte tag = TAGS.get(type);
+      if (tag != null && tag == BYTES) {
+        writeByte(BYTES);
+        writeBytes((byte[]) value);
+      } else if (tag != null && tag == OBJECT_ARRAY) {
+        final Object[] array = (Object[]) value;
+        writeByte(OBJECT_ARRAY);
+        writeVarLong(array.length);
+        for (Object element : array) {
+          writeValue(element);
+        }
+      } else if (tag != null && (tag == HASH_MAP || tag == LINKED_HASH_MAP)) {
+        final Map<?, ?> map = (Map<?, ?>) value;
+        writeByte(tag);
+        writeVarLong(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          writeValue(entry.getKey());
+          writeValue(entry.getValue());
+        }
+      } else if (tag != null) {
+        final Collection<?> collection = (Collection<?>) value;
+        writeByte(tag);
+        writeVarLong(collection.size());
+        for (Object element : collection) {
+          writeValue(element);
+        }
+      } else {
+        final BeanType beanType = getBeanType(type);
+        if (beanType == null) {
+          writeByte(JAVA);
+          writeBytes(JAVA_SERIALIZER.serialize(value));
+        } else {
+          writeByte(BEAN);
+          writeClass(type, beanType);
+          for (Invoker getter : beanType.getters) {
+            writeValue(getter.invoke(value, NO_ARGUMENTS));
+          }
+        }
+      }
+    }
+
+    private void writeClass(Class<?> type, BeanType beanType) {
+      final Integer index = classes.get(type);
+      if (index != null) {
+        writeVarLong(index + 1);
+        return;
+      }
+      classes.put(type, classes.size());
+      writeVarLong(NEW_CLASS);
+      writeString(type.getName());
+      if (beanType != null) {
+        writeVarLong(beanType.names.length);
+        for (String name : beanType.names) {
+          writeString(name);
+        }
+      }
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) {
+      // Zig-zag encoding keeps small negative numbers short
+      long remaining = value << 1 ^ value >> 63;
+      ensureCapacity(10);
+      while ((remaining & ~0x7FL) != 0) {
+        buffer[position++] = (byte) (remaining & 0x7F | 0x80);
+        remaining >>>= 7;
+      }
+      buffer[position++] = (byte) remaining;
+    }
+
+    private void writeFixedLong(long value, int bytes) {
+      ensureCapacity(bytes);
+      for (int i = 0; i < bytes; i++) {
+        buffer[position++] = (byte) (value >>> i * 8);
+      }
+    }
+
+    private void writeString(String value) {
+      writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] value) {
+      writeVarLong(value.length);
+      ensureCapacity(value.length);
+      System.arraycopy(value, 0, buffer, position, value.length);
+      position += value.length;
+    }
+
+    private void ensureCapacity(int bytes) {
+      if (position + bytes > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+      }
+    }
+  }
+
+  private final class Input {
+    private final byte[] buffer;
+    private int position;
+    private final List<Object> references = new ArrayList<>();
+    private final List<Object> classes = new ArrayList<>();
+
+    Input(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    byte readByte() {
+      return buffer[position++];
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    Object readValue() throws Exception {
+      final byte tag = readByte();
+      switch (tag) {
+        case NULL:
+          return null;
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case INTEGER:
+          return (int) readVarLong();
+        case LONG:
+          return readVarLong();
+        case SHORT:
+          return (short) readVarLong();
+        case BYTE:
+          return readByte();
+        case CHARACTER:
+          return (char) readVarLong();
+        case FLOAT:
+          return Float.intBitsToFloat((int) readFixedLong(4));
+        case DOUBLE:
+          return Double.longBitsToDouble(readFixedLong(8));
+        case STRING:
+          return readString();
+        case BIG_DECIMAL:
+          final int scale = (int) readVarLong();
+          return new BigDecimal(new BigInteger(readBytes()), scale);
+        case BIG_INTEGER:
+          return new BigInteger(readBytes());
+        case DATE:
+          return new Date(readVarLong());
+        case SQL_DATE:
+          return new java.sql.Date(readVarLong());
+        case SQL_TIME:
+          return new Time(readVarLong());
+        case TIMESTAMP:
+          final Timestamp timestamp = new Timestamp(readVarLong());
+          timestamp.setNanos((int) readVarLong());
+          return timestamp;
+        case LOCAL_DATE:
+          return LocalDate.ofEpochDay(readVarLong());
+        case LOCAL_TIME:
+          return LocalTime.ofNanoOfDay(readVarLong());
+        case LOCAL_DATE_TIME:
+          final LocalDate date = LocalDate.ofEpochDay(readVarLong());
+          return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong()));
+        case INSTANT:
+          final long seconds = readVarLong();
+          return Instant.ofEpochSecond(seconds, readVarLong());
+        case BYTES:
+          return addReference(readBytes());
+        case ARRAY_LIST:
+          final int listSize = readSize();
+          return readElements(addReference(new ArrayList<>(listSize)), listSize);
+        case LINKED_LIST:
+          return readElements(addReference(new LinkedList<>()), readSize());
+        case HASH_SET:
+          final int setSize = readSize();
+          return readElements(addReference(new HashSet<>(capacity(setSize))), setSize);
+        case LINKED_HASH_SET:
+          final int linkedSetSize = readSize();
+          return readElements(addReference(new LinkedHashSet<>(capacity(linkedSetSize))), linkedSetSize);
+        case HASH_MAP:
+          final int mapSize = readSize();
+          return readEntries(addReference(new HashMap<>(capacity(mapSize))), mapSize);
+        case LINKED_HASH_MAP:
+          final int linkedMapSize = readSize();
+          return readEntries(addReference(new LinkedHashMap<>(capacity(linkedMapSize))), linkedMapSize);
+        case OBJECT_ARRAY:
+          final Object[] array = addReference(new Object[readSize()]);
+          for (int i = 0; i < array.length; i++) {
+            array[i] = readValue();
+          }
+          return array;
+        case ENUM:
+          final Class<?> enumType = (Class<?>) readClass(false);
+          if (!enumType.isEnum()) {
+            throw new CacheException("Class " + enumType.getName() + " is not an enum.");
+          }
+          return Enum.valueOf((Class<? extends Enum>) enumType, readString());
+        case BEAN:
+          return readBean();
+        case REFERENCE:
+          return references.get((int) readVarLong());
+        case JAVA:
+          final int index = references.size();
+          references.add(null);
+          final Object value = JAVA_SERIALIZER.deserialize(readBytes());
+          references.set(index, value);
+          return value;
+        default:
+          throw new CacheException("Unknown serialized value type " + tag + ".");
+      }
+    }
+
+    private Object readBean() throws Exception {
+      final ClassDescriptor descriptor = (ClassDescriptor) readClass(true);
+      final Object bean = addReference(objectFactory.create(descriptor.type));
+      for (Invoker setter : descriptor.setters) {
+        setter.invoke(bean, new Object[] { readValue() });
+      }
+      return bean;
+    }
+
+    private Object readClass(boolean bean) throws Exception {
+      final int index = (int) readVarLong();
+      if (index != NEW_CLASS) {
+        return classes.get(index - 1);
+      }
+      final Class<?> type = resolveClass(readString());
+      if (!bean) {
+        classes.add(type);
+        return type;
+      }
+      final BeanType beanType = getBeanType(type);
+      if (beanType == null) {
+        throw new CacheException("Class " + type.getName() + " cannot be deserialized as a bean.");
+      }
+      final Invoker[] setters = new Invoker[readSize()];
+      for (int i = 0; i < setters.length; i++) {
+        final String name = readString();
+        setters[i] = beanType.getSetter(name);
+        if (setters[i] == null) {
+          throw new CacheException("Class " + type.getName() + " has no property named '" + name + "'.");
+        }
+      }
+      final ClassDescriptor descriptor = new ClassDescriptor(type, setters);
+      classes.add(descriptor);
+      return descriptor;
+    }
+
+    private <T extends Collection<Object>> T readElements(T collection, int size) throws Exception {
+      for (int i = 0; i < size; i++) {
+        collection.add(readValue());
+      }
+      return collection;
+    }
+
+    private <T extends Map<Object, Object>> T readEntries(T map, int size) throws Exception {
+      for (int i = 0; i < size; i++) {
+        final Object key = readValue();
+        map.put(key, readValue());
+      }
+      return map;
+    }
+
+    private <T> T addReference(T value) {
+      references.add(value);
+      return value;
+    }
+
+    private int capacity(int size) {
+      return Math.max((int) (size / 0.75f) + 1, 16);
+    }
+
+    private int readSize() {
+      final long size = readVarLong();
+      if (size < 0 || size > buffer.length - position) {
+        // Every element takes at least one byte
+        throw new CacheException("Invalid serialized size " + size + ".");
+      }
+      return (int) size;
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      int shift = 0;
+      byte current;
+      do {
+        current = readByte();
+        value |= (long) (current & 0x7F) << shift;
+        shift += 7;
+      } while ((current & 0x80) != 0);
+      return value >>> 1 ^ -(value & 1);
+    }
+
+    private long readFixedLong(int bytes) {
+      long value = 0;
+      for (int i = 0; i < bytes; i++) {
+        value |= (readByte() & 0xFFL) << i * 8;
+      }
+      return value;
+    }
+
+    private String readString() {
+      final int length = readSize();
+      final String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    private byte[] readBytes() {
+      final int length = readSize();
+      final byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+      position += length;
+      return value;
+    }
+  }
+
+  private static final class ClassDescriptor {
+    private final Class<?> type;
+    private final Invoker[] setters;
+
+    ClassDescriptor(Class<?> type, Invoker[] setters) {
+      this.type = type;
+      this.setters = setters;
+    }
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.serializer;
+
+/**
+ * Converts cached values to bytes and back, for the caches that store copies of their values.
+ * <p>
+ * Implementations are shared by all caches of a configuration, so they must be thread safe. They must have a public
+ * no-argument constructor to be declared with the {@code cacheSerializer} setting.
+ *
+ * @since 3.5.20
+ *
+ * @see org.apache.ibatis.session.Configuration#getCacheSerializer()
+ */
+public interface Serializer {
+
+  /**
+   * Serializes a value.
+   *
+   * @param value
+   *          the value, may be {@code null}
+   *
+   * @return the serialized value
+   *
+   * @throws org.apache.ibatis.cache.CacheException
+   *           if the value cannot be serialized
+   */
+  byte[] serialize(Object value);
+
+  /**
+   * Deserializes a value, returning a copy that does not share any mutable state with other copies.
+   *
+   * @param bytes
+   *          the serialized value
+   *
+   * @return the value, may be {@code null}
+   *
+   * @throws org.apache.ibatis.cache.CacheException
+   *           if the value cannot be deserialized
+   */
+  Object deserialize(byte[] bytes);
+
+}
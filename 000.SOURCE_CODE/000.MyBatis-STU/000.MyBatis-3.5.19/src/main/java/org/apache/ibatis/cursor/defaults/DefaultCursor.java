@@ -17,10 +17,21 @@ package org.apache.ibatis.cursor.defaults;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetWrapper;
 import org.apache.ibatis.mapping.ResultMap;
@@ -30,11 +41,21 @@ import org.apache.ibatis.session.RowBounds;
 
 /**
  * This is the default implementation of a MyBatis Cursor. This implementation is not thread safe.
+ * <p>
+ * Rows are mapped one at a time by default. A cursor created with a chunk size maps that many rows at once and serves
+ * the next elements from the mapped chunk; given an executor, it maps the chunks on a thread of that executor, at most
+ * {@value #PREFETCHED_CHUNKS} chunks ahead of the consumer. When the consumer does not take a chunk within the hand-off
+ * timeout, {@value #HAND_OFF_TIMEOUT_MILLIS} ms by default, the executor thread is released and the remaining rows are
+ * mapped on the consumer's thread.
  *
  * @author Guillaume Darmont / guillaume@dropinocean.com
  */
 public class DefaultCursor<T> implements Cursor<T> {
 
+  private static final int PREFETCHED_CHUNKS = 2;
+  private static final long HAND_OFF_TIMEOUT_MILLIS = 10_000;
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
   // ResultSetHandler stuff
   private final DefaultResultSetHandler resultSetHandler;
   private final ResultMap resultMap;
@@ -48,6 +69,16 @@ public class DefaultCursor<T> implements Cursor<T> {
   private CursorStatus status = CursorStatus.CREATED;
   private int indexWithRowBound = -1;
 
+  // Chunk mapping stuff
+  private final int chunkSize;
+  private Executor prefetchExecutor;
+  private Prefetcher prefetcher;
+  private List<T> chunk = Collections.emptyList();
+  private int chunkIndex;
+  private boolean lastChunk;
+  private long mappedRows;
+  private final long handOffTimeoutMillis;
+
   private enum CursorStatus {
 
     /**
@@ -70,10 +101,61 @@ public class DefaultCursor<T> implements Cursor<T> {
 
   public DefaultCursor(DefaultResultSetHandler resultSetHandler, ResultMap resultMap, ResultSetWrapper rsw,
       RowBounds rowBounds) {
+    this(resultSetHandler, resultMap, rsw, rowBounds, 0, null);
+  }
+
+  /**
+   * Creates a cursor that maps its rows by chunks.
+   *
+   * @param resultSetHandler
+   *          the result set handler mapping the rows
+   * @param resultMap
+   *          the result map of the rows
+   * @param rsw
+   *          the result set to read
+   * @param rowBounds
+   *          the row bounds to apply
+   * @param chunkSize
+   *          the number of rows mapped at once, {@code 0} to map each row when the next element is requested
+   * @param prefetchExecutor
+   *          the executor mapping the chunks ahead of the consumer, or {@code null} to map them on the calling thread
+   *
+   * @since 3.5.20
+   */
+  public DefaultCursor(DefaultResultSetHandler resultSetHandler, ResultMap resultMap, ResultSetWrapper rsw,
+      RowBounds rowBounds, int chunkSize, Executor prefetchExecutor) {
+    this(resultSetHandler, resultMap, rsw, rowBounds, chunkSize, prefetchExecutor, HAND_OFF_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Creates a cursor that maps its rows by chunks, with the time a chunk mapped ahead waits for the consumer.
+   *
+   * @param resultSetHandler
+   *          the result set handler mapping the rows
+   * @param resultMap
+   *          the result map of the rows
+   * @param rsw
+   *          the result set to read
+   * @param rowBounds
+   *          the row bounds to apply
+   * @param chunkSize
+   *          the number of rows mapped at once, {@code 0} to map each row when the next element is requested
+   * @param prefetchExecutor
+   *          the executor mapping the chunks ahead of the consumer, or {@code null} to map them on the calling thread
+   * @param handOffTimeoutMillis
+   *          the milliseconds the executor thread waits for the consumer to take a chunk before it is released
+   *
+   * @since 3.5.20
+   */
+  public DefaultCursor(DefaultResultSetHandler resultSetHandler, ResultMap resultMap, ResultSetWrapper rsw,
+      RowBounds rowBounds, int chunkSize, Executor prefetchExecutor, long handOffTimeoutMillis) {
     this.resultSetHandler = resultSetHandler;
     this.resultMap = resultMap;
     this.rsw = rsw;
     this.rowBounds = rowBounds;
+    this.chunkSize = chunkSize;
+    this.prefetchExecutor = chunkSize > 0 ? prefetchExecutor : null;
+    this.handOffTimeoutMillis = handOffTimeoutMillis;
   }
 
   @Override
@@ -91,6 +173,19 @@ public class DefaultCursor<T> implements Cursor<T> {
     return rowBounds.getOffset() + cursorIterator.iteratorIndex;
   }
 
+  /**
+   * Returns whether the result set of this cursor may be read by another thread, which is the case when it maps its
+   * rows in the background, from its creation until it is closed or all its rows are mapped. The connection of the
+   * cursor must not be used meanwhile.
+   *
+   * @return whether the rows are mapped in the background
+   *
+   * @since 3.5.20
+   */
+  public boolean isMappingInBackground() {
+    return prefetchExecutor != null && !isClosed() && (prefetcher == null || !prefetcher.isDone());
+  }
+
   @Override
   public Iterator<T> iterator() {
     if (iteratorRetrieved) {
@@ -109,6 +204,10 @@ public class DefaultCursor<T> implements Cursor<T> {
       return;
     }
 
+    if (prefetcher != null) {
+      // The result set must not be closed while a chunk is being mapped from it.
+      prefetcher.cancel();
+    }
     ResultSet rs = rsw.getResultSet();
     try {
       if (rs != null) {
@@ -134,14 +233,18 @@ public class DefaultCursor<T> implements Cursor<T> {
       return null;
     }
 
-    try {
-      objectWrapperResultHandler.fetched = false;
-      status = CursorStatus.OPEN;
-      if (!rsw.getResultSet().isClosed()) {
-        resultSetHandler.handleRowValues(rsw, resultMap, objectWrapperResultHandler, RowBounds.DEFAULT, null);
+    if (chunkSize > 0) {
+      fetchNextObjectFromChunk();
+    } else {
+      try {
+        objectWrapperResultHandler.fetched = false;
+        status = CursorStatus.OPEN;
+        if (!rsw.getResultSet().isClosed()) {
+          resultSetHandler.handleRowValues(rsw, resultMap, objectWrapperResultHandler, RowBounds.DEFAULT, null);
+        }
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
       }
-    } catch (SQLException e) {
-      throw new RuntimeException(e);
     }
 
     T next = objectWrapperResultHandler.result;
@@ -158,6 +261,69 @@ public class DefaultCursor<T> implements Cursor<T> {
     return next;
   }
 
+  private void fetchNextObjectFromChunk() {
+    status = CursorStatus.OPEN;
+    if (chunkIndex == chunk.size() && !lastChunk) {
+      Chunk<T> next = nextChunk();
+      chunk = next.rows;
+      chunkIndex = 0;
+      lastChunk = next.last;
+    }
+    objectWrapperResultHandler.fetched = chunkIndex < chunk.size();
+    if (objectWrapperResultHandler.fetched) {
+      objectWrapperResultHandler.result = chunk.set(chunkIndex++, null);
+    }
+  }
+
+  private Chunk<T> nextChunk() {
+    if (prefetchExecutor != null && prefetcher == null) {
+      prefetcher = new Prefetcher();
+      try {
+        prefetchExecutor.execute(prefetcher);
+      } catch (RejectedExecutionException e) {
+        // Map the chunks on the calling thread instead.
+        prefetcher = null;
+        prefetchExecutor = null;
+      }
+    }
+    if (prefetcher != null) {
+      Chunk<T> next = prefetcher.take();
+      if (next != null) {
+        if (next.failure != null) {
+          close();
+          if (next.failure instanceof RuntimeException) {
+            throw (RuntimeException) next.failure;
+          }
+          if (next.failure instanceof Error) {
+            throw (Error) next.failure;
+          }
+          throw new RuntimeException(next.failure);
+        }
+        return next;
+      }
+      // The mapping thread has stopped before the last chunk, map the remaining rows on the calling thread.
+      prefetcher = null;
+      prefetchExecutor = null;
+    }
+    try {
+      return mapChunk();
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Chunk<T> mapChunk() throws SQLException {
+    final long maxRows = (long) rowBounds.getOffset() + rowBounds.getLimit();
+    final int capacity = (int) Math.min(chunkSize, maxRows - mappedRows);
+    final ChunkResultHandler<T> chunkResultHandler = new ChunkResultHandler<>(capacity);
+    if (capacity > 0 && !rsw.getResultSet().isClosed()) {
+      resultSetHandler.handleRowValues(rsw, resultMap, chunkResultHandler, RowBounds.DEFAULT, null);
+    }
+    final List<T> rows = chunkResultHandler.rows;
+    mappedRows += rows.size();
+    return new Chunk<>(rows, rows.size() < capacity || mappedRows == maxRows, null);
+  }
+
   private boolean isClosed() {
     return status == CursorStatus.CLOSED || status == CursorStatus.CONSUMED;
   }
@@ -179,6 +345,135 @@ public class DefaultCursor<T> implements Cursor<T> {
     }
   }
 
+  private static class ChunkResultHandler<T> implements ResultHandler<T> {
+
+    private final int capacity;
+    private final List<T> rows;
+
+    ChunkResultHandler(int capacity) {
+      this.capacity = capacity;
+      this.rows = new ArrayList<>(capacity);
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends T> context) {
+      rows.add(context.getResultObject());
+      if (rows.size() >= capacity) {
+        context.stop();
+      }
+    }
+  }
+
+  private static class Chunk<T> {
+
+    private final List<T> rows;
+    /**
+     * Whether no row is left to map after this chunk.
+     */
+    private final boolean last;
+    private final Throwable failure;
+
+    Chunk(List<T> rows, boolean last, Throwable failure) {
+      this.rows = rows;
+      this.last = last;
+      this.failure = failure;
+    }
+  }
+
+  /**
+   * Maps the chunks on a thread of the prefetch executor until the result set is consumed or the cursor is closed.
+   */
+  private class Prefetcher implements Runnable {
+
+    private final BlockingQueue<Chunk<T>> chunks = new ArrayBlockingQueue<>(PREFETCHED_CHUNKS);
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean cancelled;
+    // The chunk the consumer did not take in time, it is returned once the queued chunks have been taken
+    private volatile Chunk<T> pending;
+
+    @Override
+    public void run() {
+      if (!started.compareAndSet(false, true)) {
+        // Cancelled before running
+        return;
+      }
+      try {
+        Chunk<T> next;
+        do {
+          next = mapChunk();
+        } while (handOff(next) && !next.last && !cancelled);
+      } catch (Throwable t) {
+        handOff(new Chunk<>(Collections.emptyList(), true, t));
+      } finally {
+        done.countDown();
+      }
+    }
+
+    private boolean handOff(Chunk<T> next) {
+      if (cancelled) {
+        return false;
+      }
+      try {
+        if (chunks.offer(next, handOffTimeoutMillis, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      pending = next;
+      return false;
+    }
+
+    boolean isDone() {
+      return done.getCount() == 0;
+    }
+
+    /**
+     * Returns the next chunk, or {@code null} if the mapping thread has stopped without mapping it.
+     */
+    Chunk<T> take() {
+      try {
+        Chunk<T> next;
+        while ((next = chunks.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+          if (isDone()) {
+            next = chunks.poll();
+            if (next == null) {
+              next = pending;
+              pending = null;
+            }
+            return next;
+          }
+        }
+        return next;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ExecutorException("Interrupted while waiting for the next rows of the cursor.", e);
+      }
+    }
+
+    void cancel() {
+      cancelled = true;
+      if (started.compareAndSet(false, true)) {
+        return;
+      }
+      // Unblocks a pending hand-off, the mapping thread then sees the cancellation and stops.
+      chunks.clear();
+      boolean interrupted = false;
+      while (true) {
+        try {
+          done.await();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
   protected class CursorIterator implements Iterator<T> {
 
     /**
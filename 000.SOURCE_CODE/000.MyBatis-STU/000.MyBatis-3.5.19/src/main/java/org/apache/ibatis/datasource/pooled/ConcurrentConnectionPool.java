@@ -0,0 +1,450 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * The connection pool used by {@link PooledDataSource} when {@link PooledDataSource#setPoolLockFree(boolean)} is
+ * enabled.
+ * <p>
+ * Idle and active connections live in a single list of entries whose state is switched with compare-and-set instead of
+ * being moved between lists under a lock. A thread first tries the connection it used last, then scans the shared list,
+ * and a thread returning a connection wakes up a waiting thread, which then takes it from the list. Statistics are
+ * recorded in the {@link PoolState} of the data source.
+ *
+ * @since 3.5.20
+ */
+class ConcurrentConnectionPool {
+
+  private static final Log log = LogFactory.getLog(ConcurrentConnectionPool.class);
+
+  private static final int STATE_IDLE = 0;
+  private static final int STATE_ACTIVE = 1;
+  private static final int STATE_REMOVED = -1;
+
+  private final PooledDataSource pooledDataSource;
+  private final UnpooledDataSource dataSource;
+  private final PoolState state;
+
+  private final CopyOnWriteArrayList<Entry> entries = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<WeakReference<Entry>> lastUsed = new ThreadLocal<>();
+  // Waiting threads, woken up in order when a connection is returned
+  private final ConcurrentLinkedQueue<Waiter> waitingThreads = new ConcurrentLinkedQueue<>();
+  // Number of entries, including connections being opened
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  ConcurrentConnectionPool(PooledDataSource pooledDataSource, UnpooledDataSource dataSource, PoolState state) {
+    this.pooledDataSource = pooledDataSource;
+    this.dataSource = dataSource;
+    this.state = state;
+  }
+
+  int getIdleConnectionCount() {
+    return idleCount.get();
+  }
+
+  int getActiveConnectionCount() {
+    return Math.max(0, entries.size() - idleCount.get());
+  }
+
+  PooledConnection popConnection(String username, String password) throws SQLException {
+    boolean countedWait = false;
+    long t = System.currentTimeMillis();
+    int localBadConnectionCount = 0;
+
+    while (true) {
+      PooledConnection conn;
+      Entry entry = borrow();
+      if (entry != null) {
+        // Pool has available connection
+        conn = checkout(entry);
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + conn.getRealHashCode() + " from pool.");
+        }
+      } else if ((conn = createConnection()) != null) {
+        // Pool does not have available connection and can create a new connection
+        if (log.isDebugEnabled()) {
+          log.debug("Created connection " + conn.getRealHashCode() + ".");
+        }
+      } else if ((conn = claimOverdueConnection()) != null) {
+        if (log.isDebugEnabled()) {
+          log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
+        }
+      } else {
+        // Must wait
+        if (!countedWait) {
+          state.concurrentHadToWaitCount.increment();
+          countedWait = true;
+        }
+        entry = awaitConnection();
+        if (entry == null) {
+          continue;
+        }
+        conn = checkout(entry);
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + conn.getRealHashCode() + " from pool.");
+        }
+      }
+
+      // ping to server and check the connection is valid or not
+      final Entry checkedOut = ((EntryConnection) conn).entry;
+      if (conn.isValid()) {
+        try {
+          if (!conn.getRealConnection().getAutoCommit()) {
+            conn.getRealConnection().rollback();
+          }
+        } catch (SQLException | RuntimeException e) {
+          remove(checkedOut);
+          throw e;
+        }
+        conn.setConnectionTypeCode(
+            pooledDataSource.assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+        conn.setCheckoutTimestamp(System.currentTimeMillis());
+        conn.setLastUsedTimestamp(System.currentTimeMillis());
+        checkedOut.current.set(conn);
+        remember(checkedOut);
+        state.concurrentRequestCount.increment();
+        state.concurrentAccumulatedRequestTime.add(System.currentTimeMillis() - t);
+        return conn;
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode()
+            + ") was returned from the pool, getting another connection.");
+      }
+      remove(checkedOut);
+      state.concurrentBadConnectionCount.increment();
+      localBadConnectionCount++;
+      if (localBadConnectionCount > pooledDataSource.poolMaximumIdleConnections
+          + pooledDataSource.poolMaximumLocalBadConnectionTolerance) {
+        if (log.isDebugEnabled()) {
+          log.debug("PooledDataSource: Could not get a good connection to the database.");
+        }
+        throw new SQLException("PooledDataSource: Could not get a good connection to the database.");
+      }
+    }
+  }
+
+  void pushConnection(PooledConnection conn) throws SQLException {
+    final Entry entry = conn instanceof EntryConnection ? ((EntryConnection) conn).entry : null;
+    // Only one of the closing thread and a thread claiming the connection as overdue can take it back.
+    final boolean owned = entry != null && entry.current.compareAndSet(conn, null);
+    if (!owned || !conn.isValid()) {
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode()
+            + ") attempted to return to the pool, discarding connection.");
+      }
+      if (owned) {
+        remove(entry);
+      }
+      state.concurrentBadConnectionCount.increment();
+      return;
+    }
+    state.concurrentAccumulatedCheckoutTime.add(conn.getCheckoutTime());
+    try {
+      if (!conn.getRealConnection().getAutoCommit()) {
+        conn.getRealConnection().rollback();
+      }
+    } catch (SQLException | RuntimeException e) {
+      conn.invalidate();
+      remove(entry);
+      throw e;
+    }
+    entry.lastUsedTimestamp = conn.getLastUsedTimestamp();
+    conn.invalidate();
+    if (conn.getConnectionTypeCode() != pooledDataSource.expectedConnectionTypeCode || !reserveIdleSlot()) {
+      remove(entry);
+      if (log.isDebugEnabled()) {
+        log.debug("Closed connection " + conn.getRealHashCode() + ".");
+      }
+      return;
+    }
+    if (!entry.state.compareAndSet(STATE_ACTIVE, STATE_IDLE)) {
+      // Removed by forceCloseAll() in the meantime
+      idleCount.decrementAndGet();
+      return;
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Returned connection " + conn.getRealHashCode() + " to pool.");
+    }
+    wakeUpWaiter();
+  }
+
+  /**
+   * Wakes up the longest waiting thread, which then borrows an idle entry. The entry is made idle before, and a waiter
+   * is queued before its last borrow attempt, so either that attempt finds the entry or the waiter is found here. An
+   * unpark before the waiter parks is not lost, as it makes the park return at once.
+   */
+  private void wakeUpWaiter() {
+    final Waiter waiter = waitingThreads.poll();
+    if (waiter != null) {
+      waiter.queued = false;
+      LockSupport.unpark(waiter.thread);
+    }
+  }
+
+  void closeAll() {
+    for (Entry entry : entries) {
+      int current;
+      do {
+        current = entry.state.get();
+      } while (current != STATE_REMOVED && !entry.state.compareAndSet(current, STATE_REMOVED));
+      if (current == STATE_REMOVED) {
+        continue;
+      }
+      if (current == STATE_IDLE) {
+        idleCount.decrementAndGet();
+      }
+      PooledConnection conn = entry.current.getAndSet(null);
+      if (conn != null) {
+        conn.invalidate();
+      }
+      discard(entry);
+    }
+  }
+
+  private Entry borrow() {
+    final WeakReference<Entry> reference = lastUsed.get();
+    final Entry last = reference == null ? null : reference.get();
+    if (last != null && reserve(last)) {
+      return last;
+    }
+    for (Entry entry : entries) {
+      if (reserve(entry)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private boolean reserve(Entry entry) {
+    if (entry.state.compareAndSet(STATE_IDLE, STATE_ACTIVE)) {
+      idleCount.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  private boolean reserveIdleSlot() {
+    while (true) {
+      int idle = idleCount.get();
+      // A connection wanted by a waiting thread is kept even when the idle pool is full
+      if (idle >= pooledDataSource.poolMaximumIdleConnections && waiters.get() == 0) {
+        return false;
+      }
+      if (idleCount.compareAndSet(idle, idle + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void remember(Entry entry) {
+    final WeakReference<Entry> reference = lastUsed.get();
+    if (reference == null || reference.get() != entry) {
+      lastUsed.set(new WeakReference<>(entry));
+    }
+  }
+
+  private PooledConnection createConnection() throws SQLException {
+    while (true) {
+      int current = size.get();
+      if (current >= pooledDataSource.poolMaximumActiveConnections) {
+        return null;
+      }
+      if (size.compareAndSet(current, current + 1)) {
+        break;
+      }
+    }
+    final Entry entry;
+    try {
+      entry = new Entry(dataSource.getConnection(), pooledDataSource.createStatementCache());
+    } catch (SQLException | RuntimeException e) {
+      size.decrementAndGet();
+      throw e;
+    }
+    entries.add(entry);
+    return checkout(entry);
+  }
+
+  private PooledConnection claimOverdueConnection() {
+    Entry oldestEntry = null;
+    PooledConnection oldestActiveConnection = null;
+    for (Entry entry : entries) {
+      PooledConnection conn = entry.current.get();
+      if (conn != null && (oldestActiveConnection == null
+          || conn.getCheckoutTimestamp() < oldestActiveConnection.getCheckoutTimestamp())) {
+        oldestEntry = entry;
+        oldestActiveConnection = conn;
+      }
+    }
+    if (oldestActiveConnection == null) {
+      return null;
+    }
+    long longestCheckoutTime = oldestActiveConnection.getCheckoutTime();
+    if (longestCheckoutTime <= pooledDataSource.poolMaximumCheckoutTime
+        || !oldestEntry.current.compareAndSet(oldestActiveConnection, null)) {
+      return null;
+    }
+    // Can claim overdue connection
+    state.concurrentClaimedOverdueConnectionCount.increment();
+    state.concurrentAccumulatedCheckoutTimeOfOverdueConnections.add(longestCheckoutTime);
+    state.concurrentAccumulatedCheckoutTime.add(longestCheckoutTime);
+    oldestActiveConnection.invalidate();
+    try {
+      if (!oldestActiveConnection.getRealConnection().getAutoCommit()) {
+        oldestActiveConnection.getRealConnection().rollback();
+      }
+    } catch (SQLException e) {
+      // Same as the locking pool: the validity check below decides whether the connection can be used.
+      log.debug("Bad connection. Could not roll back");
+    }
+    oldestEntry.lastUsedTimestamp = oldestActiveConnection.getLastUsedTimestamp();
+    return checkout(oldestEntry);
+  }
+
+  private Entry awaitConnection() throws SQLException {
+    waiters.incrementAndGet();
+    try {
+      // Re-check after registering, a connection returned before that was not offered to this thread.
+      Entry entry = borrow();
+      if (entry != null) {
+        return entry;
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("Waiting as long as " + pooledDataSource.poolTimeToWait + " milliseconds for connection.");
+      }
+      final Waiter waiter = new Waiter(Thread.currentThread());
+      final long wt = System.currentTimeMillis();
+      final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pooledDataSource.poolTimeToWait);
+      try {
+        while (true) {
+          if (!waiter.queued) {
+            waiter.queued = true;
+            waitingThreads.add(waiter);
+          }
+          // Borrow after queueing, a connection returned before that did not wake this thread up
+          entry = borrow();
+          if (entry != null) {
+            return entry;
+          }
+          final long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            log.debug("Wait failed...");
+            return null;
+          }
+          LockSupport.parkNanos(this, remaining);
+          if (Thread.interrupted()) {
+            // set interrupt flag
+            Thread.currentThread().interrupt();
+            if (log.isDebugEnabled()) {
+              log.debug(
+                  "PooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+            }
+            throw new SQLException(
+                "PooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+          }
+        }
+      } finally {
+        waitingThreads.remove(waiter);
+        state.concurrentAccumulatedWaitTime.add(System.currentTimeMillis() - wt);
+        if (idleCount.get() > 0) {
+          // This thread may have been woken up for a connection it did not take, pass it on
+          wakeUpWaiter();
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private PooledConnection checkout(Entry entry) {
+    PooledConnection conn = new EntryConnection(entry, pooledDataSource);
+    conn.setCreatedTimestamp(entry.createdTimestamp);
+    conn.setLastUsedTimestamp(entry.lastUsedTimestamp);
+    return conn;
+  }
+
+  private void remove(Entry entry) {
+    if (entry.state.compareAndSet(STATE_ACTIVE, STATE_REMOVED)) {
+      discard(entry);
+    }
+  }
+
+  private void discard(Entry entry) {
+    entries.remove(entry);
+    size.decrementAndGet();
+    try {
+      Connection realConn = entry.realConnection;
+      if (!realConn.getAutoCommit()) {
+        realConn.rollback();
+      }
+      realConn.close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  private static final class Entry {
+    private final Connection realConnection;
+    private final PooledStatementCache statementCache;
+    private final long createdTimestamp;
+    private final AtomicInteger state = new AtomicInteger(STATE_ACTIVE);
+    // The connection handed out to the application, null while the entry is idle or being taken back
+    private final AtomicReference<PooledConnection> current = new AtomicReference<>();
+    private volatile long lastUsedTimestamp;
+
+    Entry(Connection realConnection, PooledStatementCache statementCache) {
+      this.realConnection = realConnection;
+      this.statementCache = statementCache;
+      this.createdTimestamp = System.currentTimeMillis();
+      this.lastUsedTimestamp = createdTimestamp;
+    }
+  }
+
+  private static final class Waiter {
+    private final Thread thread;
+    // Whether the waiter is in the queue, cleared when it is woken up
+    private volatile boolean queued;
+
+    Waiter(Thread thread) {
+      this.thread = thread;
+    }
+  }
+
+  private static final class EntryConnection extends PooledConnection {
+    private final Entry entry;
+
+    EntryConnection(Entry entry, PooledDataSource dataSource) {
+      super(entry.realConnection, dataSource, entry.statementCache);
+      this.entry = entry;
+    }
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.datasource.pooled;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -44,6 +45,21 @@ public class PoolState {
   protected long hadToWaitCount;
   protected long badConnectionCount;
 
+  // Updated without locking by the lock-free pool, see PooledDataSource#setPoolLockFree(boolean)
+  final LongAdder concurrentRequestCount = new LongAdder();
+  final LongAdder concurrentAccumulatedRequestTime = new LongAdder();
+  final LongAdder concurrentAccumulatedCheckoutTime = new LongAdder();
+  final LongAdder concurrentClaimedOverdueConnectionCount = new LongAdder();
+  final LongAdder concurrentAccumulatedCheckoutTimeOfOverdueConnections = new LongAdder();
+  final LongAdder concurrentAccumulatedWaitTime = new LongAdder();
+  final LongAdder concurrentHadToWaitCount = new LongAdder();
+  final LongAdder concurrentBadConnectionCount = new LongAdder();
+
+  // Updated by the prepared statement caches, see PooledDataSource#setPoolPreparedStatementCacheSize(int)
+  final LongAdder statementCacheHitCount = new LongAdder();
+  final LongAdder statementCacheMissCount = new LongAdder();
+  final LongAdder statementCacheEvictionCount = new LongAdder();
+
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
   }
@@ -51,7 +67,7 @@ public class PoolState {
   public long getRequestCount() {
     lock.lock();
     try {
-      return requestCount;
+      return requestCount + concurrentRequestCount.sum();
     } finally {
       lock.unlock();
     }
@@ -60,7 +76,9 @@ public class PoolState {
   public long getAverageRequestTime() {
     lock.lock();
     try {
-      return requestCount == 0 ? 0 : accumulatedRequestTime / requestCount;
+      long totalRequestCount = requestCount + concurrentRequestCount.sum();
+      return totalRequestCount == 0 ? 0
+          : (accumulatedRequestTime + concurrentAccumulatedRequestTime.sum()) / totalRequestCount;
     } finally {
       lock.unlock();
     }
@@ -69,7 +87,9 @@ public class PoolState {
   public long getAverageWaitTime() {
     lock.lock();
     try {
-      return hadToWaitCount == 0 ? 0 : accumulatedWaitTime / hadToWaitCount;
+      long totalHadToWaitCount = hadToWaitCount + concurrentHadToWaitCount.sum();
+      return totalHadToWaitCount == 0 ? 0
+          : (accumulatedWaitTime + concurrentAccumulatedWaitTime.sum()) / totalHadToWaitCount;
     } finally {
       lock.unlock();
     }
@@ -78,7 +98,7 @@ public class PoolState {
   public long getHadToWaitCount() {
     lock.lock();
     try {
-      return hadToWaitCount;
+      return hadToWaitCount + concurrentHadToWaitCount.sum();
     } finally {
       lock.unlock();
     }
@@ -87,7 +107,7 @@ public class PoolState {
   public long getBadConnectionCount() {
     lock.lock();
     try {
-      return badConnectionCount;
+      return badConnectionCount + concurrentBadConnectionCount.sum();
     } finally {
       lock.unlock();
     }
@@ -96,7 +116,7 @@ public class PoolState {
   public long getClaimedOverdueConnectionCount() {
     lock.lock();
     try {
-      return claimedOverdueConnectionCount;
+      return claimedOverdueConnectionCount + concurrentClaimedOverdueConnectionCount.sum();
     } finally {
       lock.unlock();
     }
@@ -105,8 +125,11 @@ public class PoolState {
   public long getAverageOverdueCheckoutTime() {
     lock.lock();
     try {
-      return claimedOverdueConnectionCount == 0 ? 0
-          : accumulatedCheckoutTimeOfOverdueConnections / claimedOverdueConnectionCount;
+      long totalClaimedOverdueConnectionCount = claimedOverdueConnectionCount
+          + concurrentClaimedOverdueConnectionCount.sum();
+      return totalClaimedOverdueConnectionCount == 0 ? 0
+          : (accumulatedCheckoutTimeOfOverdueConnections + concurrentAccumulatedCheckoutTimeOfOverdueConnections.sum())
+              / totalClaimedOverdueConnectionCount;
     } finally {
       lock.unlock();
     }
@@ -115,16 +138,52 @@ public class PoolState {
   public long getAverageCheckoutTime() {
     lock.lock();
     try {
-      return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
+      long totalRequestCount = requestCount + concurrentRequestCount.sum();
+      return totalRequestCount == 0 ? 0
+          : (accumulatedCheckoutTime + concurrentAccumulatedCheckoutTime.sum()) / totalRequestCount;
     } finally {
       lock.unlock();
     }
   }
 
+  /**
+   * Returns the number of prepared statements that were taken from a connection's statement cache.
+   *
+   * @return the statement cache hit count
+   *
+   * @since 3.5.20
+   */
+  public long getStatementCacheHitCount() {
+    return statementCacheHitCount.sum();
+  }
+
+  /**
+   * Returns the number of prepared statements that were not found in a connection's statement cache.
+   *
+   * @return the statement cache miss count
+   *
+   * @since 3.5.20
+   */
+  public long getStatementCacheMissCount() {
+    return statementCacheMissCount.sum();
+  }
+
+  /**
+   * Returns the number of prepared statements closed because a connection's statement cache was full.
+   *
+   * @return the statement cache eviction count
+   *
+   * @since 3.5.20
+   */
+  public long getStatementCacheEvictionCount() {
+    return statementCacheEvictionCount.sum();
+  }
+
   public int getIdleConnectionCount() {
     lock.lock();
     try {
-      return idleConnections.size();
+      ConcurrentConnectionPool pool = dataSource.getConcurrentPool();
+      return idleConnections.size() + (pool == null ? 0 : pool.getIdleConnectionCount());
     } finally {
       lock.unlock();
     }
@@ -133,7 +192,8 @@ public class PoolState {
   public int getActiveConnectionCount() {
     lock.lock();
     try {
-      return activeConnections.size();
+      ConcurrentConnectionPool pool = dataSource.getConcurrentPool();
+      return activeConnections.size() + (pool == null ? 0 : pool.getActiveConnectionCount());
     } finally {
       lock.unlock();
     }
@@ -157,6 +217,8 @@ public class PoolState {
       builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
       builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
       builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+      builder.append("\n poolLockFree                   ").append(dataSource.isPoolLockFree());
+      builder.append("\n poolPreparedStatementCacheSize ").append(dataSource.getPoolPreparedStatementCacheSize());
       builder.append("\n ---STATUS-----------------------------------------------------");
       builder.append("\n activeConnections              ").append(getActiveConnectionCount());
       builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -168,6 +230,9 @@ public class PoolState {
       builder.append("\n hadToWait                      ").append(getHadToWaitCount());
       builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
       builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+      builder.append("\n statementCacheHits             ").append(getStatementCacheHitCount());
+      builder.append("\n statementCacheMisses           ").append(getStatementCacheMissCount());
+      builder.append("\n statementCacheEvictions        ").append(getStatementCacheEvictionCount());
       builder.append("\n===============================================================");
       return builder.toString();
     } finally {
@@ -29,12 +29,15 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String PREPARE_STATEMENT = "prepareStatement";
+  private static final String PREPARE_CALL = "prepareCall";
   private static final Class<?>[] IFACES = { Connection.class };
 
   private final int hashCode;
   private final PooledDataSource dataSource;
   private final Connection realConnection;
   private final Connection proxyConnection;
+  private final PooledStatementCache statementCache;
   private long checkoutTimestamp;
   private long createdTimestamp;
   private long lastUsedTimestamp;
@@ -50,6 +53,23 @@ class PooledConnection implements InvocationHandler {
    *          - the dataSource that the connection is from
    */
   public PooledConnection(Connection connection, PooledDataSource dataSource) {
+    this(connection, dataSource, dataSource.createStatementCache());
+  }
+
+  /**
+   * Constructor for a pooled connection that wraps a physical connection which already has a statement cache.
+   *
+   * @param connection
+   *          - the connection that is to be presented as a pooled connection
+   * @param dataSource
+   *          - the dataSource that the connection is from
+   * @param statementCache
+   *          - the prepared statement cache of the physical connection, or {@code null} if statements are not cached
+   *
+   * @since 3.5.20
+   */
+  PooledConnection(Connection connection, PooledDataSource dataSource, PooledStatementCache statementCache) {
+    this.statementCache = statementCache;
     this.hashCode = connection.hashCode();
     this.realConnection = connection;
     this.dataSource = dataSource;
@@ -93,6 +113,17 @@ class PooledConnection implements InvocationHandler {
     return proxyConnection;
   }
 
+  /**
+   * Getter for the prepared statement cache of the physical connection.
+   *
+   * @return The statement cache, or {@code null} if statements are not cached
+   *
+   * @since 3.5.20
+   */
+  PooledStatementCache getStatementCache() {
+    return statementCache;
+  }
+
   /**
    * Gets the hashcode of the real connection (or 0 if it is null).
    *
@@ -255,6 +286,9 @@ class PooledConnection implements InvocationHandler {
         // throw an SQLException instead of a Runtime
         checkConnection();
       }
+      if (statementCache != null && (PREPARE_STATEMENT.equals(methodName) || PREPARE_CALL.equals(methodName))) {
+        return statementCache.prepare(realConnection, method, args);
+      }
       return method.invoke(realConnection, args);
     } catch (Throwable t) {
       throw ExceptionUtil.unwrapThrowable(t);
@@ -57,8 +57,10 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolPreparedStatementCacheSize;
 
-  private int expectedConnectionTypeCode;
+  volatile int expectedConnectionTypeCode;
+  private volatile ConcurrentConnectionPool concurrentPool;
 
   private final Lock lock = new ReentrantLock();
   private final Condition condition = lock.newCondition();
@@ -265,6 +267,37 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * Switches the pool to a lock-free implementation that suits many threads competing for connections. Connections are
+   * kept in a shared list whose entries are claimed with compare-and-set, a thread prefers the connection it used
+   * last, and returned connections are handed off directly to waiting threads. The pool limits, the overdue connection
+   * claiming and the {@link PoolState} statistics behave as in the default pool.
+   *
+   * @param poolLockFree
+   *          {@code true} to use the lock-free pool
+   *
+   * @since 3.5.20
+   */
+  public void setPoolLockFree(boolean poolLockFree) {
+    forceCloseAll();
+    this.concurrentPool = poolLockFree ? new ConcurrentConnectionPool(this, dataSource, state) : null;
+  }
+
+  /**
+   * Sets the number of prepared statements cached by each physical connection of the pool. The cache belongs to the
+   * physical connection, so statements are reused across sessions and by every executor type. Cached statements are
+   * evicted in least recently used order. {@code 0} disables the cache.
+   *
+   * @param poolPreparedStatementCacheSize
+   *          the maximum number of cached statements per connection
+   *
+   * @since 3.5.20
+   */
+  public void setPoolPreparedStatementCacheSize(int poolPreparedStatementCacheSize) {
+    this.poolPreparedStatementCacheSize = poolPreparedStatementCacheSize;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -336,6 +369,28 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * Returns whether the lock-free pool is used.
+   *
+   * @return {@code true} if the lock-free pool is used
+   *
+   * @since 3.5.20
+   */
+  public boolean isPoolLockFree() {
+    return concurrentPool != null;
+  }
+
+  /**
+   * Returns the number of prepared statements cached by each physical connection of the pool.
+   *
+   * @return the maximum number of cached statements per connection, {@code 0} if statements are not cached
+   *
+   * @since 3.5.20
+   */
+  public int getPoolPreparedStatementCacheSize() {
+    return poolPreparedStatementCacheSize;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
@@ -375,6 +430,10 @@ public class PooledDataSource implements DataSource {
     } finally {
       lock.unlock();
     }
+    ConcurrentConnectionPool pool = concurrentPool;
+    if (pool != null) {
+      pool.closeAll();
+    }
     if (log.isDebugEnabled()) {
       log.debug("PooledDataSource forcefully closed/removed all connections.");
     }
@@ -384,11 +443,24 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
-  private int assembleConnectionTypeCode(String url, String username, String password) {
+  ConcurrentConnectionPool getConcurrentPool() {
+    return concurrentPool;
+  }
+
+  PooledStatementCache createStatementCache() {
+    return poolPreparedStatementCacheSize > 0 ? new PooledStatementCache(poolPreparedStatementCacheSize, state) : null;
+  }
+
+  int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
 
   protected void pushConnection(PooledConnection conn) throws SQLException {
+    ConcurrentConnectionPool pool = concurrentPool;
+    if (pool != null) {
+      pool.pushConnection(conn);
+      return;
+    }
 
     lock.lock();
     try {
@@ -400,7 +472,7 @@ public class PooledDataSource implements DataSource {
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
-          PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this, conn.getStatementCache());
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -433,6 +505,10 @@ public class PooledDataSource implements DataSource {
   }
 
   private PooledConnection popConnection(String username, String password) throws SQLException {
+    ConcurrentConnectionPool pool = concurrentPool;
+    if (pool != null) {
+      return pool.popConnection(username, password);
+    }
     boolean countedWait = false;
     PooledConnection conn = null;
     long t = System.currentTimeMillis();
@@ -476,7 +552,8 @@ public class PooledDataSource implements DataSource {
                 log.debug("Bad connection. Could not roll back");
               }
             }
-            conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+            conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this,
+                oldestActiveConnection.getStatementCache());
             conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
             conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
             oldestActiveConnection.invalidate();
@@ -0,0 +1,301 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A least recently used cache of prepared statements that belongs to one physical connection of the pool.
+ * <p>
+ * The cache outlives the {@link PooledConnection} handed out to a session, so a statement prepared in one session is
+ * reused by later sessions that get the same physical connection. Statements are keyed by the SQL and by every other
+ * argument of the {@code prepareStatement} or {@code prepareCall} call (result set type, concurrency, holdability and
+ * generated keys). A cached statement is handed out to one user at a time; closing it resets the parameters and the
+ * fetch size, fetch direction, max rows, max field size and query timeout before it is put back. A statement that
+ * failed is closed instead of being cached.
+ *
+ * @since 3.5.20
+ *
+ * @see PooledDataSource#setPoolPreparedStatementCacheSize(int)
+ */
+class PooledStatementCache {
+
+  private static final Log log = LogFactory.getLog(PooledStatementCache.class);
+
+  private static final Class<?>[] PREPARED_STATEMENT_IFACES = { PreparedStatement.class };
+  private static final Class<?>[] CALLABLE_STATEMENT_IFACES = { CallableStatement.class };
+
+  private static final int FETCH_SIZE = 1;
+  private static final int FETCH_DIRECTION = 1 << 1;
+  private static final int MAX_ROWS = 1 << 2;
+  private static final int MAX_FIELD_SIZE = 1 << 3;
+  private static final int QUERY_TIMEOUT = 1 << 4;
+
+  private final PoolState state;
+  private final Map<StatementKey, CachedStatement> statements;
+
+  PooledStatementCache(int maxSize, PoolState state) {
+    this.state = state;
+    this.statements = new LinkedHashMap<StatementKey, CachedStatement>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+        if (size() <= maxSize) {
+          return false;
+        }
+        state.statementCacheEvictionCount.increment();
+        eldest.getValue().closeQuietly();
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Returns a statement for a {@code prepareStatement} or {@code prepareCall} call, taken from the cache if possible.
+   *
+   * @param connection
+   *          the physical connection
+   * @param method
+   *          the {@link Connection} method that was called
+   * @param args
+   *          the arguments of the call
+   *
+   * @return the statement to hand out
+   *
+   * @throws Throwable
+   *           if the statement cannot be prepared
+   */
+  Object prepare(Connection connection, Method method, Object[] args) throws Throwable {
+    final StatementKey key = new StatementKey(method.getName(), args);
+    CachedStatement statement;
+    synchronized (this) {
+      statement = statements.remove(key);
+    }
+    if (statement != null) {
+      state.statementCacheHitCount.increment();
+      statement.closed = false;
+    } else {
+      state.statementCacheMissCount.increment();
+      final PreparedStatement delegate;
+      try {
+        delegate = (PreparedStatement) method.invoke(connection, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+      statement = new CachedStatement(key, delegate);
+    }
+    return statement.proxy;
+  }
+
+  /**
+   * Closes every cached statement.
+   */
+  synchronized void clear() {
+    for (Iterator<CachedStatement> iterator = statements.values().iterator(); iterator.hasNext();) {
+      iterator.next().closeQuietly();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Returns the number of statements in the cache.
+   *
+   * @return the number of idle cached statements
+   */
+  synchronized int size() {
+    return statements.size();
+  }
+
+  private void checkin(CachedStatement statement) {
+    if (!statement.broken && statement.reset()) {
+      synchronized (this) {
+        if (!statements.containsKey(statement.key)) {
+          statements.put(statement.key, statement);
+          return;
+        }
+      }
+    }
+    statement.closeQuietly();
+  }
+
+  private static final class StatementKey {
+    private final String methodName;
+    private final Object[] args;
+    private final int hashCode;
+
+    StatementKey(String methodName, Object[] args) {
+      this.methodName = methodName;
+      this.args = args == null ? new Object[0] : args.clone();
+      this.hashCode = 31 * methodName.hashCode() + Arrays.deepHashCode(this.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof StatementKey)) {
+        return false;
+      }
+      StatementKey other = (StatementKey) obj;
+      return hashCode == other.hashCode && methodName.equals(other.methodName) && Arrays.deepEquals(args, other.args);
+    }
+  }
+
+  private final class CachedStatement implements InvocationHandler {
+    private final StatementKey key;
+    private final PreparedStatement delegate;
+    private final Object proxy;
+    private final int fetchSize;
+    private final int fetchDirection;
+    private final int maxRows;
+    private final int maxFieldSize;
+    private final int queryTimeout;
+    // The settings changed since the statement was handed out, reset when it is put back
+    private int modified;
+    private boolean broken;
+    private boolean closed;
+
+    CachedStatement(StatementKey key, PreparedStatement delegate) throws SQLException {
+      this.key = key;
+      this.delegate = delegate;
+      this.fetchSize = delegate.getFetchSize();
+      this.fetchDirection = delegate.getFetchDirection();
+      this.maxRows = delegate.getMaxRows();
+      this.maxFieldSize = delegate.getMaxFieldSize();
+      this.queryTimeout = delegate.getQueryTimeout();
+      this.proxy = Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+          delegate instanceof CallableStatement ? CALLABLE_STATEMENT_IFACES : PREPARED_STATEMENT_IFACES, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      final String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        }
+        if ("hashCode".equals(methodName)) {
+          return System.identityHashCode(proxy);
+        }
+        return method.invoke(delegate, args);
+      }
+      if ("close".equals(methodName)) {
+        if (!closed) {
+          closed = true;
+          checkin(this);
+        }
+        return null;
+      }
+      if ("isClosed".equals(methodName)) {
+        return closed || delegate.isClosed();
+      }
+      if (closed) {
+        throw new SQLException("Statement is closed.");
+      }
+      modified |= settingOf(methodName);
+      try {
+        return method.invoke(delegate, args);
+      } catch (InvocationTargetException e) {
+        if (e.getCause() instanceof SQLException) {
+          broken = true;
+        }
+        throw ExceptionUtil.unwrapThrowable(e);
+      }
+    }
+
+    private int settingOf(String methodName) {
+      switch (methodName) {
+        case "setFetchSize":
+          return FETCH_SIZE;
+        case "setFetchDirection":
+          return FETCH_DIRECTION;
+        case "setMaxRows":
+        case "setLargeMaxRows":
+          return MAX_ROWS;
+        case "setMaxFieldSize":
+          return MAX_FIELD_SIZE;
+        case "setQueryTimeout":
+          return QUERY_TIMEOUT;
+        default:
+          return 0;
+      }
+    }
+
+    boolean reset() {
+      try {
+        if (delegate.isClosed()) {
+          return false;
+        }
+        delegate.clearParameters();
+        delegate.clearBatch();
+        delegate.clearWarnings();
+        if ((modified & FETCH_SIZE) != 0) {
+          delegate.setFetchSize(fetchSize);
+        }
+        if ((modified & FETCH_DIRECTION) != 0) {
+          delegate.setFetchDirection(fetchDirection);
+        }
+        if ((modified & MAX_ROWS) != 0) {
+          delegate.setMaxRows(maxRows);
+        }
+        if ((modified & MAX_FIELD_SIZE) != 0) {
+          delegate.setMaxFieldSize(maxFieldSize);
+        }
+        if ((modified & QUERY_TIMEOUT) != 0) {
+          delegate.setQueryTimeout(queryTimeout);
+        }
+        modified = 0;
+        return true;
+      } catch (SQLException | RuntimeException e) {
+        if (log.isDebugEnabled()) {
+          log.debug("Could not reset cached statement, closing it: " + e.getMessage());
+        }
+        return false;
+      }
+    }
+
+    void closeQuietly() {
+      try {
+        delegate.close();
+      } catch (SQLException | RuntimeException e) {
+        // ignore
+      }
+    }
+  }
+
+}
@@ -200,10 +200,9 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     CacheKey cacheKey = new CacheKey();
-    cacheKey.update(ms.getId());
+    cacheKey.update(ms.getCacheKeyPrefix(boundSql.getSql()));
     cacheKey.update(rowBounds.getOffset());
     cacheKey.update(rowBounds.getLimit());
-    cacheKey.update(boundSql.getSql());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
     // mimic DefaultParameterHandler logic
@@ -239,6 +238,14 @@ public abstract class BaseExecutor implements Executor {
     return localCache.getObject(key) != null;
   }
 
+  @Override
+  public void putLocalCache(MappedStatement ms, CacheKey key, List<?> list) {
+    if (!closed && configuration.getLocalCacheScope() == LocalCacheScope.SESSION
+        && localCache.getObject(key) == null) {
+      localCache.putObject(key, list);
+    }
+  }
+
   @Override
   public void commit(boolean required) throws SQLException {
     if (closed) {
@@ -17,11 +17,20 @@ package org.apache.ibatis.executor;
 
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -30,6 +39,7 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -44,6 +54,16 @@ public class BatchExecutor extends BaseExecutor {
 
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  // the rows of a multi-row insert are sent on flush, its statement list entry is null
+  private final List<MultiRowInsert> multiRowInsertList = new ArrayList<>();
+  // the statements of the inserts batched since the last update or delete, by sql
+  private final Map<String, Integer> groupedInserts = new HashMap<>();
+  // the table inserted by each statement, null if unknown or not grouped
+  private final List<String> insertedTables = new ArrayList<>();
+  // the tables whose foreign keys could not be read from the database metadata
+  private final Set<String> unknownReferences = new HashSet<>();
+  // the results of the statements executed to bound the number of open statements
+  private final List<BatchResult> executedBatchResults = new ArrayList<>();
   private String currentSql;
   private MappedStatement currentStatement;
 
@@ -58,27 +78,165 @@ public class BatchExecutor extends BaseExecutor {
         null, null);
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
+    final int index = findStatement(ms, sql);
     final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
+    if (index >= 0) {
+      MultiRowInsert multiRowInsert = multiRowInsertList.get(index);
+      if (multiRowInsert != null) {
+        multiRowInsert.addRow(parameterObject, boundSql);
+        batchResultList.get(index).addParameterObject(parameterObject);
+        return BATCH_UPDATE_RETURN_VALUE;
+      }
+      stmt = statementList.get(index);
       applyTransactionTimeout(stmt);
       handler.parameterize(stmt);// fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
+      BatchResult batchResult = batchResultList.get(index);
       batchResult.addParameterObject(parameterObject);
     } else {
+      final int maxStatements = configuration.getBatchGroupingMaxStatements();
+      if (maxStatements > 0 && statementList.size() >= maxStatements) {
+        // bound the open statements, their results are returned by the next flush
+        executedBatchResults.addAll(doFlushStatements(false));
+      }
+      MultiRowInsert multiRowInsert = MultiRowInsert.newInstance(ms, boundSql);
+      if (multiRowInsert != null) {
+        multiRowInsert.addRow(parameterObject, boundSql);
+        addStatement(ms, sql, null, multiRowInsert, parameterObject);
+        return BATCH_UPDATE_RETURN_VALUE;
+      }
       Connection connection = getConnection(ms.getStatementLog());
       stmt = handler.prepare(connection, transaction.getTimeout());
       handler.parameterize(stmt); // fix Issues 322
-      currentSql = sql;
-      currentStatement = ms;
-      statementList.add(stmt);
-      batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      addStatement(ms, sql, stmt, null, parameterObject);
     }
     handler.batch(stmt);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private int findStatement(MappedStatement ms, String sql) {
+    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
+      return statementList.size() - 1;
+    }
+    final Integer index = groupedInserts.get(sql);
+    if (index != null && ms.equals(batchResultList.get(index).getMappedStatement()) && canRunBefore(index)) {
+      return index;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns whether a row inserted by the statement at the given index may be inserted before the rows of the
+   * statements opened after it, that is when the table of that statement does not reference any of their tables.
+   */
+  private boolean canRunBefore(int index) {
+    final String table = insertedTables.get(index);
+    if (table == null) {
+      return false;
+    }
+    final Set<String> referenced = getReferencedTables(table);
+    if (referenced == null) {
+      return false;
+    }
+    for (int i = index + 1; i < insertedTables.size(); i++) {
+      final String laterTable = insertedTables.get(i);
+      if (laterTable == null || referenced.contains(laterTable)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Set<String> getReferencedTables(String table) {
+    final Map<String, Set<String>> referencedTables = configuration.getReferencedTables();
+    Set<String> referenced = referencedTables.get(table);
+    if (referenced != null || unknownReferences.contains(table)) {
+      return referenced;
+    }
+    try {
+      final DatabaseMetaData metaData = transaction.getConnection().getMetaData();
+      final String name = findTableName(metaData, table);
+      if (name == null) {
+        // An empty set would mean the table has no foreign keys, keep the inserts of this table in order
+        unknownReferences.add(table);
+        return null;
+      }
+      referenced = new HashSet<>();
+      try (ResultSet rs = metaData.getImportedKeys(null, null, name)) {
+        while (rs.next()) {
+          referenced.add(rs.getString("PKTABLE_NAME").toLowerCase(Locale.ENGLISH));
+        }
+      }
+      referencedTables.put(table, referenced);
+    } catch (SQLException | RuntimeException e) {
+      // Keep the inserts of this table in order
+      unknownReferences.add(table);
+      referenced = null;
+    }
+    return referenced;
+  }
+
+  /**
+   * Returns the name of a table as stored in the database metadata, or {@code null} when no table or more than one
+   * table has that name. The parsed table name is in lower case, so a table stored in mixed case, e.g. a quoted
+   * identifier or a database that stores mixed case identifiers, is looked up ignoring case.
+   */
+  private static String findTableName(DatabaseMetaData metaData, String table) throws SQLException {
+    String name = null;
+    if (metaData.storesUpperCaseIdentifiers()) {
+      name = table.toUpperCase(Locale.ENGLISH);
+    } else if (metaData.storesLowerCaseIdentifiers()) {
+      name = table;
+    }
+    if (name != null && !findTableNames(metaData, name).isEmpty()) {
+      return name;
+    }
+    final Set<String> names = findTableNames(metaData, "%");
+    name = null;
+    for (String candidate : names) {
+      if (candidate.equalsIgnoreCase(table)) {
+        if (name != null) {
+          return null;
+        }
+        name = candidate;
+      }
+    }
+    return name;
+  }
+
+  private static Set<String> findTableNames(DatabaseMetaData metaData, String pattern) throws SQLException {
+    final Set<String> names = new HashSet<>();
+    final String escape = metaData.getSearchStringEscape();
+    final String escapedPattern = "%".equals(pattern) || escape == null ? pattern
+        : pattern.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+    try (ResultSet rs = metaData.getTables(null, null, escapedPattern, null)) {
+      while (rs.next()) {
+        names.add(rs.getString("TABLE_NAME"));
+      }
+    }
+    return names;
+  }
+
+  private void addStatement(MappedStatement ms, String sql, Statement stmt, MultiRowInsert multiRowInsert,
+      Object parameterObject) {
+    currentSql = sql;
+    currentStatement = ms;
+    statementList.add(stmt);
+    multiRowInsertList.add(multiRowInsert);
+    batchResultList.add(new BatchResult(ms, sql, parameterObject));
+    String insertedTable = null;
+    if (configuration.getBatchGroupingMaxStatements() > 0) {
+      if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+        groupedInserts.put(sql, statementList.size() - 1);
+        final String[] tables = SqlTables.writtenTables(sql);
+        insertedTable = tables != null && tables.length == 1 ? tables[0] : null;
+      } else {
+        // rows batched after an update or a delete must not be executed before it
+        groupedInserts.clear();
+      }
+    }
+    insertedTables.add(insertedTable);
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds,
       ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
@@ -114,14 +272,25 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<>();
+      List<BatchResult> results = new ArrayList<>(executedBatchResults);
+      executedBatchResults.clear();
       if (isRollback) {
         return Collections.emptyList();
       }
       for (int i = 0, n = statementList.size(); i < n; i++) {
         Statement stmt = statementList.get(i);
-        applyTransactionTimeout(stmt);
         BatchResult batchResult = batchResultList.get(i);
+        MultiRowInsert multiRowInsert = multiRowInsertList.get(i);
+        if (multiRowInsert != null) {
+          try {
+            batchResult.setUpdateCounts(executeMultiRowInsert(multiRowInsert, batchResult.getParameterObjects()));
+          } catch (BatchUpdateException e) {
+            throw batchExecutorException(e, results, batchResult);
+          }
+          results.add(batchResult);
+          continue;
+        }
+        applyTransactionTimeout(stmt);
         try {
           batchResult.setUpdateCounts(stmt.executeBatch());
           MappedStatement ms = batchResult.getMappedStatement();
@@ -138,14 +307,7 @@ public class BatchExecutor extends BaseExecutor {
           // Close statement to close cursor #1109
           closeStatement(stmt);
         } catch (BatchUpdateException e) {
-          StringBuilder message = new StringBuilder();
-          message.append(batchResult.getMappedStatement().getId()).append(" (batch index #").append(i + 1).append(")")
-              .append(" failed.");
-          if (i > 0) {
-            message.append(" ").append(i)
-                .append(" prior sub executor(s) completed successfully, but will be rolled back.");
-          }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          throw batchExecutorException(e, results, batchResult);
         }
         results.add(batchResult);
       }
@@ -156,8 +318,70 @@ public class BatchExecutor extends BaseExecutor {
       }
       currentSql = null;
       statementList.clear();
+      multiRowInsertList.clear();
+      groupedInserts.clear();
+      insertedTables.clear();
       batchResultList.clear();
     }
   }
 
+  private BatchExecutorException batchExecutorException(BatchUpdateException e, List<BatchResult> results,
+      BatchResult batchResult) {
+    int i = results.size();
+    StringBuilder message = new StringBuilder();
+    message.append(batchResult.getMappedStatement().getId()).append(" (batch index #").append(i + 1).append(")")
+        .append(" failed.");
+    if (i > 0) {
+      message.append(" ").append(i).append(" prior sub executor(s) completed successfully, but will be rolled back.");
+    }
+    return new BatchExecutorException(message.toString(), e, results, batchResult);
+  }
+
+  private int[] executeMultiRowInsert(MultiRowInsert multiRowInsert, List<Object> parameterObjects)
+      throws SQLException {
+    final MappedStatement ms = multiRowInsert.getMappedStatement();
+    final KeyGenerator keyGenerator = ms.getKeyGenerator();
+    final int rows = parameterObjects.size();
+    final int[] updateCounts = new int[rows];
+    Statement stmt = null;
+    int statementRows = 0;
+    int fromRow = 0;
+    try {
+      while (fromRow < rows) {
+        final int toRow = Math.min(rows, fromRow + multiRowInsert.getRowsPerStatement());
+        final StatementHandler handler = configuration.newStatementHandler(this, ms, null, RowBounds.DEFAULT, null,
+            multiRowInsert.bind(fromRow, toRow));
+        if (stmt == null || statementRows != toRow - fromRow) {
+          // full chunks share their sql, only the last one needs another statement
+          closeStatement(stmt);
+          stmt = handler.prepare(getConnection(ms.getStatementLog()), transaction.getTimeout());
+          statementRows = toRow - fromRow;
+        } else {
+          applyTransactionTimeout(stmt);
+        }
+        handler.parameterize(stmt);
+        ((PreparedStatement) stmt).execute();
+        final int updateCount = stmt.getUpdateCount();
+        // a row count that cannot be attributed to each row, e.g. with ignored duplicates, is reported as unknown
+        Arrays.fill(updateCounts, fromRow, toRow, updateCount == toRow - fromRow ? 1 : Statement.SUCCESS_NO_INFO);
+        // an ArrayList, as Jdbc3KeyGenerator expects from a batch
+        final List<Object> chunk = new ArrayList<>(parameterObjects.subList(fromRow, toRow));
+        if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
+          ((Jdbc3KeyGenerator) keyGenerator).processBatch(ms, stmt, chunk);
+        } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) {
+          for (Object parameter : chunk) {
+            keyGenerator.processAfter(this, ms, stmt, parameter);
+          }
+        }
+        fromRow = toRow;
+      }
+      return updateCounts;
+    } catch (SQLException e) {
+      throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(),
+          Arrays.copyOf(updateCounts, fromRow), e);
+    } finally {
+      closeStatement(stmt);
+    }
+  }
+
 }
@@ -15,8 +15,13 @@
  */
 package org.apache.ibatis.executor;
 
+import java.io.Serializable;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
@@ -26,8 +31,11 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.CacheInvalidationScope;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -40,6 +48,13 @@ public class CachingExecutor implements Executor {
 
   private final Executor delegate;
   private final TransactionalCacheManager tcm = new TransactionalCacheManager();
+  // Whether the current transaction has written or flushed a cache, its results are then not shared with other sessions
+  private boolean dirty;
+  // Tables written by the current transaction when invalidating by table, null when unknown
+  private Set<String> writtenTables = new HashSet<>();
+  // Results read after writing their tables, stamped when the transaction commits
+  private final List<StampedResult> unstampedResults = new ArrayList<>();
+  private TableVersions tableVersions;
 
   public CachingExecutor(Executor delegate) {
     this.delegate = delegate;
@@ -56,8 +71,10 @@ public class CachingExecutor implements Executor {
     try {
       // issues #499, #524 and #573
       if (forceRollback) {
+        clearWrittenTables();
         tcm.rollback();
       } else {
+        invalidateWrittenTables();
         tcm.commit();
       }
     } finally {
@@ -72,7 +89,13 @@ public class CachingExecutor implements Executor {
 
   @Override
   public int update(MappedStatement ms, Object parameterObject) throws SQLException {
-    flushCacheIfRequired(ms);
+    dirty = true;
+    if (ms.isFlushCacheRequired() && ms.getSqlCommandType() != SqlCommandType.SELECT
+        && isTableScope(ms.getConfiguration())) {
+      addWrittenTables(ms, parameterObject);
+    } else {
+      flushCacheIfRequired(ms);
+    }
     return delegate.update(ms, parameterObject);
   }
 
@@ -98,11 +121,24 @@ public class CachingExecutor implements Executor {
       flushCacheIfRequired(ms);
       if (ms.isUseCache() && resultHandler == null) {
         ensureNoOutParams(ms, boundSql);
-        @SuppressWarnings("unchecked")
-        List<E> list = (List<E>) tcm.getObject(cache, key);
+        Configuration configuration = ms.getConfiguration();
+        List<E> list = getCachedList(configuration, cache, key);
         if (list == null) {
-          list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
-          tcm.putObject(cache, key, list); // issue #578 and #116
+          StampedResult result = null;
+          if (isTableScope(configuration)) {
+            result = stampResult(configuration.getTableVersions(), ms, boundSql);
+          }
+          if (configuration.isCacheSingleFlightEnabled() && !dirty) {
+            list = configuration.getCacheSingleFlight().execute(cache, key, configuration.getCacheSingleFlightTimeout(),
+                configuration.getCacheSerializer(),
+                () -> delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql));
+          } else {
+            list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+          }
+          if (result != null) {
+            result.list = list;
+          }
+          tcm.putObject(cache, key, result == null ? list : result); // issue #578 and #116
         }
         return list;
       }
@@ -118,7 +154,9 @@ public class CachingExecutor implements Executor {
   @Override
   public void commit(boolean required) throws SQLException {
     delegate.commit(required);
+    invalidateWrittenTables();
     tcm.commit();
+    dirty = false;
   }
 
   @Override
@@ -126,12 +164,96 @@ public class CachingExecutor implements Executor {
     try {
       delegate.rollback(required);
     } finally {
+      // Not required only when nothing was written or the writes were auto-committed
+      dirty = false;
+      clearWrittenTables();
       if (required) {
         tcm.rollback();
       }
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private <E> List<E> getCachedList(Configuration configuration, Cache cache, CacheKey key) {
+    Object value = tcm.getObject(cache, key);
+    if (!(value instanceof StampedResult)) {
+      return (List<E>) value;
+    }
+    StampedResult result = (StampedResult) value;
+    if (result.stamp == null || !configuration.getTableVersions().isCurrent(result.stamp)
+        || isWrittenTables(result.tables)) {
+      // Stale, or not visible to this transaction until it is committed
+      return null;
+    }
+    return (List<E>) result.list;
+  }
+
+  private StampedResult stampResult(TableVersions versions, MappedStatement ms, BoundSql boundSql) {
+    StampedResult result = new StampedResult(versions.getReadTables(ms, boundSql.getSql()));
+    if (isWrittenTables(result.tables)) {
+      // The result includes this transaction's writes, it becomes current once they are committed
+      unstampedResults.add(result);
+    } else {
+      result.stamp = versions.stamp(result.tables);
+    }
+    return result;
+  }
+
+  private static boolean isTableScope(Configuration configuration) {
+    return configuration.getCacheInvalidationScope() == CacheInvalidationScope.TABLE;
+  }
+
+  private void addWrittenTables(MappedStatement ms, Object parameterObject) {
+    tableVersions = ms.getConfiguration().getTableVersions();
+    if (writtenTables != null) {
+      String[] tables = tableVersions.getWrittenTables(ms,
+          ms.getTables() == null ? ms.getBoundSql(parameterObject).getSql() : null);
+      if (tables == null) {
+        writtenTables = null;
+      } else {
+        writtenTables.addAll(Arrays.asList(tables));
+      }
+    }
+  }
+
+  private boolean isWrittenTables(String[] tables) {
+    if (writtenTables == null) {
+      return true;
+    }
+    if (writtenTables.isEmpty()) {
+      return false;
+    }
+    if (tables == null) {
+      return true;
+    }
+    for (String table : tables) {
+      if (writtenTables.contains(table)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void invalidateWrittenTables() {
+    if (writtenTables == null || !writtenTables.isEmpty()) {
+      // Invalidated after the database commit so that no other session caches the previous rows again
+      tableVersions.invalidate(writtenTables);
+      for (StampedResult result : unstampedResults) {
+        result.stamp = tableVersions.stamp(result.tables);
+      }
+    }
+    clearWrittenTables();
+  }
+
+  private void clearWrittenTables() {
+    if (writtenTables == null) {
+      writtenTables = new HashSet<>();
+    } else {
+      writtenTables.clear();
+    }
+    unstampedResults.clear();
+  }
+
   private void ensureNoOutParams(MappedStatement ms, BoundSql boundSql) {
     if (ms.getStatementType() == StatementType.CALLABLE) {
       for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
@@ -154,6 +276,11 @@ public class CachingExecutor implements Executor {
     return delegate.isCached(ms, key);
   }
 
+  @Override
+  public void putLocalCache(MappedStatement ms, CacheKey key, List<?> list) {
+    delegate.putLocalCache(ms, key, list);
+  }
+
   @Override
   public void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key,
       Class<?> targetType) {
@@ -168,6 +295,7 @@ public class CachingExecutor implements Executor {
   private void flushCacheIfRequired(MappedStatement ms) {
     Cache cache = ms.getCache();
     if (cache != null && ms.isFlushCacheRequired()) {
+      dirty = true;
       tcm.clear(cache);
     }
   }
@@ -177,4 +305,17 @@ public class CachingExecutor implements Executor {
     throw new UnsupportedOperationException("This method should not be called");
   }
 
+  // A cached query result with the versions of the tables it was read from
+  private static class StampedResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] tables;
+    private Object list;
+    private TableVersions.Stamp stamp;
+
+    StampedResult(String[] tables) {
+      this.tables = tables;
+    }
+  }
+
 }
@@ -58,6 +58,23 @@ public interface Executor {
 
   void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key, Class<?> targetType);
 
+  /**
+   * Stores rows selected for a statement in the local cache, as if the statement had been executed with the given key.
+   * Executors without a local cache ignore it.
+   *
+   * @param ms
+   *          the statement the rows were selected for
+   * @param key
+   *          the cache key of the statement and its parameter object
+   * @param list
+   *          the rows
+   *
+   * @since 3.5.20
+   */
+  default void putLocalCache(MappedStatement ms, CacheKey key, List<?> list) {
+    // No local cache
+  }
+
   Transaction getTransaction();
 
   void close(boolean forceRollback);
@@ -0,0 +1,244 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * The rows of consecutive batched executions of one {@code INSERT ... VALUES (...)} statement, sent as multi-row
+ * {@code INSERT ... VALUES (...), (...), ...} statements by {@link BatchExecutor}.
+ * <p>
+ * The parameter values of each row are read when the row is added, as {@code addBatch} would, and passed to the
+ * multi-row statement as additional parameters.
+ *
+ * @since 3.5.20
+ *
+ * @see Configuration#getMultiRowInsertMaxRows()
+ */
+final class MultiRowInsert {
+
+  private final MappedStatement mappedStatement;
+  private final String head;
+  private final String row;
+  private final String tail;
+  private final int rowsPerStatement;
+  private final List<List<ParameterMapping>> rowParameterMappings = new ArrayList<>();
+  private final List<Object[]> rowValues = new ArrayList<>();
+
+  private MultiRowInsert(MappedStatement mappedStatement, String head, String row, String tail,
+      int rowsPerStatement) {
+    this.mappedStatement = mappedStatement;
+    this.head = head;
+    this.row = row;
+    this.tail = tail;
+    this.rowsPerStatement = rowsPerStatement;
+  }
+
+  /**
+   * Creates a multi-row insert for the given statement, if it can be rewritten.
+   *
+   * @param ms
+   *          the mapped statement
+   * @param boundSql
+   *          the sql bound for the first row
+   *
+   * @return the multi-row insert, or {@code null} if multi-row inserts are disabled or the sql is not a single row
+   *         {@code INSERT ... VALUES (...)} with all its parameters in the values list
+   */
+  static MultiRowInsert newInstance(MappedStatement ms, BoundSql boundSql) {
+    final Configuration configuration = ms.getConfiguration();
+    final int maxRows = configuration.getMultiRowInsertMaxRows();
+    if (maxRows < 2 || ms.getSqlCommandType() != SqlCommandType.INSERT
+        || ms.getStatementType() != StatementType.PREPARED) {
+      return null;
+    }
+    final String sql = boundSql.getSql();
+    final int[] values = findValuesList(sql);
+    if (values == null) {
+      return null;
+    }
+    final int parameterCount = boundSql.getParameterMappings().size();
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() != ParameterMode.IN) {
+        return null;
+      }
+    }
+    final int rowsPerStatement = parameterCount == 0 ? maxRows
+        : Math.max(1, Math.min(maxRows, configuration.getMultiRowInsertMaxParameters() / parameterCount));
+    return new MultiRowInsert(ms, sql.substring(0, values[0]), sql.substring(values[0], values[1]),
+        sql.substring(values[1]), rowsPerStatement);
+  }
+
+  MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  int getRowsPerStatement() {
+    return rowsPerStatement;
+  }
+
+  void addRow(Object parameterObject, BoundSql boundSql) {
+    final Configuration configuration = mappedStatement.getConfiguration();
+    final TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    final List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    final Object[] values = new Object[parameterMappings.size()];
+    MetaObject metaObject = null;
+    for (int i = 0; i < values.length; i++) {
+      // Same resolution as DefaultParameterHandler
+      final String propertyName = parameterMappings.get(i).getProperty();
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        values[i] = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        values[i] = null;
+      } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+        values[i] = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        values[i] = metaObject.getValue(propertyName);
+      }
+    }
+    rowParameterMappings.add(parameterMappings);
+    rowValues.add(values);
+  }
+
+  /**
+   * Binds the multi-row statement inserting the given rows.
+   *
+   * @param fromRow
+   *          the first row, inclusive
+   * @param toRow
+   *          the last row, exclusive
+   *
+   * @return the sql and parameters of the statement
+   */
+  BoundSql bind(int fromRow, int toRow) {
+    final Configuration configuration = mappedStatement.getConfiguration();
+    final StringBuilder sql = new StringBuilder(head.length() + tail.length() + (row.length() + 2) * (toRow - fromRow));
+    sql.append(head);
+    final List<ParameterMapping> parameterMappings = new ArrayList<>();
+    final List<Object> values = new ArrayList<>();
+    for (int i = fromRow; i < toRow; i++) {
+      if (i > fromRow) {
+        sql.append(", ");
+      }
+      sql.append(row);
+      final Object[] rowValue = rowValues.get(i);
+      final List<ParameterMapping> rowMappings = rowParameterMappings.get(i);
+      for (int j = 0; j < rowValue.length; j++) {
+        final ParameterMapping parameterMapping = rowMappings.get(j);
+        parameterMappings.add(new ParameterMapping.Builder(configuration, "__row_" + values.size(),
+            parameterMapping.getTypeHandler()).javaType(parameterMapping.getJavaType())
+            .jdbcType(parameterMapping.getJdbcType()).numericScale(parameterMapping.getNumericScale()).build());
+        values.add(rowValue[j]);
+      }
+    }
+    sql.append(tail);
+    final BoundSql boundSql = new BoundSql(configuration, sql.toString(), parameterMappings, null);
+    for (int i = 0; i < values.size(); i++) {
+      boundSql.setAdditionalParameter("__row_" + i, values.get(i));
+    }
+    return boundSql;
+  }
+
+  /**
+   * Finds the parenthesized values list of a single row insert, ignoring quoted text and comments.
+   *
+   * @param sql
+   *          the sql of the insert
+   *
+   * @return the start and end offsets of the values list, or {@code null} if the sql does not have exactly one top
+   *         level {@code VALUES} list holding all its parameter markers
+   */
+  static int[] findValuesList(String sql) {
+    final int length = sql.length();
+    int depth = 0;
+    int start = -1;
+    int end = -1;
+    int i = 0;
+    while (i < length) {
+      final char c = sql.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        final int close = sql.indexOf(c, i + 1);
+        if (close < 0) {
+          return null;
+        }
+        i = close + 1;
+      } else if (c == '-' && sql.startsWith("--", i)) {
+        final int close = sql.indexOf('\n', i);
+        i = close < 0 ? length : close + 1;
+      } else if (c == '/' && sql.startsWith("/*", i)) {
+        final int close = sql.indexOf("*/", i + 2);
+        if (close < 0) {
+          return null;
+        }
+        i = close + 2;
+      } else if (c == '(') {
+        if (depth == 0 && start == -2) {
+          start = i;
+        }
+        depth++;
+        i++;
+      } else if (c == ')') {
+        depth--;
+        i++;
+        if (depth == 0 && start >= 0 && end < 0) {
+          end = i;
+        }
+      } else if (c == '?') {
+        if (start < 0 || end >= 0) {
+          // a parameter outside of the values list would be repeated for each row
+          return null;
+        }
+        i++;
+      } else if (Character.isLetter(c)) {
+        int wordEnd = i + 1;
+        while (wordEnd < length && (Character.isLetterOrDigit(sql.charAt(wordEnd)) || sql.charAt(wordEnd) == '_')) {
+          wordEnd++;
+        }
+        if (depth == 0 && sql.regionMatches(true, i, "VALUES", 0, 6) && wordEnd - i == 6) {
+          if (start != -1) {
+            return null;
+          }
+          start = -2;
+        } else if (start == -2) {
+          // VALUES not followed by a list
+          return null;
+        }
+        i = wordEnd;
+      } else if (c == ',' && depth == 0 && end >= 0 && sql.substring(end, i).trim().isEmpty()) {
+        // already a multi-row values list
+        return null;
+      } else {
+        i++;
+      }
+    }
+    return start >= 0 && end >= 0 && depth == 0 ? new int[] { start, end } : null;
+  }
+
+}
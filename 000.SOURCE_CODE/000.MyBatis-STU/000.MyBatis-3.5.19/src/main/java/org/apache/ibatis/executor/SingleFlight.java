@@ -0,0 +1,225 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.serializer.Serializer;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Coalesces concurrent second level cache misses for the same {@link CacheKey} into a single database execution.
+ * <p>
+ * The first session that misses a key becomes the leader and executes the query; sessions that miss the same key while
+ * the leader is running wait for its result instead of executing the query again. A waiter gets a serialized copy of
+ * the leader's result, made with the configured cache {@link Serializer}, so that sessions never share the objects of a
+ * result. When the result cannot be serialized, or
+ * when the leader fails or does not complete within the timeout, the waiter executes the query itself.
+ *
+ * @since 3.5.20
+ *
+ * @see org.apache.ibatis.session.Configuration#isCacheSingleFlightEnabled()
+ */
+public class SingleFlight {
+
+  private static final Log log = LogFactory.getLog(SingleFlight.class);
+
+  private final ConcurrentMap<Object, Flight> flights = new ConcurrentHashMap<>();
+  private final LongAdder executedCount = new LongAdder();
+  private final LongAdder coalescedCount = new LongAdder();
+  private final LongAdder fallbackCount = new LongAdder();
+
+  /**
+   * Executes the query unless the same query is already running, in which case its result is awaited.
+   *
+   * @param <T>
+   *          the result type
+   * @param cache
+   *          the second level cache that missed
+   * @param key
+   *          the cache key of the query
+   * @param timeout
+   *          the maximum number of milliseconds to wait for a running query
+   * @param serializer
+   *          the serializer that copies the result of a running query for its waiters
+   * @param query
+   *          the query to execute
+   *
+   * @return the query result
+   *
+   * @throws SQLException
+   *           if the query fails
+   */
+  public <T> T execute(Cache cache, CacheKey key, long timeout, Serializer serializer, Query<T> query)
+      throws SQLException {
+    final Object flightKey = Arrays.asList(cache.getId(), key);
+    final Flight flight = new Flight(serializer);
+    final Flight running = flights.putIfAbsent(flightKey, flight);
+    if (running != null && running.join()) {
+      return await(running, timeout, query);
+    }
+    if (running != null) {
+      // The running query is completing and no longer takes waiters
+      return executeDirectly(query);
+    }
+    executedCount.increment();
+    T result = null;
+    boolean completed = false;
+    try {
+      result = query.execute();
+      completed = true;
+      return result;
+    } finally {
+      flights.remove(flightKey, flight);
+      flight.complete(result, completed);
+    }
+  }
+
+  /**
+   * Returns the number of queries executed by a leader.
+   *
+   * @return the number of executed queries
+   */
+  public long getExecutedCount() {
+    return executedCount.sum();
+  }
+
+  /**
+   * Returns the number of queries answered with the result of a query executed by another session.
+   *
+   * @return the number of coalesced queries
+   */
+  public long getCoalescedCount() {
+    return coalescedCount.sum();
+  }
+
+  /**
+   * Returns the number of waiting queries executed directly because the running query failed, timed out or returned a
+   * result that could not be serialized.
+   *
+   * @return the number of fallback executions
+   */
+  public long getFallbackCount() {
+    return fallbackCount.sum();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T await(Flight flight, long timeout, Query<T> query) throws SQLException {
+    try {
+      if (flight.done.await(timeout, TimeUnit.MILLISECONDS)) {
+        if (flight.serializedResult != null) {
+          coalescedCount.increment();
+          return (T) flight.copyResult();
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Running query failed or returned a result that cannot be serialized, executing it directly.");
+        }
+      } else if (log.isDebugEnabled()) {
+        log.debug("Running query did not complete in " + timeout + " ms, executing it directly.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    fallbackCount.increment();
+    return executeDirectly(query);
+  }
+
+  private <T> T executeDirectly(Query<T> query) throws SQLException {
+    executedCount.increment();
+    return query.execute();
+  }
+
+  /**
+   * A query that can be shared by concurrent sessions.
+   *
+   * @param <T>
+   *          the result type
+   */
+  @FunctionalInterface
+  public interface Query<T> {
+    T execute() throws SQLException;
+  }
+
+  private static final class Flight {
+    private final CountDownLatch done = new CountDownLatch(1);
+    // The leader's serializer, waiters deserialize with the serializer that made the copy
+    private final Serializer serializer;
+    private int waiters;
+    private boolean closed;
+    // Set when the leader succeeded with a serializable result, before done is counted down
+    private volatile byte[] serializedResult;
+
+    Flight(Serializer serializer) {
+      this.serializer = serializer;
+    }
+
+    synchronized boolean join() {
+      if (closed) {
+        return false;
+      }
+      waiters++;
+      return true;
+    }
+
+    void complete(Object result, boolean success) {
+      final boolean hasWaiters;
+      synchronized (this) {
+        closed = true;
+        hasWaiters = waiters > 0;
+      }
+      if (success && hasWaiters) {
+        // Copied before the leader returns, so that waiters never see changes made by the leader's caller
+        this.serializedResult = serialize(result);
+      }
+      done.countDown();
+    }
+
+    Object copyResult() {
+      return deserialize(serializedResult);
+    }
+
+    private byte[] serialize(Object value) {
+      if (!(value instanceof Serializable)) {
+        return null;
+      }
+      try {
+        return serializer.serialize(value);
+      } catch (Exception e) {
+        // Not serializable after all, sharing the instance would let sessions change each other's results
+        return null;
+      }
+    }
+
+    private Object deserialize(byte[] value) {
+      try {
+        return serializer.deserialize(value);
+      } catch (Exception e) {
+        throw new ExecutorException("Error deserializing shared query result.  Cause: " + e, e);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,206 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Derives table names from sql text for table-level cache invalidation.
+ * <p>
+ * The tables read by a query are over-approximated by every identifier of its sql that is not a common keyword, so a
+ * table is never missed whatever the syntax of the FROM clause. The tables written by an insert, update or delete are
+ * the targets of the statement. Names are unqualified and in lower case.
+ *
+ * @since 3.5.20
+ */
+final class SqlTables {
+
+  // Queries referencing more identifiers are tagged as reading unknown tables
+  private static final int MAX_READ_TABLES = 64;
+
+  private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("all", "and", "any", "as", "asc", "avg",
+      "between", "by", "case", "cast", "coalesce", "count", "cross", "current_date", "current_timestamp", "desc",
+      "distinct", "else", "end", "escape", "exists", "false", "fetch", "first", "for", "from", "full", "group",
+      "having", "in", "inner", "is", "join", "last", "left", "like", "limit", "lower", "max", "min", "natural", "next",
+      "not", "null", "nulls", "offset", "on", "only", "or", "order", "outer", "over", "partition", "right", "row",
+      "rows", "select", "some", "sum", "then", "true", "union", "upper", "using", "when", "where", "with"));
+
+  private SqlTables() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns the tables a query may read.
+   *
+   * @param sql
+   *          the sql of the query
+   *
+   * @return the table names, or {@code null} if they cannot be determined
+   */
+  static String[] readTables(String sql) {
+    Set<String> tables = new LinkedHashSet<>();
+    for (Token token : tokenize(sql)) {
+      if (token.identifier && !KEYWORDS.contains(token.text)) {
+        tables.add(token.text);
+        if (tables.size() > MAX_READ_TABLES) {
+          return null;
+        }
+      }
+    }
+    return tables.toArray(new String[0]);
+  }
+
+  /**
+   * Returns the tables an insert, update or delete writes.
+   *
+   * @param sql
+   *          the sql of the statement
+   *
+   * @return the table names, or {@code null} if they cannot be determined
+   */
+  static String[] writtenTables(String sql) {
+    List<Token> tokens = tokenize(sql);
+    Set<String> tables = new LinkedHashSet<>();
+    for (int i = 0; i < tokens.size(); i++) {
+      Token token = tokens.get(i);
+      if (!token.identifier) {
+        continue;
+      }
+      String previous = i > 0 && tokens.get(i - 1).identifier ? tokens.get(i - 1).text : null;
+      switch (token.text) {
+        case "insert":
+        case "replace":
+        case "upsert":
+        case "merge":
+          // INSERT [INTO] table
+          int target = i + 1 < tokens.size() && "into".equals(tokens.get(i + 1).text) ? i + 2 : i + 1;
+          if (target < tokens.size() && tokens.get(target).identifier) {
+            tables.add(tokens.get(target).text);
+          }
+          break;
+        case "truncate":
+          int truncated = i + 1 < tokens.size() && "table".equals(tokens.get(i + 1).text) ? i + 2 : i + 1;
+          if (truncated < tokens.size() && tokens.get(truncated).identifier) {
+            tables.add(tokens.get(truncated).text);
+          }
+          break;
+        case "update":
+          // Not a write: SELECT ... FOR UPDATE, ON DUPLICATE KEY UPDATE
+          if (!"for".equals(previous) && !"key".equals(previous)) {
+            // Multi-table updates name the joined tables before SET
+            addIdentifiersUntil(tokens, i + 1, "set", tables);
+          }
+          break;
+        case "delete":
+          // Multi-table deletes name the tables before WHERE
+          addIdentifiersUntil(tokens, i + 1, "where", tables);
+          break;
+        default:
+          break;
+      }
+    }
+    return tables.isEmpty() ? null : tables.toArray(new String[0]);
+  }
+
+  private static void addIdentifiersUntil(List<Token> tokens, int from, String keyword, Set<String> tables) {
+    for (int i = from; i < tokens.size(); i++) {
+      Token token = tokens.get(i);
+      if (token.identifier) {
+        if (keyword.equals(token.text)) {
+          return;
+        }
+        if (!KEYWORDS.contains(token.text)) {
+          tables.add(token.text);
+        }
+      }
+    }
+  }
+
+  private static List<Token> tokenize(String sql) {
+    List<Token> tokens = new ArrayList<>();
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+        int end = sql.indexOf('\n', i);
+        i = end < 0 ? length : end + 1;
+      } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 2;
+      } else if (c == '\'') {
+        i = skipQuoted(sql, i, '\'');
+      } else if (c == '"' || c == '`' || c == '[') {
+        char close = c == '[' ? ']' : c;
+        int end = skipQuoted(sql, i, close);
+        i = addIdentifier(tokens, sql.substring(i + 1, Math.max(i + 1, end - 1)), sql, end);
+      } else if (Character.isJavaIdentifierStart(c)) {
+        int end = i + 1;
+        while (end < length && (Character.isJavaIdentifierPart(sql.charAt(end)) || sql.charAt(end) == '#')) {
+          end++;
+        }
+        i = addIdentifier(tokens, sql.substring(i, end), sql, end);
+      } else {
+        tokens.add(new Token(String.valueOf(c), false));
+        i++;
+      }
+    }
+    return tokens;
+  }
+
+  private static int addIdentifier(List<Token> tokens, String name, String sql, int end) {
+    if (end < sql.length() && sql.charAt(end) == '.') {
+      // Only the last part of a qualified name is kept
+      return end + 1;
+    }
+    tokens.add(new Token(name.toLowerCase(Locale.ENGLISH), true));
+    return end;
+  }
+
+  private static int skipQuoted(String sql, int start, char close) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == close) {
+        if (close == '\'' && i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return sql.length();
+  }
+
+  private static final class Token {
+    private final String text;
+    private final boolean identifier;
+
+    Token(String text, boolean identifier) {
+      this.text = text;
+      this.identifier = identifier;
+    }
+  }
+
+}
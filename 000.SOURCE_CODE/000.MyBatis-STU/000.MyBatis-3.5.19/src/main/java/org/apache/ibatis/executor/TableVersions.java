@@ -0,0 +1,205 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.StatementType;
+
+/**
+ * Tracks a version per table for table-level second level cache invalidation.
+ * <p>
+ * A cached result is stamped with the versions of the tables its query read, and is stale as soon as one of them has
+ * changed. Invalidation is therefore lazy: a write only increments the versions of the tables it wrote, and stale
+ * entries are dropped from the namespace caches as they are read or evicted. A write whose tables cannot be determined
+ * invalidates every stamped result, and a read whose tables cannot be determined is invalidated by any write.
+ * <p>
+ * Versions are held in memory, so a result is never considered current by another {@code TableVersions} instance, as
+ * with a cache shared between JVMs.
+ *
+ * @since 3.5.20
+ *
+ * @see org.apache.ibatis.session.CacheInvalidationScope#TABLE
+ */
+public class TableVersions {
+
+  private static final int MAX_PARSED_STATEMENTS = 1024;
+  private static final String[] UNKNOWN_TABLES = {};
+
+  private final long epoch = new Random().nextLong();
+  private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+  // Incremented by every invalidation
+  private final AtomicLong writeVersion = new AtomicLong();
+  // Incremented by invalidations of unknown tables
+  private final AtomicLong allVersion = new AtomicLong();
+  private final ConcurrentMap<String, String[]> readTables = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, String[]> writtenTables = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the tables read by a query, as declared on the statement or derived from its sql.
+   *
+   * @param ms
+   *          the query
+   * @param sql
+   *          the sql of the query
+   *
+   * @return the table names, or {@code null} if they cannot be determined
+   */
+  public String[] getReadTables(MappedStatement ms, String sql) {
+    if (ms.getTables() != null) {
+      return ms.getTables();
+    }
+    if (ms.getStatementType() == StatementType.CALLABLE) {
+      return null;
+    }
+    return parse(readTables, sql, true);
+  }
+
+  /**
+   * Returns the tables written by a statement, as declared on the statement or derived from its sql.
+   *
+   * @param ms
+   *          the insert, update or delete statement
+   * @param sql
+   *          the sql of the statement
+   *
+   * @return the table names, or {@code null} if they cannot be determined
+   */
+  public String[] getWrittenTables(MappedStatement ms, String sql) {
+    if (ms.getTables() != null) {
+      return ms.getTables();
+    }
+    if (ms.getStatementType() == StatementType.CALLABLE) {
+      return null;
+    }
+    return parse(writtenTables, sql, false);
+  }
+
+  private String[] parse(ConcurrentMap<String, String[]> parsed, String sql, boolean read) {
+    String[] tables = parsed.get(sql);
+    if (tables == null) {
+      tables = read ? SqlTables.readTables(sql) : SqlTables.writtenTables(sql);
+      if (tables == null) {
+        tables = UNKNOWN_TABLES;
+      }
+      // Dynamic sql may produce an unbounded number of texts, stop memoizing when full
+      if (parsed.size() < MAX_PARSED_STATEMENTS) {
+        parsed.put(sql, tables);
+      }
+    }
+    return tables == UNKNOWN_TABLES ? null : tables;
+  }
+
+  /**
+   * Captures the current versions of the given tables. The stamp must be taken before the query is executed.
+   *
+   * @param tables
+   *          the tables read, or {@code null} if unknown
+   *
+   * @return the stamp
+   */
+  public Stamp stamp(String[] tables) {
+    final long write = writeVersion.get();
+    final long all = allVersion.get();
+    long[] tableVersions = null;
+    if (tables != null) {
+      tableVersions = new long[tables.length];
+      for (int i = 0; i < tables.length; i++) {
+        AtomicLong version = versions.get(tables[i]);
+        tableVersions[i] = version == null ? 0 : version.get();
+      }
+    }
+    return new Stamp(epoch, write, all, tables, tableVersions);
+  }
+
+  /**
+   * Returns whether none of the tables of a stamp has been written since it was taken.
+   *
+   * @param stamp
+   *          the stamp
+   *
+   * @return {@code true} if a result stamped with it is current
+   */
+  public boolean isCurrent(Stamp stamp) {
+    if (stamp.epoch != epoch) {
+      return false;
+    }
+    if (stamp.writeVersion == writeVersion.get()) {
+      return true;
+    }
+    if (stamp.tables == null || stamp.allVersion != allVersion.get()) {
+      return false;
+    }
+    for (int i = 0; i < stamp.tables.length; i++) {
+      AtomicLong version = versions.get(stamp.tables[i]);
+      if ((version == null ? 0 : version.get()) != stamp.tableVersions[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Invalidates the results stamped with the given tables.
+   *
+   * @param tables
+   *          the written tables, or {@code null} to invalidate every result
+   */
+  public void invalidate(Collection<String> tables) {
+    if (tables == null) {
+      allVersion.incrementAndGet();
+    } else {
+      for (String table : tables) {
+        versions.computeIfAbsent(normalize(table), k -> new AtomicLong()).incrementAndGet();
+      }
+    }
+    writeVersion.incrementAndGet();
+  }
+
+  private static String normalize(String table) {
+    // Declared and derived tables are already in lower case
+    return table.toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * The table versions a cached result was read at.
+   */
+  public static final class Stamp implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long epoch;
+    private final long writeVersion;
+    private final long allVersion;
+    private final String[] tables;
+    private final long[] tableVersions;
+
+    Stamp(long epoch, long writeVersion, long allVersion, String[] tables, long[] tableVersions) {
+      this.epoch = epoch;
+      this.writeVersion = writeVersion;
+      this.allVersion = allVersion;
+      this.tables = tables;
+      this.tableVersions = tableVersions;
+    }
+  }
+
+}
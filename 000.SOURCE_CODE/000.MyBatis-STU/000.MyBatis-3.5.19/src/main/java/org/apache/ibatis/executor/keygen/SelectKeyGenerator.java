@@ -41,6 +41,20 @@ public class SelectKeyGenerator implements KeyGenerator {
     this.keyStatement = keyStatement;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public MappedStatement getKeyStatement() {
+    return keyStatement;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public boolean isExecuteBefore() {
+    return executeBefore;
+  }
+
   @Override
   public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
     if (executeBefore) {
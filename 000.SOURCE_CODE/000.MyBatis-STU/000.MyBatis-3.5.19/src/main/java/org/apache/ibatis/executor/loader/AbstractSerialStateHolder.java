@@ -30,11 +30,23 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.io.SerialFilterChecker;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 
 /**
+ * The serialized form of a lazy loading proxy.
+ * <p>
+ * The state of the proxy is written with Java serialization, or with the cache serializer of the configuration that
+ * created the proxy when it is not Java serialization. In the latter case the class name of the serializer is written
+ * first, so that the state can be read back without a configuration; the serializer class must then have a public
+ * no-argument constructor.
+ *
  * @author Eduardo Macarron
  * @author Franta Mejta
  */
@@ -42,7 +54,10 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
 
   private static final long serialVersionUID = 8940388717901644661L;
   private static final ThreadLocal<ObjectOutputStream> stream = new ThreadLocal<>();
+  private static final ThreadLocal<Boolean> serializing = new ThreadLocal<>();
+  private static final ConcurrentMap<String, Serializer> serializers = new ConcurrentHashMap<>();
   private byte[] userBeanBytes = {};
+  private Serializer serializer;
   private Object userBean;
   private Map<String, ResultLoaderMap.LoadPair> unloadedProperties;
   private ObjectFactory objectFactory;
@@ -62,8 +77,54 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
     this.constructorArgs = constructorArgs.toArray(new Object[0]);
   }
 
+  /**
+   * Creates the state of a proxy that is serialized with the given serializer.
+   *
+   * @since 3.5.20
+   */
+  public AbstractSerialStateHolder(final Object userBean,
+      final Map<String, ResultLoaderMap.LoadPair> unloadedProperties, final ObjectFactory objectFactory,
+      List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Serializer serializer) {
+    this(userBean, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
+    this.serializer = serializer;
+  }
+
+  /**
+   * Returns the serializer of the proxy state, to be given to the proxy created on deserialization.
+   *
+   * @return the serializer, or {@code null} for Java serialization
+   *
+   * @since 3.5.20
+   */
+  protected final Serializer getSerializer() {
+    return serializer;
+  }
+
   @Override
   public final void writeExternal(final ObjectOutput out) throws IOException {
+    if (serializer == null || serializer.getClass() == JavaSerializer.class || stream.get() != null) {
+      writeJavaSerialized(out);
+    } else if (serializing.get() != null) {
+      // A proxy reached from the state being serialized: its bean is restored without lazy loading, as when nested
+      // in a Java serialized proxy
+      out.writeObject(this.userBean);
+    } else {
+      final byte[] bytes;
+      serializing.set(Boolean.TRUE);
+      try {
+        bytes = serializer.serialize(new Object[] { this.userBean, this.unloadedProperties, this.objectFactory,
+            this.constructorArgTypes, this.constructorArgs });
+      } catch (CacheException e) {
+        throw new IOException("Error serializing lazy loading proxy.  Cause: " + e, e);
+      } finally {
+        serializing.remove();
+      }
+      out.writeObject(serializer.getClass().getName());
+      out.writeObject(bytes);
+    }
+  }
+
+  private void writeJavaSerialized(final ObjectOutput out) throws IOException {
     boolean firstRound = false;
     final ByteArrayOutputStream baos = new ByteArrayOutputStream();
     ObjectOutputStream os = stream.get();
@@ -90,7 +151,10 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
   @Override
   public final void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
     final Object data = in.readObject();
-    if (data.getClass().isArray()) {
+    if (data instanceof String) {
+      this.serializer = resolveSerializer((String) data);
+      this.userBeanBytes = (byte[]) in.readObject();
+    } else if (data.getClass().isArray()) {
       this.userBeanBytes = (byte[]) data;
     } else {
       this.userBean = data;
@@ -107,6 +171,31 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
     SerialFilterChecker.check();
 
     /* First run */
+    if (this.serializer != null) {
+      final Object[] state;
+      try {
+        state = (Object[]) serializer.deserialize(this.userBeanBytes);
+      } catch (CacheException | ClassCastException ex) {
+        throw (ObjectStreamException) new StreamCorruptedException().initCause(ex);
+      }
+      this.userBean = state[0];
+      this.unloadedProperties = (Map<String, ResultLoaderMap.LoadPair>) state[1];
+      this.objectFactory = (ObjectFactory) state[2];
+      this.constructorArgTypes = (Class<?>[]) state[3];
+      this.constructorArgs = (Object[]) state[4];
+    } else {
+      readJavaSerialized();
+    }
+
+    final Map<String, ResultLoaderMap.LoadPair> arrayProps = new HashMap<>(this.unloadedProperties);
+    final List<Class<?>> arrayTypes = Arrays.asList(this.constructorArgTypes);
+    final List<Object> arrayValues = Arrays.asList(this.constructorArgs);
+
+    return this.createDeserializationProxy(userBean, arrayProps, objectFactory, arrayTypes, arrayValues);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readJavaSerialized() throws ObjectStreamException {
     try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(this.userBeanBytes))) {
       this.userBean = in.readObject();
       this.unloadedProperties = (Map<String, ResultLoaderMap.LoadPair>) in.readObject();
@@ -118,12 +207,29 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
     } catch (final ClassNotFoundException ex) {
       throw (ObjectStreamException) new InvalidClassException(ex.getLocalizedMessage()).initCause(ex);
     }
+  }
 
-    final Map<String, ResultLoaderMap.LoadPair> arrayProps = new HashMap<>(this.unloadedProperties);
-    final List<Class<?>> arrayTypes = Arrays.asList(this.constructorArgTypes);
-    final List<Object> arrayValues = Arrays.asList(this.constructorArgs);
-
-    return this.createDeserializationProxy(userBean, arrayProps, objectFactory, arrayTypes, arrayValues);
+  private static Serializer resolveSerializer(String className) throws IOException {
+    Serializer serializer = serializers.get(className);
+    if (serializer == null) {
+      try {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        // The class is not initialized before it is known to be a serializer
+        Class<?> type = Class.forName(className, false,
+            classLoader == null ? AbstractSerialStateHolder.class.getClassLoader() : classLoader);
+        if (!Serializer.class.isAssignableFrom(type)) {
+          throw new InvalidClassException(className, "Not a cache serializer");
+        }
+        serializer = (Serializer) type.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw (IOException) new InvalidClassException(className, "Cannot create the cache serializer").initCause(e);
+      }
+      Serializer existing = serializers.putIfAbsent(className, serializer);
+      if (existing != null) {
+        serializer = existing;
+      }
+    }
+    return serializer;
   }
 
   protected abstract Object createDeserializationProxy(Object target,
@@ -0,0 +1,84 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A lazy {@link ResultLoader} that, when triggered, also loads the pending loaders of the same nested select created
+ * for the sibling rows of the same result set.
+ *
+ * @since 3.5.20
+ *
+ * @see Configuration#getLazyLoadBatchSize()
+ */
+public class BatchResultLoader extends ResultLoader {
+
+  private final ResultLoaderBatch batch;
+  private List<Object> rows;
+
+  public BatchResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement,
+      Object parameterObject, Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, ResultLoaderBatch batch) {
+    super(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql);
+    this.batch = batch;
+    batch.add(this);
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    batch.load(this);
+    final List<Object> list = rows;
+    if (list != null) {
+      // Extracted here rather than in the batch so that a sibling's extraction failure is raised by its own load
+      rows = null;
+      resultObject = resultExtractor.extractObjectFromList(list, targetType);
+    }
+    return resultObject;
+  }
+
+  void setRows(List<Object> list) {
+    rows = list;
+    loaded = true;
+  }
+
+  void loadSingle() throws SQLException {
+    super.loadResult();
+    loaded = true;
+  }
+
+  List<List<Object>> selectBatch(List<Object> parameterObjects, List<BoundSql> boundSqls, List<CacheKey> cacheKeys)
+      throws SQLException {
+    Executor localExecutor = executor;
+    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
+      localExecutor = newExecutor();
+    }
+    try {
+      return NestedQueryBatch.selectList(localExecutor, mappedStatement, parameterObjects, boundSqls, cacheKeys);
+    } finally {
+      if (localExecutor != executor) {
+        localExecutor.close(false);
+      }
+    }
+  }
+
+}
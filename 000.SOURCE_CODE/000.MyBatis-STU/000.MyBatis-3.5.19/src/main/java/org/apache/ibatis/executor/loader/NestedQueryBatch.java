@@ -0,0 +1,316 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Executes a nested select for several parameter objects with a single statement.
+ * <p>
+ * The sql bound for each parameter object selects its position in an extra {@value #BATCH_INDEX_COLUMN} column, and
+ * these selects are combined with {@code UNION ALL} and ordered by that column. Rows are mapped with the result map of
+ * the nested select and handed back to the parameter object they were selected for, so the results are the same as
+ * executing the nested select once per parameter object.
+ * <p>
+ * Only a plain select can be combined this way: a statement that orders or limits its rows, starts with a common table
+ * expression, locks its rows or is itself a set operation is executed once per parameter object. A select of {@code *}
+ * is wrapped in a derived table, so it must select from a single table to keep its column names distinct.
+ *
+ * @since 3.5.20
+ */
+public final class NestedQueryBatch {
+
+  /**
+   * The column holding the position of the parameter object a row was selected for.
+   */
+  public static final String BATCH_INDEX_COLUMN = "MYBATIS_BATCH_INDEX";
+
+  private static final Set<String> UNSUPPORTED_KEYWORDS = new HashSet<>(Arrays.asList("order", "limit", "offset",
+      "fetch", "top", "rownum", "union", "intersect", "except", "minus", "for", "into", "with"));
+
+  private NestedQueryBatch() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns whether the rows of the given nested select can be told apart when it is executed for several parameter
+   * objects at once. Callable statements, multiple result sets, nested result maps, discriminators and map results are
+   * not supported, nor is an auto-mapping unknown column behavior other than {@code NONE}.
+   *
+   * @param nestedQuery
+   *          the nested select
+   *
+   * @return {@code true} if {@link #selectList(Executor, MappedStatement, List, List, List)} may support the statement
+   */
+  public static boolean isBatchable(MappedStatement nestedQuery) {
+    final Configuration configuration = nestedQuery.getConfiguration();
+    if (nestedQuery.getSqlCommandType() != SqlCommandType.SELECT
+        || nestedQuery.getStatementType() == StatementType.CALLABLE || nestedQuery.getResultSets() != null
+        || nestedQuery.hasNestedResultMaps() || nestedQuery.getResultMaps().size() != 1
+        || configuration.getAutoMappingUnknownColumnBehavior() != AutoMappingUnknownColumnBehavior.NONE) {
+      return false;
+    }
+    final ResultMap resultMap = nestedQuery.getResultMaps().get(0);
+    return resultMap.getDiscriminator() == null && !Map.class.isAssignableFrom(resultMap.getType());
+  }
+
+  /**
+   * Returns whether the given nested select can be executed for several parameter objects at once with the sql bound
+   * for one of them.
+   *
+   * @param nestedQuery
+   *          the nested select
+   * @param boundSql
+   *          the sql bound for a parameter object
+   *
+   * @return {@code true} if {@link #selectList(Executor, MappedStatement, List, List, List)} supports the statement
+   *
+   * @see #isBatchable(MappedStatement)
+   */
+  public static boolean isBatchable(MappedStatement nestedQuery, BoundSql boundSql) {
+    return isBatchable(nestedQuery) && toBatchSelect(boundSql.getSql(), 0) != null;
+  }
+
+  /**
+   * Executes the nested select once for all the given parameter objects.
+   *
+   * @param executor
+   *          the executor to run the statement with
+   * @param nestedQuery
+   *          the nested select, {@link #isBatchable(MappedStatement)} must be true
+   * @param parameterObjects
+   *          the parameter objects
+   * @param boundSqls
+   *          the sql bound for each parameter object, {@link #isBatchable(MappedStatement, BoundSql)} must be true
+   * @param cacheKeys
+   *          the cache key of each parameter object, the rows selected for it are stored in the local cache under it
+   *
+   * @return the rows selected for each parameter object, in the order of the parameter objects
+   *
+   * @throws SQLException
+   *           if the statement fails
+   */
+  public static List<List<Object>> selectList(Executor executor, MappedStatement nestedQuery,
+      List<Object> parameterObjects, List<BoundSql> boundSqls, List<CacheKey> cacheKeys) throws SQLException {
+    final Configuration configuration = nestedQuery.getConfiguration();
+    final TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    final StringBuilder sql = new StringBuilder();
+    final List<ParameterMapping> parameterMappings = new ArrayList<>();
+    final List<Object> values = new ArrayList<>();
+    for (int i = 0; i < boundSqls.size(); i++) {
+      final BoundSql boundSql = boundSqls.get(i);
+      final Object parameterObject = parameterObjects.get(i);
+      if (i > 0) {
+        sql.append(" UNION ALL ");
+      }
+      final String select = toBatchSelect(boundSql.getSql(), i);
+      if (select == null) {
+        throw new ExecutorException(
+            "Nested select '" + nestedQuery.getId() + "' cannot be executed in a batch because of its sql.");
+      }
+      sql.append(select);
+      MetaObject metaObject = null;
+      for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+        if (parameterMapping.getMode() != ParameterMode.IN) {
+          throw new ExecutorException("Nested select '" + nestedQuery.getId()
+              + "' cannot be executed in a batch because it has an output parameter.");
+        }
+        // Same resolution as DefaultParameterHandler, the values are passed as additional parameters
+        final Object value;
+        final String propertyName = parameterMapping.getProperty();
+        if (boundSql.hasAdditionalParameter(propertyName)) {
+          value = boundSql.getAdditionalParameter(propertyName);
+        } else if (parameterObject == null) {
+          value = null;
+        } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+          value = parameterObject;
+        } else {
+          if (metaObject == null) {
+            metaObject = configuration.newMetaObject(parameterObject);
+          }
+          value = metaObject.getValue(propertyName);
+        }
+        parameterMappings.add(new ParameterMapping.Builder(configuration, "__batch_" + values.size(),
+            parameterMapping.getTypeHandler()).javaType(parameterMapping.getJavaType())
+            .jdbcType(parameterMapping.getJdbcType()).numericScale(parameterMapping.getNumericScale()).build());
+        values.add(value);
+      }
+    }
+    sql.append(" ORDER BY ").append(BATCH_INDEX_COLUMN);
+    final BoundSql batchBoundSql = new BoundSql(configuration, sql.toString(), parameterMappings, null);
+    for (int i = 0; i < values.size(); i++) {
+      batchBoundSql.setAdditionalParameter("__batch_" + i, values.get(i));
+    }
+    final CacheKey key = executor.createCacheKey(nestedQuery, null, RowBounds.DEFAULT, batchBoundSql);
+    final RowCollector collector = new RowCollector(boundSqls.size());
+    executor.query(nestedQuery, null, RowBounds.DEFAULT, collector, key, batchBoundSql);
+    nestedQuery.recordNestedQueryBatch(boundSqls.size());
+    for (int i = 0; i < cacheKeys.size(); i++) {
+      executor.putLocalCache(nestedQuery, cacheKeys.get(i), collector.rows.get(i));
+    }
+    return collector.rows;
+  }
+
+  /**
+   * Adds the {@value #BATCH_INDEX_COLUMN} column to a select.
+   *
+   * @return the select, or {@code null} if its rows could not be combined with those of other selects
+   */
+  static String toBatchSelect(String sql, int index) {
+    final List<Token> tokens = topLevelTokens(sql);
+    if (tokens.isEmpty() || !"select".equals(tokens.get(0).text)) {
+      return null;
+    }
+    int from = -1;
+    for (int i = 1; i < tokens.size(); i++) {
+      final String text = tokens.get(i).text;
+      if (UNSUPPORTED_KEYWORDS.contains(text)) {
+        return null;
+      }
+      if (from < 0 && "from".equals(text)) {
+        from = i;
+      }
+    }
+    final String indexColumn = index + " AS " + BATCH_INDEX_COLUMN;
+    if (from < 0) {
+      return sql + ", " + indexColumn;
+    }
+    final int fromStart = tokens.get(from).start;
+    if (!"*".equals(sql.substring(tokens.get(0).end, fromStart).trim())) {
+      return sql.substring(0, fromStart) + ", " + indexColumn + " " + sql.substring(fromStart);
+    }
+    // Not every database accepts another column next to an unqualified *, select it from a derived table instead
+    for (int i = from + 1; i < tokens.size(); i++) {
+      final String text = tokens.get(i).text;
+      if ("where".equals(text) || "group".equals(text) || "having".equals(text)) {
+        break;
+      }
+      if ("join".equals(text) || ",".equals(text)) {
+        // Columns of several tables may have the same name, which a derived table does not allow
+        return null;
+      }
+    }
+    return "SELECT b" + index + ".*, " + indexColumn + " FROM (" + sql + ") b" + index;
+  }
+
+  /**
+   * Splits the given sql into the words and commas that are not enclosed in parentheses, skipping quoted text and
+   * comments. Words are lower cased.
+   */
+  private static List<Token> topLevelTokens(String sql) {
+    final List<Token> tokens = new ArrayList<>();
+    int depth = 0;
+    int i = 0;
+    while (i < sql.length()) {
+      final char c = sql.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        final int end = sql.indexOf(c, i + 1);
+        i = end < 0 ? sql.length() : end + 1;
+      } else if (c == '-' && sql.startsWith("--", i)) {
+        final int end = sql.indexOf('\n', i);
+        i = end < 0 ? sql.length() : end + 1;
+      } else if (c == '/' && sql.startsWith("/*", i)) {
+        final int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? sql.length() : end + 2;
+      } else if (c == '(') {
+        depth++;
+        i++;
+      } else if (c == ')') {
+        depth--;
+        i++;
+      } else if (Character.isLetter(c) || c == '_') {
+        final int start = i;
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+            || sql.charAt(i) == '$' || sql.charAt(i) == '.')) {
+          i++;
+        }
+        if (depth == 0) {
+          tokens.add(new Token(sql.substring(start, i).toLowerCase(Locale.ENGLISH), start, i));
+        }
+      } else {
+        if (c == ',' && depth == 0) {
+          tokens.add(new Token(",", i, i + 1));
+        }
+        i++;
+      }
+    }
+    return tokens;
+  }
+
+  private static final class Token {
+    final String text;
+    final int start;
+    final int end;
+
+    Token(String text, int start, int end) {
+      this.text = text;
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  /**
+   * Groups the mapped rows by the value of {@link NestedQueryBatch#BATCH_INDEX_COLUMN}. The result set handler passes
+   * the result set positioned on the row along with the mapped row.
+   */
+  public static final class RowCollector implements ResultHandler<Object> {
+
+    private final List<List<Object>> rows;
+
+    private RowCollector(int size) {
+      rows = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        rows.add(new ArrayList<>());
+      }
+    }
+
+    public void collect(ResultSet rs, Object rowValue) throws SQLException {
+      rows.get(rs.getInt(BATCH_INDEX_COLUMN)).add(rowValue);
+    }
+
+    @Override
+    public void handleResult(ResultContext<?> resultContext) {
+      throw new ExecutorException("Rows of a nested select batch must be collected along with their result set.");
+    }
+  }
+
+}
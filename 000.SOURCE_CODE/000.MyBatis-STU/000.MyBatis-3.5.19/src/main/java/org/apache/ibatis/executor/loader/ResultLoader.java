@@ -88,7 +88,7 @@ public class ResultLoader {
     }
   }
 
-  private Executor newExecutor() {
+  protected Executor newExecutor() {
     final Environment environment = configuration.getEnvironment();
     if (environment == null) {
       throw new ExecutorException("ResultLoader could not load lazily.  Environment was not configured.");
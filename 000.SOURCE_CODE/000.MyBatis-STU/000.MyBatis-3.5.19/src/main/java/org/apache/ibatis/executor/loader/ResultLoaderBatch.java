@@ -0,0 +1,109 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.BoundSql;
+
+/**
+ * The pending {@link BatchResultLoader}s created for one nested select while handling a result set.
+ * <p>
+ * Loading one of them loads it together with up to {@code batchSize - 1} other distinct pending parameters, taken from
+ * the rows that follow it first, with a single statement built by {@link NestedQueryBatch}.
+ *
+ * @since 3.5.20
+ */
+public class ResultLoaderBatch {
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final int batchSize;
+  private final List<BatchResultLoader> pending = new ArrayList<>();
+
+  public ResultLoaderBatch(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  void add(BatchResultLoader loader) {
+    lock.lock();
+    try {
+      pending.add(loader);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void load(BatchResultLoader trigger) throws SQLException {
+    lock.lock();
+    try {
+      if (trigger.loaded) {
+        return;
+      }
+      final Map<CacheKey, List<BatchResultLoader>> chunk = new LinkedHashMap<>();
+      final int start = Math.max(0, pending.indexOf(trigger));
+      addToChunk(chunk, trigger);
+      for (int i = 1; i < pending.size(); i++) {
+        final BatchResultLoader loader = pending.get((start + i) % pending.size());
+        if (loader != trigger && !loader.loaded) {
+          addToChunk(chunk, loader);
+        }
+      }
+      if (chunk.size() == 1) {
+        // Nothing to batch with, duplicates are served by the local cache
+        for (BatchResultLoader loader : chunk.get(trigger.cacheKey)) {
+          loader.loadSingle();
+        }
+      } else {
+        final List<Object> parameterObjects = new ArrayList<>(chunk.size());
+        final List<BoundSql> boundSqls = new ArrayList<>(chunk.size());
+        final List<CacheKey> cacheKeys = new ArrayList<>(chunk.keySet());
+        for (List<BatchResultLoader> loaders : chunk.values()) {
+          parameterObjects.add(loaders.get(0).parameterObject);
+          boundSqls.add(loaders.get(0).boundSql);
+        }
+        final List<List<Object>> rows = trigger.selectBatch(parameterObjects, boundSqls, cacheKeys);
+        int i = 0;
+        for (List<BatchResultLoader> loaders : chunk.values()) {
+          final List<Object> list = rows.get(i++);
+          for (BatchResultLoader loader : loaders) {
+            loader.setRows(list);
+          }
+        }
+      }
+      pending.removeIf(loader -> loader.loaded);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void addToChunk(Map<CacheKey, List<BatchResultLoader>> chunk, BatchResultLoader loader) {
+    final List<BatchResultLoader> loaders = chunk.get(loader.cacheKey);
+    if (loaders != null) {
+      loaders.add(loader);
+    } else if (chunk.size() < batchSize) {
+      final List<BatchResultLoader> newLoaders = new ArrayList<>();
+      newLoaders.add(loader);
+      chunk.put(loader.cacheKey, newLoaders);
+    }
+  }
+
+}
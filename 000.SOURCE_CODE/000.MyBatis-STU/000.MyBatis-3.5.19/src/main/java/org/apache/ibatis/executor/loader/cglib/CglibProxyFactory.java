@@ -26,6 +26,7 @@ import net.sf.cglib.proxy.Enhancer;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.executor.loader.AbstractEnhancedDeserializationProxy;
 import org.apache.ibatis.executor.loader.AbstractSerialStateHolder;
 import org.apache.ibatis.executor.loader.ProxyFactory;
@@ -69,8 +70,20 @@ public class CglibProxyFactory implements ProxyFactory {
 
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
       ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    return createDeserializationProxy(target, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs,
+        null);
+  }
+
+  /**
+   * Creates the proxy of a deserialized object, which is serialized again with the given serializer.
+   *
+   * @since 3.5.20
+   */
+  public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
+      ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs,
+      Serializer serializer) {
     return EnhancedDeserializationProxyImpl.createProxy(target, unloadedProperties, objectFactory, constructorArgTypes,
-        constructorArgs);
+        constructorArgs, serializer);
   }
 
   static Object createStaticProxy(Class<?> type, Callback callback, List<Class<?>> constructorArgTypes,
@@ -110,6 +123,7 @@ public class CglibProxyFactory implements ProxyFactory {
     private final ObjectFactory objectFactory;
     private final List<Class<?>> constructorArgTypes;
     private final List<Object> constructorArgs;
+    private final Serializer serializer;
     private final ReentrantLock lock = new ReentrantLock();
 
     private EnhancedResultObjectProxyImpl(Class<?> type, ResultLoaderMap lazyLoader, Configuration configuration,
@@ -121,6 +135,7 @@ public class CglibProxyFactory implements ProxyFactory {
       this.objectFactory = objectFactory;
       this.constructorArgTypes = constructorArgTypes;
       this.constructorArgs = constructorArgs;
+      this.serializer = configuration.getCacheSerializer();
     }
 
     public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration,
@@ -147,8 +162,8 @@ public class CglibProxyFactory implements ProxyFactory {
           }
           PropertyCopier.copyBeanProperties(type, enhanced, original);
           if (lazyLoader.size() > 0) {
-            return new CglibSerialStateHolder(original, lazyLoader.getProperties(), objectFactory, constructorArgTypes,
-                constructorArgs);
+            return new CglibSerialStateHolder(original, lazyLoader.getProperties(), objectFactory,
+                constructorArgTypes, constructorArgs, serializer);
           } else {
             return original;
           }
@@ -178,16 +193,21 @@ public class CglibProxyFactory implements ProxyFactory {
   private static class EnhancedDeserializationProxyImpl extends AbstractEnhancedDeserializationProxy
       implements MethodInterceptor {
 
+    private final Serializer serializer;
+
     private EnhancedDeserializationProxyImpl(Class<?> type, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
-        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs,
+        Serializer serializer) {
       super(type, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
+      this.serializer = serializer;
     }
 
     public static Object createProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
-        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs,
+        Serializer serializer) {
       final Class<?> type = target.getClass();
       EnhancedDeserializationProxyImpl callback = new EnhancedDeserializationProxyImpl(type, unloadedProperties,
-          objectFactory, constructorArgTypes, constructorArgs);
+          objectFactory, constructorArgTypes, constructorArgs, serializer);
       Object enhanced = createStaticProxy(type, callback, constructorArgTypes, constructorArgs);
       PropertyCopier.copyBeanProperties(type, target, enhanced);
       return enhanced;
@@ -204,7 +224,7 @@ public class CglibProxyFactory implements ProxyFactory {
         Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory,
         List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
       return new CglibSerialStateHolder(userBean, unloadedProperties, objectFactory, constructorArgTypes,
-          constructorArgs);
+          constructorArgs, serializer);
     }
   }
 
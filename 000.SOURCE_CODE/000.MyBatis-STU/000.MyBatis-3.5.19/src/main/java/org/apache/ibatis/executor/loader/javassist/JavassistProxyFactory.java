@@ -25,6 +25,7 @@ import javassist.util.proxy.MethodHandler;
 import javassist.util.proxy.Proxy;
 import javassist.util.proxy.ProxyFactory;
 
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.AbstractEnhancedDeserializationProxy;
 import org.apache.ibatis.executor.loader.AbstractSerialStateHolder;
@@ -65,8 +66,20 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
       ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    return createDeserializationProxy(target, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs,
+        null);
+  }
+
+  /**
+   * Creates the proxy of a deserialized object, which is serialized again with the given serializer.
+   *
+   * @since 3.5.20
+   */
+  public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
+      ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs,
+      Serializer serializer) {
     return EnhancedDeserializationProxyImpl.createProxy(target, unloadedProperties, objectFactory, constructorArgTypes,
-        constructorArgs);
+        constructorArgs, serializer);
   }
 
   static Object createStaticProxy(Class<?> type, MethodHandler callback, List<Class<?>> constructorArgTypes,
@@ -107,6 +120,7 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     private final ObjectFactory objectFactory;
     private final List<Class<?>> constructorArgTypes;
     private final List<Object> constructorArgs;
+    private final Serializer serializer;
     private final ReentrantLock lock = new ReentrantLock();
 
     private EnhancedResultObjectProxyImpl(Class<?> type, ResultLoaderMap lazyLoader, Configuration configuration,
@@ -118,6 +132,7 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
       this.objectFactory = objectFactory;
       this.constructorArgTypes = constructorArgTypes;
       this.constructorArgs = constructorArgs;
+      this.serializer = configuration.getCacheSerializer();
     }
 
     public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration,
@@ -145,7 +160,7 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
           PropertyCopier.copyBeanProperties(type, enhanced, original);
           if (!lazyLoader.isEmpty()) {
             return new JavassistSerialStateHolder(original, lazyLoader.getProperties(), objectFactory,
-                constructorArgTypes, constructorArgs);
+                constructorArgTypes, constructorArgs, serializer);
           } else {
             return original;
           }
@@ -175,16 +190,21 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
   private static class EnhancedDeserializationProxyImpl extends AbstractEnhancedDeserializationProxy
       implements MethodHandler {
 
+    private final Serializer serializer;
+
     private EnhancedDeserializationProxyImpl(Class<?> type, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
-        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs,
+        Serializer serializer) {
       super(type, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
+      this.serializer = serializer;
     }
 
     public static Object createProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
-        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+        ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs,
+        Serializer serializer) {
       final Class<?> type = target.getClass();
       EnhancedDeserializationProxyImpl callback = new EnhancedDeserializationProxyImpl(type, unloadedProperties,
-          objectFactory, constructorArgTypes, constructorArgs);
+          objectFactory, constructorArgTypes, constructorArgs, serializer);
       Object enhanced = createStaticProxy(type, callback, constructorArgTypes, constructorArgs);
       PropertyCopier.copyBeanProperties(type, target, enhanced);
       return enhanced;
@@ -201,7 +221,7 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
         Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory,
         List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
       return new JavassistSerialStateHolder(userBean, unloadedProperties, objectFactory, constructorArgTypes,
-          constructorArgs);
+          constructorArgs, serializer);
     }
   }
 
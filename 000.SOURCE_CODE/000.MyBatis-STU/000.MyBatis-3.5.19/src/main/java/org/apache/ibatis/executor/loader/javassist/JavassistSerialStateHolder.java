@@ -18,6 +18,7 @@ package org.apache.ibatis.executor.loader.javassist;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.executor.loader.AbstractSerialStateHolder;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
@@ -38,10 +39,16 @@ class JavassistSerialStateHolder extends AbstractSerialStateHolder {
     super(userBean, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
   }
 
+  public JavassistSerialStateHolder(final Object userBean,
+      final Map<String, ResultLoaderMap.LoadPair> unloadedProperties, final ObjectFactory objectFactory,
+      List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Serializer serializer) {
+    super(userBean, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs, serializer);
+  }
+
   @Override
   protected Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
       ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
     return new JavassistProxyFactory().createDeserializationProxy(target, unloadedProperties, objectFactory,
-        constructorArgTypes, constructorArgs);
+        constructorArgTypes, constructorArgs, getSerializer());
   }
 }
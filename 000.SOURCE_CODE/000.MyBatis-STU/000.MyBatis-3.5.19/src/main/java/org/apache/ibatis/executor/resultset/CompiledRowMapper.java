@@ -0,0 +1,318 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * A row mapping plan built once for a simple {@link ResultMap} and a result set column layout.
+ * <p>
+ * Column indexes, type handlers and setter invokers are resolved when the plan is built, so mapping a row is a loop
+ * over pre-resolved slots instead of the name based lookups done through {@code MetaObject}. Result maps with
+ * constructor mappings, discriminators, nested result maps, nested selects, multiple result sets or nested property
+ * paths are not compiled; {@link DefaultResultSetHandler} keeps mapping those on its regular path.
+ *
+ * @since 3.5.20
+ *
+ * @see Configuration#isCompiledRowMappingEnabled()
+ */
+public class CompiledRowMapper {
+
+  static final CompiledRowMapper NOT_COMPILABLE = new CompiledRowMapper(null, null, new int[0], new TypeHandler<?>[0],
+      new String[0], new Invoker[0], new boolean[0], false, new UnknownColumn[0]);
+
+  private final Configuration configuration;
+  private final Class<?> type;
+  private final int[] columnIndexes;
+  private final TypeHandler<?>[] typeHandlers;
+  private final String[] properties;
+  private final Invoker[] setters;
+  private final boolean[] callSettersOnNulls;
+  private final boolean returnInstanceForEmptyRow;
+  private final UnknownColumn[] unknownColumns;
+
+  private CompiledRowMapper(Configuration configuration, Class<?> type, int[] columnIndexes,
+      TypeHandler<?>[] typeHandlers, String[] properties, Invoker[] setters, boolean[] callSettersOnNulls,
+      boolean returnInstanceForEmptyRow, UnknownColumn[] unknownColumns) {
+    this.configuration = configuration;
+    this.type = type;
+    this.columnIndexes = columnIndexes;
+    this.typeHandlers = typeHandlers;
+    this.properties = properties;
+    this.setters = setters;
+    this.callSettersOnNulls = callSettersOnNulls;
+    this.returnInstanceForEmptyRow = returnInstanceForEmptyRow;
+    this.unknownColumns = unknownColumns;
+  }
+
+  /**
+   * Maps the current row of the result set.
+   *
+   * @param rs
+   *          the result set positioned on the row to map
+   *
+   * @return the row value, or {@code null} if every column was null and {@code returnInstanceForEmptyRow} is disabled
+   *
+   * @throws SQLException
+   *           if a column cannot be read
+   */
+  public Object map(ResultSet rs) throws SQLException {
+    final Object rowValue = configuration.getObjectFactory().create(type);
+    boolean foundValues = false;
+    for (int i = 0; i < columnIndexes.length; i++) {
+      final Object value = typeHandlers[i].getResult(rs, columnIndexes[i]);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || callSettersOnNulls[i]) {
+        setValue(rowValue, i, value);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  /**
+   * Reads the mapped columns of the current row through their type handlers, without creating the row value. Together
+   * with {@link #create(Object[])}, this splits {@link #map(ResultSet)} so that the result set is read by one thread
+   * while the row values are created by others.
+   *
+   * @param rs
+   *          the result set positioned on the row to read
+   *
+   * @return the column values, in the order expected by {@link #create(Object[])}
+   *
+   * @throws SQLException
+   *           if a column cannot be read
+   */
+  public Object[] read(ResultSet rs) throws SQLException {
+    final Object[] values = new Object[columnIndexes.length];
+    for (int i = 0; i < columnIndexes.length; i++) {
+      values[i] = typeHandlers[i].getResult(rs, columnIndexes[i]);
+    }
+    return values;
+  }
+
+  /**
+   * Creates a row value from column values returned by {@link #read(ResultSet)}. This method does not use the result
+   * set and may be called from any thread.
+   *
+   * @param values
+   *          the column values of the row
+   *
+   * @return the row value, or {@code null} if every column was null and {@code returnInstanceForEmptyRow} is disabled
+   */
+  public Object create(Object[] values) {
+    final Object rowValue = configuration.getObjectFactory().create(type);
+    boolean foundValues = false;
+    for (int i = 0; i < values.length; i++) {
+      final Object value = values[i];
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || callSettersOnNulls[i]) {
+        setValue(rowValue, i, value);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  /**
+   * Returns the number of columns read for each row.
+   *
+   * @return the number of mapped columns
+   */
+  public int getMappedColumnCount() {
+    return columnIndexes.length;
+  }
+
+  /**
+   * Applies the {@code autoMappingUnknownColumnBehavior} to the auto-mapping columns found to be unknown when this row
+   * mapper was built.
+   *
+   * @param mappedStatement
+   *          the statement being handled
+   */
+  void reportUnknownColumns(MappedStatement mappedStatement) {
+    for (UnknownColumn unknownColumn : unknownColumns) {
+      configuration.getAutoMappingUnknownColumnBehavior().doAction(mappedStatement, unknownColumn.columnName,
+          unknownColumn.property, unknownColumn.propertyType);
+    }
+  }
+
+  private void setValue(Object rowValue, int slot, Object value) {
+    try {
+      try {
+        setters[slot].invoke(rowValue, new Object[] { value });
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + properties[slot] + "' of '" + rowValue.getClass()
+          + "' with value '" + value + "' Cause: " + t.toString(), t);
+    }
+  }
+
+  /**
+   * Builds a row mapper for the given result map and column layout.
+   *
+   * @param configuration
+   *          the configuration
+   * @param rsw
+   *          the result set wrapper describing the column layout
+   * @param resultMap
+   *          the result map to compile
+   * @param applyAutomaticMappings
+   *          whether unmapped columns are auto-mapped
+   *
+   * @return the compiled row mapper, or {@link #NOT_COMPILABLE} if the result map requires the regular mapping path
+   *
+   * @throws SQLException
+   *           if the column layout cannot be read
+   */
+  static CompiledRowMapper compile(Configuration configuration, ResultSetWrapper rsw, ResultMap resultMap,
+      boolean applyAutomaticMappings) throws SQLException {
+    final Class<?> type = resultMap.getType();
+    if (!isCompilable(configuration, rsw, resultMap)) {
+      return NOT_COMPILABLE;
+    }
+    final Reflector reflector = configuration.getReflectorFactory().findForClass(type);
+    final List<Integer> columnIndexes = new ArrayList<>();
+    final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+    final List<String> properties = new ArrayList<>();
+    final List<UnknownColumn> unknownColumns = new ArrayList<>();
+    if (applyAutomaticMappings) {
+      final MetaClass metaType = MetaClass.forClass(type, configuration.getReflectorFactory());
+      final TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+      for (String columnName : rsw.getUnmappedColumnNames(resultMap, null)) {
+        final String property = metaType.findProperty(columnName, configuration.isMapUnderscoreToCamelCase());
+        if (property != null && metaType.hasSetter(property)) {
+          if (resultMap.getMappedProperties().contains(property)) {
+            continue;
+          }
+          if (!isSimpleProperty(property)) {
+            return NOT_COMPILABLE;
+          }
+          final Class<?> propertyType = metaType.getSetterType(property);
+          if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
+            columnIndexes.add(rsw.getColumnIndex(columnName));
+            typeHandlers.add(rsw.getTypeHandler(propertyType, columnName));
+            properties.add(property);
+          } else {
+            unknownColumns.add(new UnknownColumn(columnName, property, propertyType));
+          }
+        } else {
+          unknownColumns.add(new UnknownColumn(columnName, property != null ? property : columnName, null));
+        }
+      }
+    }
+    final Set<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      final String column = propertyMapping.getColumn();
+      final String property = propertyMapping.getProperty();
+      if (property == null || column == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      if (!isSimpleProperty(property) || !reflector.hasSetter(property)) {
+        return NOT_COMPILABLE;
+      }
+      columnIndexes.add(rsw.getColumnIndex(column));
+      typeHandlers.add(propertyMapping.getTypeHandler());
+      properties.add(property);
+    }
+    final int size = columnIndexes.size();
+    final int[] indexArray = new int[size];
+    final Invoker[] setters = new Invoker[size];
+    final boolean[] callSettersOnNulls = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      final String property = properties.get(i);
+      indexArray[i] = columnIndexes.get(i);
+      setters[i] = reflector.getSetInvoker(property);
+      callSettersOnNulls[i] = configuration.isCallSettersOnNulls() && !reflector.getSetterType(property).isPrimitive();
+    }
+    return new CompiledRowMapper(configuration, type, indexArray, typeHandlers.toArray(new TypeHandler<?>[size]),
+        properties.toArray(new String[size]), setters, callSettersOnNulls, configuration.isReturnInstanceForEmptyRow(),
+        unknownColumns.toArray(new UnknownColumn[0]));
+  }
+
+  private static boolean isCompilable(Configuration configuration, ResultSetWrapper rsw, ResultMap resultMap) {
+    final Class<?> type = resultMap.getType();
+    if (resultMap.getDiscriminator() != null || resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries()
+        || !resultMap.getConstructorResultMappings().isEmpty()) {
+      return false;
+    }
+    if (type.isInterface() || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+        || type.isArray() || !(configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory)) {
+      return false;
+    }
+    if (hasTypeHandlerForResultObject(configuration.getTypeHandlerRegistry(), rsw, type)
+        || !configuration.getReflectorFactory().findForClass(type).hasDefaultConstructor()) {
+      return false;
+    }
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null
+          || propertyMapping.getNestedResultMapId() != null || propertyMapping.getNestedQueryId() != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasTypeHandlerForResultObject(TypeHandlerRegistry typeHandlerRegistry, ResultSetWrapper rsw,
+      Class<?> resultType) {
+    if (rsw.getColumnNames().size() == 1) {
+      return typeHandlerRegistry.hasTypeHandler(resultType, rsw.getJdbcType(rsw.getColumnNames().get(0)));
+    }
+    return typeHandlerRegistry.hasTypeHandler(resultType);
+  }
+
+  private static boolean isSimpleProperty(String property) {
+    return property.indexOf('.') < 0 && property.indexOf('[') < 0;
+  }
+
+  private static class UnknownColumn {
+
+    private final String columnName;
+    private final String property;
+    private final Class<?> propertyType;
+
+    UnknownColumn(String columnName, String property, Class<?> propertyType) {
+      this.columnName = columnName;
+      this.property = property;
+      this.propertyType = propertyType;
+    }
+  }
+
+}
@@ -31,6 +31,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.annotations.Param;
@@ -41,7 +43,10 @@ import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
+import org.apache.ibatis.executor.loader.NestedQueryBatch;
 import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.executor.loader.ResultLoaderBatch;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
@@ -60,6 +65,7 @@ import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.CursorFetchMode;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -77,6 +83,9 @@ import org.apache.ibatis.util.MapUtil;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
+  private static final int DEFAULT_CURSOR_CHUNK_SIZE = 100;
+  private static final int MAX_COMPILED_ROW_MAPPERS = 1024;
+  private static final int PARALLEL_MAPPING_MIN_SPLIT = 64;
 
   private final Executor executor;
   private final Configuration configuration;
@@ -98,8 +107,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // batched lazy loading
+  private final Map<String, ResultLoaderBatch> resultLoaderBatches = new HashMap<>();
+
+  // batched eager loading (fetchType="batch")
+  private final Map<String, ResultLoaderBatch> nestedQueryBatches = new HashMap<>();
+  private final List<PendingNestedQuery> pendingNestedQueries = new ArrayList<>();
+  private boolean batchingNestedQueries;
+
+  // rows of compiled result maps mapped on the fork-join pool (parallelRowMappingBatchSize)
+  private boolean mappingRowsInParallel;
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+  private final Map<String, CompiledRowMapper> compiledRowMappersCache = new HashMap<>();
   private final Map<String, List<String>> constructorAutoMappingColumns = new HashMap<>();
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
@@ -110,6 +131,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
+  private static class PendingNestedQuery {
+    private final MetaObject metaObject;
+    private final String property;
+    private final ResultLoader resultLoader;
+
+    PendingNestedQuery(MetaObject metaObject, String property, ResultLoader resultLoader) {
+      this.metaObject = metaObject;
+      this.property = property;
+      this.resultLoader = resultLoader;
+    }
+  }
+
   private static class UnMappedColumnAutoMapping {
     private final String column;
     private final String property;
@@ -238,7 +271,53 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
-    return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    final CursorFetchMode cursorFetchMode = configuration.getCursorFetchMode();
+    if (cursorFetchMode == null || cursorFetchMode == CursorFetchMode.ROW) {
+      return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    }
+    final boolean background = cursorFetchMode == CursorFetchMode.BACKGROUND
+        && !hasNestedQueries(resultMap, new HashSet<>());
+    return new DefaultCursor<>(this, resultMap, rsw, rowBounds, getCursorChunkSize(),
+        background ? configuration.getAsyncExecutor() : null);
+  }
+
+  private int getCursorChunkSize() {
+    Integer chunkSize = configuration.getCursorChunkSize();
+    if (chunkSize == null) {
+      chunkSize = mappedStatement.getFetchSize() != null ? mappedStatement.getFetchSize()
+          : configuration.getDefaultFetchSize();
+      if (chunkSize == null || chunkSize <= 0) {
+        // No fetch size or a driver specific one (e.g. Integer.MIN_VALUE for MySQL streaming)
+        chunkSize = DEFAULT_CURSOR_CHUNK_SIZE;
+      }
+    }
+    return Math.max(chunkSize, 1);
+  }
+
+  private boolean hasNestedQueries(ResultMap resultMap, Set<String> visitedResultMapIds) {
+    if (!visitedResultMapIds.add(resultMap.getId())) {
+      return false;
+    }
+    if (resultMap.hasNestedQueries()) {
+      return true;
+    }
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      final String nestedResultMapId = resultMapping.getNestedResultMapId();
+      if (nestedResultMapId != null && configuration.hasResultMap(nestedResultMapId)
+          && hasNestedQueries(configuration.getResultMap(nestedResultMapId), visitedResultMapIds)) {
+        return true;
+      }
+    }
+    final Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator != null) {
+      for (String discriminatedResultMapId : discriminator.getDiscriminatorMap().values()) {
+        if (configuration.hasResultMap(discriminatedResultMapId)
+            && hasNestedQueries(configuration.getResultMap(discriminatedResultMapId), visitedResultMapIds)) {
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
@@ -302,6 +381,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void handleResultSet(ResultSetWrapper rsw, ResultMap resultMap, List<Object> multipleResults,
       ResultMapping parentMapping) throws SQLException {
+    // rows passed to a custom result handler must be complete when it sees them
+    batchingNestedQueries = resultHandler == null;
+    // rows stored by linking them to parents or collected for a nested query batch are read from the result set
+    mappingRowsInParallel = parentMapping == null && !(resultHandler instanceof NestedQueryBatch.RowCollector);
     try {
       if (parentMapping != null) {
         handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
@@ -315,6 +398,24 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } finally {
       // issue #228 (close resultsets)
       closeResultSet(rsw.getResultSet());
+      batchingNestedQueries = false;
+      mappingRowsInParallel = false;
+    }
+    loadPendingNestedQueries();
+  }
+
+  private void loadPendingNestedQueries() throws SQLException {
+    try {
+      for (PendingNestedQuery pending : pendingNestedQueries) {
+        final Object value = pending.resultLoader.loadResult();
+        if (value != null || configuration.isCallSettersOnNulls()
+            && !pending.metaObject.getSetterType(pending.property).isPrimitive()) {
+          pending.metaObject.setValue(pending.property, value);
+        }
+      }
+    } finally {
+      pendingNestedQueries.clear();
+      nestedQueryBatches.clear();
     }
   }
 
@@ -360,18 +461,133 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
     ResultSet resultSet = rsw.getResultSet();
+    CompiledRowMapper compiledRowMapper = getCompiledRowMapper(rsw, resultMap);
+    if (compiledRowMapper != null && mappingRowsInParallel && configuration.getParallelRowMappingBatchSize() > 0) {
+      handleRowValuesInParallel(resultSet, compiledRowMapper, resultHandler, rowBounds);
+      return;
+    }
     skipRows(resultSet, rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
-      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
+      Object rowValue;
+      if (compiledRowMapper != null) {
+        rowValue = compiledRowMapper.map(resultSet);
+      } else {
+        ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
+        rowValue = getRowValue(rsw, discriminatedResultMap, null);
+      }
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
     }
   }
 
+  private void handleRowValuesInParallel(ResultSet resultSet, CompiledRowMapper compiledRowMapper,
+      ResultHandler<?> resultHandler, RowBounds rowBounds) throws SQLException {
+    DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    int batchSize = configuration.getParallelRowMappingBatchSize();
+    int remainingRows = rowBounds.getLimit();
+    skipRows(resultSet, rowBounds);
+    RowMappingTask mapping = null;
+    do {
+      // the next batch is read while the previous one is mapped
+      Object[][] rows = readRows(resultSet, compiledRowMapper, Math.min(batchSize, remainingRows));
+      remainingRows -= rows.length;
+      RowMappingTask next = null;
+      if (rows.length > 0) {
+        next = new RowMappingTask(compiledRowMapper, rows, new Object[rows.length], 0, rows.length);
+        ForkJoinPool.commonPool().execute(next);
+      }
+      if (mapping != null) {
+        mapping.join();
+        for (Object rowValue : mapping.rowValues) {
+          if (resultContext.isStopped()) {
+            if (next != null) {
+              next.cancel(false);
+            }
+            return;
+          }
+          callResultHandler(resultHandler, resultContext, rowValue);
+        }
+      }
+      mapping = next;
+    } while (mapping != null);
+  }
+
+  private Object[][] readRows(ResultSet resultSet, CompiledRowMapper compiledRowMapper, int maxRows)
+      throws SQLException {
+    Object[][] rows = new Object[maxRows][];
+    int count = 0;
+    while (count < maxRows && !resultSet.isClosed() && resultSet.next()) {
+      rows[count++] = compiledRowMapper.read(resultSet);
+    }
+    return count == maxRows ? rows : Arrays.copyOf(rows, count);
+  }
+
+  /**
+   * Creates the row values of a range of rows read by a {@link CompiledRowMapper}, splitting the range in halves that
+   * are mapped in parallel.
+   */
+  private static class RowMappingTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient CompiledRowMapper compiledRowMapper;
+    private final Object[][] rows;
+    private final Object[] rowValues;
+    private final int from;
+    private final int to;
+
+    RowMappingTask(CompiledRowMapper compiledRowMapper, Object[][] rows, Object[] rowValues, int from, int to) {
+      this.compiledRowMapper = compiledRowMapper;
+      this.rows = rows;
+      this.rowValues = rowValues;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > PARALLEL_MAPPING_MIN_SPLIT) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new RowMappingTask(compiledRowMapper, rows, rowValues, from, middle),
+            new RowMappingTask(compiledRowMapper, rows, rowValues, middle, to));
+      } else {
+        for (int i = from; i < to; i++) {
+          rowValues[i] = compiledRowMapper.create(rows[i]);
+        }
+      }
+    }
+  }
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    if (!configuration.isCompiledRowMappingEnabled() || resultMap.getDiscriminator() != null) {
+      return null;
+    }
+    final String key = resultMap.getId() + ":" + rsw.getColumnLayoutKey();
+    CompiledRowMapper compiledRowMapper = compiledRowMappersCache.get(key);
+    if (compiledRowMapper == null) {
+      final Map<String, CompiledRowMapper> compiledRowMappers = configuration.getCompiledRowMappers();
+      compiledRowMapper = compiledRowMappers.get(key);
+      if (compiledRowMapper == null) {
+        compiledRowMapper = CompiledRowMapper.compile(configuration, rsw, resultMap,
+            shouldApplyAutomaticMappings(resultMap, false));
+        // Dynamic column lists may produce an unbounded number of layouts, stop sharing the mappers when full
+        if (compiledRowMappers.size() < MAX_COMPILED_ROW_MAPPERS) {
+          compiledRowMappers.putIfAbsent(key, compiledRowMapper);
+        }
+      }
+      // Unknown columns are reported once per query, as with the regular auto-mapping
+      compiledRowMapper.reportUnknownColumns(mappedStatement);
+      compiledRowMappersCache.put(key, compiledRowMapper);
+    }
+    return compiledRowMapper == CompiledRowMapper.NOT_COMPILABLE ? null : compiledRowMapper;
+  }
+
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue,
       ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
       linkToParents(rs, parentMapping, rowValue);
+    } else if (resultHandler instanceof NestedQueryBatch.RowCollector) {
+      resultContext.nextResultObject(rowValue);
+      ((NestedQueryBatch.RowCollector) resultHandler).collect(rs, rowValue);
     } else {
       callResultHandler(resultHandler, resultContext, rowValue);
     }
@@ -909,20 +1125,38 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (executor.isCached(nestedQuery, key)) {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
+      } else if (propertyMapping.isLazy()) {
+        lazyLoader.addLoader(property, metaResultObject,
+            newLazyResultLoader(nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql));
+        value = DEFERRED;
+      } else if (propertyMapping.isBatch() && batchingNestedQueries && configuration.getNestedQueryBatchSize() > 1
+          && NestedQueryBatch.isBatchable(nestedQuery, nestedBoundSql)) {
+        final ResultLoaderBatch batch = nestedQueryBatches.computeIfAbsent(nestedQueryId,
+            k -> new ResultLoaderBatch(configuration.getNestedQueryBatchSize()));
+        pendingNestedQueries.add(new PendingNestedQuery(metaResultObject, property, new BatchResultLoader(configuration,
+            executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql, batch)));
+        value = DEFERRED;
       } else {
         final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery,
             nestedQueryParameterObject, targetType, key, nestedBoundSql);
-        if (propertyMapping.isLazy()) {
-          lazyLoader.addLoader(property, metaResultObject, resultLoader);
-          value = DEFERRED;
-        } else {
-          value = resultLoader.loadResult();
-        }
+        value = resultLoader.loadResult();
       }
     }
     return value;
   }
 
+  private ResultLoader newLazyResultLoader(MappedStatement nestedQuery, Object parameterObject, Class<?> targetType,
+      CacheKey key, BoundSql boundSql) {
+    final int batchSize = configuration.getLazyLoadBatchSize();
+    if (batchSize > 1 && NestedQueryBatch.isBatchable(nestedQuery, boundSql)) {
+      final ResultLoaderBatch batch = resultLoaderBatches.computeIfAbsent(nestedQuery.getId(),
+          k -> new ResultLoaderBatch(batchSize));
+      return new BatchResultLoader(configuration, executor, nestedQuery, parameterObject, targetType, key, boundSql,
+          batch);
+    }
+    return new ResultLoader(configuration, executor, nestedQuery, parameterObject, targetType, key, boundSql);
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType,
       String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
@@ -49,6 +49,7 @@ public class ResultSetWrapper {
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
   private final Map<String, Set<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private String columnLayoutKey;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
@@ -78,6 +79,45 @@ public class ResultSetWrapper {
     return jdbcTypes;
   }
 
+  /**
+   * Returns the 1-based index of the first column matching the given name, ignoring case as JDBC drivers do.
+   *
+   * @param columnName
+   *          the column name
+   *
+   * @return the column index, or {@code -1} if there is no such column
+   *
+   * @since 3.5.20
+   */
+  public int getColumnIndex(String columnName) {
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns a key identifying the column layout of this result set, i.e. the column names, JDBC types and Java class
+   * names in order. Two result sets with the same key resolve the same columns and type handlers.
+   *
+   * @return the column layout key
+   *
+   * @since 3.5.20
+   */
+  public String getColumnLayoutKey() {
+    if (columnLayoutKey == null) {
+      final StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < columnNames.size(); i++) {
+        builder.append(columnNames.get(i)).append(':').append(jdbcTypes.get(i)).append(':').append(classNames.get(i))
+            .append(',');
+      }
+      columnLayoutKey = builder.toString();
+    }
+    return columnLayoutKey;
+  }
+
   public JdbcType getJdbcType(String columnName) {
     for (int i = 0; i < columnNames.size(); i++) {
       if (columnNames.get(i).equalsIgnoreCase(columnName)) {
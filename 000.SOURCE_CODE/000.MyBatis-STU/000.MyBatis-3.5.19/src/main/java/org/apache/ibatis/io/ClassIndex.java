@@ -0,0 +1,205 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * The index of the classes of the class path roots that have a {@value #INDEX_RESOURCE} resource, generated at build
+ * time by the {@link ClassIndexProcessor}.
+ * <p>
+ * Each line of an index is the kind of a class followed by its binary name, for instance
+ * {@code interface com.example.mapper.UserMapper}. Lines starting with {@code #} are comments. A package is only
+ * resolved from the index when every class path root that contains it has an index, so that a root without index is
+ * still scanned.
+ *
+ * @since 3.5.20
+ *
+ * @see ResolverUtil#find(ResolverUtil.Test, String, Kind...)
+ */
+public final class ClassIndex {
+
+  private static final Log log = LogFactory.getLog(ClassIndex.class);
+
+  public static final String INDEX_RESOURCE = "META-INF/mybatis/index";
+
+  private static final Map<ClassLoader, ClassIndex> indexes = new WeakHashMap<>();
+
+  /**
+   * The kinds of indexed classes.
+   */
+  public enum Kind {
+    /**
+     * A class, enum or record that is not a concrete type handler.
+     */
+    TYPE,
+    /**
+     * An interface or annotation.
+     */
+    INTERFACE,
+    /**
+     * A concrete class implementing {@link org.apache.ibatis.type.TypeHandler}.
+     */
+    TYPE_HANDLER;
+
+    String getName() {
+      return name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+    }
+
+    static Kind forName(String name) {
+      for (Kind kind : values()) {
+        if (kind.getName().equals(name)) {
+          return kind;
+        }
+      }
+      return null;
+    }
+  }
+
+  // weak, as the index is the value of its own class loader in the weak indexes map
+  private final WeakReference<ClassLoader> classLoader;
+  private final Set<String> roots = new HashSet<>();
+  private final Map<String, Kind> classes = new HashMap<>();
+
+  private ClassIndex(ClassLoader classLoader) {
+    this.classLoader = new WeakReference<>(classLoader);
+  }
+
+  /**
+   * Returns the index of the class path roots of a class loader, reading it on the first call.
+   *
+   * @param classLoader
+   *          the class loader
+   *
+   * @return the index, empty if no root has one
+   */
+  public static ClassIndex getInstance(ClassLoader classLoader) {
+    synchronized (indexes) {
+      ClassIndex index = indexes.get(classLoader);
+      if (index == null) {
+        index = new ClassIndex(classLoader);
+        index.load(classLoader);
+        indexes.put(classLoader, index);
+      }
+      return index;
+    }
+  }
+
+  private void load(ClassLoader classLoader) {
+    try {
+      Enumeration<URL> urls = classLoader.getResources(INDEX_RESOURCE);
+      while (urls.hasMoreElements()) {
+        URL url = urls.nextElement();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+          read(reader, url);
+        }
+        String location = url.toString();
+        roots.add(location.substring(0, location.length() - INDEX_RESOURCE.length()));
+      }
+    } catch (IOException e) {
+      // the packages are scanned instead
+      log.warn("Could not read the class index: " + e);
+      roots.clear();
+      classes.clear();
+    }
+  }
+
+  private void read(BufferedReader reader, URL url) throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      int separator = line.indexOf(' ');
+      Kind kind = separator == -1 ? null : Kind.forName(line.substring(0, separator));
+      if (kind == null) {
+        throw new IOException("Invalid line '" + line + "' in " + url);
+      }
+      classes.put(line.substring(separator + 1).trim(), kind);
+    }
+  }
+
+  /**
+   * Lists the indexed classes of a package and its subpackages, as class file paths like the ones returned by
+   * {@link VFS#list(String)}.
+   *
+   * @param packagePath
+   *          the package, with slashes as separators
+   * @param kinds
+   *          the kinds of classes to list
+   *
+   * @return the class files, or {@code null} if a class path root containing the package has no index
+   *
+   * @throws IOException
+   *           If the roots containing the package cannot be found
+   */
+  public List<String> list(String packagePath, Kind... kinds) throws IOException {
+    if (roots.isEmpty() || !isIndexed(packagePath)) {
+      return null;
+    }
+    Set<Kind> wanted = new HashSet<>();
+    Collections.addAll(wanted, kinds);
+    String prefix = packagePath.isEmpty() || packagePath.endsWith("/") ? packagePath : packagePath + "/";
+    List<String> children = new ArrayList<>();
+    for (Map.Entry<String, Kind> entry : classes.entrySet()) {
+      String path = entry.getKey().replace('.', '/') + ".class";
+      if (path.startsWith(prefix) && wanted.contains(entry.getValue())) {
+        children.add(path);
+      }
+    }
+    return children;
+  }
+
+  private boolean isIndexed(String packagePath) throws IOException {
+    ClassLoader loader = classLoader.get();
+    if (loader == null) {
+      return false;
+    }
+    Enumeration<URL> urls = loader.getResources(packagePath);
+    if (!urls.hasMoreElements()) {
+      return false;
+    }
+    while (urls.hasMoreElements()) {
+      String location = urls.nextElement().toString();
+      int end = location.lastIndexOf(packagePath);
+      if (end == -1 || !roots.contains(location.substring(0, end))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
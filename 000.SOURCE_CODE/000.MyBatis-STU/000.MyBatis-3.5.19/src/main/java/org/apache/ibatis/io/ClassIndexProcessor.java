@@ -0,0 +1,146 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.apache.ibatis.io.ClassIndex.Kind;
+
+/**
+ * An annotation processor writing the {@link ClassIndex} of the classes of a module to
+ * {@value ClassIndex#INDEX_RESOURCE}, so that the packages of type aliases, type handlers and mappers are resolved
+ * without listing and loading every class of the class path root.
+ * <p>
+ * The processor is not registered as a service, and must be enabled explicitly, for instance with the
+ * {@code -processor org.apache.ibatis.io.ClassIndexProcessor} option of {@code javac} or in the
+ * {@code annotationProcessors} of the Maven compiler plugin. The classes of an incremental compilation are merged into
+ * the previous index.
+ *
+ * @since 3.5.20
+ */
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+
+  private static final String TYPE_HANDLER = "org.apache.ibatis.type.TypeHandler";
+
+  private final Map<String, Kind> classes = new TreeMap<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    } else {
+      for (Element element : roundEnv.getRootElements()) {
+        addType(element);
+      }
+    }
+    return false;
+  }
+
+  private void addType(Element element) {
+    if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+      return;
+    }
+    TypeElement type = (TypeElement) element;
+    classes.put(processingEnv.getElementUtils().getBinaryName(type).toString(), kindOf(type));
+    for (Element member : type.getEnclosedElements()) {
+      addType(member);
+    }
+  }
+
+  private Kind kindOf(TypeElement type) {
+    if (type.getKind().isInterface()) {
+      return Kind.INTERFACE;
+    }
+    TypeElement typeHandler = processingEnv.getElementUtils().getTypeElement(TYPE_HANDLER);
+    if (typeHandler != null && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+      TypeMirror erasure = processingEnv.getTypeUtils().erasure(type.asType());
+      if (processingEnv.getTypeUtils().isAssignable(erasure,
+          processingEnv.getTypeUtils().erasure(typeHandler.asType()))) {
+        return Kind.TYPE_HANDLER;
+      }
+    }
+    return Kind.TYPE;
+  }
+
+  private void writeIndex() {
+    if (classes.isEmpty()) {
+      return;
+    }
+    Map<String, Kind> index = readPreviousIndex();
+    index.putAll(classes);
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          ClassIndex.INDEX_RESOURCE);
+      try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+        writer.write("# Generated by " + ClassIndexProcessor.class.getName() + "\n");
+        for (Map.Entry<String, Kind> entry : index.entrySet()) {
+          writer.write(entry.getValue().getName() + " " + entry.getKey() + "\n");
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the class index: " + e);
+    }
+  }
+
+  private Map<String, Kind> readPreviousIndex() {
+    Map<String, Kind> index = new TreeMap<>();
+    try {
+      FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+          ClassIndex.INDEX_RESOURCE);
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int separator = line.indexOf(' ');
+          Kind kind = line.startsWith("#") || separator == -1 ? null : Kind.forName(line.substring(0, separator));
+          if (kind != null) {
+            index.put(line.substring(separator + 1), kind);
+          }
+        }
+      }
+    } catch (IOException e) {
+      // no previous index
+    }
+    return index;
+  }
+
+}
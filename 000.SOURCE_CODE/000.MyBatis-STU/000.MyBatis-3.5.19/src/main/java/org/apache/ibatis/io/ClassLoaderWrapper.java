@@ -103,6 +103,25 @@ public class ClassLoaderWrapper {
     return classForName(name, getClassLoaders(null));
   }
 
+  /**
+   * Find a class on the classpath, without initializing it unless asked to.
+   *
+   * @param name
+   *          - the class to look for
+   * @param initialize
+   *          - whether the class is initialized
+   *
+   * @return - the class
+   *
+   * @throws ClassNotFoundException
+   *           If the class cannot be found
+   *
+   * @since 3.5.20
+   */
+  public Class<?> classForName(String name, boolean initialize) throws ClassNotFoundException {
+    return classForName(name, getClassLoaders(null), initialize);
+  }
+
   /**
    * Find a class on the classpath, starting with a specific classloader (or die trying)
    *
@@ -206,6 +225,10 @@ public class ClassLoaderWrapper {
    *           - Remember the wisdom of Judge Smails: Well, the world needs ditch diggers, too.
    */
   Class<?> classForName(String name, ClassLoader[] classLoader) throws ClassNotFoundException {
+    return classForName(name, classLoader, true);
+  }
+
+  Class<?> classForName(String name, ClassLoader[] classLoader, boolean initialize) throws ClassNotFoundException {
 
     for (ClassLoader cl : classLoader) {
 
@@ -213,7 +236,7 @@ public class ClassLoaderWrapper {
 
         try {
 
-          return Class.forName(name, true, cl);
+          return Class.forName(name, initialize, cl);
 
         } catch (ClassNotFoundException e) {
           // we'll ignore this until all classloaders fail to locate the class
@@ -244,10 +244,33 @@ public class ResolverUtil<T> {
    * @return the resolver util
    */
   public ResolverUtil<T> find(Test test, String packageName) {
+    return find(test, packageName, ClassIndex.Kind.values());
+  }
+
+  /**
+   * Scans for classes like {@link #find(Test, String)}, listing them from the {@link ClassIndex} when every class path
+   * root containing the package has one. The indexed classes that are not of one of the given kinds are then skipped
+   * without being loaded.
+   *
+   * @param test
+   *          an instance of {@link Test} that will be used to filter classes
+   * @param packageName
+   *          the name of the package from which to start scanning for classes, e.g. {@code net.sourceforge.stripes}
+   * @param kinds
+   *          the kinds of indexed classes to offer to the Test
+   *
+   * @return the resolver util
+   *
+   * @since 3.5.20
+   */
+  public ResolverUtil<T> find(Test test, String packageName, ClassIndex.Kind... kinds) {
     String path = getPackagePath(packageName);
 
     try {
-      List<String> children = VFS.getInstance().list(path);
+      List<String> children = ClassIndex.getInstance(getClassLoader()).list(path, kinds);
+      if (children == null) {
+        children = VFS.getInstance().list(path);
+      }
       for (String child : children) {
         if (child.endsWith(".class")) {
           addIfMatching(test, child);
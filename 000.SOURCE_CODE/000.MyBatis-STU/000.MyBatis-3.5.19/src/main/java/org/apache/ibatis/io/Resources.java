@@ -322,6 +322,25 @@ public class Resources {
     return classLoaderWrapper.classForName(className);
   }
 
+  /**
+   * Loads a class, without running its static initializers unless asked to.
+   *
+   * @param className
+   *          - the class to fetch
+   * @param initialize
+   *          - whether the class is initialized
+   *
+   * @return The loaded class
+   *
+   * @throws ClassNotFoundException
+   *           If the class cannot be found
+   *
+   * @since 3.5.20
+   */
+  public static Class<?> classForName(String className, boolean initialize) throws ClassNotFoundException {
+    return classLoaderWrapper.classForName(className, initialize);
+  }
+
   public static Charset getCharset() {
     return charset;
   }
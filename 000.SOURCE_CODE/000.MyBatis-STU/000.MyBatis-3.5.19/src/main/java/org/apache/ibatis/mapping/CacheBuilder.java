@@ -30,7 +30,10 @@ import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.decorators.TinyLfuCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
 
@@ -46,6 +49,7 @@ public class CacheBuilder {
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private Serializer serializer;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -84,6 +88,21 @@ public class CacheBuilder {
     return this;
   }
 
+  /**
+   * Sets the serializer of the values of read/write caches and of off-heap caches.
+   *
+   * @param serializer
+   *          the serializer, or {@code null} for Java serialization
+   *
+   * @return the builder
+   *
+   * @since 3.5.20
+   */
+  public CacheBuilder serializer(Serializer serializer) {
+    this.serializer = serializer;
+    return this;
+  }
+
   public CacheBuilder properties(Properties properties) {
     this.properties = properties;
     return this;
@@ -100,6 +119,12 @@ public class CacheBuilder {
         setCacheProperties(cache);
       }
       cache = setStandardDecorators(cache);
+    } else if (OffHeapCache.class.equals(cache.getClass())) {
+      if (serializer != null) {
+        ((OffHeapCache) cache).setSerializer(serializer);
+      }
+      // Evicts by itself, the eviction decorators would keep the values on the heap
+      cache = setStandardDecorators(cache);
     } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
       cache = new LoggingCache(cache);
     }
@@ -117,6 +142,9 @@ public class CacheBuilder {
 
   private Cache setStandardDecorators(Cache cache) {
     try {
+      // TinyLfuCache is thread safe on its own and so are the standard decorators below except BlockingCache, which
+      // does its own locking. Serializing the reads of a TinyLfuCache would defeat it.
+      boolean synchronize = !(cache instanceof TinyLfuCache);
       MetaObject metaCache = SystemMetaObject.forObject(cache);
       if (size != null && metaCache.hasSetter("size")) {
         metaCache.setValue("size", size);
@@ -126,10 +154,12 @@ public class CacheBuilder {
         ((ScheduledCache) cache).setClearInterval(clearInterval);
       }
       if (readWrite) {
-        cache = new SerializedCache(cache);
+        cache = serializer == null ? new SerializedCache(cache) : new SerializedCache(cache, serializer);
       }
       cache = new LoggingCache(cache);
-      cache = new SynchronizedCache(cache);
+      if (synchronize) {
+        cache = new SynchronizedCache(cache);
+      }
       if (blocking) {
         cache = new BlockingCache(cache);
       }
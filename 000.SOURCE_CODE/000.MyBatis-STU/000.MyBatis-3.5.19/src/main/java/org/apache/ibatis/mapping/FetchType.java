@@ -24,6 +24,14 @@ public enum FetchType {
 
   EAGER,
 
+  /**
+   * Eager, resolving the nested select of all the rows of a result set with one statement per chunk of distinct
+   * parameters.
+   *
+   * @since 3.5.20
+   */
+  BATCH,
+
   DEFAULT
 
 }
@@ -18,14 +18,20 @@ package org.apache.ibatis.mapping;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKeyPrefix;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -33,6 +39,9 @@ import org.apache.ibatis.session.Configuration;
  */
 public final class MappedStatement {
 
+  // Dynamic sql with ${} substitutions may produce any number of distinct sql strings
+  private static final int MAX_CACHE_KEY_PREFIXES = 64;
+
   private String resource;
   private Configuration configuration;
   private String id;
@@ -57,6 +66,11 @@ public final class MappedStatement {
   private LanguageDriver lang;
   private String[] resultSets;
   private boolean dirtySelect;
+  private String[] tables;
+  private final LongAdder nestedQueryBatchCount = new LongAdder();
+  private final LongAdder nestedQuerySavedCount = new LongAdder();
+  private final Map<String, CacheKeyPrefix> cacheKeyPrefixes = new ConcurrentHashMap<>();
+  private volatile CacheKeyPrefix lastCacheKeyPrefix;
 
   MappedStatement() {
     // constructor disabled
@@ -182,6 +196,21 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * Declares the tables the statement reads, or writes if it is not a select.
+     *
+     * @param tables
+     *          the comma separated table names, compared ignoring case
+     *
+     * @return the builder
+     *
+     * @since 3.5.20
+     */
+    public Builder tables(String tables) {
+      mappedStatement.tables = delimitedStringToArray(tables == null ? null : tables.toLowerCase(Locale.ENGLISH));
+      return this;
+    }
+
     /**
      * Resul sets.
      *
@@ -304,6 +333,19 @@ public final class MappedStatement {
     return dirtySelect;
   }
 
+  /**
+   * Returns the declared tables this statement reads, or writes if it is not a select.
+   *
+   * @return the declared table names in lower case, or {@code null} if the tables are derived from the sql
+   *
+   * @since 3.5.20
+   *
+   * @see org.apache.ibatis.session.CacheInvalidationScope#TABLE
+   */
+  public String[] getTables() {
+    return tables;
+  }
+
   /**
    * Gets the resul sets.
    *
@@ -316,6 +358,104 @@ public final class MappedStatement {
     return resultSets;
   }
 
+  /**
+   * Returns how many times the sql of this dynamic statement was reused from the bound sql template cache.
+   *
+   * @return the number of hits, {@code 0} if this statement is not a dynamic statement
+   *
+   * @since 3.5.20
+   *
+   * @see Configuration#getBoundSqlTemplateCacheSize()
+   */
+  public long getBoundSqlTemplateCacheHits() {
+    return sqlSource instanceof DynamicSqlSource ? ((DynamicSqlSource) sqlSource).getTemplateCacheHits() : 0;
+  }
+
+  /**
+   * Returns how many times the sql of this dynamic statement had to be parsed while the bound sql template cache was
+   * enabled.
+   *
+   * @return the number of misses, {@code 0} if this statement is not a dynamic statement
+   *
+   * @since 3.5.20
+   *
+   * @see Configuration#getBoundSqlTemplateCacheSize()
+   */
+  public long getBoundSqlTemplateCacheMisses() {
+    return sqlSource instanceof DynamicSqlSource ? ((DynamicSqlSource) sqlSource).getTemplateCacheMisses() : 0;
+  }
+
+  /**
+   * Returns how many times this statement was executed as a nested select for a batch of parameters at once.
+   *
+   * @return the number of batched executions
+   *
+   * @since 3.5.20
+   *
+   * @see Configuration#getLazyLoadBatchSize()
+   */
+  public long getNestedQueryBatchCount() {
+    return nestedQueryBatchCount.sum();
+  }
+
+  /**
+   * Returns how many executions of this statement as a nested select were saved by batching, i.e. the number of
+   * parameters resolved by batched executions minus the number of batched executions.
+   *
+   * @return the number of saved executions
+   *
+   * @since 3.5.20
+   *
+   * @see Configuration#getLazyLoadBatchSize()
+   */
+  public long getNestedQuerySavedCount() {
+    return nestedQuerySavedCount.sum();
+  }
+
+  /**
+   * Records a batched execution of this statement as a nested select.
+   *
+   * @param parameterCount
+   *          the number of distinct parameters resolved by the execution
+   *
+   * @since 3.5.20
+   */
+  public void recordNestedQueryBatch(int parameterCount) {
+    nestedQueryBatchCount.increment();
+    nestedQuerySavedCount.add(parameterCount - 1L);
+  }
+
+  /**
+   * Returns the cache key prefix for this statement and the given sql. Prefixes are interned, so that the keys of
+   * queries with the same sql share one prefix that compares by identity.
+   *
+   * @param sql
+   *          the sql of the bound sql
+   *
+   * @return the cache key prefix
+   *
+   * @since 3.5.20
+   */
+  public CacheKeyPrefix getCacheKeyPrefix(String sql) {
+    CacheKeyPrefix prefix = lastCacheKeyPrefix;
+    // Static sql, and dynamic sql reused from the bound sql template cache, return the same string instance
+    if (prefix != null && prefix.getSql() == sql) {
+      return prefix;
+    }
+    prefix = cacheKeyPrefixes.get(sql);
+    if (prefix == null) {
+      prefix = new CacheKeyPrefix(id, sql);
+      if (cacheKeyPrefixes.size() < MAX_CACHE_KEY_PREFIXES) {
+        CacheKeyPrefix interned = cacheKeyPrefixes.putIfAbsent(sql, prefix);
+        if (interned != null) {
+          prefix = interned;
+        }
+      }
+    }
+    lastCacheKeyPrefix = prefix;
+    return prefix;
+  }
+
   public BoundSql getBoundSql(Object parameterObject) {
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
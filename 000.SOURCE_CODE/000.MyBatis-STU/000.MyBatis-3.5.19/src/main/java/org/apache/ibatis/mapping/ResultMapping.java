@@ -45,6 +45,7 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private boolean batch;
 
   ResultMapping() {
   }
@@ -132,6 +133,21 @@ public class ResultMapping {
       return this;
     }
 
+    /**
+     * Resolves the nested select of this mapping together with the ones of the other rows of the result set.
+     *
+     * @param batch
+     *          {@code true} for {@code fetchType="batch"}
+     *
+     * @return this builder
+     *
+     * @since 3.5.20
+     */
+    public Builder batch(boolean batch) {
+      resultMapping.batch = batch;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -255,6 +271,29 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Returns whether the nested select is resolved eagerly, in batches, once the rows of the result set are handled.
+   *
+   * @return {@code true} for {@code fetchType="batch"}
+   *
+   * @since 3.5.20
+   */
+  public boolean isBatch() {
+    return batch;
+  }
+
+  /**
+   * Sets whether the nested select is resolved eagerly, in batches.
+   *
+   * @param batch
+   *          {@code true} for {@code fetchType="batch"}
+   *
+   * @since 3.5.20
+   */
+  public void setBatch(boolean batch) {
+    this.batch = batch;
+  }
+
   public boolean isSimple() {
     return this.nestedResultMapId == null && this.nestedQueryId == null && this.resultSet == null;
   }
@@ -303,6 +342,7 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batch=").append(batch);
     sb.append('}');
     return sb.toString();
   }
@@ -22,6 +22,7 @@ import org.apache.ibatis.util.MapUtil;
 
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
+  private boolean lambdaInvokersEnabled;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
 
   public DefaultReflectorFactory() {
@@ -37,13 +38,42 @@ public class DefaultReflectorFactory implements ReflectorFactory {
     this.classCacheEnabled = classCacheEnabled;
   }
 
+  /**
+   * Returns whether new reflectors call getter and setter methods through lambda based invokers.
+   *
+   * @return If enabled, {@code true}
+   *
+   * @since 3.5.20
+   */
+  public boolean isLambdaInvokersEnabled() {
+    return lambdaInvokersEnabled;
+  }
+
+  /**
+   * Sets whether new reflectors call getter and setter methods through
+   * {@link org.apache.ibatis.reflection.invoker.LambdaMethodInvoker}s instead of {@link java.lang.reflect.Method}.
+   * Reflectors that are already cached are not affected.
+   *
+   * @param lambdaInvokersEnabled
+   *          If enabled, set to {@code true}
+   *
+   * @since 3.5.20
+   */
+  public void setLambdaInvokersEnabled(boolean lambdaInvokersEnabled) {
+    this.lambdaInvokersEnabled = lambdaInvokersEnabled;
+  }
+
   @Override
   public Reflector findForClass(Class<?> type) {
     if (classCacheEnabled) {
       // synchronized (type) removed see issue #461
-      return MapUtil.computeIfAbsent(reflectorMap, type, Reflector::new);
+      return MapUtil.computeIfAbsent(reflectorMap, type, this::newReflector);
     }
-    return new Reflector(type);
+    return newReflector(type);
+  }
+
+  private Reflector newReflector(Class<?> type) {
+    return new Reflector(type, lambdaInvokersEnabled);
   }
 
 }
@@ -40,6 +40,7 @@ import java.util.Map.Entry;
 import org.apache.ibatis.reflection.invoker.AmbiguousMethodInvoker;
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.LambdaMethodInvoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
 import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
 import org.apache.ibatis.reflection.property.PropertyNamer;
@@ -55,6 +56,7 @@ public class Reflector {
 
   private static final MethodHandle isRecordMethodHandle = getIsRecordMethodHandle();
   private final Class<?> type;
+  private final boolean lambdaInvokersEnabled;
   private final String[] readablePropertyNames;
   private final String[] writablePropertyNames;
   private final Map<String, Invoker> setMethods = new HashMap<>();
@@ -66,7 +68,22 @@ public class Reflector {
   private final Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
 
   public Reflector(Class<?> clazz) {
+    this(clazz, false);
+  }
+
+  /**
+   * Creates a reflector for the given class.
+   *
+   * @param clazz
+   *          the class
+   * @param lambdaInvokersEnabled
+   *          if {@code true}, getter and setter methods are called through {@link LambdaMethodInvoker}s
+   *
+   * @since 3.5.20
+   */
+  public Reflector(Class<?> clazz, boolean lambdaInvokersEnabled) {
     type = clazz;
+    this.lambdaInvokersEnabled = lambdaInvokersEnabled;
     addDefaultConstructor(clazz);
     Method[] classMethods = getClassMethods(clazz);
     if (isRecord(type)) {
@@ -140,7 +157,7 @@ public class Reflector {
   private void addGetMethod(String name, Method method, boolean isAmbiguous) {
     MethodInvoker invoker = isAmbiguous ? new AmbiguousMethodInvoker(method, MessageFormat.format(
         "Illegal overloaded getter method with ambiguous type for property ''{0}'' in class ''{1}''. This breaks the JavaBeans specification and can cause unpredictable results.",
-        name, method.getDeclaringClass().getName())) : new MethodInvoker(method);
+        name, method.getDeclaringClass().getName())) : newMethodInvoker(method);
     getMethods.put(name, invoker);
     Type returnType = TypeParameterResolver.resolveReturnType(method, type);
     getTypes.put(name, typeToClass(returnType));
@@ -208,12 +225,16 @@ public class Reflector {
   }
 
   private void addSetMethod(String name, Method method) {
-    MethodInvoker invoker = new MethodInvoker(method);
+    MethodInvoker invoker = newMethodInvoker(method);
     setMethods.put(name, invoker);
     Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
     setTypes.put(name, typeToClass(paramTypes[0]));
   }
 
+  private MethodInvoker newMethodInvoker(Method method) {
+    return lambdaInvokersEnabled ? new LambdaMethodInvoker(method) : new MethodInvoker(method);
+  }
+
   private Class<?> typeToClass(Type src) {
     Class<?> result = null;
     if (src instanceof Class) {
@@ -0,0 +1,176 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A getter or setter {@link Invoker} that calls the method through a functional interface implementation spun by
+ * {@link LambdaMetafactory}, so that the JIT can inline the call like a direct invocation.
+ * <p>
+ * The implementation is spun on the first invocation. When the declaring class cannot be accessed through a private
+ * lookup (e.g. a package that is not opened to MyBatis), this invoker falls back to {@link MethodInvoker}. So do calls
+ * with a target or an argument that {@link Method#invoke(Object, Object...)} would reject or convert, so that they fail
+ * with the same exceptions.
+ *
+ * @since 3.5.20
+ */
+public class LambdaMethodInvoker extends MethodInvoker {
+
+  private static final int ALLOWED_MODES = MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED
+      | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC;
+  private static final Constructor<Lookup> lookupConstructor;
+  private static final Method privateLookupInMethod;
+
+  private final Method method;
+  private final Class<?> declaringClass;
+  // The arguments a setter implementation accepts without conversion
+  private final Class<?> argumentType;
+  private final boolean nullArgumentAccepted;
+  // Resolved lazily without locking: a thread that does not see the spun implementation yet uses reflection.
+  private Function<Object, Object> getter;
+  private BiConsumer<Object, Object> setter;
+  private boolean resolved;
+
+  static {
+    Method privateLookupIn;
+    try {
+      privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    } catch (NoSuchMethodException e) {
+      privateLookupIn = null;
+    }
+    privateLookupInMethod = privateLookupIn;
+
+    Constructor<Lookup> lookup = null;
+    if (privateLookupInMethod == null) {
+      // JDK 1.8
+      try {
+        lookup = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+        lookup.setAccessible(true);
+      } catch (Exception e) {
+        lookup = null;
+      }
+    }
+    lookupConstructor = lookup;
+  }
+
+  public LambdaMethodInvoker(Method method) {
+    super(method);
+    this.method = method;
+    this.declaringClass = method.getDeclaringClass();
+    final Class<?> parameterType = method.getParameterCount() == 1 ? method.getParameterTypes()[0] : Object.class;
+    this.argumentType = MethodType.methodType(parameterType).wrap().returnType();
+    this.nullArgumentAccepted = !parameterType.isPrimitive();
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    if (!resolved) {
+      resolve();
+    }
+    if (getter != null && (args == null || args.length == 0)) {
+      try {
+        return getter.apply(target);
+      } catch (ClassCastException | NullPointerException e) {
+        if (!declaringClass.isInstance(target)) {
+          // Failed casting the target, before calling the method
+          return super.invoke(target, args);
+        }
+        throw new InvocationTargetException(e);
+      } catch (Throwable t) {
+        throw new InvocationTargetException(t);
+      }
+    }
+    if (setter != null && args != null && args.length == 1) {
+      try {
+        setter.accept(target, args[0]);
+        return null;
+      } catch (ClassCastException | NullPointerException e) {
+        if (!declaringClass.isInstance(target)
+            || (args[0] == null ? !nullArgumentAccepted : !argumentType.isInstance(args[0]))) {
+          // Failed casting or unboxing the target or the argument, before calling the method
+          return super.invoke(target, args);
+        }
+        throw new InvocationTargetException(e);
+      } catch (Throwable t) {
+        throw new InvocationTargetException(t);
+      }
+    }
+    return super.invoke(target, args);
+  }
+
+  /**
+   * Returns whether calls go through a spun implementation instead of {@link Method#invoke(Object, Object...)}.
+   *
+   * @return {@code true} if the method could be bound to a functional interface
+   */
+  public boolean isLambda() {
+    if (!resolved) {
+      resolve();
+    }
+    return getter != null || setter != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resolve() {
+    try {
+      if (!Modifier.isStatic(method.getModifiers())) {
+        final Lookup lookup = privateLookupIn(declaringClass);
+        final MethodHandle handle = lookup.unreflect(method);
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length == 0 && method.getReturnType() != void.class) {
+          final CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+              MethodType.methodType(Object.class, Object.class), handle,
+              MethodType.methodType(handle.type().wrap().returnType(), declaringClass));
+          getter = (Function<Object, Object>) site.getTarget().invoke();
+        } else if (parameterTypes.length == 1) {
+          final CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+              MethodType.methodType(void.class, Object.class, Object.class), handle,
+              MethodType.methodType(void.class, declaringClass, handle.type().wrap().parameterType(1)));
+          setter = (BiConsumer<Object, Object>) site.getTarget().invoke();
+        }
+      }
+    } catch (Throwable t) {
+      // Not accessible from here, keep using reflection.
+      getter = null;
+      setter = null;
+    }
+    resolved = true;
+  }
+
+  private static Lookup privateLookupIn(Class<?> declaringClass)
+      throws IllegalAccessException, InstantiationException, InvocationTargetException {
+    if (privateLookupInMethod != null) {
+      return (Lookup) privateLookupInMethod.invoke(null, declaringClass, MethodHandles.lookup());
+    }
+    if (lookupConstructor != null) {
+      return lookupConstructor.newInstance(declaringClass, ALLOWED_MODES);
+    }
+    throw new IllegalAccessException("Private lookup is not available for " + declaringClass);
+  }
+
+}
@@ -29,6 +29,20 @@ public class ChooseSqlNode implements SqlNode {
     this.defaultSqlNode = defaultSqlNode;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public List<SqlNode> getIfSqlNodes() {
+    return ifSqlNodes;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public SqlNode getDefaultSqlNode() {
+    return defaultSqlNode;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     for (SqlNode sqlNode : ifSqlNodes) {
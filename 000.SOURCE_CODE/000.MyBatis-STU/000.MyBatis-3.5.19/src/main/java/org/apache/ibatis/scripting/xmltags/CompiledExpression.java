@@ -0,0 +1,502 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.scripting.xmltags.DynamicContext.ContextMap;
+
+/**
+ * An OGNL expression compiled into a tree of Java functions that evaluate directly against the {@link ContextMap}
+ * bindings of a {@link DynamicContext}.
+ * <p>
+ * Only the subset of OGNL that dynamic SQL usually needs is compiled: property paths, {@code null}, boolean, integer
+ * and string literals, {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >}, {@code >=} (and their keyword forms),
+ * {@code and}, {@code or}, {@code not}, parentheses and the {@code size()}, {@code isEmpty()} and {@code length()}
+ * methods of collections, maps and strings. The operators follow the conversion rules of {@code ognl.OgnlOps}.
+ * Expressions outside of this subset are reported as {@link #UNSUPPORTED}, and values for which the result is not
+ * obvious (e.g. comparing a string with a number) make {@link #evaluate(ContextMap)} throw, so that the caller can
+ * evaluate them with OGNL instead.
+ *
+ * @since 3.5.20
+ */
+final class CompiledExpression {
+
+  static final CompiledExpression UNSUPPORTED = new CompiledExpression(bindings -> {
+    throw NotCompilableException.INSTANCE;
+  });
+
+  private static final ReflectorFactory REFLECTOR_FACTORY = new DefaultReflectorFactory();
+  private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("in", "not", "instanceof", "new", "true",
+      "false", "null", "and", "or", "eq", "neq", "lt", "gt", "lte", "gte", "bor", "xor", "band", "shl", "shr", "ushr"));
+  private static final Set<String> MAP_PSEUDO_PROPERTIES = new HashSet<>(
+      Arrays.asList("size", "keys", "keySet", "values", "isEmpty"));
+
+  private static final int NON_NUMERIC = 0;
+  private static final int INTEGRAL = 1;
+  private static final int FLOATING = 2;
+
+  private final Node root;
+
+  private CompiledExpression(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Evaluates this expression.
+   *
+   * @param bindings
+   *          the bindings of the dynamic context
+   *
+   * @return the value, as OGNL would have returned it
+   *
+   * @throws RuntimeException
+   *           if the value cannot be computed without OGNL
+   */
+  Object evaluate(ContextMap bindings) {
+    return root.evaluate(bindings);
+  }
+
+  /**
+   * Compiles an expression.
+   *
+   * @param expression
+   *          the OGNL expression
+   *
+   * @return the compiled expression, or {@link #UNSUPPORTED} if the expression uses syntax outside of the subset
+   */
+  static CompiledExpression compile(String expression) {
+    try {
+      return new CompiledExpression(new Parser(expression).parse());
+    } catch (NotCompilableException e) {
+      return UNSUPPORTED;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Node {
+    Object evaluate(ContextMap bindings);
+  }
+
+  private static boolean booleanValue(Object value) {
+    if (value == null) {
+      return false;
+    }
+    final Class<?> c = value.getClass();
+    if (c == Boolean.class) {
+      return (Boolean) value;
+    }
+    if (c == String.class) {
+      return Boolean.parseBoolean((String) value);
+    }
+    if (c == Character.class) {
+      return (Character) value != 0;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue() != 0;
+    }
+    return true;
+  }
+
+  private static boolean equal(Object v1, Object v2) {
+    if (v1 == null) {
+      return v2 == null;
+    }
+    if (v1 == v2) {
+      return true;
+    }
+    if (v2 == null) {
+      return false;
+    }
+    if (v1.getClass().isArray() || v2.getClass().isArray()) {
+      throw NotCompilableException.INSTANCE;
+    }
+    if (numericType(v1) == NON_NUMERIC && numericType(v2) == NON_NUMERIC
+        && (!(v1 instanceof Comparable) || !(v2 instanceof Comparable))) {
+      return v1.equals(v2);
+    }
+    return compare(v1, v2) == 0;
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static int compare(Object v1, Object v2) {
+    if (v1 == v2) {
+      return 0;
+    }
+    if (v1 == null || v2 == null) {
+      throw NotCompilableException.INSTANCE;
+    }
+    final int t1 = numericType(v1);
+    final int t2 = numericType(v2);
+    if (t1 == NON_NUMERIC && t2 == NON_NUMERIC) {
+      if (v1.getClass() == v2.getClass() && v1 instanceof Comparable) {
+        return ((Comparable) v1).compareTo(v2);
+      }
+      throw NotCompilableException.INSTANCE;
+    }
+    if (t1 == NON_NUMERIC || t2 == NON_NUMERIC) {
+      throw NotCompilableException.INSTANCE;
+    }
+    if (t1 == FLOATING || t2 == FLOATING) {
+      if (!(v1 instanceof Number) || !(v2 instanceof Number)) {
+        throw NotCompilableException.INSTANCE;
+      }
+      final double d1 = ((Number) v1).doubleValue();
+      final double d2 = ((Number) v2).doubleValue();
+      return d1 == d2 ? 0 : d1 < d2 ? -1 : 1;
+    }
+    final long l1 = longValue(v1);
+    final long l2 = longValue(v2);
+    return l1 == l2 ? 0 : l1 < l2 ? -1 : 1;
+  }
+
+  private static int numericType(Object value) {
+    final Class<?> c = value.getClass();
+    if (c == Integer.class || c == Long.class || c == Short.class || c == Byte.class || c == Boolean.class) {
+      return INTEGRAL;
+    }
+    if (c == Double.class || c == Float.class) {
+      return FLOATING;
+    }
+    if (value instanceof Number || c == Character.class) {
+      // BigInteger, BigDecimal and characters are converted in ways that are left to OGNL
+      throw NotCompilableException.INSTANCE;
+    }
+    return NON_NUMERIC;
+  }
+
+  private static long longValue(Object value) {
+    if (value instanceof Boolean) {
+      return (Boolean) value ? 1 : 0;
+    }
+    return ((Number) value).longValue();
+  }
+
+  private static Object getRootProperty(ContextMap bindings, String name) {
+    // same lookup as DynamicContext.ContextAccessor
+    final Object result = bindings.get(name);
+    if (result != null || bindings.containsKey(name)) {
+      return result;
+    }
+    final Object parameterObject = bindings.get(DynamicContext.PARAMETER_OBJECT_KEY);
+    if (parameterObject instanceof Map) {
+      return ((Map<?, ?>) parameterObject).get(name);
+    }
+    return null;
+  }
+
+  private static Object getProperty(Object target, String name) {
+    if (target == null) {
+      // OGNL yields null for the properties of null
+      return null;
+    }
+    if (target instanceof ContextMap) {
+      throw NotCompilableException.INSTANCE;
+    }
+    if (target instanceof Map) {
+      if (MAP_PSEUDO_PROPERTIES.contains(name)) {
+        throw NotCompilableException.INSTANCE;
+      }
+      return ((Map<?, ?>) target).get(name);
+    }
+    final Class<?> type = target.getClass();
+    if (target instanceof Iterable || target instanceof Iterator || target instanceof Enumeration || type.isArray()
+        || target instanceof Class) {
+      // OGNL has dedicated accessors for these
+      throw NotCompilableException.INSTANCE;
+    }
+    final Reflector reflector = REFLECTOR_FACTORY.findForClass(type);
+    if (!reflector.hasGetter(name)) {
+      throw NotCompilableException.INSTANCE;
+    }
+    try {
+      return reflector.getGetInvoker(name).invoke(target, null);
+    } catch (Exception e) {
+      throw NotCompilableException.INSTANCE;
+    }
+  }
+
+  private static Object invokeMethod(Object target, String name) {
+    if (target instanceof Collection) {
+      final Collection<?> collection = (Collection<?>) target;
+      if ("size".equals(name)) {
+        return collection.size();
+      }
+      if ("isEmpty".equals(name)) {
+        return collection.isEmpty();
+      }
+    } else if (target instanceof Map) {
+      final Map<?, ?> map = (Map<?, ?>) target;
+      if ("size".equals(name)) {
+        return map.size();
+      }
+      if ("isEmpty".equals(name)) {
+        return map.isEmpty();
+      }
+    } else if (target instanceof String) {
+      final String string = (String) target;
+      if ("length".equals(name)) {
+        return string.length();
+      }
+      if ("isEmpty".equals(name)) {
+        return string.isEmpty();
+      }
+    }
+    throw NotCompilableException.INSTANCE;
+  }
+
+  private static final class Parser {
+
+    private final String expression;
+    private int position;
+    private String token;
+    private Object literal;
+
+    Parser(String expression) {
+      this.expression = expression;
+      next();
+    }
+
+    Node parse() {
+      final Node node = parseOr();
+      if (token != null) {
+        throw NotCompilableException.INSTANCE;
+      }
+      return node;
+    }
+
+    private Node parseOr() {
+      Node left = parseAnd();
+      while ("||".equals(token) || "or".equals(token)) {
+        next();
+        final Node l = left;
+        final Node r = parseAnd();
+        left = bindings -> {
+          final Object value = l.evaluate(bindings);
+          return booleanValue(value) ? value : r.evaluate(bindings);
+        };
+      }
+      return left;
+    }
+
+    private Node parseAnd() {
+      Node left = parseEquality();
+      while ("&&".equals(token) || "and".equals(token)) {
+        next();
+        final Node l = left;
+        final Node r = parseEquality();
+        left = bindings -> {
+          final Object value = l.evaluate(bindings);
+          return booleanValue(value) ? r.evaluate(bindings) : value;
+        };
+      }
+      return left;
+    }
+
+    private Node parseEquality() {
+      Node left = parseRelational();
+      while (true) {
+        final Node l = left;
+        if ("==".equals(token) || "eq".equals(token)) {
+          next();
+          final Node r = parseRelational();
+          left = bindings -> equal(l.evaluate(bindings), r.evaluate(bindings));
+        } else if ("!=".equals(token) || "neq".equals(token)) {
+          next();
+          final Node r = parseRelational();
+          left = bindings -> !equal(l.evaluate(bindings), r.evaluate(bindings));
+        } else {
+          return left;
+        }
+      }
+    }
+
+    private Node parseRelational() {
+      Node left = parseUnary();
+      while (true) {
+        final Node l = left;
+        if ("<".equals(token) || "lt".equals(token)) {
+          next();
+          final Node r = parseUnary();
+          left = bindings -> compare(l.evaluate(bindings), r.evaluate(bindings)) < 0;
+        } else if (">".equals(token) || "gt".equals(token)) {
+          next();
+          final Node r = parseUnary();
+          left = bindings -> compare(l.evaluate(bindings), r.evaluate(bindings)) > 0;
+        } else if ("<=".equals(token) || "lte".equals(token)) {
+          next();
+          final Node r = parseUnary();
+          left = bindings -> !(compare(l.evaluate(bindings), r.evaluate(bindings)) > 0);
+        } else if (">=".equals(token) || "gte".equals(token)) {
+          next();
+          final Node r = parseUnary();
+          left = bindings -> !(compare(l.evaluate(bindings), r.evaluate(bindings)) < 0);
+        } else {
+          return left;
+        }
+      }
+    }
+
+    private Node parseUnary() {
+      if ("!".equals(token) || "not".equals(token)) {
+        next();
+        final Node operand = parseUnary();
+        return bindings -> !booleanValue(operand.evaluate(bindings));
+      }
+      return parsePrimary();
+    }
+
+    private Node parsePrimary() {
+      if (token == null) {
+        throw NotCompilableException.INSTANCE;
+      }
+      if ("(".equals(token)) {
+        next();
+        final Node node = parseOr();
+        expect(")");
+        return node;
+      }
+      if (literal != null || "null".equals(token)) {
+        final Object value = literal;
+        next();
+        return bindings -> value;
+      }
+      if (!isIdentifier(token)) {
+        throw NotCompilableException.INSTANCE;
+      }
+      final String name = token;
+      next();
+      Node node = bindings -> getRootProperty(bindings, name);
+      while (".".equals(token)) {
+        next();
+        if (token == null || !isIdentifier(token)) {
+          throw NotCompilableException.INSTANCE;
+        }
+        final String member = token;
+        final Node target = node;
+        next();
+        if ("(".equals(token)) {
+          next();
+          expect(")");
+          if (!"size".equals(member) && !"isEmpty".equals(member) && !"length".equals(member)) {
+            throw NotCompilableException.INSTANCE;
+          }
+          node = bindings -> invokeMethod(target.evaluate(bindings), member);
+        } else {
+          node = bindings -> getProperty(target.evaluate(bindings), member);
+        }
+      }
+      return node;
+    }
+
+    private void expect(String expected) {
+      if (!expected.equals(token)) {
+        throw NotCompilableException.INSTANCE;
+      }
+      next();
+    }
+
+    private boolean isIdentifier(String candidate) {
+      return literal == null && Character.isJavaIdentifierStart(candidate.charAt(0)) && !KEYWORDS.contains(candidate);
+    }
+
+    private void next() {
+      literal = null;
+      final int length = expression.length();
+      while (position < length && Character.isWhitespace(expression.charAt(position))) {
+        position++;
+      }
+      if (position == length) {
+        token = null;
+        return;
+      }
+      final int start = position;
+      final char c = expression.charAt(position);
+      if (Character.isJavaIdentifierStart(c)) {
+        while (position < length && Character.isJavaIdentifierPart(expression.charAt(position))) {
+          position++;
+        }
+        token = expression.substring(start, position);
+        if ("true".equals(token) || "false".equals(token)) {
+          literal = Boolean.valueOf(token);
+        }
+      } else if (c >= '0' && c <= '9') {
+        while (position < length && expression.charAt(position) >= '0' && expression.charAt(position) <= '9') {
+          position++;
+        }
+        if (position < length && (Character.isJavaIdentifierPart(expression.charAt(position))
+            || expression.charAt(position) == '.')) {
+          // long, floating point and big number literals are left to OGNL
+          throw NotCompilableException.INSTANCE;
+        }
+        token = expression.substring(start, position);
+        if (token.length() > 1 && token.charAt(0) == '0') {
+          // octal literal
+          throw NotCompilableException.INSTANCE;
+        }
+        try {
+          literal = Integer.valueOf(token);
+        } catch (NumberFormatException e) {
+          throw NotCompilableException.INSTANCE;
+        }
+      } else if (c == '\'' || c == '"') {
+        final int end = expression.indexOf(c, start + 1);
+        if (end < 0) {
+          throw NotCompilableException.INSTANCE;
+        }
+        token = expression.substring(start, end + 1);
+        final String value = expression.substring(start + 1, end);
+        if (value.indexOf('\\') >= 0 || c == '\'' && value.length() == 1) {
+          // escapes and character literals are left to OGNL
+          throw NotCompilableException.INSTANCE;
+        }
+        literal = value;
+        position = end + 1;
+      } else {
+        final String two = position + 1 < length ? expression.substring(position, position + 2) : "";
+        if ("==".equals(two) || "!=".equals(two) || "<=".equals(two) || ">=".equals(two) || "&&".equals(two)
+            || "||".equals(two)) {
+          token = two;
+          position += 2;
+        } else if (c == '(' || c == ')' || c == '.' || c == '!' || c == '<' || c == '>') {
+          token = String.valueOf(c);
+          position++;
+        } else {
+          throw NotCompilableException.INSTANCE;
+        }
+      }
+    }
+  }
+
+  private static final class NotCompilableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final NotCompilableException INSTANCE = new NotCompilableException();
+
+    private NotCompilableException() {
+      super(null, null, false, false);
+    }
+  }
+
+}
@@ -41,6 +41,7 @@ public class DynamicContext {
   private final ContextMap bindings;
   private final StringJoiner sqlBuilder = new StringJoiner(" ");
   private int uniqueNumber;
+  private StringBuilder shape;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
     if (parameterObject != null && !(parameterObject instanceof Map)) {
@@ -74,6 +75,47 @@ public class DynamicContext {
     return uniqueNumber++;
   }
 
+  /**
+   * Starts recording the decisions taken by the sql nodes, see {@link #getShape()}.
+   */
+  void recordShape() {
+    shape = new StringBuilder();
+  }
+
+  /**
+   * Records a decision that changes the generated sql, e.g. whether an {@code <if>} matched.
+   *
+   * @param decision
+   *          a character that identifies the decision
+   */
+  void recordShape(char decision) {
+    if (shape != null) {
+      shape.append(decision);
+    }
+  }
+
+  /**
+   * Records a text that was substituted into the generated sql.
+   *
+   * @param text
+   *          the substituted text
+   */
+  void recordShape(String text) {
+    if (shape != null) {
+      shape.append('$').append(text.length()).append(':').append(text);
+    }
+  }
+
+  /**
+   * Returns the decisions recorded while applying the sql nodes. Two evaluations with the same shape generate the same
+   * sql.
+   *
+   * @return the shape, or {@code null} if not recorded
+   */
+  String getShape() {
+    return shape == null ? null : shape.toString();
+  }
+
   static class ContextMap extends HashMap<String, Object> {
     private static final long serialVersionUID = 2977601501966151582L;
     private final MetaObject parameterMetaObject;
@@ -15,8 +15,15 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.session.Configuration;
 
@@ -27,16 +34,88 @@ public class DynamicSqlSource implements SqlSource {
 
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final boolean shapeRecordable;
+  private final Map<ShapeKey, BoundSqlTemplate> templates = new ConcurrentHashMap<>();
+  private final LongAdder templateHits = new LongAdder();
+  private final LongAdder templateMisses = new LongAdder();
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    this.shapeRecordable = isShapeRecordable(rootSqlNode);
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public SqlNode getRootSqlNode() {
+    return rootSqlNode;
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
+    int templateCacheSize = configuration.getBoundSqlTemplateCacheSize();
+    if (templateCacheSize <= 0 || !shapeRecordable) {
+      DynamicContext context = new DynamicContext(configuration, parameterObject);
+      rootSqlNode.apply(context);
+      return parse(context, parameterObject);
+    }
     DynamicContext context = new DynamicContext(configuration, parameterObject);
+    context.recordShape();
     rootSqlNode.apply(context);
+    Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
+    ShapeKey key = new ShapeKey(parameterType, context.getShape());
+    Map<String, Object> bindings = context.getBindings();
+    BoundSqlTemplate template = templates.get(key);
+    if (template != null && template.matches(bindings)) {
+      templateHits.increment();
+      BoundSql boundSql = new BoundSql(configuration, template.sql, template.parameterMappings, parameterObject);
+      bindings.forEach(boundSql::setAdditionalParameter);
+      return boundSql;
+    }
+    templateMisses.increment();
+    BoundSql boundSql = parse(context, parameterObject);
+    template = BoundSqlTemplate.of(boundSql, bindings);
+    if (template != null && (templates.size() < templateCacheSize || templates.containsKey(key))) {
+      templates.put(key, template);
+    }
+    return boundSql;
+  }
+
+  /**
+   * Returns how many times the sql and parameter mappings were reused from a previous evaluation with the same shape.
+   *
+   * @return the number of template cache hits
+   *
+   * @since 3.5.20
+   */
+  public long getTemplateCacheHits() {
+    return templateHits.sum();
+  }
+
+  /**
+   * Returns how many times the sql had to be parsed while the template cache was enabled.
+   *
+   * @return the number of template cache misses
+   *
+   * @since 3.5.20
+   */
+  public long getTemplateCacheMisses() {
+    return templateMisses.sum();
+  }
+
+  /**
+   * Returns the number of cached templates.
+   *
+   * @return the number of distinct shapes cached
+   *
+   * @since 3.5.20
+   */
+  public int getTemplateCacheSize() {
+    return templates.size();
+  }
+
+  private BoundSql parse(DynamicContext context, Object parameterObject) {
     SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
     SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
@@ -45,4 +124,127 @@ public class DynamicSqlSource implements SqlSource {
     return boundSql;
   }
 
+  private static boolean isShapeRecordable(SqlNode node) {
+    // the generated sql of other nodes may depend on anything, so only the built-in nodes are trusted
+    Class<?> type = node.getClass();
+    if (type == StaticTextSqlNode.class || type == TextSqlNode.class || type == VarDeclSqlNode.class) {
+      return true;
+    }
+    if (type == MixedSqlNode.class) {
+      return ((MixedSqlNode) node).getContents().stream().allMatch(DynamicSqlSource::isShapeRecordable);
+    }
+    if (type == IfSqlNode.class) {
+      return isShapeRecordable(((IfSqlNode) node).getContents());
+    }
+    if (type == ChooseSqlNode.class) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      return chooseSqlNode.getIfSqlNodes().stream().allMatch(DynamicSqlSource::isShapeRecordable)
+          && (chooseSqlNode.getDefaultSqlNode() == null || isShapeRecordable(chooseSqlNode.getDefaultSqlNode()));
+    }
+    if (type == ForEachSqlNode.class) {
+      return isShapeRecordable(((ForEachSqlNode) node).getContents());
+    }
+    if (type == TrimSqlNode.class || type == WhereSqlNode.class || type == SetSqlNode.class) {
+      return isShapeRecordable(((TrimSqlNode) node).getContents());
+    }
+    return false;
+  }
+
+  private static final class ShapeKey {
+    private final Class<?> parameterType;
+    private final String shape;
+    private final int hashCode;
+
+    ShapeKey(Class<?> parameterType, String shape) {
+      this.parameterType = parameterType;
+      this.shape = shape;
+      this.hashCode = 31 * parameterType.hashCode() + shape.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ShapeKey)) {
+        return false;
+      }
+      ShapeKey other = (ShapeKey) o;
+      return parameterType == other.parameterType && shape.equals(other.shape);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * The parsed sql and parameter mappings of one shape.
+   * <p>
+   * The java type of a parameter mapping is taken from the runtime class of the binding it refers to (e.g. a
+   * {@code <foreach>} item), so the classes seen when parsing are kept and compared on reuse.
+   */
+  private static final class BoundSqlTemplate {
+    private static final Object ABSENT = new Object();
+
+    private final String sql;
+    private final List<ParameterMapping> parameterMappings;
+    private final String[] bindingNames;
+    private final Object[] bindingTypes;
+
+    private BoundSqlTemplate(String sql, List<ParameterMapping> parameterMappings, String[] bindingNames,
+        Object[] bindingTypes) {
+      this.sql = sql;
+      this.parameterMappings = parameterMappings;
+      this.bindingNames = bindingNames;
+      this.bindingTypes = bindingTypes;
+    }
+
+    static BoundSqlTemplate of(BoundSql boundSql, Map<String, Object> bindings) {
+      List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+      int size = parameterMappings.size();
+      String[] bindingNames = new String[size];
+      Object[] bindingTypes = new Object[size];
+      for (int i = 0; i < size; i++) {
+        String property = parameterMappings.get(i).getProperty();
+        if (property == null) {
+          return null;
+        }
+        int dot = property.indexOf('.');
+        String name = dot < 0 ? property : property.substring(0, dot);
+        Object type = typeOf(bindings, name);
+        if (dot >= 0 && type != ABSENT && type != null && !isBean((Class<?>) type, property.substring(dot + 1))) {
+          // the java type of a nested property of a map or a collection depends on the values
+          return null;
+        }
+        bindingNames[i] = name;
+        bindingTypes[i] = type;
+      }
+      return new BoundSqlTemplate(boundSql.getSql(), parameterMappings, bindingNames, bindingTypes);
+    }
+
+    boolean matches(Map<String, Object> bindings) {
+      for (int i = 0; i < bindingNames.length; i++) {
+        if (typeOf(bindings, bindingNames[i]) != bindingTypes[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static Object typeOf(Map<String, Object> bindings, String name) {
+      if (!bindings.containsKey(name)) {
+        return ABSENT;
+      }
+      Object value = bindings.get(name);
+      return value == null ? null : value.getClass();
+    }
+
+    private static boolean isBean(Class<?> type, String children) {
+      return !Map.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type) && !type.isArray()
+          && children.indexOf('.') < 0 && children.indexOf('[') < 0;
+    }
+  }
+
 }
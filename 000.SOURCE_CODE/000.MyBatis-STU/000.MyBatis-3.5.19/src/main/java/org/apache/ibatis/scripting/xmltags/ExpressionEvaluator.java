@@ -20,8 +20,11 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.scripting.xmltags.DynamicContext.ContextMap;
+import org.apache.ibatis.util.MapUtil;
 
 /**
  * @author Clinton Begin
@@ -30,8 +33,10 @@ public class ExpressionEvaluator {
 
   public static final ExpressionEvaluator INSTANCE = new ExpressionEvaluator();
 
+  private static final Map<String, CompiledExpression> compiledExpressions = new ConcurrentHashMap<>();
+
   public boolean evaluateBoolean(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = getValue(expression, parameterObject);
     if (value instanceof Boolean) {
       return (Boolean) value;
     }
@@ -53,7 +58,7 @@ public class ExpressionEvaluator {
    * @since 3.5.9
    */
   public Iterable<?> evaluateIterable(String expression, Object parameterObject, boolean nullable) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = getValue(expression, parameterObject);
     if (value == null) {
       if (nullable) {
         return null;
@@ -82,4 +87,19 @@ public class ExpressionEvaluator {
         "Error evaluating expression '" + expression + "'.  Return value (" + value + ") was not iterable.");
   }
 
+  private Object getValue(String expression, Object parameterObject) {
+    if (parameterObject instanceof ContextMap) {
+      CompiledExpression compiledExpression = MapUtil.computeIfAbsent(compiledExpressions, expression,
+          CompiledExpression::compile);
+      if (compiledExpression != CompiledExpression.UNSUPPORTED) {
+        try {
+          return compiledExpression.evaluate((ContextMap) parameterObject);
+        } catch (RuntimeException e) {
+          // Let OGNL decide, it also reports the errors
+        }
+      }
+    }
+    return OgnlCache.getValue(expression, parameterObject);
+  }
+
 }
@@ -64,18 +64,77 @@ public class ForEachSqlNode implements SqlNode {
     this.configuration = configuration;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public SqlNode getContents() {
+    return contents;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getCollectionExpression() {
+    return collectionExpression;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public Boolean getNullable() {
+    return nullable;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getIndex() {
+    return index;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getItem() {
+    return item;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getOpen() {
+    return open;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getClose() {
+    return close;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getSeparator() {
+    return separator;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     Map<String, Object> bindings = context.getBindings();
     final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings,
         Optional.ofNullable(nullable).orElseGet(configuration::isNullableOnForEach));
+    context.recordShape('[');
     if (iterable == null || !iterable.iterator().hasNext()) {
+      context.recordShape(']');
       return true;
     }
     boolean first = true;
     applyOpen(context);
     int i = 0;
     for (Object o : iterable) {
+      context.recordShape('|');
       DynamicContext oldContext = context;
       if (first || separator == null) {
         context = new PrefixedContext(context, "");
@@ -100,6 +159,7 @@ public class ForEachSqlNode implements SqlNode {
       context = oldContext;
       i++;
     }
+    context.recordShape(']');
     applyClose(context);
     context.getBindings().remove(item);
     context.getBindings().remove(index);
@@ -184,6 +244,16 @@ public class ForEachSqlNode implements SqlNode {
       return delegate.getUniqueNumber();
     }
 
+    @Override
+    void recordShape(char decision) {
+      delegate.recordShape(decision);
+    }
+
+    @Override
+    void recordShape(String text) {
+      delegate.recordShape(text);
+    }
+
   }
 
   private class PrefixedContext extends DynamicContext {
@@ -230,6 +300,16 @@ public class ForEachSqlNode implements SqlNode {
     public int getUniqueNumber() {
       return delegate.getUniqueNumber();
     }
+
+    @Override
+    void recordShape(char decision) {
+      delegate.recordShape(decision);
+    }
+
+    @Override
+    void recordShape(String text) {
+      delegate.recordShape(text);
+    }
   }
 
 }
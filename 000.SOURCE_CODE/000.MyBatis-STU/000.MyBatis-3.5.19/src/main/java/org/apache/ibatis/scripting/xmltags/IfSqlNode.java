@@ -28,12 +28,28 @@ public class IfSqlNode implements SqlNode {
     this.contents = contents;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public String getTest() {
+    return test;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public SqlNode getContents() {
+    return contents;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     if (evaluator.evaluateBoolean(test, context.getBindings())) {
+      context.recordShape('T');
       contents.apply(context);
       return true;
     }
+    context.recordShape('F');
     return false;
   }
 
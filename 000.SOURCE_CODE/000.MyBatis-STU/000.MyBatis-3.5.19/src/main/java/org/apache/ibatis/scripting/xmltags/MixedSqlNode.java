@@ -27,6 +27,13 @@ public class MixedSqlNode implements SqlNode {
     this.contents = contents;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public List<SqlNode> getContents() {
+    return contents;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     contents.forEach(node -> node.apply(context));
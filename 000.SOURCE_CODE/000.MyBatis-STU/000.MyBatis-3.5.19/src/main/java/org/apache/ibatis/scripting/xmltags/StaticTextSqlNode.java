@@ -25,6 +25,13 @@ public class StaticTextSqlNode implements SqlNode {
     this.text = text;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public String getText() {
+    return text;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     context.appendSql(text);
@@ -38,6 +38,20 @@ public class TextSqlNode implements SqlNode {
     this.injectionFilter = injectionFilter;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public Pattern getInjectionFilter() {
+    return injectionFilter;
+  }
+
   public boolean isDynamic() {
     DynamicCheckerTokenParser checker = new DynamicCheckerTokenParser();
     GenericTokenParser parser = createParser(checker);
@@ -48,7 +62,9 @@ public class TextSqlNode implements SqlNode {
   @Override
   public boolean apply(DynamicContext context) {
     GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
-    context.appendSql(parser.parse(text));
+    String sql = parser.parse(text);
+    context.recordShape(sql);
+    context.appendSql(sql);
     return true;
   }
 
@@ -52,6 +52,41 @@ public class TrimSqlNode implements SqlNode {
     this.configuration = configuration;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public SqlNode getContents() {
+    return contents;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getPrefix() {
+    return prefix;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public List<String> getPrefixesToOverride() {
+    return prefixesToOverride;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getSuffix() {
+    return suffix;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public List<String> getSuffixesToOverride() {
+    return suffixesToOverride;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     FilteredDynamicContext filteredDynamicContext = new FilteredDynamicContext(context);
@@ -111,6 +146,16 @@ public class TrimSqlNode implements SqlNode {
       return delegate.getUniqueNumber();
     }
 
+    @Override
+    void recordShape(char decision) {
+      delegate.recordShape(decision);
+    }
+
+    @Override
+    void recordShape(String text) {
+      delegate.recordShape(text);
+    }
+
     @Override
     public void appendSql(String sql) {
       sqlBuffer.append(sql);
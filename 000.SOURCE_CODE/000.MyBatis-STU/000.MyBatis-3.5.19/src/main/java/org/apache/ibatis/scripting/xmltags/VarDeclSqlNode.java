@@ -28,6 +28,20 @@ public class VarDeclSqlNode implements SqlNode {
     this.expression = exp;
   }
 
+  /**
+   * @since 3.5.20
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @since 3.5.20
+   */
+  public String getExpression() {
+    return expression;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     final Object value = OgnlCache.getValue(expression, context.getBindings());
@@ -0,0 +1,33 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Specifies which second level cache entries a write invalidates.
+ *
+ * @since 3.5.20
+ */
+public enum CacheInvalidationScope {
+  /**
+   * A write with {@code flushCache} enabled clears the whole cache of its namespace.
+   */
+  NAMESPACE,
+  /**
+   * A write invalidates, in every namespace, the cached results of the statements that read the tables it wrote. The
+   * tables are declared with the {@code tables} attribute of a statement, or derived from its sql.
+   */
+  TABLE
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.session;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -26,12 +27,14 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
+import org.apache.ibatis.builder.LazyStatementResolver;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
@@ -39,8 +42,13 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
+import org.apache.ibatis.cache.decorators.TinyLfuCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.BinarySerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
@@ -49,11 +57,15 @@ import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.executor.SingleFlight;
+import org.apache.ibatis.executor.TableVersions;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.loader.NestedQueryBatch;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.CompiledRowMapper;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
@@ -117,6 +129,12 @@ public class Configuration {
   protected boolean shrinkWhitespacesInSql;
   protected boolean nullableOnForEach;
   protected boolean argNameBasedConstructorAutoMapping;
+  protected boolean compiledRowMappingEnabled;
+  protected int parallelRowMappingBatchSize;
+  protected boolean parallelMapperParsingEnabled;
+  protected boolean lazyStatementBuildingEnabled;
+  protected boolean lambdaInvokersEnabled;
+  protected boolean mapperClassGenerationEnabled;
 
   protected String logPrefix;
   protected Class<? extends Log> logImpl;
@@ -128,8 +146,19 @@ public class Configuration {
       Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
+  protected int boundSqlTemplateCacheSize;
+  protected CursorFetchMode cursorFetchMode = CursorFetchMode.ROW;
+  protected Integer cursorChunkSize;
   protected ResultSetType defaultResultSetType;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
+  protected ExecutorService asyncExecutor;
+  protected int multiRowInsertMaxRows;
+  protected int multiRowInsertMaxParameters = 2000;
+  protected int batchGroupingMaxStatements;
+  protected boolean cacheSingleFlightEnabled;
+  protected int cacheSingleFlightTimeout = 10000;
+  protected CacheInvalidationScope cacheInvalidationScope = CacheInvalidationScope.NAMESPACE;
+  protected Serializer cacheSerializer = new JavaSerializer();
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
 
@@ -139,6 +168,8 @@ public class Configuration {
   protected ObjectWrapperFactory objectWrapperFactory = new DefaultObjectWrapperFactory();
 
   protected boolean lazyLoadingEnabled;
+  protected int lazyLoadBatchSize;
+  protected int nestedQueryBatchSize = 100;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
 
   protected String databaseId;
@@ -159,6 +190,10 @@ public class Configuration {
       "Mapped Statements collection")
           .conflictMessageProducer((savedValue, targetValue) -> ". please check " + savedValue.getResource() + " and "
               + targetValue.getResource());
+  protected final Map<String, LazyStatementResolver> lazyStatements = new StrictMap<LazyStatementResolver>(
+      "Mapped Statements collection")
+          .conflictMessageProducer((savedValue, targetValue) -> ". please check " + savedValue.getResource() + " and "
+              + targetValue.getResource());
   protected final Map<String, Cache> caches = new StrictMap<>("Caches collection");
   protected final Map<String, ResultMap> resultMaps = new StrictMap<>("Result Maps collection");
   protected final Map<String, ParameterMap> parameterMaps = new StrictMap<>("Parameter Maps collection");
@@ -166,6 +201,10 @@ public class Configuration {
 
   protected final Set<String> loadedResources = new HashSet<>();
   protected final Map<String, XNode> sqlFragments = new StrictMap<>("XML fragments parsed from previous mappers");
+  protected final Map<String, CompiledRowMapper> compiledRowMappers = new ConcurrentHashMap<>();
+  protected final Map<String, Set<String>> referencedTables = new ConcurrentHashMap<>();
+  protected final SingleFlight cacheSingleFlight = new SingleFlight();
+  protected final TableVersions tableVersions = new TableVersions();
   protected final Collection<XMLStatementBuilder> incompleteStatements = new LinkedList<>();
   protected final Collection<CacheRefResolver> incompleteCacheRefs = new LinkedList<>();
   protected final Collection<ResultMapResolver> incompleteResultMaps = new LinkedList<>();
@@ -175,6 +214,7 @@ public class Configuration {
   private final ReentrantLock incompleteCacheRefsLock = new ReentrantLock();
   private final ReentrantLock incompleteStatementsLock = new ReentrantLock();
   private final ReentrantLock incompleteMethodsLock = new ReentrantLock();
+  private final ReentrantLock lazyStatementsLock = new ReentrantLock();
 
   /*
    * A map holds cache-ref relationship. The key is the namespace that references a cache bound to another namespace and
@@ -196,10 +236,15 @@ public class Configuration {
     typeAliasRegistry.registerAlias("UNPOOLED", UnpooledDataSourceFactory.class);
 
     typeAliasRegistry.registerAlias("PERPETUAL", PerpetualCache.class);
+    typeAliasRegistry.registerAlias("OFFHEAP", OffHeapCache.class);
     typeAliasRegistry.registerAlias("FIFO", FifoCache.class);
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+    typeAliasRegistry.registerAlias("TINYLFU", TinyLfuCache.class);
+
+    typeAliasRegistry.registerAlias("JDK", JavaSerializer.class);
+    typeAliasRegistry.registerAlias("BINARY", BinarySerializer.class);
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
@@ -341,6 +386,187 @@ public class Configuration {
     this.argNameBasedConstructorAutoMapping = argNameBasedConstructorAutoMapping;
   }
 
+  /**
+   * Returns whether simple result maps are mapped through a {@link CompiledRowMapper}.
+   * <p>
+   * Default is {@code false}.
+   *
+   * @return If enabled, {@code true}
+   *
+   * @since 3.5.20
+   */
+  public boolean isCompiledRowMappingEnabled() {
+    return compiledRowMappingEnabled;
+  }
+
+  /**
+   * Sets whether simple result maps are mapped through a {@link CompiledRowMapper} built once per result map and
+   * column layout.
+   *
+   * @param compiledRowMappingEnabled
+   *          If enabled, set to {@code true}
+   *
+   * @since 3.5.20
+   */
+  public void setCompiledRowMappingEnabled(boolean compiledRowMappingEnabled) {
+    this.compiledRowMappingEnabled = compiledRowMappingEnabled;
+  }
+
+  /**
+   * Returns the number of rows read ahead and mapped in parallel for compiled simple result maps. {@code 0} disables
+   * parallel mapping.
+   * <p>
+   * Default is {@code 0}.
+   *
+   * @return the number of rows of a parallel mapping batch
+   *
+   * @since 3.5.20
+   */
+  public int getParallelRowMappingBatchSize() {
+    return parallelRowMappingBatchSize;
+  }
+
+  /**
+   * Sets the number of rows read ahead and mapped in parallel when a query returning a list or calling a
+   * {@link ResultHandler} maps its rows with a {@link CompiledRowMapper}. The calling thread reads the column values
+   * of a batch through their type handlers while the previous batch is turned into result objects on the common
+   * fork-join pool, by the {@link #getObjectFactory() object factory} and the property setters, which must therefore
+   * be thread safe. Results are stored in row order on the calling thread. Cursors and nested result maps are always
+   * mapped row by row.
+   *
+   * @param parallelRowMappingBatchSize
+   *          the number of rows of a batch, {@code 0} to disable parallel mapping
+   *
+   * @since 3.5.20
+   *
+   * @see #setCompiledRowMappingEnabled(boolean)
+   */
+  public void setParallelRowMappingBatchSize(int parallelRowMappingBatchSize) {
+    this.parallelRowMappingBatchSize = parallelRowMappingBatchSize;
+  }
+
+  /**
+   * Returns whether the XML mapper documents listed in the {@code mappers} element of the configuration file are parsed
+   * in parallel.
+   * <p>
+   * Default is {@code false}.
+   *
+   * @return If enabled, {@code true}
+   *
+   * @since 3.5.20
+   */
+  public boolean isParallelMapperParsingEnabled() {
+    return parallelMapperParsingEnabled;
+  }
+
+  /**
+   * Sets whether the XML mapper documents listed in the {@code mappers} element of the configuration file are read and
+   * parsed into DOM documents on the common fork-join pool. The mappers are still built from their documents one after
+   * the other, in declaration order, so statements, result maps and caches are registered deterministically. Elements
+   * referring to a mapper declared later are resolved once all the mappers are built, instead of after each mapper.
+   *
+   * @param parallelMapperParsingEnabled
+   *          If enabled, set to {@code true}
+   *
+   * @since 3.5.20
+   */
+  public void setParallelMapperParsingEnabled(boolean parallelMapperParsingEnabled) {
+    this.parallelMapperParsingEnabled = parallelMapperParsingEnabled;
+  }
+
+  /**
+   * Returns whether mapped statements are built on their first lookup instead of when their mapper is parsed.
+   * <p>
+   * Default is {@code false}.
+   *
+   * @return If enabled, {@code true}
+   *
+   * @since 3.5.20
+   */
+  public boolean isLazyStatementBuildingEnabled() {
+    return lazyStatementBuildingEnabled;
+  }
+
+  /**
+   * Sets whether mapped statements are built on their first lookup instead of when their mapper is parsed. Mappers
+   * then only register the ids of their statements, and the SQL source, inline result map and key generator of a
+   * statement are built by the first {@link #getMappedStatement(String)} for it. Caches, parameter maps, result maps
+   * and SQL fragments are still built eagerly. Errors in a statement are only reported when it is first used, unless
+   * {@link #buildLazyStatements()} is called once all the mappers are added.
+   *
+   * @param lazyStatementBuildingEnabled
+   *          If enabled, set to {@code true}
+   *
+   * @since 3.5.20
+   */
+  public void setLazyStatementBuildingEnabled(boolean lazyStatementBuildingEnabled) {
+    this.lazyStatementBuildingEnabled = lazyStatementBuildingEnabled;
+  }
+
+  /**
+   * Returns whether property getters and setters are called through lambda based invokers instead of reflection.
+   * <p>
+   * Default is {@code false}.
+   *
+   * @return If enabled, {@code true}
+   *
+   * @since 3.5.20
+   */
+  public boolean isLambdaInvokersEnabled() {
+    return lambdaInvokersEnabled;
+  }
+
+  /**
+   * Sets whether property getters and setters are called through
+   * {@link org.apache.ibatis.reflection.invoker.LambdaMethodInvoker}s. The value is applied to the reflector factory
+   * when it is a {@link DefaultReflectorFactory}.
+   *
+   * @param lambdaInvokersEnabled
+   *          If enabled, set to {@code true}
+   *
+   * @since 3.5.20
+   */
+  public void setLambdaInvokersEnabled(boolean lambdaInvokersEnabled) {
+    this.lambdaInvokersEnabled = lambdaInvokersEnabled;
+    applyLambdaInvokersEnabled();
+  }
+
+  /**
+   * Returns whether mappers are instances of classes generated at runtime instead of JDK dynamic proxies.
+   * <p>
+   * Default is {@code false}.
+   *
+   * @return If enabled, {@code true}
+   *
+   * @since 3.5.20
+   */
+  public boolean isMapperClassGenerationEnabled() {
+    return mapperClassGenerationEnabled;
+  }
+
+  /**
+   * Sets whether {@link #getMapper(Class, SqlSession)} returns an instance of a class generated with Javassist that
+   * implements the mapper interface, instead of a JDK dynamic proxy. The generated methods call the {@link SqlSession}
+   * directly with their statement id and parameter object built in place, so the reflective dispatch of
+   * {@link org.apache.ibatis.binding.MapperProxy} is skipped. Methods whose return type or parameters need more than
+   * a plain select, insert, update or delete still go through {@link org.apache.ibatis.binding.MapperMethod}. Mappers
+   * fall back to proxies when Javassist is not available.
+   *
+   * @param mapperClassGenerationEnabled
+   *          If enabled, set to {@code true}
+   *
+   * @since 3.5.20
+   */
+  public void setMapperClassGenerationEnabled(boolean mapperClassGenerationEnabled) {
+    this.mapperClassGenerationEnabled = mapperClassGenerationEnabled;
+  }
+
+  private void applyLambdaInvokersEnabled() {
+    if (reflectorFactory instanceof DefaultReflectorFactory) {
+      ((DefaultReflectorFactory) reflectorFactory).setLambdaInvokersEnabled(lambdaInvokersEnabled);
+    }
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -389,6 +615,17 @@ public class Configuration {
     return loadedResources.contains(resource);
   }
 
+  /**
+   * Returns the mapper resources, namespaces and mapper types loaded so far.
+   *
+   * @return an unmodifiable view of the loaded resources
+   *
+   * @since 3.5.20
+   */
+  public Set<String> getLoadedResources() {
+    return Collections.unmodifiableSet(loadedResources);
+  }
+
   public Environment getEnvironment() {
     return environment;
   }
@@ -455,6 +692,59 @@ public class Configuration {
     this.aggressiveLazyLoading = aggressiveLazyLoading;
   }
 
+  /**
+   * Gets the maximum number of lazily loaded nested selects resolved by one statement.
+   *
+   * @return the batch size, {@code 0} if lazy loads are not batched
+   *
+   * @since 3.5.20
+   */
+  public int getLazyLoadBatchSize() {
+    return lazyLoadBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of lazily loaded nested selects resolved by one statement. When a lazy property is loaded,
+   * the pending lazy loads of the same nested select for the other rows of the same result set are loaded along with
+   * it, combining the select bound for each row into one statement with {@code UNION ALL}. A select that orders or
+   * limits its rows is still run once per row, see {@link NestedQueryBatch}. The number of statements saved is
+   * available from {@link MappedStatement#getNestedQuerySavedCount()}.
+   *
+   * @param lazyLoadBatchSize
+   *          the batch size, {@code 0} or {@code 1} to load each lazy property with its own statement
+   *
+   * @since 3.5.20
+   */
+  public void setLazyLoadBatchSize(int lazyLoadBatchSize) {
+    this.lazyLoadBatchSize = lazyLoadBatchSize;
+  }
+
+  /**
+   * Gets the maximum number of distinct parameters of a {@code fetchType="batch"} nested select resolved by one
+   * statement.
+   *
+   * @return the batch size
+   *
+   * @since 3.5.20
+   */
+  public int getNestedQueryBatchSize() {
+    return nestedQueryBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of distinct parameters of a {@code fetchType="batch"} nested select resolved by one
+   * statement. Once the rows of a result set are mapped, such a nested select is run
+   * {@code ceil(distinct parameters / nestedQueryBatchSize)} times instead of once per row.
+   *
+   * @param nestedQueryBatchSize
+   *          the batch size, {@code 0} or {@code 1} to resolve each parameter with its own statement
+   *
+   * @since 3.5.20
+   */
+  public void setNestedQueryBatchSize(int nestedQueryBatchSize) {
+    this.nestedQueryBatchSize = nestedQueryBatchSize;
+  }
+
   /**
    * @deprecated You can safely remove the call to this method as this option had no effect.
    */
@@ -495,6 +785,239 @@ public class Configuration {
     this.defaultExecutorType = defaultExecutorType;
   }
 
+  /**
+   * Gets the executor running the actions submitted with {@link SqlSession#executeAsync(java.util.function.Function)}.
+   *
+   * @return the executor set with {@link #setAsyncExecutor(ExecutorService)}, or a shared executor that
+   *         runs each action on a virtual thread on JDK 21 and later, and on a daemon thread of a cached pool otherwise
+   *
+   * @since 3.5.20
+   */
+  public ExecutorService getAsyncExecutor() {
+    return asyncExecutor != null ? asyncExecutor : DefaultAsyncExecutor.getInstance();
+  }
+
+  /**
+   * Sets the executor running the actions submitted with {@link SqlSession#executeAsync(java.util.function.Function)}
+   * and the mapper methods returning a {@link java.util.concurrent.CompletableFuture}. Each action blocks on JDBC
+   * while it runs, so a bounded executor also bounds the number of connections used concurrently.
+   *
+   * @param asyncExecutor
+   *          the executor, {@code null} for the default one
+   *
+   * @since 3.5.20
+   */
+  public void setAsyncExecutor(ExecutorService asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
+  /**
+   * Gets the maximum number of rows a {@link ExecutorType#BATCH} executor inserts with one multi-row {@code INSERT}.
+   *
+   * @return the maximum number of rows, {@code 0} if batched inserts are not rewritten
+   *
+   * @since 3.5.20
+   */
+  public int getMultiRowInsertMaxRows() {
+    return multiRowInsertMaxRows;
+  }
+
+  /**
+   * Sets the maximum number of rows a {@link ExecutorType#BATCH} executor inserts with one multi-row {@code INSERT}.
+   * When greater than {@code 1}, consecutive batched executions of the same {@code INSERT ... VALUES (...)} statement
+   * are sent as {@code INSERT ... VALUES (...), (...), ...} statements when the batch is flushed, instead of one row
+   * per JDBC batch entry. The database must support multi-row {@code VALUES} lists.
+   *
+   * @param multiRowInsertMaxRows
+   *          the maximum number of rows, {@code 0} or {@code 1} to not rewrite batched inserts
+   *
+   * @since 3.5.20
+   */
+  public void setMultiRowInsertMaxRows(int multiRowInsertMaxRows) {
+    this.multiRowInsertMaxRows = multiRowInsertMaxRows;
+  }
+
+  /**
+   * Gets the maximum number of parameters of a multi-row {@code INSERT}.
+   *
+   * @return the maximum number of parameters
+   *
+   * @since 3.5.20
+   */
+  public int getMultiRowInsertMaxParameters() {
+    return multiRowInsertMaxParameters;
+  }
+
+  /**
+   * Sets the maximum number of parameters of a multi-row {@code INSERT}, which lowers the number of rows of each
+   * statement below {@link #getMultiRowInsertMaxRows()} when the rows have many parameters. Drivers limit the number of
+   * parameters of a statement, to 2100 for SQL Server for example.
+   *
+   * @param multiRowInsertMaxParameters
+   *          the maximum number of parameters
+   *
+   * @since 3.5.20
+   */
+  public void setMultiRowInsertMaxParameters(int multiRowInsertMaxParameters) {
+    this.multiRowInsertMaxParameters = multiRowInsertMaxParameters;
+  }
+
+  /**
+   * Gets the maximum number of statements a {@link ExecutorType#BATCH} executor keeps open when grouping interleaved
+   * statements.
+   *
+   * @return the maximum number of open statements, {@code 0} if only consecutive executions share a statement
+   *
+   * @since 3.5.20
+   */
+  public int getBatchGroupingMaxStatements() {
+    return batchGroupingMaxStatements;
+  }
+
+  /**
+   * Sets the maximum number of statements a {@link ExecutorType#BATCH} executor keeps open when grouping interleaved
+   * statements. When greater than {@code 0}, an insert is added to the batch of the earlier statement with the same sql
+   * instead of only to the batch of the previous one, so that inserts interleaved across tables share one statement
+   * per table. Statements are still executed in the order of their first execution, so an insert only joins an earlier
+   * statement when the foreign keys of its table, read from the database metadata, reference none of the tables
+   * inserted by the statements opened after it. An update or a delete ends the grouping of the inserts batched before
+   * it. When the limit is reached, the batched statements are executed and their results are returned by the next
+   * flush.
+   *
+   * @param batchGroupingMaxStatements
+   *          the maximum number of open statements, {@code 0} to only batch consecutive executions together
+   *
+   * @since 3.5.20
+   */
+  public void setBatchGroupingMaxStatements(int batchGroupingMaxStatements) {
+    this.batchGroupingMaxStatements = batchGroupingMaxStatements;
+  }
+
+  /**
+   * Returns whether concurrent second level cache misses for the same key are coalesced into one execution.
+   *
+   * @return {@code true} if cache misses are coalesced
+   *
+   * @since 3.5.20
+   */
+  public boolean isCacheSingleFlightEnabled() {
+    return cacheSingleFlightEnabled;
+  }
+
+  /**
+   * Sets whether concurrent second level cache misses for the same key are coalesced into one execution. Sessions that
+   * miss a key while another session is executing the same query wait for its result instead of querying the database.
+   * Only sessions that have not written anything in their current transaction take part.
+   *
+   * @param cacheSingleFlightEnabled
+   *          {@code true} to coalesce cache misses
+   *
+   * @since 3.5.20
+   *
+   * @see #getCacheSingleFlight()
+   */
+  public void setCacheSingleFlightEnabled(boolean cacheSingleFlightEnabled) {
+    this.cacheSingleFlightEnabled = cacheSingleFlightEnabled;
+  }
+
+  /**
+   * Gets the number of milliseconds a cache miss waits for the same query running in another session.
+   *
+   * @return the wait timeout in milliseconds
+   *
+   * @since 3.5.20
+   */
+  public int getCacheSingleFlightTimeout() {
+    return cacheSingleFlightTimeout;
+  }
+
+  /**
+   * Sets the number of milliseconds a cache miss waits for the same query running in another session. When the running
+   * query does not complete in time, or fails, the waiting session executes the query itself.
+   *
+   * @param cacheSingleFlightTimeout
+   *          the wait timeout in milliseconds
+   *
+   * @since 3.5.20
+   */
+  public void setCacheSingleFlightTimeout(int cacheSingleFlightTimeout) {
+    this.cacheSingleFlightTimeout = cacheSingleFlightTimeout;
+  }
+
+  /**
+   * Gets the coalescing of concurrent second level cache misses, which also reports how many queries were coalesced.
+   *
+   * @return the single flight group shared by all sessions of this configuration
+   *
+   * @since 3.5.20
+   */
+  public SingleFlight getCacheSingleFlight() {
+    return cacheSingleFlight;
+  }
+
+  /**
+   * Gets which second level cache entries a write invalidates.
+   *
+   * @return the cache invalidation scope
+   *
+   * @since 3.5.20
+   */
+  public CacheInvalidationScope getCacheInvalidationScope() {
+    return cacheInvalidationScope;
+  }
+
+  /**
+   * Sets which second level cache entries a write invalidates. With {@link CacheInvalidationScope#TABLE}, a committed
+   * write invalidates the cached results of every namespace that read the tables it wrote, instead of clearing the
+   * cache of its own namespace.
+   *
+   * @param cacheInvalidationScope
+   *          the cache invalidation scope
+   *
+   * @since 3.5.20
+   *
+   * @see #getTableVersions()
+   */
+  public void setCacheInvalidationScope(CacheInvalidationScope cacheInvalidationScope) {
+    this.cacheInvalidationScope = cacheInvalidationScope;
+  }
+
+  /**
+   * Gets the table versions used to invalidate second level cache entries by table.
+   *
+   * @return the table versions shared by all sessions of this configuration
+   *
+   * @since 3.5.20
+   */
+  public TableVersions getTableVersions() {
+    return tableVersions;
+  }
+
+  /**
+   * Gets the serializer of the values of read/write and off-heap second level caches, and of the state of lazy loading
+   * proxies.
+   *
+   * @return the cache serializer
+   *
+   * @since 3.5.20
+   */
+  public Serializer getCacheSerializer() {
+    return cacheSerializer;
+  }
+
+  /**
+   * Sets the serializer of the values of read/write and off-heap second level caches, and of the state of lazy loading
+   * proxies. It applies to the caches built and the proxies created after it is set.
+   *
+   * @param cacheSerializer
+   *          the cache serializer, or {@code null} for Java serialization
+   *
+   * @since 3.5.20
+   */
+  public void setCacheSerializer(Serializer cacheSerializer) {
+    this.cacheSerializer = cacheSerializer == null ? new JavaSerializer() : cacheSerializer;
+  }
+
   public boolean isCacheEnabled() {
     return cacheEnabled;
   }
@@ -534,6 +1057,81 @@ public class Configuration {
     this.defaultFetchSize = defaultFetchSize;
   }
 
+  /**
+   * Gets how cursors map the rows they read.
+   *
+   * @return the cursor fetch mode
+   *
+   * @since 3.5.20
+   */
+  public CursorFetchMode getCursorFetchMode() {
+    return cursorFetchMode;
+  }
+
+  /**
+   * Sets how cursors map the rows they read. With {@link CursorFetchMode#CHUNK} or {@link CursorFetchMode#BACKGROUND},
+   * a cursor maps its rows by chunks of {@link #getCursorChunkSize()} rows.
+   *
+   * @param cursorFetchMode
+   *          the cursor fetch mode
+   *
+   * @since 3.5.20
+   */
+  public void setCursorFetchMode(CursorFetchMode cursorFetchMode) {
+    this.cursorFetchMode = cursorFetchMode;
+  }
+
+  /**
+   * Gets the number of rows a cursor maps at once when its rows are mapped by chunks.
+   *
+   * @return the chunk size, or {@code null} to use the fetch size of the statement
+   *
+   * @since 3.5.20
+   */
+  public Integer getCursorChunkSize() {
+    return cursorChunkSize;
+  }
+
+  /**
+   * Sets the number of rows a cursor maps at once when its rows are mapped by chunks. When not set, the fetch size of
+   * the statement (or the {@link #getDefaultFetchSize() default fetch size}) is used, so that a chunk matches a round
+   * trip to the database; cursors of statements without a positive fetch size map 100 rows at once.
+   *
+   * @param cursorChunkSize
+   *          the chunk size, or {@code null} to use the fetch size of the statement
+   *
+   * @since 3.5.20
+   */
+  public void setCursorChunkSize(Integer cursorChunkSize) {
+    this.cursorChunkSize = cursorChunkSize;
+  }
+
+  /**
+   * Gets the maximum number of sql shapes cached per dynamic statement.
+   *
+   * @return the maximum number of cached shapes, {@code 0} if the bound sql template cache is disabled
+   *
+   * @since 3.5.20
+   */
+  public int getBoundSqlTemplateCacheSize() {
+    return boundSqlTemplateCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of sql shapes cached per dynamic statement. A shape is the set of decisions taken while
+   * applying the dynamic sql nodes ({@code <if>} and {@code <when>} results, {@code <foreach>} iterations and
+   * {@code ${}} substitutions); the sql and parameter mappings parsed for a shape are reused when the same shape is
+   * generated again. Once the limit is reached, new shapes are parsed on each evaluation.
+   *
+   * @param boundSqlTemplateCacheSize
+   *          the maximum number of cached shapes, {@code 0} to disable the cache
+   *
+   * @since 3.5.20
+   */
+  public void setBoundSqlTemplateCacheSize(int boundSqlTemplateCacheSize) {
+    this.boundSqlTemplateCacheSize = boundSqlTemplateCacheSize;
+  }
+
   /**
    * Gets the default result set type.
    *
@@ -629,6 +1227,9 @@ public class Configuration {
 
   public void setReflectorFactory(ReflectorFactory reflectorFactory) {
     this.reflectorFactory = reflectorFactory;
+    if (lambdaInvokersEnabled) {
+      applyLambdaInvokersEnabled();
+    }
   }
 
   public ObjectFactory getObjectFactory() {
@@ -836,14 +1437,69 @@ public class Configuration {
 
   public Collection<String> getMappedStatementNames() {
     buildAllStatements();
-    return mappedStatements.keySet();
+    if (lazyStatements.isEmpty()) {
+      return mappedStatements.keySet();
+    }
+    Set<String> names = new HashSet<>(lazyStatements.keySet());
+    names.addAll(mappedStatements.keySet());
+    return Collections.unmodifiableSet(names);
   }
 
   public Collection<MappedStatement> getMappedStatements() {
     buildAllStatements();
+    buildLazyStatements();
     return mappedStatements.values();
   }
 
+  /**
+   * Registers a mapped statement to be built on its first lookup.
+   *
+   * @param lazyStatement
+   *          the statement
+   *
+   * @since 3.5.20
+   *
+   * @see #setLazyStatementBuildingEnabled(boolean)
+   */
+  public void addLazyStatement(LazyStatementResolver lazyStatement) {
+    lazyStatements.put(lazyStatement.getId(), lazyStatement);
+  }
+
+  /**
+   * Builds every mapped statement that is still to be built on its first lookup. Calling it once all the mappers are
+   * added, for instance from a test, validates all the statements when lazy statement building is enabled.
+   *
+   * @since 3.5.20
+   *
+   * @see #setLazyStatementBuildingEnabled(boolean)
+   */
+  public void buildLazyStatements() {
+    for (String id : lazyStatements.keySet()) {
+      // short names are only aliases of the full ids
+      if (id.indexOf('.') != -1) {
+        buildLazyStatement(id);
+      }
+    }
+  }
+
+  private void buildLazyStatement(String id) {
+    if (!lazyStatements.containsKey(id)) {
+      return;
+    }
+    LazyStatementResolver lazyStatement = lazyStatements.get(id);
+    if (mappedStatements.containsKey(lazyStatement.getId())) {
+      return;
+    }
+    lazyStatementsLock.lock();
+    try {
+      if (!mappedStatements.containsKey(lazyStatement.getId())) {
+        lazyStatement.resolve();
+      }
+    } finally {
+      lazyStatementsLock.unlock();
+    }
+  }
+
   /**
    * @deprecated call {@link #parsePendingStatements(boolean)}
    */
@@ -920,6 +1576,7 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
+    buildLazyStatement(id);
     return mappedStatements.get(id);
   }
 
@@ -927,6 +1584,32 @@ public class Configuration {
     return sqlFragments;
   }
 
+  /**
+   * Returns the compiled row mappers keyed by result map id and result set column layout. At most 1024 mappers are
+   * kept; the mappers of further layouts are built for each query.
+   *
+   * @return the compiled row mappers
+   *
+   * @since 3.5.20
+   */
+  public Map<String, CompiledRowMapper> getCompiledRowMappers() {
+    return compiledRowMappers;
+  }
+
+  /**
+   * Returns the tables referenced by the foreign keys of a table, keyed by the lower case table name. A
+   * {@link ExecutorType#BATCH} executor grouping interleaved inserts reads them once from the database metadata.
+   *
+   * @return the referenced tables, in lower case
+   *
+   * @since 3.5.20
+   *
+   * @see #setBatchGroupingMaxStatements(int)
+   */
+  public Map<String, Set<String>> getReferencedTables() {
+    return referencedTables;
+  }
+
   public void addInterceptor(Interceptor interceptor) {
     interceptorChain.addInterceptor(interceptor);
   }
@@ -959,7 +1642,7 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
-    return mappedStatements.containsKey(statementName);
+    return mappedStatements.containsKey(statementName) || lazyStatements.containsKey(statementName);
   }
 
   public void addCacheRef(String namespace, String referencedNamespace) {
@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Specifies how a {@link org.apache.ibatis.cursor.Cursor} maps the rows it reads.
+ *
+ * @since 3.5.20
+ */
+public enum CursorFetchMode {
+  /**
+   * Each row is mapped on the calling thread when the next element is requested.
+   */
+  ROW,
+  /**
+   * Rows are mapped on the calling thread by chunks, and the next elements are served from the mapped chunk.
+   */
+  CHUNK,
+  /**
+   * Rows are mapped by chunks on a thread of the {@link Configuration#getAsyncExecutor() async executor} and handed
+   * off to the calling thread through a bounded queue, so reading the result set overlaps with consuming the elements.
+   * Cursors whose result maps contain nested selects are mapped as with {@link #CHUNK}, as nested selects run on the
+   * session's executor, which is not thread safe.
+   * <p>
+   * As the connection is read by another thread, the session rejects other statements, commits and rollbacks with a
+   * {@link SqlSessionException} until the cursor is closed or all its rows are mapped.
+   */
+  BACKGROUND
+}
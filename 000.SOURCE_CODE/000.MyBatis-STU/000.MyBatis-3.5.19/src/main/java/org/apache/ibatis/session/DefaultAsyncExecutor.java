@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor running asynchronous session actions when none is set on the {@link Configuration}.
+ * <p>
+ * Session actions block on JDBC, so each one gets its own thread: a virtual thread on JDK 21 and later, a daemon thread
+ * from an unbounded cached pool otherwise.
+ *
+ * @since 3.5.20
+ */
+final class DefaultAsyncExecutor {
+
+  private DefaultAsyncExecutor() {
+  }
+
+  static ExecutorService getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  private static class Holder {
+    private static final ExecutorService INSTANCE = create();
+
+    private static ExecutorService create() {
+      try {
+        Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (ExecutorService) factory.invoke(null);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // JDK 20 or older
+        return Executors.newCachedThreadPool(new DaemonThreadFactory());
+      }
+    }
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "mybatis-async-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
@@ -19,6 +19,9 @@ import java.io.Closeable;
 import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
@@ -198,6 +201,70 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * A Stream offers the same results as a Cursor, consumed with the {@link java.util.stream} API. Closing the stream
+   * closes the underlying cursor.
+   *
+   * @param <T>
+   *          the returned stream element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   *
+   * @return Stream of mapped objects
+   *
+   * @see Cursor#stream()
+   *
+   * @since 3.5.20
+   */
+  default <T> Stream<T> selectStream(String statement) {
+    return selectStream(statement, null);
+  }
+
+  /**
+   * A Stream offers the same results as a Cursor, consumed with the {@link java.util.stream} API. Closing the stream
+   * closes the underlying cursor.
+   *
+   * @param <T>
+   *          the returned stream element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return Stream of mapped objects
+   *
+   * @see Cursor#stream()
+   *
+   * @since 3.5.20
+   */
+  default <T> Stream<T> selectStream(String statement, Object parameter) {
+    return selectStream(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * A Stream offers the same results as a Cursor, consumed with the {@link java.util.stream} API. Closing the stream
+   * closes the underlying cursor, and the session too when it was opened for this call only, as
+   * {@link SqlSessionManager} does without a managed session.
+   *
+   * @param <T>
+   *          the returned stream element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          Bounds to limit object retrieval
+   *
+   * @return Stream of mapped objects
+   *
+   * @see Cursor#stream()
+   *
+   * @since 3.5.20
+   */
+  default <T> Stream<T> selectStream(String statement, Object parameter, RowBounds rowBounds) {
+    return this.<T> selectCursor(statement, parameter, rowBounds).stream();
+  }
+
   /**
    * Retrieve a single row mapped from the statement key and parameter using a {@code ResultHandler}.
    *
@@ -377,4 +444,185 @@ public interface SqlSession extends Closeable {
    * @return Connection
    */
   Connection getConnection();
+
+  /**
+   * Runs an action against a session without blocking the caller.
+   * <p>
+   * {@code DefaultSqlSession} runs the actions on {@link Configuration#getAsyncExecutor()} one after the other, in
+   * submission order, so that they share its transaction and local cache. While one of them is pending, statements
+   * issued directly on the session fail with a {@link SqlSessionException}, and commit, rollback and close wait for
+   * the actions to complete. {@link SqlSessionManager} opens, commits and closes a new session for each action
+   * unless a managed session has been started, so independent actions run concurrently. This default implementation
+   * runs the action in the calling thread.
+   *
+   * @param <T>
+   *          the result type
+   * @param action
+   *          the action to run with the session
+   *
+   * @return a future completed with the result of the action, or exceptionally with the exception it threw
+   *
+   * @since 3.5.20
+   */
+  default <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> action) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      future.complete(action.apply(this));
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  /**
+   * Asynchronous variant of {@link #selectOne(String)}.
+   *
+   * @param <T>
+   *          the returned object type
+   * @param statement
+   *          the statement
+   *
+   * @return a future of the mapped object
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default <T> CompletableFuture<T> selectOneAsync(String statement) {
+    return executeAsync(session -> session.selectOne(statement));
+  }
+
+  /**
+   * Asynchronous variant of {@link #selectOne(String, Object)}.
+   *
+   * @param <T>
+   *          the returned object type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return a future of the mapped object
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default <T> CompletableFuture<T> selectOneAsync(String statement, Object parameter) {
+    return executeAsync(session -> session.selectOne(statement, parameter));
+  }
+
+  /**
+   * Asynchronous variant of {@link #selectList(String)}.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   *
+   * @return a future of the list of mapped objects
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default <E> CompletableFuture<List<E>> selectListAsync(String statement) {
+    return executeAsync(session -> session.selectList(statement));
+  }
+
+  /**
+   * Asynchronous variant of {@link #selectList(String, Object)}.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return a future of the list of mapped objects
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter) {
+    return executeAsync(session -> session.selectList(statement, parameter));
+  }
+
+  /**
+   * Asynchronous variant of {@link #selectList(String, Object, RowBounds)}.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          Bounds to limit object retrieval
+   *
+   * @return a future of the list of mapped objects
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter, RowBounds rowBounds) {
+    return executeAsync(session -> session.selectList(statement, parameter, rowBounds));
+  }
+
+  /**
+   * Asynchronous variant of {@link #insert(String, Object)}.
+   *
+   * @param statement
+   *          Unique identifier matching the statement to execute.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return a future of the number of rows affected by the insert
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default CompletableFuture<Integer> insertAsync(String statement, Object parameter) {
+    return executeAsync(session -> session.insert(statement, parameter));
+  }
+
+  /**
+   * Asynchronous variant of {@link #update(String, Object)}.
+   *
+   * @param statement
+   *          Unique identifier matching the statement to execute.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return a future of the number of rows affected by the update
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default CompletableFuture<Integer> updateAsync(String statement, Object parameter) {
+    return executeAsync(session -> session.update(statement, parameter));
+  }
+
+  /**
+   * Asynchronous variant of {@link #delete(String, Object)}.
+   *
+   * @param statement
+   *          Unique identifier matching the statement to execute.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return a future of the number of rows affected by the delete
+   *
+   * @since 3.5.20
+   *
+   * @see #executeAsync(Function)
+   */
+  default CompletableFuture<Integer> deleteAsync(String statement, Object parameter) {
+    return executeAsync(session -> session.delete(statement, parameter));
+  }
 }
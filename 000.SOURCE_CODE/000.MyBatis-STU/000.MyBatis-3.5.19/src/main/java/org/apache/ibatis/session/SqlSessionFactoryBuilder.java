@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.util.Properties;
 
+import org.apache.ibatis.builder.snapshot.ConfigurationSnapshot;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.executor.ErrorContext;
@@ -62,6 +63,54 @@ public class SqlSessionFactoryBuilder {
     }
   }
 
+  /**
+   * Builds a factory from a configuration file, registering its mappers from a snapshot instead of parsing them when
+   * the snapshot is current.
+   *
+   * @param reader
+   *          the configuration file
+   * @param snapshot
+   *          the snapshot created from this configuration file with
+   *          {@link ConfigurationSnapshot#create(Reader, String, Properties)}
+   *
+   * @return the factory
+   *
+   * @since 3.5.20
+   */
+  public SqlSessionFactory build(Reader reader, ConfigurationSnapshot snapshot) {
+    return build(reader, null, null, snapshot);
+  }
+
+  /**
+   * Builds a factory from a configuration file, registering its mappers from a snapshot instead of parsing them when
+   * the snapshot is current.
+   *
+   * @param reader
+   *          the configuration file
+   * @param environment
+   *          the environment to use, or {@code null} for the default one
+   * @param properties
+   *          the variables, or {@code null}
+   * @param snapshot
+   *          the snapshot created from this configuration file with
+   *          {@link ConfigurationSnapshot#create(Reader, String, Properties)}
+   *
+   * @return the factory
+   *
+   * @since 3.5.20
+   */
+  public SqlSessionFactory build(Reader reader, String environment, Properties properties,
+      ConfigurationSnapshot snapshot) {
+    try {
+      XMLConfigBuilder parser = new XMLConfigBuilder(reader, environment, properties, snapshot);
+      return build(parser.parse());
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException("Error building SqlSession.", e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
   public SqlSessionFactory build(InputStream inputStream) {
     return build(inputStream, null, null);
   }
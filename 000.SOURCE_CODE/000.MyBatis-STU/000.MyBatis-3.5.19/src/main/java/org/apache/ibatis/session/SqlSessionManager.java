@@ -24,6 +24,9 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
@@ -194,6 +197,22 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.selectCursor(statement, parameter, rowBounds);
   }
 
+  @Override
+  public <T> Stream<T> selectStream(String statement, Object parameter, RowBounds rowBounds) {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession != null) {
+      return sqlSession.selectStream(statement, parameter, rowBounds);
+    }
+    // the session reading the stream stays open until the stream is closed
+    final SqlSession autoSqlSession = openSession();
+    try {
+      return autoSqlSession.<T> selectStream(statement, parameter, rowBounds).onClose(autoSqlSession::close);
+    } catch (RuntimeException e) {
+      autoSqlSession.close();
+      throw e;
+    }
+  }
+
   @Override
   public <E> List<E> selectList(String statement) {
     return sqlSessionProxy.selectList(statement);
@@ -259,6 +278,26 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return getConfiguration().getMapper(type, this);
   }
 
+  @Override
+  public <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> action) {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession != null) {
+      return sqlSession.executeAsync(action);
+    }
+    return CompletableFuture.supplyAsync(() -> {
+      try (SqlSession autoSqlSession = openSession()) {
+        try {
+          final T result = action.apply(autoSqlSession);
+          autoSqlSession.commit();
+          return result;
+        } catch (RuntimeException e) {
+          autoSqlSession.rollback();
+          throw e;
+        }
+      }
+    }, getConfiguration().getAsyncExecutor());
+  }
+
   @Override
   public Connection getConnection() {
     final SqlSession sqlSession = localSqlSession.get();
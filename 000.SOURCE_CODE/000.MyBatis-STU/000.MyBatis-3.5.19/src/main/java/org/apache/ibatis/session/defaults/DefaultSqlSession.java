@@ -22,9 +22,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
@@ -38,9 +43,14 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
 
 /**
  * The default implementation for {@link SqlSession}. Note that this class is not Thread-Safe.
+ * <p>
+ * Actions submitted with {@link #executeAsync(Function)} run one after the other and own the session while they are
+ * pending: statements issued by other threads are rejected until the last of them has completed, and
+ * {@link #commit()}, {@link #rollback()} and {@link #close()} wait for it first.
  *
  * @author Clinton Begin
  */
@@ -52,6 +62,8 @@ public class DefaultSqlSession implements SqlSession {
   private final boolean autoCommit;
   private boolean dirty;
   private List<Cursor<?>> cursorList;
+  private volatile CompletableFuture<?> lastAsyncAction;
+  private volatile Thread asyncActionThread;
 
   public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
     this.configuration = configuration;
@@ -119,6 +131,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    checkNoPendingAsyncAction();
+    checkNoBackgroundCursor();
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
       dirty |= ms.isDirtySelect();
@@ -148,6 +162,8 @@ public class DefaultSqlSession implements SqlSession {
   }
 
   private <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    checkNoPendingAsyncAction();
+    checkNoBackgroundCursor();
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
       dirty |= ms.isDirtySelect();
@@ -191,6 +207,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public int update(String statement, Object parameter) {
+    checkNoPendingAsyncAction();
+    checkNoBackgroundCursor();
     try {
       dirty = true;
       MappedStatement ms = configuration.getMappedStatement(statement);
@@ -212,6 +230,62 @@ public class DefaultSqlSession implements SqlSession {
     return update(statement, parameter);
   }
 
+  @Override
+  public <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> action) {
+    final CompletableFuture<?> previous = lastAsyncAction;
+    final CompletableFuture<T> future;
+    if (previous == null) {
+      future = CompletableFuture.supplyAsync(() -> runAsyncAction(action), configuration.getAsyncExecutor());
+    } else {
+      // the session is not thread safe, so an action starts once the previous one has completed
+      future = previous.handleAsync((result, e) -> runAsyncAction(action), configuration.getAsyncExecutor());
+    }
+    lastAsyncAction = future;
+    return future;
+  }
+
+  private <T> T runAsyncAction(Function<SqlSession, T> action) {
+    asyncActionThread = Thread.currentThread();
+    try {
+      return action.apply(this);
+    } finally {
+      asyncActionThread = null;
+    }
+  }
+
+  private boolean isAsyncActionPending() {
+    final CompletableFuture<?> last = lastAsyncAction;
+    return last != null && !last.isDone() && Thread.currentThread() != asyncActionThread;
+  }
+
+  private void checkNoPendingAsyncAction() {
+    if (isAsyncActionPending()) {
+      throw new SqlSessionException(
+          "Error:  Cannot use the session while an asynchronous action is pending.  Wait for its future to complete.");
+    }
+  }
+
+  private void checkNoBackgroundCursor() {
+    if (cursorList != null) {
+      for (Cursor<?> cursor : cursorList) {
+        if (cursor instanceof DefaultCursor && ((DefaultCursor<?>) cursor).isMappingInBackground()) {
+          throw new SqlSessionException("Error:  Cannot use the session while a cursor maps its rows in the background."
+              + "  Consume or close the cursor first.");
+        }
+      }
+    }
+  }
+
+  private void awaitAsyncActions() {
+    if (isAsyncActionPending()) {
+      try {
+        lastAsyncAction.join();
+      } catch (CompletionException | CancellationException e) {
+        // Reported by the future of the failed action
+      }
+    }
+  }
+
   @Override
   public void commit() {
     commit(false);
@@ -219,6 +293,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void commit(boolean force) {
+    awaitAsyncActions();
+    checkNoBackgroundCursor();
     try {
       executor.commit(isCommitOrRollbackRequired(force));
       dirty = false;
@@ -236,6 +312,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void rollback(boolean force) {
+    awaitAsyncActions();
+    checkNoBackgroundCursor();
     try {
       executor.rollback(isCommitOrRollbackRequired(force));
       dirty = false;
@@ -248,6 +326,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public List<BatchResult> flushStatements() {
+    checkNoPendingAsyncAction();
+    checkNoBackgroundCursor();
     try {
       return executor.flushStatements();
     } catch (Exception e) {
@@ -259,9 +339,11 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void close() {
+    awaitAsyncActions();
     try {
-      executor.close(isCommitOrRollbackRequired(false));
+      // Cursors mapping rows in the background stop reading before the connection is closed
       closeCursors();
+      executor.close(isCommitOrRollbackRequired(false));
       dirty = false;
     } finally {
       ErrorContext.instance().reset();
@@ -293,6 +375,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public Connection getConnection() {
+    checkNoPendingAsyncAction();
+    checkNoBackgroundCursor();
     try {
       return executor.getTransaction().getConnection();
     } catch (SQLException e) {
@@ -302,6 +386,7 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void clearCache() {
+    checkNoPendingAsyncAction();
     executor.clearLocalCache();
   }
 
@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+
+/**
+ * Measures a request that selects {@value #QUERIES} independent items by id, one after another in one session and
+ * concurrently through the asynchronous mapper methods of a {@link SqlSessionManager}, which runs each query in its
+ * own session. Each query waits for a simulated network round trip of {@value #ROUND_TRIP_MICROS} µs.
+ *
+ * @see Configuration#setAsyncExecutor(java.util.concurrent.Executor)
+ */
+public class AsyncBenchmark {
+
+  private static final int ROWS = 1000;
+  private static final int QUERIES = 8;
+  private static final long ROUND_TRIP_MICROS = 1000;
+
+  public static void main(String[] args) throws Exception {
+    PooledDataSource dataSource = BenchmarkData.createDataSource("async_benchmark");
+    dataSource.setPoolMaximumActiveConnections(QUERIES);
+    BenchmarkData.createItems(dataSource, ROWS);
+    Configuration configuration = BenchmarkData
+        .newConfiguration(BenchmarkData.withRoundTrips(dataSource, ROUND_TRIP_MICROS));
+    configuration.addMapper(ItemMapper.class);
+    SqlSessionManager sqlSessionManager = SqlSessionManager
+        .newInstance(new SqlSessionFactoryBuilder().build(configuration));
+    BenchmarkRunner runner = new BenchmarkRunner(
+        "Select " + QUERIES + " items by id, " + ROUND_TRIP_MICROS + " us round trip per query");
+    runner.run("synchronous, one session", () -> {
+      List<Item> items = new ArrayList<>(QUERIES);
+      try (SqlSession sqlSession = sqlSessionManager.openSession()) {
+        ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+        for (int i = 0; i < QUERIES; i++) {
+          items.add(mapper.selectById(i));
+        }
+      }
+      return items;
+    });
+    runner.run("asynchronous, session per query", () -> {
+      ItemMapper mapper = sqlSessionManager.getMapper(ItemMapper.class);
+      List<CompletableFuture<Item>> futures = new ArrayList<>(QUERIES);
+      for (int i = 0; i < QUERIES; i++) {
+        futures.add(mapper.selectByIdAsync(i));
+      }
+      List<Item> items = new ArrayList<>(QUERIES);
+      for (CompletableFuture<Item> future : futures) {
+        items.add(future.join());
+      }
+      return items;
+    });
+    dataSource.forceCloseAll();
+  }
+
+}
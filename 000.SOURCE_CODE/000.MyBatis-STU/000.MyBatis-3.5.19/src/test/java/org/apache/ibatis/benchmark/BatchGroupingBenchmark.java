@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures a BATCH session inserting orders interleaved with their lines, with only consecutive statements batched
+ * together and with interleaved inserts grouped by statement. An operation inserts 50 orders of 2 lines each, flushes
+ * and rolls back.
+ *
+ * @see Configuration#setBatchGroupingMaxStatements(int)
+ */
+public class BatchGroupingBenchmark {
+
+  public interface OrderMapper {
+    @Insert("insert into orders (id, status) values (#{id}, 'NEW')")
+    void insertOrder(int id);
+
+    @Insert("insert into order_lines (id, order_id) values (#{id}, #{orderId})")
+    void insertLine(@Param("id") int id, @Param("orderId") int orderId);
+  }
+
+  public static void main(String[] args) throws Exception {
+    PooledDataSource dataSource = BenchmarkData.createDataSource("batch_grouping_benchmark");
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("drop table order_lines if exists");
+      statement.execute("drop table orders if exists");
+      statement.execute("create table orders (id int primary key, status varchar(16))");
+      statement.execute("create table order_lines (id int primary key, order_id int,"
+          + " foreign key (order_id) references orders(id))");
+    }
+    BenchmarkRunner runner = new BenchmarkRunner("Interleaved batched inserts, 50 orders of 2 lines");
+    for (int maxStatements : new int[] { 0, 16 }) {
+      Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+      configuration.setBatchGroupingMaxStatements(maxStatements);
+      configuration.addMapper(OrderMapper.class);
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+      runner.run("insert/flush, batchGroupingMaxStatements=" + maxStatements, () -> {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+          OrderMapper mapper = sqlSession.getMapper(OrderMapper.class);
+          for (int i = 0; i < 50; i++) {
+            mapper.insertOrder(i);
+            mapper.insertLine(i * 2, i);
+            mapper.insertLine(i * 2 + 1, i);
+          }
+          return sqlSession.flushStatements();
+        }
+      });
+    }
+    dataSource.forceCloseAll();
+  }
+
+}
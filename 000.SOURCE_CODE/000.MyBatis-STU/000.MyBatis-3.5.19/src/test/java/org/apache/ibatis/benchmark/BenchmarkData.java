@@ -0,0 +1,151 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+
+/**
+ * Creates the in-memory databases and configurations used by the benchmarks.
+ */
+final class BenchmarkData {
+
+  private BenchmarkData() {
+  }
+
+  static PooledDataSource createDataSource(String name) {
+    return new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:" + name, "sa", "");
+  }
+
+  /**
+   * Creates the {@code items} table mapped by {@link Item} and inserts the given number of rows.
+   */
+  static void createItems(DataSource dataSource, int rows) throws SQLException {
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("drop table items if exists");
+      statement.execute("create table items (id int primary key, name varchar(40), description varchar(200),"
+          + " price decimal(10, 2), quantity int, created timestamp, active boolean, category varchar(20))");
+      String sql = "insert into items values (?, ?, ?, ?, ?, ?, ?, ?)";
+      try (PreparedStatement insert = connection.prepareStatement(sql)) {
+        for (int i = 0; i < rows; i++) {
+          insert.setInt(1, i);
+          insert.setString(2, "Item " + i);
+          insert.setString(3, "The description of the item number " + i);
+          insert.setBigDecimal(4, BigDecimal.valueOf(i * 7 % 10000, 2));
+          insert.setInt(5, i % 100);
+          insert.setTimestamp(6, new Timestamp(1_700_000_000_000L + i * 60_000L));
+          insert.setBoolean(7, i % 3 != 0);
+          insert.setString(8, "category" + i % 10);
+          insert.addBatch();
+        }
+        if (rows > 0) {
+          insert.executeBatch();
+        }
+      }
+      if (!connection.getAutoCommit()) {
+        connection.commit();
+      }
+    }
+  }
+
+  static Configuration newConfiguration(DataSource dataSource) {
+    Configuration configuration = new Configuration(
+        new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+    configuration.setMapUnderscoreToCamelCase(true);
+    return configuration;
+  }
+
+  /**
+   * Returns a data source whose prepared statements wait for a simulated network round trip of the given number of
+   * microseconds for each statement they send.
+   */
+  static DataSource withRoundTrips(DataSource dataSource, long roundTripMicros) {
+    return proxy(DataSource.class, dataSource, (target, method, args) -> {
+      Object result = invoke(target, method, args);
+      return result instanceof Connection ? proxy(Connection.class, result, (connection, connectionMethod,
+          connectionArgs) -> {
+        Object statement = invoke(connection, connectionMethod, connectionArgs);
+        return statement instanceof PreparedStatement ? roundTrips((PreparedStatement) statement, roundTripMicros)
+            : statement;
+      }) : result;
+    });
+  }
+
+  private static PreparedStatement roundTrips(PreparedStatement statement, long roundTripMicros) {
+    int[] batchedRows = new int[1];
+    return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+      switch (method.getName()) {
+        case "addBatch":
+          batchedRows[0]++;
+          break;
+        case "executeBatch":
+          roundTrip(batchedRows[0] * roundTripMicros);
+          batchedRows[0] = 0;
+          break;
+        case "execute":
+        case "executeUpdate":
+        case "executeQuery":
+          roundTrip(roundTripMicros);
+          break;
+        default:
+          break;
+      }
+      return invoke(target, method, args);
+    });
+  }
+
+  private static void roundTrip(long micros) {
+    long deadline = System.nanoTime() + micros * 1000;
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+
+  private interface Handler {
+    Object invoke(Object target, Method method, Object[] args) throws Throwable;
+  }
+
+  private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+    InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocationHandler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+}
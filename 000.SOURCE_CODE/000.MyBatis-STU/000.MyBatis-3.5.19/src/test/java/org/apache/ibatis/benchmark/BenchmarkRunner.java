@@ -0,0 +1,211 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small throughput harness for the benchmarks of this package.
+ * <p>
+ * Each benchmark class has a {@code main} method that prints a table of operations per second and, when the JVM can
+ * measure it, of bytes allocated per operation. Every measurement runs warm-up iterations first, then measured
+ * iterations of a fixed duration; the error is the standard deviation of the measured iterations. The benchmarks are
+ * not run by the test suite. Build the test classes, then run a benchmark on the test class path:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *     org.apache.ibatis.benchmark.CompiledRowMappingBenchmark
+ * </pre>
+ * <p>
+ * The following system properties tune a run:
+ * <ul>
+ * <li>{@code benchmark.warmups}: the number of warm-up iterations (default 3)</li>
+ * <li>{@code benchmark.iterations}: the number of measured iterations (default 5)</li>
+ * <li>{@code benchmark.time}: the duration of an iteration in milliseconds (default 1000)</li>
+ * <li>{@code benchmark.filter}: runs only the measurements whose name contains this text</li>
+ * </ul>
+ * Numbers only compare the variants measured in the same run, on the same machine.
+ */
+public final class BenchmarkRunner {
+
+  private static volatile long sink;
+
+  private final String title;
+  private final int warmups = Integer.getInteger("benchmark.warmups", 3);
+  private final int iterations = Integer.getInteger("benchmark.iterations", 5);
+  private final long iterationNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("benchmark.time", 1000L));
+  private final String filter = System.getProperty("benchmark.filter");
+  private boolean headerPrinted;
+
+  public BenchmarkRunner(String title) {
+    this.title = title;
+  }
+
+  /**
+   * An operation to measure. The returned value is consumed so that the JIT cannot eliminate the work producing it.
+   */
+  @FunctionalInterface
+  public interface Operation {
+    Object run() throws Exception;
+  }
+
+  /**
+   * Measures an operation on the calling thread.
+   *
+   * @param name
+   *          the name of the measurement
+   * @param operation
+   *          the operation
+   *
+   * @return the mean number of operations per second, or {@code 0} if the measurement was filtered out
+   */
+  public double run(String name, Operation operation) {
+    return run(name, 1, operation);
+  }
+
+  /**
+   * Measures an operation run concurrently by the given number of threads.
+   *
+   * @param name
+   *          the name of the measurement
+   * @param threads
+   *          the number of threads running the operation
+   * @param operation
+   *          the operation, which must be thread safe when run by more than one thread
+   *
+   * @return the mean number of operations per second of all threads, or {@code 0} if the measurement was filtered out
+   */
+  public double run(String name, int threads, Operation operation) {
+    if (filter != null && !name.contains(filter)) {
+      return 0;
+    }
+    for (int i = 0; i < warmups; i++) {
+      iteration(threads, operation);
+    }
+    double[] throughputs = new double[iterations];
+    long operations = 0;
+    long allocatedBytes = 0;
+    for (int i = 0; i < iterations; i++) {
+      Iteration iteration = iteration(threads, operation);
+      throughputs[i] = iteration.operations * 1e9 / iteration.nanos;
+      operations += iteration.operations;
+      allocatedBytes += iteration.allocatedBytes;
+    }
+    double mean = 0;
+    for (double throughput : throughputs) {
+      mean += throughput;
+    }
+    mean /= iterations;
+    double variance = 0;
+    for (double throughput : throughputs) {
+      variance += (throughput - mean) * (throughput - mean);
+    }
+    double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+    print(name, threads, mean, error, allocatedBytes < 0 ? -1 : allocatedBytes / Math.max(operations, 1));
+    return mean;
+  }
+
+  private Iteration iteration(int threads, Operation operation) {
+    CyclicBarrier start = new CyclicBarrier(threads + 1);
+    long[] counts = new long[threads];
+    long[] allocations = new long[threads];
+    List<Thread> workers = new ArrayList<>();
+    Throwable[] failure = new Throwable[1];
+    for (int t = 0; t < threads; t++) {
+      final int index = t;
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+          long allocatedBefore = allocatedBytes();
+          long deadline = System.nanoTime() + iterationNanos;
+          long count = 0;
+          long consumed = 0;
+          do {
+            Object result = operation.run();
+            consumed += result == null ? 0 : System.identityHashCode(result);
+            count++;
+          } while (System.nanoTime() < deadline);
+          long allocatedAfter = allocatedBytes();
+          allocations[index] = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+          counts[index] = count;
+          sink += consumed;
+        } catch (Throwable e) {
+          synchronized (failure) {
+            failure[0] = e;
+          }
+        }
+      }, "benchmark-" + t);
+      workers.add(worker);
+      worker.start();
+    }
+    long begin;
+    try {
+      start.await();
+      begin = System.nanoTime();
+      for (Thread worker : workers) {
+        worker.join();
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    long nanos = System.nanoTime() - begin;
+    if (failure[0] != null) {
+      throw new IllegalStateException("The benchmark operation failed", failure[0]);
+    }
+    Iteration iteration = new Iteration();
+    iteration.nanos = nanos;
+    for (int t = 0; t < threads; t++) {
+      iteration.operations += counts[t];
+      iteration.allocatedBytes = allocations[t] < 0 || iteration.allocatedBytes < 0 ? -1
+          : iteration.allocatedBytes + allocations[t];
+    }
+    return iteration;
+  }
+
+  private static long allocatedBytes() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threadMXBean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+  private void print(String name, int threads, double mean, double error, long bytesPerOperation) {
+    if (!headerPrinted) {
+      System.out.println(title);
+      System.out.println(String.format(Locale.ROOT, "%-64s %7s %16s %10s %12s", "Benchmark", "Threads", "ops/s",
+          "error", "B/op"));
+      headerPrinted = true;
+    }
+    System.out.println(String.format(Locale.ROOT, "%-64s %7d %,16.1f %9.1f%% %12s", name, threads, mean,
+        mean == 0 ? 0 : error * 100 / mean, bytesPerOperation < 0 ? "n/a" : String.valueOf(bytesPerOperation)));
+  }
+
+  private static class Iteration {
+    long nanos;
+    long operations;
+    long allocatedBytes;
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.decorators.TinyLfuCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+
+/**
+ * Measures second level cache reads and writes by concurrent threads, with the default LRU cache and with the TinyLFU
+ * cache, the latter with and without an enclosing {@link SynchronizedCache}. Keys follow a skewed distribution over
+ * four times the cache size, so some reads miss and are followed by a put that evicts an entry.
+ */
+public class CacheBenchmark {
+
+  private static final int SIZE = 1024;
+
+  public static void main(String[] args) {
+    BenchmarkRunner runner = new BenchmarkRunner("Second level cache get/put");
+    for (int threads : new int[] { 1, 4, 16 }) {
+      run(runner, "LRU", threads, new CacheBuilder("lru").addDecorator(LruCache.class).size(SIZE).build());
+      Cache tinyLfu = new CacheBuilder("tinyLfu").addDecorator(TinyLfuCache.class).size(SIZE).build();
+      run(runner, "TinyLFU, synchronized", threads, new SynchronizedCache(tinyLfu));
+      run(runner, "TinyLFU", threads, tinyLfu);
+    }
+  }
+
+  private static void run(BenchmarkRunner runner, String name, int threads, Cache cache) {
+    runner.run(name + ", get/put on miss", threads, () -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      // Squaring a uniform value favors the small keys
+      double uniform = random.nextDouble();
+      Integer key = (int) (uniform * uniform * SIZE * 4);
+      Object value = cache.getObject(key);
+      if (value == null) {
+        cache.putObject(key, key);
+        value = key;
+      }
+      return value;
+    });
+  }
+
+}
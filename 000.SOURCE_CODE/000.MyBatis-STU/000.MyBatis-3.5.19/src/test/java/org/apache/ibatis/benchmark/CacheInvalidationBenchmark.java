@@ -0,0 +1,111 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.CacheInvalidationScope;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures cached reads of items by id in a namespace whose only write inserts into an unrelated {@code audit} table,
+ * once every {@value #READS_PER_WRITE} reads, with namespace and with table invalidation of the second level cache.
+ */
+public class CacheInvalidationBenchmark {
+
+  private static final int ROWS = 1000;
+  private static final int READS_PER_WRITE = 100;
+
+  @CacheNamespace(size = ROWS)
+  public interface CachedItemMapper {
+
+    @Select("select id, name, description, price, quantity, created, active, category from items where id = #{id}")
+    Item selectById(@Param("id") int id);
+
+    @Insert("insert into audit (message) values (#{message})")
+    int audit(@Param("message") String message);
+
+  }
+
+  /**
+   * Counts the queries sent to the database, which are the cache misses.
+   */
+  @Intercepts(@Signature(type = StatementHandler.class, method = "query", args = { Statement.class,
+      ResultHandler.class }))
+  public static class QueryCounter implements Interceptor {
+
+    private final AtomicLong queries = new AtomicLong();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      queries.incrementAndGet();
+      return invocation.proceed();
+    }
+
+  }
+
+  public static void main(String[] args) throws Exception {
+    BenchmarkRunner runner = new BenchmarkRunner(
+        "Cached select by id, one unrelated insert every " + READS_PER_WRITE + " reads");
+    for (CacheInvalidationScope scope : CacheInvalidationScope.values()) {
+      PooledDataSource dataSource = BenchmarkData.createDataSource("cacheInvalidation" + scope);
+      BenchmarkData.createItems(dataSource, ROWS);
+      try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+        statement.execute("drop table audit if exists");
+        statement.execute("create table audit (id int generated by default as identity, message varchar(40))");
+      }
+      Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+      configuration.setCacheInvalidationScope(scope);
+      configuration.addMapper(CachedItemMapper.class);
+      QueryCounter queryCounter = new QueryCounter();
+      configuration.addInterceptor(queryCounter);
+      AtomicLong reads = new AtomicLong();
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+      runner.run("cacheInvalidationScope=" + scope, () -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+          CachedItemMapper mapper = sqlSession.getMapper(CachedItemMapper.class);
+          if (random.nextInt(READS_PER_WRITE) == 0) {
+            mapper.audit("read");
+            sqlSession.commit();
+          }
+          reads.incrementAndGet();
+          return mapper.selectById(random.nextInt(ROWS));
+        }
+      });
+      System.out.printf("  hit ratio %.3f%n", 1 - (double) queryCounter.queries.get() / reads.get());
+      dataSource.forceCloseAll();
+    }
+  }
+
+}
@@ -0,0 +1,187 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.decorators.TransactionalCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.executor.BaseExecutor;
+import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Measures building a cache key for a query and looking it up, with {@link BaseExecutor#createCacheKey} and with the
+ * key layout of earlier versions, which added the statement id and the SQL as separate elements of an
+ * {@code ArrayList} based key. Lookups go to a local cache and to a {@link TransactionalCache} over a second level
+ * cache, both filled with the keys of 1024 parameter values. The SQL is either the same string instance for every
+ * query, as with static SQL, or a new instance per query, as with dynamic SQL that is built again each time.
+ */
+public class CacheKeyBenchmark {
+
+  private static final int KEYS = 1024;
+
+  public static void main(String[] args) throws Exception {
+    Configuration configuration = BenchmarkData.newConfiguration(BenchmarkData.createDataSource("cacheKey"));
+    configuration.addMapper(ItemMapper.class);
+    MappedStatement ms = configuration.getMappedStatement(ItemMapper.class.getName() + ".selectById");
+    BaseExecutor executor = new SimpleExecutor(configuration, null);
+    Object[] parameters = new Object[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      Map<String, Object> parameter = new HashMap<>();
+      parameter.put("id", i);
+      parameters[i] = parameter;
+    }
+
+    BenchmarkRunner runner = new BenchmarkRunner("Cache key creation and lookup");
+    for (boolean sameSql : new boolean[] { true, false }) {
+      Function<Object, BoundSql> boundSql = parameter -> {
+        BoundSql bound = ms.getBoundSql(parameter);
+        return sameSql ? bound
+            : new BoundSql(configuration, new String(bound.getSql()), bound.getParameterMappings(), parameter);
+      };
+      String sql = sameSql ? "same SQL instance" : "new SQL instance";
+      Function<Object, CacheKey> current = parameter -> executor.createCacheKey(ms, parameter, RowBounds.DEFAULT,
+          boundSql.apply(parameter));
+      Function<Object, LegacyCacheKey> legacy = parameter -> legacyCacheKey(ms, parameter, RowBounds.DEFAULT,
+          boundSql.apply(parameter));
+      run(runner, "CacheKey, " + sql, parameters, current);
+      run(runner, "legacy key, " + sql, parameters, legacy);
+    }
+  }
+
+  private static void run(BenchmarkRunner runner, String name, Object[] parameters, Function<Object, ?> keys) {
+    Cache localCache = new PerpetualCache("LocalCache");
+    Cache secondLevelCache = new CacheBuilder("benchmark").readWrite(false).size(KEYS * 2).build();
+    TransactionalCache transactionalCache = new TransactionalCache(secondLevelCache);
+    for (Object parameter : parameters) {
+      localCache.putObject(keys.apply(parameter), parameter);
+      secondLevelCache.putObject(keys.apply(parameter), parameter);
+    }
+    runner.run(name + ", local cache get", () -> localCache.getObject(keys.apply(randomParameter(parameters))));
+    runner.run(name + ", transactional cache get",
+        () -> transactionalCache.getObject(keys.apply(randomParameter(parameters))));
+    runner.run(name + ", transactional cache put", () -> {
+      Object parameter = randomParameter(parameters);
+      transactionalCache.putObject(keys.apply(parameter), parameter);
+      return parameter;
+    });
+  }
+
+  private static Object randomParameter(Object[] parameters) {
+    return parameters[ThreadLocalRandom.current().nextInt(parameters.length)];
+  }
+
+  /**
+   * The body of {@code BaseExecutor#createCacheKey} before the statement prefix was introduced.
+   */
+  private static LegacyCacheKey legacyCacheKey(MappedStatement ms, Object parameterObject, RowBounds rowBounds,
+      BoundSql boundSql) {
+    Configuration configuration = ms.getConfiguration();
+    LegacyCacheKey cacheKey = new LegacyCacheKey();
+    cacheKey.update(ms.getId());
+    cacheKey.update(rowBounds.getOffset());
+    cacheKey.update(rowBounds.getLimit());
+    cacheKey.update(boundSql.getSql());
+    MetaObject metaObject = null;
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() != ParameterMode.OUT) {
+        Object value;
+        String propertyName = parameterMapping.getProperty();
+        if (boundSql.hasAdditionalParameter(propertyName)) {
+          value = boundSql.getAdditionalParameter(propertyName);
+        } else if (parameterObject == null) {
+          value = null;
+        } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+          value = parameterObject;
+        } else {
+          if (metaObject == null) {
+            metaObject = configuration.newMetaObject(parameterObject);
+          }
+          value = metaObject.getValue(propertyName);
+        }
+        cacheKey.update(value);
+      }
+    }
+    if (configuration.getEnvironment() != null) {
+      cacheKey.update(configuration.getEnvironment().getId());
+    }
+    return cacheKey;
+  }
+
+  /**
+   * The {@link CacheKey} of earlier versions, which kept the updates in an {@code ArrayList}.
+   */
+  private static class LegacyCacheKey {
+
+    private final int multiplier = 37;
+    private int hashcode = 17;
+    private long checksum;
+    private int count;
+    private final List<Object> updateList = new ArrayList<>();
+
+    void update(Object object) {
+      int baseHashCode = object == null ? 1 : ArrayUtil.hashCode(object);
+      count++;
+      checksum += baseHashCode;
+      baseHashCode *= count;
+      hashcode = multiplier * hashcode + baseHashCode;
+      updateList.add(object);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (this == object) {
+        return true;
+      }
+      if (!(object instanceof LegacyCacheKey)) {
+        return false;
+      }
+      LegacyCacheKey cacheKey = (LegacyCacheKey) object;
+      if (hashcode != cacheKey.hashcode || checksum != cacheKey.checksum || count != cacheKey.count) {
+        return false;
+      }
+      for (int i = 0; i < updateList.size(); i++) {
+        if (!ArrayUtil.equals(updateList.get(i), cacheKey.updateList.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashcode;
+    }
+
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.io.ClassIndex;
+import org.apache.ibatis.io.ClassIndexProcessor;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Measures registering the type aliases, type handlers and mappers of three small packages of a generated jar that
+ * holds many other classes, with and without a {@link ClassIndex}. Each operation uses a new class loader, as an
+ * application starting, so the jar is listed and the classes are loaded again. The jar has 3000 other classes unless
+ * the {@code benchmark.classes} system property says otherwise.
+ *
+ * @see ClassIndexProcessor
+ */
+public class ClassIndexBenchmark {
+
+  private static final int CLASSES = Integer.getInteger("benchmark.classes", 3000);
+  private static final int PACKAGES = 30;
+
+  public static void main(String[] args) throws Exception {
+    Path directory = Files.createTempDirectory("class_index_benchmark");
+    try {
+      Path classes = compile(directory);
+      Path indexed = directory.resolve("indexed.jar");
+      Path scanned = directory.resolve("scanned.jar");
+      jar(classes, indexed, true);
+      jar(classes, scanned, false);
+
+      BenchmarkRunner runner = new BenchmarkRunner(
+          "Register the aliases, type handlers and mappers of a jar of " + CLASSES + " classes");
+      runner.run("scanned", () -> register(scanned));
+      runner.run("indexed", () -> register(indexed));
+    } finally {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+      }
+    }
+  }
+
+  private static Configuration register(Path jar) throws IOException {
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { jar.toUri().toURL() },
+        ClassIndexBenchmark.class.getClassLoader())) {
+      Thread.currentThread().setContextClassLoader(loader);
+      Configuration configuration = new Configuration();
+      configuration.getTypeAliasRegistry().registerAliases("bench.model");
+      configuration.getTypeHandlerRegistry().register("bench.type");
+      configuration.addMappers("bench.mapper");
+      if (configuration.getMapperRegistry().getMappers().size() != 10
+          || !configuration.getTypeAliasRegistry().getTypeAliases().containsKey("entity9")) {
+        throw new IllegalStateException("The packages were not all registered");
+      }
+      return configuration;
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+  }
+
+  private static Path compile(Path directory) throws IOException {
+    Path sources = directory.resolve("sources");
+    Path classes = Files.createDirectories(directory.resolve("classes"));
+    List<String> arguments = new ArrayList<>(Arrays.asList("-d", classes.toString(), "-cp",
+        System.getProperty("java.class.path"), "-processor", ClassIndexProcessor.class.getName()));
+    for (int i = 0; i < 10; i++) {
+      arguments.add(source(sources, "bench.model", "Entity" + i, "public class Entity" + i + " {}"));
+      arguments.add(source(sources, "bench.mapper", "Mapper" + i,
+          "public interface Mapper" + i + " { @org.apache.ibatis.annotations.Select(\"select 1\") int count(); }"));
+      arguments.add(source(sources, "bench.type", "Handler" + i, "public class Handler" + i
+          + " extends org.apache.ibatis.type.ObjectTypeHandler {}"));
+    }
+    for (int i = 0; i < CLASSES; i++) {
+      arguments.add(source(sources, "bench.lib.p" + i % PACKAGES, "Library" + i,
+          "public class Library" + i + " { public int value() { return " + i + "; } }"));
+    }
+    if (ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(new String[0])) != 0) {
+      throw new IllegalStateException("Could not compile the classes");
+    }
+    return classes;
+  }
+
+  private static String source(Path sources, String packageName, String name, String body) throws IOException {
+    Path source = sources.resolve(packageName.replace('.', File.separatorChar)).resolve(name + ".java");
+    Files.createDirectories(source.getParent());
+    Files.write(source, ("package " + packageName + "; " + body).getBytes(StandardCharsets.UTF_8));
+    return source.toString();
+  }
+
+  private static void jar(Path classes, Path jar, boolean indexed) throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(classes)) {
+      files = walk.filter(file -> !file.equals(classes)).sorted().collect(Collectors.toList());
+    }
+    try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+      for (Path file : files) {
+        String name = classes.relativize(file).toString().replace(File.separatorChar, '/');
+        if (!indexed && name.equals(ClassIndex.INDEX_RESOURCE)) {
+          continue;
+        }
+        boolean directory = Files.isDirectory(file);
+        jarOut.putNextEntry(new JarEntry(directory ? name + "/" : name));
+        if (!directory) {
+          Files.copy(file, jarOut);
+        }
+        jarOut.closeEntry();
+      }
+    }
+  }
+
+}
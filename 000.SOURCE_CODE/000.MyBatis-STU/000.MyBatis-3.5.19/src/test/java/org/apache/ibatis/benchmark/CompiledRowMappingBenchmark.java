@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures the mapping of a 1000 row result set of a simple result map, with and without compiled row mappers.
+ *
+ * @see Configuration#setCompiledRowMappingEnabled(boolean)
+ */
+public class CompiledRowMappingBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    DataSource dataSource = BenchmarkData.createDataSource("compiled_row_mapping_benchmark");
+    BenchmarkData.createItems(dataSource, 1000);
+    BenchmarkRunner runner = new BenchmarkRunner("Select 1000 rows of 8 columns into a bean");
+    for (boolean compiled : new boolean[] { false, true }) {
+      Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+      configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+      configuration.setCompiledRowMappingEnabled(compiled);
+      configuration.addMapper(ItemMapper.class);
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+        runner.run("compiledRowMappingEnabled=" + compiled, mapper::selectAll);
+      }
+    }
+  }
+
+}
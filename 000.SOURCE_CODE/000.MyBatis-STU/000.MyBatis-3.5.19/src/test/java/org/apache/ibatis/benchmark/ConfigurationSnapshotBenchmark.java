@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.builder.snapshot.ConfigurationSnapshot;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Measures building a configuration from the corpus of {@link MapperParsingBenchmark}, parsing its XML mapper files
+ * and restoring them from a snapshot read from memory. Both builds parse the configuration file; the restored one then
+ * checksums every mapper file instead of parsing it.
+ *
+ * @see ConfigurationSnapshot
+ */
+public class ConfigurationSnapshotBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    Path corpus = Files.createTempDirectory("configuration_snapshot_benchmark");
+    try {
+      String config = MapperParsingBenchmark.createCorpus(corpus);
+      Properties properties = new Properties();
+      properties.setProperty("parallel", "false");
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ConfigurationSnapshot.create(new StringReader(config), null, properties).write(out);
+      byte[] snapshot = out.toByteArray();
+
+      BenchmarkRunner runner = new BenchmarkRunner(
+          "Build a configuration of XML mappers (snapshot of " + snapshot.length + " bytes)");
+      runner.run("parse mappers",
+          () -> check(new XMLConfigBuilder(new StringReader(config), null, properties).parse()));
+      runner.run("restore snapshot", () -> check(new XMLConfigBuilder(new StringReader(config), null, properties,
+          ConfigurationSnapshot.read(new ByteArrayInputStream(snapshot))).parse()));
+    } finally {
+      try (Stream<Path> files = Files.walk(corpus)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+      }
+    }
+  }
+
+  private static Configuration check(Configuration configuration) {
+    if (!configuration.hasStatement("bench.Mapper0.selectByName", false)) {
+      throw new IllegalStateException("The mappers were not all built");
+    }
+    return configuration;
+  }
+
+}
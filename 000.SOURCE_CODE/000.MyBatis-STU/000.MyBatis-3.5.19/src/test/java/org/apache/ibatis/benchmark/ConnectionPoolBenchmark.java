@@ -0,0 +1,58 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+
+/**
+ * Measures the checkout and return of pooled connections by concurrent threads, with the default pool and with the
+ * lock-free pool. The pool holds at most 8 connections, so with more threads some of them wait for a hand-off.
+ *
+ * @see PooledDataSource#setPoolLockFree(boolean)
+ */
+public class ConnectionPoolBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    BenchmarkRunner runner = new BenchmarkRunner("Connection checkout and return");
+    for (int threads : new int[] { 1, 4, 16, 64 }) {
+      for (boolean lockFree : new boolean[] { false, true }) {
+        PooledDataSource dataSource = BenchmarkData.createDataSource("connection_pool_benchmark");
+        dataSource.setPoolMaximumActiveConnections(8);
+        dataSource.setPoolMaximumIdleConnections(8);
+        dataSource.setPoolLockFree(lockFree);
+        runner.run("getConnection/close, poolLockFree=" + lockFree, threads, () -> {
+          try (Connection connection = dataSource.getConnection()) {
+            return connection;
+          }
+        });
+        runner.run("getConnection/query/close, poolLockFree=" + lockFree, threads, () -> {
+          try (Connection connection = dataSource.getConnection();
+              PreparedStatement statement = connection.prepareStatement("values (1)");
+              ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+          }
+        });
+        dataSource.forceCloseAll();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.CursorFetchMode;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures iterating a cursor over 10000 rows of 8 columns with each cursor fetch mode and a chunk size of 100, with a
+ * consumer doing no work and with one doing some work per row. The work of the consumer may overlap with the mapping
+ * of the next rows in {@link CursorFetchMode#BACKGROUND} mode, if the machine has more than one processor.
+ *
+ * @see Configuration#setCursorFetchMode(CursorFetchMode)
+ */
+public class CursorBenchmark {
+
+  private static final int ROWS = 10000;
+  private static final int CONSUMER_WORK = 200;
+
+  public static void main(String[] args) throws Exception {
+    DataSource dataSource = BenchmarkData.createDataSource("cursor_benchmark");
+    BenchmarkData.createItems(dataSource, ROWS);
+    BenchmarkRunner runner = new BenchmarkRunner("Iterate a cursor over " + ROWS + " rows of 8 columns");
+    for (int consumerWork : new int[] { 0, CONSUMER_WORK }) {
+      for (CursorFetchMode cursorFetchMode : CursorFetchMode.values()) {
+        Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+        configuration.setCursorFetchMode(cursorFetchMode);
+        configuration.setCursorChunkSize(100);
+        configuration.addMapper(ItemMapper.class);
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        runner.run(cursorFetchMode + ", consumer work=" + consumerWork, () -> {
+          long checksum = 0;
+          try (SqlSession sqlSession = sqlSessionFactory.openSession();
+              Cursor<Item> cursor = sqlSession.getMapper(ItemMapper.class).selectCursor()) {
+            for (Item item : cursor) {
+              checksum += consume(item, consumerWork);
+            }
+          }
+          return checksum;
+        });
+      }
+    }
+  }
+
+  static long consume(Item item, int work) {
+    long hash = item.getId();
+    for (int i = 0; i < work; i++) {
+      hash = hash * 31 + item.getDescription().charAt(i % item.getDescription().length());
+    }
+    return hash;
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures consuming 10000 rows of 8 columns from a cursor with its iterator, and as a sequential and a parallel stream
+ * returned by a mapper. The consumer does some work per row; a parallel stream only overlaps it with reading the
+ * cursor if the machine has more than one processor.
+ *
+ * @see Cursor#stream()
+ */
+public class CursorStreamBenchmark {
+
+  private static final int ROWS = 10000;
+  private static final int CONSUMER_WORK = 200;
+
+  public interface StreamItemMapper {
+
+    @Select("select id, name, description, price, quantity, created, active, category"
+        + " from items order by id")
+    Stream<Item> selectStream();
+
+  }
+
+  public static void main(String[] args) throws Exception {
+    DataSource dataSource = BenchmarkData.createDataSource("cursor_stream_benchmark");
+    BenchmarkData.createItems(dataSource, ROWS);
+    Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+    configuration.addMapper(ItemMapper.class);
+    configuration.addMapper(StreamItemMapper.class);
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    BenchmarkRunner runner = new BenchmarkRunner("Consume a cursor over " + ROWS + " rows of 8 columns");
+    runner.run("iterator", () -> {
+      long checksum = 0;
+      try (SqlSession sqlSession = sqlSessionFactory.openSession();
+          Cursor<Item> cursor = sqlSession.getMapper(ItemMapper.class).selectCursor()) {
+        for (Item item : cursor) {
+          checksum += CursorBenchmark.consume(item, CONSUMER_WORK);
+        }
+      }
+      return checksum;
+    });
+    for (boolean parallel : new boolean[] { false, true }) {
+      runner.run(parallel ? "parallel stream" : "stream", () -> {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession();
+            Stream<Item> stream = sqlSession.getMapper(StreamItemMapper.class).selectStream()) {
+          return (parallel ? stream.parallel() : stream)
+              .mapToLong(item -> CursorBenchmark.consume(item, CONSUMER_WORK)).sum();
+        }
+      });
+    }
+  }
+
+}
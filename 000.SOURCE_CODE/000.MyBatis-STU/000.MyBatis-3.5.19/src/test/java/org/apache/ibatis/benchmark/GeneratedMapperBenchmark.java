@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+
+/**
+ * Measures the per call overhead of mappers implemented by JDK dynamic proxies and by generated classes: first with a
+ * session that returns canned results, so only the dispatch and the building of the parameter object are timed, then
+ * with selects served by the local cache of a real session.
+ *
+ * @see Configuration#setMapperClassGenerationEnabled(boolean)
+ */
+public class GeneratedMapperBenchmark {
+
+  private static final int CALLS = 1000;
+
+  public static void main(String[] args) throws Exception {
+    DataSource dataSource = BenchmarkData.createDataSource("generated_mapper_benchmark");
+    BenchmarkData.createItems(dataSource, 10);
+    BenchmarkRunner runner = new BenchmarkRunner("Mapper calls through proxies and generated classes");
+    Item item = new Item();
+    for (boolean generated : new boolean[] { false, true }) {
+      Configuration configuration = newConfiguration(dataSource, generated);
+      ItemMapper mapper = new CannedSqlSession(configuration, item).getMapper(ItemMapper.class);
+      runner.run(CALLS + " x selectById and selectAll, canned results, mapperClassGenerationEnabled=" + generated,
+          () -> {
+            long sum = 0;
+            for (int i = 0; i < CALLS; i++) {
+              sum += mapper.selectById(i).hashCode() + mapper.selectAll().size();
+            }
+            return sum;
+          });
+    }
+    for (boolean generated : new boolean[] { false, true }) {
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder()
+          .build(newConfiguration(dataSource, generated));
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+        runner.run(CALLS + " x selectById, local cache hits, mapperClassGenerationEnabled=" + generated, () -> {
+          long sum = 0;
+          for (int i = 0; i < CALLS; i++) {
+            sum += mapper.selectById(1).getId();
+          }
+          return sum;
+        });
+      }
+    }
+  }
+
+  private static Configuration newConfiguration(DataSource dataSource, boolean generated) {
+    Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+    configuration.setMapperClassGenerationEnabled(generated);
+    configuration.addMapper(ItemMapper.class);
+    return configuration;
+  }
+
+  private static class CannedSqlSession extends DefaultSqlSession {
+
+    private final Object item;
+    private final List<Object> items;
+
+    CannedSqlSession(Configuration configuration, Object item) {
+      super(configuration, null);
+      this.item = item;
+      this.items = Collections.singletonList(item);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T selectOne(String statement, Object parameter) {
+      return (T) item;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E> List<E> selectList(String statement, Object parameter) {
+      return (List<E>) items;
+    }
+
+  }
+
+}
@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+
+public interface ItemMapper {
+
+  @Select("select id, name, description, price, quantity, created, active, category from items order by id")
+  List<Item> selectAll();
+
+  @Select("select id, name, description, price, quantity, created, active, category from items order by id")
+  Cursor<Item> selectCursor();
+
+  @Select("select id, name, description, price, quantity, created, active, category from items where id = #{id}")
+  Item selectById(@Param("id") int id);
+
+  @Select("select id, name, description, price, quantity, created, active, category from items where id = #{id}")
+  CompletableFuture<Item> selectByIdAsync(@Param("id") int id);
+
+  @Insert("insert into items (id, name, description, price, quantity, created, active, category)"
+      + " values (#{id}, #{name}, #{description}, #{price}, #{quantity}, #{created}, #{active}, #{category})")
+  int insert(Item item);
+
+}
@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures getter and setter calls through the invokers of a {@link Reflector}, and the mapping of a 1000 row result
+ * set, with reflective and with lambda based invokers.
+ *
+ * @see Configuration#setLambdaInvokersEnabled(boolean)
+ */
+public class LambdaInvokerBenchmark {
+
+  private static final String[] PROPERTIES = { "id", "name", "description", "price", "quantity", "created", "active",
+      "category" };
+
+  public static void main(String[] args) throws Exception {
+    DataSource dataSource = BenchmarkData.createDataSource("lambda_invoker_benchmark");
+    BenchmarkData.createItems(dataSource, 1000);
+    BenchmarkRunner runner = new BenchmarkRunner("Property access through Reflector invokers");
+    for (boolean lambda : new boolean[] { false, true }) {
+      DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+      reflectorFactory.setLambdaInvokersEnabled(lambda);
+      Reflector reflector = reflectorFactory.findForClass(Item.class);
+      Invoker[] getters = new Invoker[PROPERTIES.length];
+      Invoker[] setters = new Invoker[PROPERTIES.length];
+      for (int i = 0; i < PROPERTIES.length; i++) {
+        getters[i] = reflector.getGetInvoker(PROPERTIES[i]);
+        setters[i] = reflector.getSetInvoker(PROPERTIES[i]);
+      }
+      Object[][] values = { { 1 }, { "name" }, { "description" }, { BigDecimal.TEN }, { 5 }, { new Date() },
+          { true }, { "category" } };
+      runner.run("set and get 8 properties, lambdaInvokersEnabled=" + lambda, () -> {
+        Item item = new Item();
+        long sum = 0;
+        for (int i = 0; i < setters.length; i++) {
+          setters[i].invoke(item, values[i]);
+          sum += getters[i].invoke(item, null).hashCode();
+        }
+        return sum;
+      });
+    }
+    for (boolean lambda : new boolean[] { false, true }) {
+      Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+      configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+      configuration.setLambdaInvokersEnabled(lambda);
+      configuration.addMapper(ItemMapper.class);
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+        runner.run("select 1000 rows, lambdaInvokersEnabled=" + lambda, mapper::selectAll);
+      }
+    }
+  }
+
+}
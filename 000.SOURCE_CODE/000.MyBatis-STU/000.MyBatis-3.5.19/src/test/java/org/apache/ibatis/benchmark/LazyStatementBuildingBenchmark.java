@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Measures building a configuration from the corpus of {@link MapperParsingBenchmark} with statements built eagerly
+ * and on their first lookup, and the cost of then using a tenth of the statements. The mapper files are parsed in
+ * both cases, so the difference is the building of the SQL sources, result maps and statements.
+ *
+ * @see Configuration#setLazyStatementBuildingEnabled(boolean)
+ */
+public class LazyStatementBuildingBenchmark {
+
+  private static final int MAPPERS = Integer.getInteger("benchmark.mappers", 2000);
+
+  public static void main(String[] args) throws Exception {
+    Path corpus = Files.createTempDirectory("lazy_statement_building_benchmark");
+    try {
+      String eager = MapperParsingBenchmark.createCorpus(corpus);
+      String lazy = eager.replace("<settings>",
+          "<settings><setting name=\"lazyStatementBuildingEnabled\" value=\"true\"/>");
+      Properties properties = new Properties();
+      properties.setProperty("parallel", "false");
+
+      BenchmarkRunner runner = new BenchmarkRunner("Build a configuration of " + MAPPERS + " XML mappers");
+      runner.run("eager", () -> build(eager, properties, 0));
+      runner.run("lazy", () -> build(lazy, properties, 0));
+      runner.run("lazy, " + MAPPERS / 10 + " statements used", () -> build(lazy, properties, MAPPERS / 10));
+    } finally {
+      try (Stream<Path> files = Files.walk(corpus)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+      }
+    }
+  }
+
+  private static Configuration build(String config, Properties properties, int used) {
+    Configuration configuration = new XMLConfigBuilder(new StringReader(config), null, properties).parse();
+    if (!configuration.hasStatement("bench.Mapper0.selectByName", false)) {
+      throw new IllegalStateException("The mappers were not all built");
+    }
+    for (int i = 0; i < used; i++) {
+      configuration.getMappedStatement("bench.Mapper" + i + ".selectByName", false);
+    }
+    return configuration;
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Measures building a configuration from a generated corpus of XML mapper files, parsed sequentially and in parallel.
+ * Each mapper declares a SQL fragment, a base result map extended by the previous mapper and three statements, one of
+ * which includes the fragment of the next mapper, so every mapper refers to one declared after it. The corpus has
+ * 2000 mappers unless the {@code benchmark.mappers} system property says otherwise. Parallel parsing only overlaps the
+ * documents if the machine has more than one processor, and the bytes allocated on the pool threads are not counted.
+ *
+ * @see Configuration#setParallelMapperParsingEnabled(boolean)
+ */
+public class MapperParsingBenchmark {
+
+  private static final int MAPPERS = Integer.getInteger("benchmark.mappers", 2000);
+
+  public static void main(String[] args) throws Exception {
+    Path corpus = Files.createTempDirectory("mapper_parsing_benchmark");
+    try {
+      String config = createCorpus(corpus);
+      BenchmarkRunner runner = new BenchmarkRunner("Build a configuration of " + MAPPERS + " XML mappers");
+      for (boolean parallel : new boolean[] { false, true }) {
+        Properties properties = new Properties();
+        properties.setProperty("parallel", String.valueOf(parallel));
+        runner.run("parallelMapperParsingEnabled=" + parallel, () -> {
+          Configuration configuration = new XMLConfigBuilder(new StringReader(config), null, properties).parse();
+          if (!configuration.hasStatement("bench.Mapper0.selectByName", false)) {
+            throw new IllegalStateException("The mappers were not all built");
+          }
+          return configuration;
+        });
+      }
+    } finally {
+      try (Stream<Path> files = Files.walk(corpus)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+      }
+    }
+  }
+
+  static String createCorpus(Path corpus) throws IOException {
+    StringBuilder config = new StringBuilder();
+    config.append("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n");
+    config.append("<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\"");
+    config.append(" \"https://mybatis.org/dtd/mybatis-3-config.dtd\">\n");
+    config.append("<configuration>\n");
+    config.append("  <settings><setting name=\"parallelMapperParsingEnabled\" value=\"${parallel}\"/></settings>\n");
+    config.append("  <mappers>\n");
+    for (int i = 0; i < MAPPERS; i++) {
+      Path mapper = corpus.resolve("Mapper" + i + ".xml");
+      try (Writer writer = Files.newBufferedWriter(mapper, StandardCharsets.UTF_8)) {
+        writer.write(mapper(i, (i + 1) % MAPPERS));
+      }
+      config.append("    <mapper url=\"").append(mapper.toUri()).append("\"/>\n");
+    }
+    config.append("  </mappers>\n");
+    config.append("</configuration>\n");
+    return config.toString();
+  }
+
+  private static String mapper(int index, int next) {
+    String namespace = "bench.Mapper" + index;
+    String nextNamespace = "bench.Mapper" + next;
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\""
+        + " \"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"" + namespace + "\">\n"
+        + "  <sql id=\"columns\">id, name, description, price, quantity, created, active, category</sql>\n"
+        + "  <resultMap id=\"base\" type=\"org.apache.ibatis.benchmark.Item\">\n"
+        + "    <id property=\"id\" column=\"id\"/>\n"
+        + "    <result property=\"name\" column=\"name\"/>\n"
+        + "  </resultMap>\n"
+        + "  <resultMap id=\"item\" type=\"org.apache.ibatis.benchmark.Item\" extends=\"" + nextNamespace + ".base\">\n"
+        + "    <result property=\"description\" column=\"description\"/>\n"
+        + "    <result property=\"price\" column=\"price\"/>\n"
+        + "  </resultMap>\n"
+        + "  <select id=\"selectById\" resultMap=\"item\">\n"
+        + "    select <include refid=\"columns\"/> from items where id = #{id}\n"
+        + "  </select>\n"
+        + "  <select id=\"selectByName\" resultMap=\"item\">\n"
+        + "    select <include refid=\"" + nextNamespace + ".columns\"/> from items\n"
+        + "    <where><if test=\"name != null\">name like #{name}</if></where>\n"
+        + "  </select>\n"
+        + "  <update id=\"updatePrice\">\n"
+        + "    update items set price = #{price} where id = #{id}\n"
+        + "  </update>\n"
+        + "</mapper>\n";
+  }
+
+}
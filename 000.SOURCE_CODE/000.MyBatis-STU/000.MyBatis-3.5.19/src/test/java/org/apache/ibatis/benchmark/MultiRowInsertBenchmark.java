@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures inserting 1000 rows of 8 columns with the batch executor, as a JDBC batch and rewritten into multi-row
+ * INSERT statements of up to 10 and 250 rows. Each operation rolls its rows back. The database runs in memory, so the
+ * network round trips the rewriting saves are simulated: the second series of measurements waits
+ * {@value #ROUND_TRIP_MICROS} µs for each statement sent, as a driver sending one statement per batched row would.
+ *
+ * @see Configuration#setMultiRowInsertMaxRows(int)
+ */
+public class MultiRowInsertBenchmark {
+
+  private static final int ROWS = 1000;
+  private static final long ROUND_TRIP_MICROS = 100;
+
+  public static void main(String[] args) throws Exception {
+    DataSource dataSource = BenchmarkData.createDataSource("multi_row_insert_benchmark");
+    BenchmarkData.createItems(dataSource, 0);
+    List<Item> items = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      Item item = new Item();
+      item.setId(i);
+      item.setName("Item " + i);
+      item.setDescription("The description of the item number " + i);
+      item.setPrice(BigDecimal.valueOf(i * 7 % 10000, 2));
+      item.setQuantity(i % 100);
+      item.setCreated(new Date(1_700_000_000_000L + i * 60_000L));
+      item.setActive(i % 3 != 0);
+      item.setCategory("category" + i % 10);
+      items.add(item);
+    }
+    BenchmarkRunner runner = new BenchmarkRunner("Batch insert " + ROWS + " rows of 8 columns");
+    for (boolean roundTrips : new boolean[] { false, true }) {
+      for (int maxRows : new int[] { 0, 10, 250 }) {
+        Configuration configuration = BenchmarkData
+            .newConfiguration(roundTrips ? BenchmarkData.withRoundTrips(dataSource, ROUND_TRIP_MICROS) : dataSource);
+        configuration.setMultiRowInsertMaxRows(maxRows);
+        configuration.addMapper(ItemMapper.class);
+        run(runner, "multiRowInsertMaxRows=" + maxRows + (roundTrips ? ", simulated round trips" : ""),
+            new SqlSessionFactoryBuilder().build(configuration), items);
+      }
+    }
+  }
+
+  private static void run(BenchmarkRunner runner, String name, SqlSessionFactory sqlSessionFactory,
+      List<Item> items) {
+    runner.run(name, () -> {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+        ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+        for (Item item : items) {
+          mapper.insert(item);
+        }
+        int count = sqlSession.flushStatements().size();
+        sqlSession.rollback(true);
+        return count;
+      }
+    });
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.BinarySerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
+
+/**
+ * Measures a read/write second level cache holding 20000 query results of 10 items each, stored on the heap by a
+ * {@link PerpetualCache} and off the heap by an {@link OffHeapCache}, both behind a {@link SerializedCache}. For each
+ * cache it prints the heap retained by the filled cache and the bytes it stores off heap, then measures gets of
+ * cached keys and puts replacing cached values.
+ */
+public class OffHeapCacheBenchmark {
+
+  private static final int ENTRIES = 20000;
+  private static final int ITEMS = 10;
+
+  public static void main(String[] args) {
+    BenchmarkRunner runner = new BenchmarkRunner("Read/write second level cache of " + ENTRIES + " entries");
+    for (Serializer serializer : new Serializer[] { new JavaSerializer(), new BinarySerializer() }) {
+      String serializerName = serializer.getClass().getSimpleName();
+      run(runner, "PerpetualCache, " + serializerName, new PerpetualCache("heap"), null, serializer);
+      OffHeapCache offHeapCache = new OffHeapCache("offHeap");
+      offHeapCache.setCapacity(256L * 1024 * 1024);
+      run(runner, "OffHeapCache, " + serializerName, offHeapCache, offHeapCache, serializer);
+    }
+  }
+
+  private static void run(BenchmarkRunner runner, String name, Cache delegate, OffHeapCache offHeapCache,
+      Serializer serializer) {
+    Cache cache = new SerializedCache(delegate, serializer);
+    CacheKey[] keys = new CacheKey[ENTRIES];
+    for (int i = 0; i < ENTRIES; i++) {
+      keys[i] = new CacheKey(new Object[] { "selectItems", i });
+    }
+    fill(cache, keys);
+    long filledHeap = usedHeap();
+    cache.clear();
+    // The keys stay reachable, so the difference is what the cache itself retains
+    long retainedHeap = filledHeap - usedHeap();
+    fill(cache, keys);
+    System.out.println(String.format(Locale.ROOT, "%s: retained heap %,d KB, off heap %,d KB", name,
+        retainedHeap / 1024, offHeapCache == null ? 0 : offHeapCache.getUsedBytes() / 1024));
+    runner.run(name + ", get", () -> cache.getObject(keys[ThreadLocalRandom.current().nextInt(ENTRIES)]));
+    runner.run(name + ", put", () -> {
+      int index = ThreadLocalRandom.current().nextInt(ENTRIES);
+      List<Item> items = createItems(index);
+      cache.putObject(keys[index], items);
+      return items;
+    });
+    cache.clear();
+  }
+
+  private static void fill(Cache cache, CacheKey[] keys) {
+    for (int i = 0; i < keys.length; i++) {
+      cache.putObject(keys[i], createItems(i));
+    }
+  }
+
+  private static List<Item> createItems(int index) {
+    List<Item> items = new ArrayList<>(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      int id = index * ITEMS + i;
+      Item item = new Item();
+      item.setId(id);
+      item.setName("Item " + id);
+      item.setDescription("The description of the item number " + id);
+      item.setPrice(BigDecimal.valueOf(id * 7 % 10000, 2));
+      item.setQuantity(id % 100);
+      item.setCreated(new Date(1_700_000_000_000L + id * 60_000L));
+      item.setActive(id % 3 != 0);
+      item.setCategory("category" + id % 10);
+      items.add(item);
+    }
+    return items;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
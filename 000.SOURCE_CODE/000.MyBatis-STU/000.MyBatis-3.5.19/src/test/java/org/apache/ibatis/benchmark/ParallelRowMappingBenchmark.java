@@ -0,0 +1,59 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures the mapping of a 10000 row result set of a simple result map with compiled row mappers, row by row and in
+ * parallel batches of 256 and 2048 rows. Parallel mapping only overlaps with reading the result set if the common
+ * fork-join pool has a worker on another processor.
+ *
+ * @see Configuration#setParallelRowMappingBatchSize(int)
+ */
+public class ParallelRowMappingBenchmark {
+
+  private static final int ROWS = 10000;
+
+  public static void main(String[] args) throws Exception {
+    DataSource dataSource = BenchmarkData.createDataSource("parallel_row_mapping_benchmark");
+    BenchmarkData.createItems(dataSource, ROWS);
+    BenchmarkRunner runner = new BenchmarkRunner("Select " + ROWS + " rows of 8 columns into a bean, "
+        + Runtime.getRuntime().availableProcessors() + " processors, fork-join parallelism "
+        + ForkJoinPool.getCommonPoolParallelism());
+    for (int batchSize : new int[] { 0, 256, 2048 }) {
+      Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+      configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+      configuration.setCompiledRowMappingEnabled(true);
+      configuration.setParallelRowMappingBatchSize(batchSize);
+      configuration.addMapper(ItemMapper.class);
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+        runner.run("parallelRowMappingBatchSize=" + batchSize, mapper::selectAll);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.ibatis.cache.serializer.BinarySerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
+import org.apache.ibatis.executor.loader.ResultLoaderMap;
+import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Measures the cache serializers writing and reading a query result of 20 items, held either as plain beans or as
+ * lazy loading proxies with an unloaded property. A proxy is written with the cache serializer of the configuration
+ * that created it. The size of each serialized value is printed before the measurements.
+ */
+public class SerializerBenchmark {
+
+  private static final int ITEMS = 20;
+
+  public static void main(String[] args) {
+    BenchmarkRunner runner = new BenchmarkRunner("Serialization of " + ITEMS + " items");
+    for (Serializer serializer : new Serializer[] { new JavaSerializer(), new BinarySerializer() }) {
+      String name = serializer.getClass().getSimpleName();
+      run(runner, name + ", beans", serializer, createItems(null));
+      Configuration configuration = new Configuration();
+      configuration.setCacheSerializer(serializer);
+      run(runner, name + ", lazy loading proxies", serializer, createItems(configuration));
+    }
+  }
+
+  private static void run(BenchmarkRunner runner, String name, Serializer serializer, List<Item> items) {
+    byte[] bytes = serializer.serialize(items);
+    System.out.println(String.format(Locale.ROOT, "%s: %,d bytes", name, bytes.length));
+    runner.run(name + ", serialize", () -> serializer.serialize(items));
+    runner.run(name + ", deserialize", () -> serializer.deserialize(bytes));
+  }
+
+  private static List<Item> createItems(Configuration configuration) {
+    JavassistProxyFactory proxyFactory = new JavassistProxyFactory();
+    List<Item> items = new ArrayList<>(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      Item item = new Item();
+      item.setId(i);
+      item.setName("Item " + i);
+      item.setDescription("The description of the item number " + i);
+      item.setPrice(BigDecimal.valueOf(i * 7 % 10000, 2));
+      item.setQuantity(i % 100);
+      item.setCreated(new Date(1_700_000_000_000L + i * 60_000L));
+      item.setActive(i % 3 != 0);
+      item.setCategory("category" + i % 10);
+      if (configuration != null) {
+        ResultLoaderMap loader = new ResultLoaderMap();
+        loader.addLoader("category", null, null);
+        item = (Item) proxyFactory.createProxy(item, loader, configuration, new DefaultObjectFactory(),
+            new ArrayList<>(), new ArrayList<>());
+      }
+      items.add(item);
+    }
+    return items;
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.executor.SingleFlight;
+
+/**
+ * Measures concurrent cache misses of a few keys, executed directly and coalesced by {@link SingleFlight}. The query
+ * simulates a database round trip of 1 ms returning 100 items, either with a database that runs any number of queries
+ * in parallel or with a saturated one that runs them one at a time. A coalesced miss pays for a serialized copy of the
+ * result instead of a query.
+ */
+public class SingleFlightBenchmark {
+
+  private static final Object DATABASE = new Object();
+
+  public static void main(String[] args) {
+    final List<Item> items = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Item item = new Item();
+      item.setId(i);
+      item.setName("Item " + i);
+      item.setDescription("The description of the item number " + i);
+      item.setPrice(BigDecimal.valueOf(i, 2));
+      item.setCreated(new Date());
+      items.add(item);
+    }
+    BenchmarkRunner runner = new BenchmarkRunner("Concurrent cache misses of 4 keys");
+    for (boolean saturated : new boolean[] { false, true }) {
+      final SingleFlight.Query<List<Item>> query = () -> {
+        if (saturated) {
+          synchronized (DATABASE) {
+            return roundTrip(items);
+          }
+        }
+        return roundTrip(items);
+      };
+      final PerpetualCache cache = new PerpetualCache("benchmark");
+      final SingleFlight singleFlight = new SingleFlight();
+      final JavaSerializer serializer = new JavaSerializer();
+      for (int threads : new int[] { 1, 8, 32 }) {
+        runner.run("direct, saturated=" + saturated, threads, query::execute);
+        runner.run("single flight, saturated=" + saturated, threads, () -> {
+          CacheKey key = new CacheKey(new Object[] { ThreadLocalRandom.current().nextInt(4) });
+          return singleFlight.execute(cache, key, 1000, serializer, query);
+        });
+      }
+    }
+  }
+
+  private static List<Item> roundTrip(List<Item> items) {
+    try {
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return new ArrayList<>(items);
+  }
+
+}
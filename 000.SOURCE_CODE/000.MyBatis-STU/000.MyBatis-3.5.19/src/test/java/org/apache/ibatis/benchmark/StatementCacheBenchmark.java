@@ -0,0 +1,59 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.datasource.pooled.PoolState;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Measures a request that opens a session, selects one item by id and closes the session, with the simple and the
+ * reuse executors, without and with the prepared statement cache of the pooled connections.
+ */
+public class StatementCacheBenchmark {
+
+  private static final int ROWS = 1000;
+
+  public static void main(String[] args) throws Exception {
+    BenchmarkRunner runner = new BenchmarkRunner("Select by id, one session per request");
+    for (int cacheSize : new int[] { 0, 32 }) {
+      PooledDataSource dataSource = BenchmarkData.createDataSource("statementCache" + cacheSize);
+      dataSource.setPoolPreparedStatementCacheSize(cacheSize);
+      BenchmarkData.createItems(dataSource, ROWS);
+      Configuration configuration = BenchmarkData.newConfiguration(dataSource);
+      configuration.addMapper(ItemMapper.class);
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+      for (ExecutorType executorType : new ExecutorType[] { ExecutorType.SIMPLE, ExecutorType.REUSE }) {
+        runner.run(executorType + ", poolPreparedStatementCacheSize=" + cacheSize, () -> {
+          try (SqlSession sqlSession = sqlSessionFactory.openSession(executorType)) {
+            return sqlSession.getMapper(ItemMapper.class).selectById(ThreadLocalRandom.current().nextInt(ROWS));
+          }
+        });
+      }
+      PoolState state = dataSource.getPoolState();
+      System.out.println("  statement cache hits " + state.getStatementCacheHitCount() + ", misses "
+          + state.getStatementCacheMissCount());
+      dataSource.forceCloseAll();
+    }
+  }
+
+}
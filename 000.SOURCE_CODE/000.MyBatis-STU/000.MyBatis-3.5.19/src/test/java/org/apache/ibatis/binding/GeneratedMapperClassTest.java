@@ -0,0 +1,196 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.result.DefaultResultHandler;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class GeneratedMapperClassTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setup() throws Exception {
+    DataSource dataSource = BaseDataTest.createBlogDataSource();
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DDL);
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DATA);
+    Environment environment = new Environment("Production", new JdbcTransactionFactory(), dataSource);
+    Configuration configuration = new Configuration(environment);
+    configuration.setMapperClassGenerationEnabled(true);
+    configuration.setUseActualParamName(false); // to test legacy style reference (#{0} #{1})
+    configuration.getTypeAliasRegistry().registerAlias(Blog.class);
+    configuration.getTypeAliasRegistry().registerAlias(Post.class);
+    configuration.getTypeAliasRegistry().registerAlias(Author.class);
+    configuration.addMapper(BoundBlogMapper.class);
+    configuration.addMapper(BoundAuthorMapper.class);
+    configuration.addMapper(PartlyBoundMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @Test
+  void shouldReturnInstancesOfOneGeneratedClass() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      assertThat(Proxy.isProxyClass(mapper.getClass())).isFalse();
+      assertThat(mapper.getClass().getName()).startsWith(BoundBlogMapper.class.getName() + "$$MyBatisMapper$$");
+      assertThat(session.getMapper(BoundBlogMapper.class)).isNotSameAs(mapper).hasSameClassAs(mapper);
+    }
+  }
+
+  @Test
+  void shouldShareTheGeneratedClassBetweenConfigurations() {
+    Configuration configuration = new Configuration(sqlSessionFactory.getConfiguration().getEnvironment());
+    configuration.setMapperClassGenerationEnabled(true);
+    configuration.setUseActualParamName(false);
+    configuration.getTypeAliasRegistry().registerAlias(Blog.class);
+    configuration.getTypeAliasRegistry().registerAlias(Post.class);
+    configuration.getTypeAliasRegistry().registerAlias(Author.class);
+    configuration.addMapper(BoundBlogMapper.class);
+    try (SqlSession session = sqlSessionFactory.openSession();
+        SqlSession otherSession = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      BoundBlogMapper otherMapper = otherSession.getMapper(BoundBlogMapper.class);
+      assertThat(otherMapper).hasSameClassAs(mapper);
+      assertThat(otherMapper.selectBlog(1).getTitle()).isEqualTo("Jim Business");
+    }
+  }
+
+  @Test
+  void shouldReturnProxiesWhenDisabled() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setMapperClassGenerationEnabled(false);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      assertThat(Proxy.isProxyClass(session.getMapper(BoundBlogMapper.class).getClass())).isTrue();
+    } finally {
+      configuration.setMapperClassGenerationEnabled(true);
+    }
+  }
+
+  @Test
+  void shouldSelectOneWithPrimitiveParameter() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      Blog blog = session.getMapper(BoundBlogMapper.class).selectBlog(1);
+      assertThat(blog.getId()).isEqualTo(1);
+      assertThat(blog.getTitle()).isEqualTo("Jim Business");
+    }
+  }
+
+  @Test
+  void shouldSelectListWithCollectionAndArrayParameters() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundAuthorMapper mapper = session.getMapper(BoundAuthorMapper.class);
+      assertThat(mapper.findPostsInList(Arrays.asList(1, 3, 5))).hasSize(3);
+      assertThat(mapper.findPostsInArray(new Integer[] { 1, 3, 5 })).hasSize(3);
+    }
+  }
+
+  @Test
+  void shouldSelectWithGeneratedAndAnnotatedParamNames() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      assertThat(mapper.selectBlogByDefault30ParamNames(1, "Jim Business")).isNotNull();
+      assertThat(mapper.selectBlogByDefault31ParamNames(1, "Jim Business")).isNotNull();
+      assertThat(mapper.selectBlogWithAParamNamedValue("id", 1, "Jim Business")).isNotNull();
+      assertThatThrownBy(() -> mapper.selectBlogByNonExistentParam(1)).isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("Parameter 'nonExistentParam' not found");
+    }
+  }
+
+  @Test
+  void shouldReturnRowCountOfInsert() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundAuthorMapper mapper = session.getMapper(BoundAuthorMapper.class);
+      Author author = new Author(-1, "cbegin", "******", "cbegin@nowhere.com", "N/A", Section.NEWS);
+      assertThat(mapper.insertAuthorDynamic(author)).isEqualTo(1);
+      assertThat(author.getId()).isNotEqualTo(-1);
+      assertThat(mapper.selectAuthor(author.getId()).getEmail()).isEqualTo(author.getEmail());
+      session.rollback();
+    }
+  }
+
+  @Test
+  void shouldDelegateOtherShapesToMapperMethod() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      assertThat(mapper.selectRandom()).isNotNull();
+      Map<Integer, Blog> blogs = mapper.selectBlogsAsMapById();
+      assertThat(blogs).containsOnlyKeys(1, 2);
+      assertThat(mapper.selectPostsLike(new RowBounds(1, 1), "%a%")).hasSize(1);
+      DefaultResultHandler handler = new DefaultResultHandler();
+      mapper.collectRangeBlogs(handler, new RowBounds(1, 1));
+      assertThat(handler.getResultList()).hasSize(1);
+      try (Cursor<Blog> cursor = mapper.openRangeBlogs(new RowBounds(1, 1))) {
+        Iterator<Blog> iterator = cursor.iterator();
+        assertThat(iterator.next().getId()).isEqualTo(2);
+        assertThat(iterator.hasNext()).isFalse();
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  void shouldReportUnboundMethodsWhenCalled() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      PartlyBoundMapper mapper = session.getMapper(PartlyBoundMapper.class);
+      assertThat(mapper.selectTitles()).containsExactly("Jim Business", "Bally Slog");
+      assertThat(mapper.selectFirstTitle()).isEqualTo("Jim Business");
+      assertThatThrownBy(mapper::selectUnbound).isInstanceOf(BindingException.class)
+          .hasMessage("Invalid bound statement (not found): " + PartlyBoundMapper.class.getName() + ".selectUnbound");
+    }
+  }
+
+  interface PartlyBoundMapper {
+
+    @Select("select title from blog order by id")
+    List<String> selectTitles();
+
+    String selectUnbound();
+
+    default String selectFirstTitle() {
+      return selectTitles().get(0);
+    }
+
+  }
+
+}
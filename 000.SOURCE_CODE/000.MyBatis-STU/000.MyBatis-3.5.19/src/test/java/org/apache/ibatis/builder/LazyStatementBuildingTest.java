@@ -0,0 +1,208 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BoundBlogMapper;
+import org.apache.ibatis.builder.snapshot.SnapshotMapper;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Tag;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class LazyStatementBuildingTest {
+
+  private static final String CONFIG = "org/apache/ibatis/builder/LazyStatementMapperConfig.xml";
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    BaseDataTest.createBlogDataSource();
+  }
+
+  @Test
+  void shouldRegisterStatementsWithoutBuildingThem() throws Exception {
+    Configuration configuration = build(true).getConfiguration();
+    String xmlId = "org.apache.ibatis.binding.BoundAuthorMapper.insertAuthor";
+    String annotatedId = SnapshotMapper.class.getName() + ".insertTag";
+
+    assertThat(configuration.isLazyStatementBuildingEnabled()).isTrue();
+    assertThat(configuration.hasStatement(xmlId)).isTrue();
+    assertThat(configuration.hasStatement(annotatedId)).isTrue();
+    assertThat(configuration.getMappedStatementNames()).contains(xmlId, annotatedId, "selectAllAuthorsSet");
+    assertThat(configuration.hasStatement(xmlId + "!selectKey")).isFalse();
+    assertThat(configuration.hasKeyGenerator(annotatedId + "!selectKey")).isFalse();
+
+    assertThat(configuration.getMappedStatement(xmlId).getId()).isEqualTo(xmlId);
+    assertThat(configuration.hasStatement(xmlId + "!selectKey")).isTrue();
+    assertThat(configuration.hasKeyGenerator(annotatedId + "!selectKey")).isFalse();
+    assertThat(configuration.getMappedStatement("insertTag").getId()).isEqualTo(annotatedId);
+    assertThat(configuration.hasKeyGenerator(annotatedId + "!selectKey")).isTrue();
+    assertThatThrownBy(() -> configuration.getMappedStatement("selectAllAuthors"))
+        .hasMessageContaining("selectAllAuthors is ambiguous in Mapped Statements collection");
+  }
+
+  @Test
+  void shouldBuildTheSameStatementsAsEagerBuilding() throws Exception {
+    Configuration eager = build(false).getConfiguration();
+    Configuration lazy = build(true).getConfiguration();
+
+    assertThat(lazy.getMappedStatementNames()).containsAll(eager.getMappedStatementNames().stream()
+        .filter(id -> !id.endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX)).collect(Collectors.toList()));
+    lazy.buildLazyStatements();
+    assertThat(new HashSet<>(lazy.getMappedStatementNames())).isEqualTo(new HashSet<>(eager.getMappedStatementNames()));
+    assertThat(new HashSet<>(lazy.getResultMapNames())).isEqualTo(new HashSet<>(eager.getResultMapNames()));
+    assertThat(new HashSet<>(lazy.getKeyGeneratorNames())).isEqualTo(new HashSet<>(eager.getKeyGeneratorNames()));
+    assertThat(lazy.getMappedStatements()).hasSameSizeAs(eager.getMappedStatements());
+    for (String id : eager.getMappedStatementNames()) {
+      if (id.indexOf('.') != -1) {
+        MappedStatement expected = eager.getMappedStatement(id);
+        MappedStatement actual = lazy.getMappedStatement(id);
+        assertThat(actual.getSqlCommandType()).isEqualTo(expected.getSqlCommandType());
+        assertThat(actual.getKeyGenerator()).hasSameClassAs(expected.getKeyGenerator());
+        assertThat(actual.getResultMaps()).extracting("id")
+            .isEqualTo(expected.getResultMaps().stream().map(ResultMap::getId).collect(Collectors.toList()));
+      }
+    }
+  }
+
+  @Test
+  void shouldBuildStatementsOnFirstUse() throws Exception {
+    SqlSessionFactory sqlSessionFactory = build(true);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      Author author = session.selectOne("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor", 101);
+      assertThat(author.getUsername()).isEqualTo("jim");
+
+      Blog blog = session
+          .selectOne("org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogWithPostsUsingSubSelect", 1);
+      assertThat(blog.getPosts()).hasSize(2);
+
+      assertThat(session.getMapper(BoundBlogMapper.class).selectBlogsUsingProvider()).hasSize(2);
+
+      SnapshotMapper mapper = session.getMapper(SnapshotMapper.class);
+      assertThat(mapper.countByUsername("sally")).isEqualTo(1);
+      Tag tag = new Tag();
+      tag.setName("new");
+      assertThat(mapper.insertTag(tag)).isEqualTo(1);
+      assertThat(tag.getId()).isEqualTo(4);
+      assertThat(sqlSessionFactory.getConfiguration()
+          .getKeyGenerator(SnapshotMapper.class.getName() + ".insertTag!selectKey"))
+          .isInstanceOf(SelectKeyGenerator.class);
+      session.rollback(true);
+    }
+  }
+
+  @Test
+  void shouldBuildAStatementOnceWhenLookedUpConcurrently() throws Exception {
+    Configuration configuration = build(true).getConfiguration();
+    String id = "org.apache.ibatis.domain.blog.mappers.PostMapper.findPost";
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<MappedStatement>> lookups = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        lookups.add(() -> configuration.getMappedStatement(id));
+      }
+      MappedStatement statement = configuration.getMappedStatement(id);
+      for (Future<MappedStatement> future : executor.invokeAll(lookups)) {
+        assertThat(future.get()).isSameAs(statement);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void shouldReportErrorsOnFirstLookup() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementBuildingEnabled(true);
+    parse(configuration, "<select id=\"select\" resultMap=\"missing\">select 1</select>"
+        + "<select id=\"valid\" resultType=\"int\">select 1</select>");
+
+    assertThat(configuration.hasStatement("lazy.select")).isTrue();
+    assertThat(configuration.getMappedStatement("lazy.valid").getResultMaps()).hasSize(1);
+    assertThatThrownBy(() -> configuration.getMappedStatement("lazy.select")).isInstanceOf(BuilderException.class)
+        .hasMessageContaining("Error building mapped statement 'lazy.select' of 'lazy.xml'")
+        .hasMessageContaining("lazy.missing");
+    assertThatThrownBy(configuration::buildLazyStatements).isInstanceOf(BuilderException.class)
+        .hasMessageContaining("lazy.select");
+  }
+
+  @Test
+  void shouldRegisterTheStatementOfTheCurrentDatabase() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementBuildingEnabled(true);
+    configuration.setDatabaseId("derby");
+    parse(configuration, "<select id=\"select\" resultType=\"int\">select 1</select>"
+        + "<select id=\"select\" databaseId=\"derby\" resultType=\"int\">select 2</select>"
+        + "<select id=\"select\" databaseId=\"hsql\" resultType=\"int\">select 3</select>");
+
+    assertThat(configuration.getMappedStatement("lazy.select").getBoundSql(null).getSql()).isEqualTo("select 2");
+  }
+
+  @Test
+  void shouldRejectDuplicateStatements() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementBuildingEnabled(true);
+    assertThatThrownBy(() -> parse(configuration, "<select id=\"select\" resultType=\"int\">select 1</select>"
+        + "<select id=\"select\" resultType=\"int\">select 2</select>"))
+        .hasMessageContaining("Mapped Statements collection already contains key lazy.select");
+  }
+
+  private static SqlSessionFactory build(boolean lazy) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("lazy", String.valueOf(lazy));
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      return new SqlSessionFactoryBuilder().build(reader, properties);
+    }
+  }
+
+  private static void parse(Configuration configuration, String statements) throws Exception {
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\""
+        + " \"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n" + "<mapper namespace=\"lazy\">" + statements
+        + "</mapper>";
+    try (InputStream inputStream = new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8))) {
+      new XMLMapperBuilder(inputStream, configuration, "lazy.xml", configuration.getSqlFragments()).parse();
+    }
+  }
+
+}
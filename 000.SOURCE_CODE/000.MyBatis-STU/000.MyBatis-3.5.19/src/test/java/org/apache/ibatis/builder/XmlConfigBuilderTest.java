@@ -40,6 +40,8 @@ import java.util.Properties;
 import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.cache.serializer.BinarySerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
@@ -57,7 +59,9 @@ import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.CacheInvalidationScope;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.CursorFetchMode;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
@@ -110,6 +114,24 @@ class XmlConfigBuilderTest {
       assertThat(config.isArgNameBasedConstructorAutoMapping()).isFalse();
       assertThat(config.getDefaultSqlProviderType()).isNull();
       assertThat(config.isNullableOnForEach()).isFalse();
+      assertThat(config.isCompiledRowMappingEnabled()).isFalse();
+      assertThat(config.getParallelRowMappingBatchSize()).isZero();
+      assertThat(config.isParallelMapperParsingEnabled()).isFalse();
+      assertThat(config.isLazyStatementBuildingEnabled()).isFalse();
+      assertThat(config.isLambdaInvokersEnabled()).isFalse();
+      assertThat(config.isMapperClassGenerationEnabled()).isFalse();
+      assertThat(config.getBoundSqlTemplateCacheSize()).isZero();
+      assertThat(config.getLazyLoadBatchSize()).isZero();
+      assertThat(config.getNestedQueryBatchSize()).isEqualTo(100);
+      assertThat(config.getMultiRowInsertMaxRows()).isZero();
+      assertThat(config.getMultiRowInsertMaxParameters()).isEqualTo(2000);
+      assertThat(config.getBatchGroupingMaxStatements()).isZero();
+      assertThat(config.isCacheSingleFlightEnabled()).isFalse();
+      assertThat(config.getCacheSingleFlightTimeout()).isEqualTo(10000);
+      assertThat(config.getCacheInvalidationScope()).isEqualTo(CacheInvalidationScope.NAMESPACE);
+      assertThat(config.getCacheSerializer()).isInstanceOf(JavaSerializer.class);
+      assertThat(config.getCursorFetchMode()).isEqualTo(CursorFetchMode.ROW);
+      assertNull(config.getCursorChunkSize());
     }
   }
 
@@ -215,6 +237,24 @@ class XmlConfigBuilderTest {
       assertThat(config.isArgNameBasedConstructorAutoMapping()).isTrue();
       assertThat(config.getDefaultSqlProviderType().getName()).isEqualTo(MySqlProvider.class.getName());
       assertThat(config.isNullableOnForEach()).isTrue();
+      assertThat(config.isCompiledRowMappingEnabled()).isTrue();
+      assertThat(config.getParallelRowMappingBatchSize()).isEqualTo(1000);
+      assertThat(config.isParallelMapperParsingEnabled()).isTrue();
+      assertThat(config.isLazyStatementBuildingEnabled()).isTrue();
+      assertThat(config.isLambdaInvokersEnabled()).isTrue();
+      assertThat(config.isMapperClassGenerationEnabled()).isTrue();
+      assertThat(config.getBoundSqlTemplateCacheSize()).isEqualTo(64);
+      assertThat(config.getLazyLoadBatchSize()).isEqualTo(50);
+      assertThat(config.getNestedQueryBatchSize()).isEqualTo(20);
+      assertThat(config.getMultiRowInsertMaxRows()).isEqualTo(500);
+      assertThat(config.getMultiRowInsertMaxParameters()).isEqualTo(1000);
+      assertThat(config.getBatchGroupingMaxStatements()).isEqualTo(10);
+      assertThat(config.isCacheSingleFlightEnabled()).isTrue();
+      assertThat(config.getCacheSingleFlightTimeout()).isEqualTo(500);
+      assertThat(config.getCacheInvalidationScope()).isEqualTo(CacheInvalidationScope.TABLE);
+      assertThat(config.getCacheSerializer()).isInstanceOf(BinarySerializer.class);
+      assertThat(config.getCursorFetchMode()).isEqualTo(CursorFetchMode.BACKGROUND);
+      assertThat(config.getCursorChunkSize()).isEqualTo(500);
 
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor")).isEqualTo(Author.class);
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blog")).isEqualTo(Blog.class);
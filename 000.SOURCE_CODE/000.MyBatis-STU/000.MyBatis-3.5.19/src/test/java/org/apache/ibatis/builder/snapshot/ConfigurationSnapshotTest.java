@@ -0,0 +1,295 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BoundBlogMapper;
+import org.apache.ibatis.builder.annotation.ProviderSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Tag;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationSnapshotTest {
+
+  private static final String CONFIG = "org/apache/ibatis/builder/snapshot/SnapshotMapperConfig.xml";
+
+  private static ConfigurationSnapshot snapshot;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    BaseDataTest.createBlogDataSource();
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      snapshot = copy(ConfigurationSnapshot.create(reader, null, null));
+    }
+  }
+
+  @Test
+  void shouldRestoreTheMappersOfTheConfiguration() throws Exception {
+    Configuration parsed = build(null, null).getConfiguration();
+    Configuration restored = build(snapshot, null).getConfiguration();
+
+    assertFalse(parsed.getSqlFragments().isEmpty());
+    assertTrue(restored.getSqlFragments().isEmpty());
+    assertEquals(new TreeSet<>(parsed.getMappedStatementNames()), new TreeSet<>(restored.getMappedStatementNames()));
+    assertEquals(new TreeSet<>(parsed.getResultMapNames()), new TreeSet<>(restored.getResultMapNames()));
+    assertEquals(new TreeSet<>(parsed.getParameterMapNames()), new TreeSet<>(restored.getParameterMapNames()));
+    assertEquals(new TreeSet<>(parsed.getCacheNames()), new TreeSet<>(restored.getCacheNames()));
+    assertEquals(new TreeSet<>(parsed.getKeyGeneratorNames()), new TreeSet<>(restored.getKeyGeneratorNames()));
+    assertEquals(new HashSet<>(parsed.getMapperRegistry().getMappers()),
+        new HashSet<>(restored.getMapperRegistry().getMappers()));
+    assertEquals(parsed.getLoadedResources(), restored.getLoadedResources());
+
+    for (String id : ids(parsed.getMappedStatementNames())) {
+      MappedStatement expected = parsed.getMappedStatement(id);
+      MappedStatement actual = restored.getMappedStatement(id);
+      assertEquals(expected.getResource(), actual.getResource(), id);
+      assertEquals(expected.getSqlCommandType(), actual.getSqlCommandType(), id);
+      assertEquals(expected.getStatementType(), actual.getStatementType(), id);
+      assertEquals(expected.getResultSetType(), actual.getResultSetType(), id);
+      assertEquals(expected.getFetchSize(), actual.getFetchSize(), id);
+      assertEquals(expected.getTimeout(), actual.getTimeout(), id);
+      assertEquals(expected.isFlushCacheRequired(), actual.isFlushCacheRequired(), id);
+      assertEquals(expected.isUseCache(), actual.isUseCache(), id);
+      assertEquals(expected.getParameterMap().getId(), actual.getParameterMap().getId(), id);
+      assertEquals(expected.getResultMaps().stream().map(ResultMap::getId).collect(Collectors.toList()),
+          actual.getResultMaps().stream().map(ResultMap::getId).collect(Collectors.toList()), id);
+      assertEquals(expected.getCache() == null ? null : expected.getCache().getId(),
+          actual.getCache() == null ? null : actual.getCache().getId(), id);
+      assertEquals(expected.getKeyGenerator().getClass(), actual.getKeyGenerator().getClass(), id);
+      assertEquals(Arrays.toString(expected.getKeyProperties()), Arrays.toString(actual.getKeyProperties()), id);
+      assertEquals(expected.getSqlSource() instanceof DynamicSqlSource,
+          actual.getSqlSource() instanceof DynamicSqlSource, id);
+      assertEquals(expected.getSqlSource() instanceof ProviderSqlSource,
+          actual.getSqlSource() instanceof ProviderSqlSource, id);
+      if (!(expected.getSqlSource() instanceof DynamicSqlSource)
+          && !(expected.getSqlSource() instanceof ProviderSqlSource)) {
+        assertBoundSql(expected.getBoundSql(null), actual.getBoundSql(null), id);
+      }
+    }
+
+    for (String id : ids(parsed.getResultMapNames())) {
+      ResultMap expected = parsed.getResultMap(id);
+      ResultMap actual = restored.getResultMap(id);
+      assertEquals(expected.getType(), actual.getType(), id);
+      assertEquals(expected.getMappedColumns(), actual.getMappedColumns(), id);
+      assertEquals(expected.getMappedProperties(), actual.getMappedProperties(), id);
+      assertEquals(expected.hasNestedResultMaps(), actual.hasNestedResultMaps(), id);
+      assertEquals(expected.hasNestedQueries(), actual.hasNestedQueries(), id);
+      assertEquals(expected.getDiscriminator() == null, actual.getDiscriminator() == null, id);
+      assertEquals(mappings(expected.getResultMappings()), mappings(actual.getResultMappings()), id);
+    }
+  }
+
+  @Test
+  void shouldRenderDynamicSqlOfRestoredStatements() throws Exception {
+    Configuration parsed = build(null, null).getConfiguration();
+    Configuration restored = build(snapshot, null).getConfiguration();
+    Map<String, Object> post = new HashMap<>();
+    post.put("ids", Arrays.asList(1, 2, 3));
+    post.put("blog_id", 1);
+    Map<String, Object> authors = new HashMap<>();
+    authors.put("name", "im");
+    authors.put("ids", Arrays.asList(101, 102));
+    Map<String, Object> author = new HashMap<>();
+    author.put("id", 101);
+    author.put("email", "jim@example.com");
+
+    assertBoundSql(parsed, restored, "org.apache.ibatis.domain.blog.mappers.PostMapper.findPost", post);
+    assertBoundSql(parsed, restored, "org.apache.ibatis.domain.blog.mappers.PostMapper.selectOddPostsIn",
+        Collections.singletonMap("list", Arrays.asList(1, 2, 3, 4)));
+    assertBoundSql(parsed, restored, "org.apache.ibatis.builder.snapshot.SnapshotMapper.selectAuthors", authors);
+    assertBoundSql(parsed, restored, "org.apache.ibatis.builder.snapshot.SnapshotMapper.updateEmail", author);
+  }
+
+  @Test
+  void shouldExecuteRestoredStatements() throws Exception {
+    SqlSessionFactory sqlSessionFactory = build(snapshot, null);
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    assertNotNull(configuration.getCache("org.apache.ibatis.builder.CachedAuthorMapper"));
+    assertNotNull(configuration.getCache(BoundBlogMapper.class.getName()));
+    assertTrue(configuration.getKeyGenerator("org.apache.ibatis.builder.snapshot.SnapshotMapper.insertTag!selectKey")
+        instanceof SelectKeyGenerator);
+    assertTrue(configuration
+        .getMappedStatement("org.apache.ibatis.builder.snapshot.SnapshotMapper.insertTagWithGeneratedKey")
+        .getKeyGenerator() instanceof Jdbc3KeyGenerator);
+
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      Author author = session.selectOne("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor", 101);
+      assertEquals("jim", author.getUsername());
+      List<Author> authors = session.selectList("org.apache.ibatis.builder.CachedAuthorMapper.selectAllAuthors");
+      assertEquals(2, authors.size());
+
+      SnapshotMapper mapper = session.getMapper(SnapshotMapper.class);
+      assertEquals(Arrays.asList(101), mapper.selectAuthors("im", null).stream().map(Author::getId)
+          .collect(Collectors.toList()));
+      assertEquals(2, mapper.selectAuthors(null, Arrays.asList(101, 102)).size());
+      assertEquals(1, mapper.countByUsername("sally"));
+      assertEquals(1, mapper.updateEmail(101, "jim@example.com"));
+      Tag tag = new Tag();
+      tag.setName("new");
+      assertEquals(1, mapper.insertTag(tag));
+      assertEquals(4, tag.getId());
+
+      List<Blog> blogs = session.getMapper(BoundBlogMapper.class).selectBlogsUsingProvider();
+      assertEquals(2, blogs.size());
+      session.rollback(true);
+    }
+  }
+
+  @Test
+  void shouldParseMappersWhenVariablesChange() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("unused", "value");
+    Configuration configuration = build(snapshot, properties).getConfiguration();
+    assertFalse(configuration.getSqlFragments().isEmpty());
+  }
+
+  @Test
+  void shouldParseMappersWhenConfigurationChanges() throws Exception {
+    String configXml;
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      configXml = ConfigurationSnapshot.readConfig(reader).replace("useColumnLabel\" value=\"true",
+          "useColumnLabel\" value=\"false");
+    }
+    Configuration configuration = new SqlSessionFactoryBuilder().build(new StringReader(configXml), snapshot)
+        .getConfiguration();
+    assertFalse(configuration.getSqlFragments().isEmpty());
+  }
+
+  @Test
+  void shouldParseMappersWhenAMapperFileChanges() throws Exception {
+    Path mapperFile = Files.createTempFile("TempMapper", ".xml");
+    try {
+      Files.write(mapperFile, mapper("select 1").getBytes(StandardCharsets.UTF_8));
+      String configXml = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+          + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\""
+          + " \"https://mybatis.org/dtd/mybatis-3-config.dtd\">\n" + "<configuration><mappers><mapper url=\""
+          + mapperFile.toUri() + "\"/></mappers></configuration>";
+      ConfigurationSnapshot fileSnapshot = copy(ConfigurationSnapshot.create(new StringReader(configXml), null, null));
+
+      Configuration restored = new SqlSessionFactoryBuilder().build(new StringReader(configXml), fileSnapshot)
+          .getConfiguration();
+      assertEquals("select 1", restored.getMappedStatement("temp.select").getBoundSql(null).getSql());
+
+      Files.write(mapperFile, mapper("select 2").getBytes(StandardCharsets.UTF_8));
+      Configuration parsed = new SqlSessionFactoryBuilder().build(new StringReader(configXml), fileSnapshot)
+          .getConfiguration();
+      assertEquals("select 2", parsed.getMappedStatement("temp.select").getBoundSql(null).getSql());
+    } finally {
+      Files.delete(mapperFile);
+    }
+  }
+
+  @Test
+  void shouldRejectAnInvalidSnapshot() {
+    assertThrows(IOException.class,
+        () -> ConfigurationSnapshot.read(new ByteArrayInputStream("not a snapshot".getBytes(StandardCharsets.UTF_8))));
+  }
+
+  private static SqlSessionFactory build(ConfigurationSnapshot snapshot, Properties properties) throws IOException {
+    try (Reader reader = Resources.getResourceAsReader(CONFIG)) {
+      return new SqlSessionFactoryBuilder().build(reader, null, properties, snapshot);
+    }
+  }
+
+  private static ConfigurationSnapshot copy(ConfigurationSnapshot snapshot) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    snapshot.write(out);
+    return ConfigurationSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private static String mapper(String sql) {
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\""
+        + " \"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n" + "<mapper namespace=\"temp\"><select id=\"select\""
+        + " resultType=\"int\">" + sql + "</select></mapper>";
+  }
+
+  private static List<String> ids(Collection<String> names) {
+    // short names have no namespace
+    return names.stream().filter(name -> name.contains(".")).sorted().collect(Collectors.toList());
+  }
+
+  private static List<String> mappings(List<ResultMapping> resultMappings) {
+    return resultMappings.stream()
+        .map(mapping -> mapping.getProperty() + ":" + mapping.getColumn() + ":" + mapping.getJavaType().getName() + ":"
+            + typeName(mapping.getTypeHandler()) + ":" + mapping.getNestedResultMapId() + ":"
+            + mapping.getNestedQueryId() + ":" + mapping.getFlags() + ":" + mapping.getComposites())
+        .collect(Collectors.toList());
+  }
+
+  private static void assertBoundSql(Configuration parsed, Configuration restored, String id, Object parameter) {
+    assertBoundSql(parsed.getMappedStatement(id).getBoundSql(parameter),
+        restored.getMappedStatement(id).getBoundSql(parameter), id);
+  }
+
+  private static void assertBoundSql(BoundSql expected, BoundSql actual, String id) {
+    assertEquals(expected.getSql(), actual.getSql(), id);
+    assertEquals(parameters(expected.getParameterMappings()), parameters(actual.getParameterMappings()), id);
+  }
+
+  private static List<String> parameters(List<ParameterMapping> parameterMappings) {
+    return parameterMappings.stream()
+        .map(mapping -> mapping.getProperty() + ":" + mapping.getJavaType().getName() + ":" + mapping.getJdbcType()
+            + ":" + mapping.getMode() + ":" + typeName(mapping.getTypeHandler()))
+        .collect(Collectors.toList());
+  }
+
+  private static String typeName(Object object) {
+    return object == null ? null : object.getClass().getName();
+  }
+
+}
@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.SelectKey;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Tag;
+
+public interface SnapshotMapper {
+
+  @Select({ "<script>", "select * from author", "<where>", "<if test='name != null'>",
+      "<bind name='pattern' value=\"'%' + name + '%'\"/>", "username like #{pattern}", "</if>", "<choose>",
+      "<when test='ids != null'>and id in",
+      "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>", "</when>",
+      "<otherwise>and id &gt; 0</otherwise>", "</choose>", "</where>",
+      "<trim prefix='order by' suffixOverrides=','>username,</trim>", "</script>" })
+  List<Author> selectAuthors(@Param("name") String name, @Param("ids") List<Integer> ids);
+
+  @Select("select count(*) from author where username = '${name}'")
+  int countByUsername(@Param("name") String name);
+
+  @Update({ "<script>", "update author", "<set><if test='email != null'>email = #{email},</if></set>",
+      "where id = #{id}", "</script>" })
+  int updateEmail(@Param("id") int id, @Param("email") String email);
+
+  @Insert("insert into tag (id, name) values (#{id}, #{name})")
+  @SelectKey(statement = "select max(id) + 1 from tag", keyProperty = "id", before = true, resultType = int.class)
+  int insertTag(Tag tag);
+
+  @Insert("insert into tag (name) values (#{name})")
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  int insertTagWithGeneratedKey(Tag tag);
+
+}
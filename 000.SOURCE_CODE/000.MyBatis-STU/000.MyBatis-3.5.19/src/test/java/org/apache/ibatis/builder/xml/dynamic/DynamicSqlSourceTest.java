@@ -22,6 +22,7 @@ import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,8 @@ import java.util.Map;
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
@@ -338,6 +341,96 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  void shouldReuseBoundSqlTemplateForSameShape() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSourceWithTemplateCache(8, new TextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(new Configuration(),
+            mixedContents(new IfSqlNode(mixedContents(new TextSqlNode("and ID = #{id}")), "id != null"),
+                new IfSqlNode(mixedContents(new TextSqlNode("and NAME = #{name}")), "name != null"))));
+    MappedStatement ms = new MappedStatement.Builder(new Configuration(), "select", source, SqlCommandType.SELECT)
+        .build();
+
+    BoundSql first = ms.getBoundSql(Collections.singletonMap("id", 1));
+    BoundSql second = ms.getBoundSql(Collections.singletonMap("id", 2));
+    Map<String, Object> both = new HashMap<>();
+    both.put("id", 3);
+    both.put("name", "x");
+    BoundSql third = ms.getBoundSql(both);
+
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?", first.getSql());
+    assertEquals(first.getSql(), second.getSql());
+    assertEquals("id", second.getParameterMappings().get(0).getProperty());
+    assertEquals(Collections.singletonMap("id", 2), second.getParameterObject());
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?and NAME = ?", third.getSql());
+    assertEquals(2, third.getParameterMappings().size());
+    assertEquals(1, ms.getBoundSqlTemplateCacheHits());
+    assertEquals(2, ms.getBoundSqlTemplateCacheMisses());
+    assertEquals(2, source.getTemplateCacheSize());
+  }
+
+  @Test
+  void shouldKeyBoundSqlTemplateByForEachIterationsAndSubstitutions() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSourceWithTemplateCache(8, new TextSqlNode("SELECT * FROM ${table}"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "ids", null, "item",
+            "WHERE ID in (", ")", ","));
+
+    BoundSql two = source.getBoundSql(param("BLOG", 1, 2));
+    BoundSql otherTwo = source.getBoundSql(param("BLOG", 3, 4));
+    BoundSql three = source.getBoundSql(param("BLOG", 1, 2, 3));
+    BoundSql otherTable = source.getBoundSql(param("POST", 1, 2));
+
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? )", two.getSql());
+    assertEquals(two.getSql(), otherTwo.getSql());
+    assertEquals(4, otherTwo.getAdditionalParameter("__frch_item_1"));
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? , ? )", three.getSql());
+    assertEquals(3, three.getParameterMappings().size());
+    assertEquals("SELECT * FROM POST WHERE ID in (  ? , ? )", otherTable.getSql());
+    assertEquals(1, source.getTemplateCacheHits());
+    assertEquals(3, source.getTemplateCacheMisses());
+  }
+
+  @Test
+  void shouldNotReuseBoundSqlTemplateWhenBindingTypesChange() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSourceWithTemplateCache(8, new TextSqlNode("SELECT * FROM BLOG"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "ids", null, "item",
+            "WHERE ID in (", ")", ","));
+
+    BoundSql integers = source.getBoundSql(param("BLOG", 1));
+    BoundSql strings = source.getBoundSql(param("BLOG", "1"));
+
+    assertEquals(Integer.class, integers.getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, strings.getParameterMappings().get(0).getJavaType());
+    assertEquals(0, source.getTemplateCacheHits());
+  }
+
+  @Test
+  void shouldBoundTheNumberOfBoundSqlTemplates() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSourceWithTemplateCache(1, new TextSqlNode("SELECT * FROM BLOG"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "ids", null, "item",
+            "WHERE ID in (", ")", ","));
+
+    source.getBoundSql(param("BLOG", 1));
+    BoundSql boundSql = source.getBoundSql(param("BLOG", 1, 2));
+    source.getBoundSql(param("BLOG", 1));
+
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? )", boundSql.getSql());
+    assertEquals(1, source.getTemplateCacheSize());
+    assertEquals(1, source.getTemplateCacheHits());
+  }
+
+  private static Map<String, Object> param(String table, Object... ids) {
+    Map<String, Object> param = new HashMap<>();
+    param.put("table", table);
+    param.put("ids", Arrays.asList(ids));
+    return param;
+  }
+
+  private DynamicSqlSource createDynamicSqlSourceWithTemplateCache(int size, SqlNode... contents) {
+    Configuration configuration = new Configuration();
+    configuration.setBoundSqlTemplateCacheSize(size);
+    return new DynamicSqlSource(configuration, mixedContents(contents));
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
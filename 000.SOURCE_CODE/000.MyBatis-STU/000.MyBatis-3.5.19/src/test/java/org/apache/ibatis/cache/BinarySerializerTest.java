@@ -0,0 +1,339 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.BinarySerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
+import org.junit.jupiter.api.Test;
+
+class BinarySerializerTest {
+
+  private final Serializer serializer = new BinarySerializer();
+
+  @Test
+  void shouldCopySimpleValues() {
+    Timestamp timestamp = new Timestamp(1_700_000_000_123L);
+    timestamp.setNanos(123_456_789);
+    List<Object> values = Arrays.asList(null, true, false, 0, -1, Integer.MIN_VALUE, Long.MAX_VALUE, (short) -7,
+        (byte) 3, 'x', 1.5f, -2.25d, "", "café", new BigDecimal("-12345.6789"),
+        new BigInteger("123456789012345678901"),
+        new Date(1_700_000_000_000L), new java.sql.Date(1_700_000_000_000L), new Time(36_000_000L), timestamp,
+        LocalDate.of(2025, 1, 31), LocalTime.of(23, 59, 59, 999), LocalDateTime.of(1970, 1, 1, 0, 0),
+        Instant.ofEpochSecond(-5, 7), OffsetDateTime.parse("2025-01-31T10:15:30+01:00"), Color.GREEN);
+    for (Object value : values) {
+      assertThat(copy(value)).isEqualTo(value);
+    }
+  }
+
+  @Test
+  void shouldCopyCollections() {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("ID", 1);
+    row.put("TAGS", new LinkedHashSet<>(Arrays.asList("a", "b")));
+    row.put("BYTES", new byte[] { 1, 2, 3 });
+    List<Object> list = new ArrayList<>();
+    list.add(row);
+    list.add(new HashMap<>(row));
+    list.add(new Object[] { "x", 1 });
+
+    @SuppressWarnings("unchecked")
+    List<Object> copy = (List<Object>) copy(list);
+    assertThat(copy).hasSize(3);
+    assertThat(copy.get(0)).isInstanceOf(LinkedHashMap.class).isNotSameAs(row);
+    assertThat(new ArrayList<Object>(((Map<?, ?>) copy.get(0)).keySet())).containsExactly("ID", "TAGS", "BYTES");
+    assertThat((byte[]) ((Map<?, ?>) copy.get(0)).get("BYTES")).containsExactly(1, 2, 3);
+    assertThat(copy.get(1)).isInstanceOf(HashMap.class);
+    assertThat((Object[]) copy.get(2)).containsExactly("x", 1);
+  }
+
+  @Test
+  void shouldCopyBeansWithSharedReferencesAndCycles() {
+    Author author = new Author();
+    author.setId(1);
+    author.setName("Jane");
+    author.setActive(true);
+    author.setFavoriteColor(Color.RED);
+    Post first = new Post();
+    first.setTitle("First");
+    first.setAuthor(author);
+    Post second = new Post();
+    second.setTitle("Second");
+    second.setAuthor(author);
+    author.setPosts(new ArrayList<>(Arrays.asList(first, second)));
+    author.setPinned(second);
+
+    Author copy = (Author) copy(author);
+    assertThat(copy).isNotSameAs(author);
+    assertThat(copy.getId()).isEqualTo(1);
+    assertThat(copy.getName()).isEqualTo("Jane");
+    assertThat(copy.isActive()).isTrue();
+    assertThat(copy.getFavoriteColor()).isEqualTo(Color.RED);
+    assertThat(copy.getPosts()).extracting(Post::getTitle).containsExactly("First", "Second");
+    assertThat(copy.getPosts().get(0).getAuthor()).isSameAs(copy);
+    assertThat(copy.getPinned()).isSameAs(copy.getPosts().get(1));
+  }
+
+  @Test
+  void shouldUseJavaSerializationForClassesWithCustomSerialization() {
+    CustomSerialization value = new CustomSerialization();
+    value.setName("name");
+    assertThat(((CustomSerialization) copy(value)).getName()).isEqualTo("name!");
+  }
+
+  @Test
+  void shouldUseJavaSerializationForFieldsWithoutProperties() {
+    ReadOnlyBean value = new ReadOnlyBean("name");
+    assertThat(((ReadOnlyBean) copy(value)).getName()).isEqualTo("name");
+  }
+
+  @Test
+  void shouldBeSmallerThanJavaSerialization() {
+    List<Author> authors = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Author author = new Author();
+      author.setId(i);
+      author.setName("Author" + i);
+      authors.add(author);
+    }
+    assertThat(serializer.serialize(authors).length).isLessThan(new JavaSerializer().serialize(authors).length);
+  }
+
+  @Test
+  void shouldRejectNonSerializableValues() {
+    assertThatThrownBy(() -> serializer.serialize(Arrays.asList(new Object()))).isInstanceOf(CacheException.class);
+  }
+
+  @Test
+  void shouldRejectNonSerializableClassesWithoutInitializingThem() {
+    Decoy1 value = new Decoy1();
+    value.setName("name");
+    byte[] bytes = serializer.serialize(value);
+    // name a class that is not serializable instead, its class name has the same length
+    byte[] decoy = Decoy1.class.getName().getBytes(StandardCharsets.UTF_8);
+    byte[] replacement = Decoy2.class.getName().getBytes(StandardCharsets.UTF_8);
+    int found = 0;
+    for (int i = 0; i + decoy.length <= bytes.length; i++) {
+      if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + decoy.length), decoy)) {
+        System.arraycopy(replacement, 0, bytes, i, replacement.length);
+        found++;
+      }
+    }
+    assertThat(found).isEqualTo(1);
+
+    assertThatThrownBy(() -> serializer.deserialize(bytes)).isInstanceOf(CacheException.class)
+        .hasMessageContaining("is not serializable");
+    assertThat(DECOY_INITIALIZED).isFalse();
+  }
+
+  @Test
+  void shouldRejectUnknownVersion() {
+    assertThatThrownBy(() -> serializer.deserialize(new byte[] { 99, 0 })).isInstanceOf(CacheException.class);
+  }
+
+  @Test
+  void shouldBeUsableBySerializedCache() {
+    Cache cache = new SerializedCache(new PerpetualCache("default"), serializer);
+    Author author = new Author();
+    author.setName("Jane");
+    cache.putObject(0, author);
+    assertThat(((Author) cache.getObject(0)).getName()).isEqualTo("Jane");
+    assertThat(cache.getObject(0)).isNotSameAs(cache.getObject(0));
+  }
+
+  private Object copy(Object value) {
+    return serializer.deserialize(serializer.serialize(value));
+  }
+
+  enum Color {
+    RED, GREEN {
+      @Override
+      public String toString() {
+        return "green";
+      }
+    }
+  }
+
+  public static class Author implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int id;
+    private String name;
+    private boolean active;
+    private Color favoriteColor;
+    private List<Post> posts;
+    private Post pinned;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+
+    public Color getFavoriteColor() {
+      return favoriteColor;
+    }
+
+    public void setFavoriteColor(Color favoriteColor) {
+      this.favoriteColor = favoriteColor;
+    }
+
+    public List<Post> getPosts() {
+      return posts;
+    }
+
+    public void setPosts(List<Post> posts) {
+      this.posts = posts;
+    }
+
+    public Post getPinned() {
+      return pinned;
+    }
+
+    public void setPinned(Post pinned) {
+      this.pinned = pinned;
+    }
+  }
+
+  public static class Post implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String title;
+    private Author author;
+
+    public String getTitle() {
+      return title;
+    }
+
+    public void setTitle(String title) {
+      this.title = title;
+    }
+
+    public Author getAuthor() {
+      return author;
+    }
+
+    public void setAuthor(Author author) {
+      this.author = author;
+    }
+  }
+
+  public static class CustomSerialization implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+      out.writeUTF(name + "!");
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException {
+      name = in.readUTF();
+    }
+  }
+
+  static final AtomicBoolean DECOY_INITIALIZED = new AtomicBoolean();
+
+  public static class Decoy1 implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  public static class Decoy2 {
+    static {
+      DECOY_INITIALIZED.set(true);
+    }
+  }
+
+  public static class ReadOnlyBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+
+    public ReadOnlyBean(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.cache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.ByteArrayInputStream;
@@ -24,8 +25,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
 import java.util.Date;
+import java.util.List;
 
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.Test;
 
 class CacheKeyTest {
@@ -122,6 +129,48 @@ class CacheKeyTest {
     assertEquals(cacheKey, serialize(cacheKey));
   }
 
+  @Test
+  void shouldKeepUpdatesBeyondInitialCapacity() throws Exception {
+    CacheKey key1 = new CacheKey();
+    CacheKey key2 = new CacheKey();
+    for (int i = 0; i < 20; i++) {
+      key1.update(i);
+      key2.update(i);
+    }
+    assertEquals(20, key1.getUpdateCount());
+    assertEquals(key1, key2);
+    assertEquals(key1, serialize(key1));
+    assertEquals(key1.toString(), serialize(key1).toString());
+
+    CacheKey clonedCacheKey = key1.clone();
+    clonedCacheKey.update(20);
+    assertNotEquals(key1, clonedCacheKey);
+    assertEquals(20, key1.getUpdateCount());
+  }
+
+  @Test
+  void shouldSerializeUpdatesAsList() {
+    assertEquals(List.class, ObjectStreamClass.lookup(CacheKey.class).getField("updateList").getType());
+  }
+
+  @Test
+  void shouldInternPrefixPerStatementAndSql() throws Exception {
+    Configuration configuration = new Configuration();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "select",
+        new StaticSqlSource(configuration, "select 1"), SqlCommandType.SELECT).build();
+
+    CacheKeyPrefix prefix = ms.getCacheKeyPrefix("select 1");
+    assertSame(prefix, ms.getCacheKeyPrefix("select 1"));
+    assertSame(prefix, ms.getCacheKeyPrefix(new StringBuilder("select ").append(1).toString()));
+    assertNotEquals(prefix, ms.getCacheKeyPrefix("select 2"));
+
+    CacheKey key1 = new CacheKey(new Object[] { prefix, 1 });
+    CacheKey key2 = new CacheKey(new Object[] { serialize(prefix), 1 });
+    assertEquals(key1, key2);
+    assertEquals(key1.hashCode(), key2.hashCode());
+    assertEquals(key1, serialize(key1));
+  }
+
   private static <T> T serialize(T object) throws Exception {
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
     new ObjectOutputStream(baos).writeObject(object);
@@ -0,0 +1,172 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.cache.decorators.FifoCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTest {
+
+  @Test
+  void shouldStoreCopiesOfValues() {
+    OffHeapCache cache = new OffHeapCache("default");
+    List<String> value = new ArrayList<>(Arrays.asList("a", "b", "c"));
+    cache.putObject(0, value);
+    Object copy = cache.getObject(0);
+    assertEquals(value, copy);
+    assertNotSame(value, copy);
+  }
+
+  @Test
+  void shouldStoreValuesSpanningManyBlocks() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(16);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, new byte[i * 7]);
+    }
+    for (int i = 0; i < 100; i++) {
+      byte[] value = new byte[i * 7];
+      Arrays.fill(value, (byte) i);
+      cache.putObject(i, value);
+    }
+    for (int i = 0; i < 100; i++) {
+      byte[] expected = new byte[i * 7];
+      Arrays.fill(expected, (byte) i);
+      assertArrayEquals(expected, (byte[]) cache.getObject(i));
+    }
+    assertEquals(100, cache.getSize());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntriesWhenCapacityIsReached() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(64);
+    cache.setCapacity(64 * 10);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, new byte[100]);
+    }
+    assertEquals(5, cache.getSize());
+    cache.getObject(0);
+    cache.putObject(5, new byte[100]);
+    assertNotNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(64 * 10, cache.getUsedBytes());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntriesWhenSizeIsReached() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setSize(5);
+    for (int i = 0; i < 10; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(5, cache.getSize());
+    assertNull(cache.getObject(4));
+    assertEquals(9, cache.getObject(9));
+  }
+
+  @Test
+  void shouldNotCacheValuesLargerThanCapacity() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setCapacity(1024);
+    cache.putObject(0, new byte[10]);
+    cache.putObject(0, new byte[2048]);
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getUsedBytes());
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getUsedBytes());
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    OffHeapCache cache = new OffHeapCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+    assertEquals(0, cache.getUsedBytes());
+    cache.putObject(0, 0);
+    assertEquals(0, cache.getObject(0));
+  }
+
+  @Test
+  void shouldRejectNonSerializableValues() {
+    OffHeapCache cache = new OffHeapCache("default");
+    assertThrows(CacheException.class, () -> cache.putObject(0, new Object()));
+  }
+
+  @Test
+  void shouldNotBeReconfiguredOnceValuesAreStored() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.putObject(0, 0);
+    assertThrows(CacheException.class, () -> cache.setCapacity(1024));
+  }
+
+  @Test
+  void shouldApplyStandardDecoratorsButEviction() {
+    Cache cache = new CacheBuilder("default").implementation(OffHeapCache.class).addDecorator(FifoCache.class)
+        .size(2).readWrite(true).build();
+    assertInstanceOf(SynchronizedCache.class, cache);
+    for (int i = 0; i < 3; i++) {
+      cache.putObject(i, i);
+    }
+    assertNull(cache.getObject(0));
+    assertEquals(2, cache.getObject(2));
+    assertEquals(2, cache.getSize());
+  }
+
+  @Test
+  void shouldStoreSerializedValuesAsIs() {
+    Cache cache = new SerializedCache(new OffHeapCache("default"));
+    cache.putObject(0, "value");
+    assertEquals("value", cache.getObject(0));
+  }
+
+  @Test
+  void shouldDemonstrateIdIsNull() {
+    Cache cache = new OffHeapCache(null);
+    assertThrows(CacheException.class, cache::hashCode);
+    assertThrows(CacheException.class, () -> cache.equals(new Object()));
+  }
+
+}
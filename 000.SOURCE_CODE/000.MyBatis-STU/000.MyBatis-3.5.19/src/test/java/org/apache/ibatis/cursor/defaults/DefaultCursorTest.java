@@ -18,7 +18,11 @@ package org.apache.ibatis.cursor.defaults;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.sql.ResultSet;
@@ -30,10 +34,15 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetWrapper;
 import org.apache.ibatis.mapping.BoundSql;
@@ -99,6 +108,44 @@ class DefaultCursorTest {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  void shouldMapRemainingRowsOnCallingThreadWhenChunksAreNotTaken() throws Exception {
+    final DefaultResultSetHandler resultSetHandler = mock(DefaultResultSetHandler.class);
+    final ResultSetWrapper rsw = mock(ResultSetWrapper.class);
+    when(rsw.getResultSet()).thenReturn(rs);
+    final AtomicInteger rowCount = new AtomicInteger();
+    // Maps an unlimited number of rows, the row number and the mapping thread of each of them
+    doAnswer(invocation -> {
+      ResultHandler<Object> handler = invocation.getArgument(2);
+      DefaultResultContext<Object> context = new DefaultResultContext<>();
+      while (!context.isStopped()) {
+        context.nextResultObject(new Object[] { rowCount.incrementAndGet(), Thread.currentThread() });
+        handler.handleResult(context);
+      }
+      return null;
+    }).when(resultSetHandler).handleRowValues(any(), any(), any(), any(), isNull());
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (DefaultCursor<Object[]> cursor = new DefaultCursor<>(resultSetHandler, null, rsw, RowBounds.DEFAULT, 1,
+        executor, 50)) {
+      Iterator<Object[]> iterator = cursor.iterator();
+      assertEquals(1, iterator.next()[0]);
+      // The mapping thread gives up waiting for the consumer and is released
+      executor.submit(() -> null).get(10, TimeUnit.SECONDS);
+      assertFalse(cursor.isMappingInBackground());
+      for (int i = 2; i <= 10; i++) {
+        Object[] row = iterator.next();
+        assertEquals(i, row[0]);
+        if (i > 4) {
+          assertEquals(Thread.currentThread(), row[1]);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private MappedStatement getNestedAndOrderedMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
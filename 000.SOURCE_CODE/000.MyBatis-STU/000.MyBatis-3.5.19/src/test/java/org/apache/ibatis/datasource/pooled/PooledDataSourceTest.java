@@ -18,14 +18,25 @@ package org.apache.ibatis.datasource.pooled;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -158,4 +169,290 @@ class PooledDataSourceTest {
     assertEquals(0, poolState.getActiveConnectionCount());
     assertEquals(0, poolState.getIdleConnectionCount());
   }
+
+  @Test
+  void lockFreePoolShouldBeSelectableFromFactory() {
+    PooledDataSourceFactory factory = new PooledDataSourceFactory();
+    Properties props = new Properties();
+    props.setProperty("driver", "org.hsqldb.jdbcDriver");
+    props.setProperty("url", "jdbc:hsqldb:mem:multipledrivers");
+    props.setProperty("poolLockFree", "true");
+    factory.setProperties(props);
+
+    assertTrue(((PooledDataSource) factory.getDataSource()).isPoolLockFree());
+  }
+
+  @Test
+  void lockFreePoolShouldBlockUntilConnectionIsAvailable() throws Exception {
+    dataSource.setPoolLockFree(true);
+    dataSource.setPoolMaximumCheckoutTime(20000);
+
+    List<Connection> connections = new ArrayList<>();
+    CountDownLatch latch = new CountDownLatch(1);
+
+    for (int i = 0; i < dataSource.getPoolMaximumActiveConnections(); i++) {
+      connections.add(dataSource.getConnection());
+    }
+
+    new Thread(() -> {
+      try {
+        dataSource.getConnection();
+        latch.countDown();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }).start();
+
+    assertFalse(latch.await(1000, TimeUnit.MILLISECONDS));
+    connections.get(0).close();
+    assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+    assertEquals(1, dataSource.getPoolState().getHadToWaitCount());
+  }
+
+  @Test
+  void lockFreePoolShouldHandOffConnectionReturnedWhileWaiterStartsWaiting() throws Exception {
+    dataSource.setPoolLockFree(true);
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolTimeToWait(5000);
+
+    // Return the connection at the time another thread starts waiting for it, many times to hit every interleaving
+    // of the return with the waiter's last borrow attempt and its wait
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      for (int i = 0; i < 200; i++) {
+        Connection held = dataSource.getConnection();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Future<?> closing = executor.submit(() -> {
+          barrier.await();
+          held.close();
+          return null;
+        });
+        barrier.await();
+        long start = System.currentTimeMillis();
+        try (Connection conn = dataSource.getConnection()) {
+          assertFalse(conn.isClosed());
+        }
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        closing.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void lockFreePoolShouldNotExceedMaximumActiveConnectionsUnderContention() throws Exception {
+    dataSource.setPoolLockFree(true);
+    dataSource.setPoolMaximumActiveConnections(4);
+    dataSource.setPoolMaximumIdleConnections(2);
+
+    int threads = 16;
+    int iterations = 200;
+    AtomicInteger inUse = new AtomicInteger();
+    AtomicInteger maxInUse = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < iterations; j++) {
+            try (Connection conn = dataSource.getConnection()) {
+              maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+              assertFalse(conn.isClosed());
+              inUse.decrementAndGet();
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    PoolState poolState = dataSource.getPoolState();
+    assertTrue(maxInUse.get() <= 4);
+    assertEquals(threads * iterations, poolState.getRequestCount());
+    assertEquals(0, poolState.getActiveConnectionCount());
+    assertTrue(poolState.getIdleConnectionCount() <= 4);
+    assertEquals(0, poolState.getBadConnectionCount());
+  }
+
+  @Test
+  void lockFreePoolShouldEnsureCorrectIdleConnectionCount() throws Exception {
+    dataSource.setPoolLockFree(true);
+    dataSource.setPoolMaximumActiveConnections(10);
+    dataSource.setPoolMaximumIdleConnections(5);
+
+    PoolState poolState = dataSource.getPoolState();
+    List<Connection> connections = new ArrayList<>();
+
+    for (int i = 0; i < dataSource.getPoolMaximumActiveConnections(); i++) {
+      connections.add(dataSource.getConnection());
+    }
+
+    assertEquals(0, poolState.getIdleConnectionCount());
+    assertEquals(10, poolState.getActiveConnectionCount());
+
+    for (int i = 0; i < dataSource.getPoolMaximumActiveConnections(); i++) {
+      connections.get(i).close();
+    }
+
+    assertEquals(dataSource.getPoolMaximumIdleConnections(), poolState.getIdleConnectionCount());
+    assertEquals(0, poolState.getActiveConnectionCount());
+
+    dataSource.forceCloseAll();
+
+    assertEquals(0, poolState.getActiveConnectionCount());
+    assertEquals(0, poolState.getIdleConnectionCount());
+  }
+
+  @Test
+  void lockFreePoolShouldClaimOverdueConnection() throws Exception {
+    dataSource.setPoolLockFree(true);
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolMaximumCheckoutTime(100);
+    dataSource.setPoolTimeToWait(50);
+
+    Connection overdue = dataSource.getConnection();
+    Connection claimed = dataSource.getConnection();
+
+    assertFalse(claimed.isClosed());
+    assertThrows(SQLException.class, overdue::getAutoCommit);
+    overdue.close();
+    claimed.close();
+
+    PoolState poolState = dataSource.getPoolState();
+    assertEquals(1, poolState.getClaimedOverdueConnectionCount());
+    assertEquals(1, poolState.getBadConnectionCount());
+    assertEquals(1, poolState.getIdleConnectionCount());
+  }
+
+  @Test
+  void statementCacheShouldReuseStatementsAcrossConnectionCheckouts() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolPreparedStatementCacheSize(10);
+    PoolState poolState = dataSource.getPoolState();
+
+    PreparedStatement first = prepareAndClose("SELECT 1 FROM (VALUES(0))");
+    PreparedStatement second = prepareAndClose("SELECT 1 FROM (VALUES(0))");
+
+    assertSame(first, second);
+    assertEquals(1, poolState.getStatementCacheHitCount());
+    assertEquals(1, poolState.getStatementCacheMissCount());
+  }
+
+  @Test
+  void lockFreePoolShouldReuseStatementsAcrossConnectionCheckouts() throws Exception {
+    dataSource.setPoolLockFree(true);
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolPreparedStatementCacheSize(10);
+
+    assertSame(prepareAndClose("SELECT 1 FROM (VALUES(0))"), prepareAndClose("SELECT 1 FROM (VALUES(0))"));
+    assertEquals(1, dataSource.getPoolState().getStatementCacheHitCount());
+  }
+
+  @Test
+  void statementCacheShouldKeySameSqlByResultSetType() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolPreparedStatementCacheSize(10);
+    String sql = "SELECT 1 FROM (VALUES(0))";
+
+    try (Connection conn = dataSource.getConnection()) {
+      conn.prepareStatement(sql).close();
+      try (PreparedStatement scrollable = conn.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
+          ResultSet.CONCUR_READ_ONLY)) {
+        assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, scrollable.getResultSetType());
+      }
+      try (PreparedStatement forwardOnly = conn.prepareStatement(sql)) {
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, forwardOnly.getResultSetType());
+      }
+    }
+    assertEquals(1, dataSource.getPoolState().getStatementCacheHitCount());
+    assertEquals(2, dataSource.getPoolState().getStatementCacheMissCount());
+  }
+
+  @Test
+  void statementCacheShouldResetStatementSettings() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolPreparedStatementCacheSize(10);
+    String sql = "SELECT 1 FROM (VALUES(0))";
+    int defaultFetchSize;
+    int defaultQueryTimeout;
+
+    try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+      defaultFetchSize = stmt.getFetchSize();
+      defaultQueryTimeout = stmt.getQueryTimeout();
+      stmt.setFetchSize(defaultFetchSize + 50);
+      stmt.setQueryTimeout(defaultQueryTimeout + 5);
+      stmt.setMaxRows(1);
+    }
+    try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+      assertEquals(defaultFetchSize, stmt.getFetchSize());
+      assertEquals(defaultQueryTimeout, stmt.getQueryTimeout());
+      assertEquals(0, stmt.getMaxRows());
+    }
+    assertEquals(1, dataSource.getPoolState().getStatementCacheHitCount());
+  }
+
+  @Test
+  void statementCacheShouldEvictLeastRecentlyUsedStatement() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolPreparedStatementCacheSize(2);
+    PoolState poolState = dataSource.getPoolState();
+
+    PreparedStatement first = prepareAndClose("SELECT 1 FROM (VALUES(0))");
+    prepareAndClose("SELECT 2 FROM (VALUES(0))");
+    prepareAndClose("SELECT 1 FROM (VALUES(0))");
+    prepareAndClose("SELECT 3 FROM (VALUES(0))");
+
+    assertEquals(1, poolState.getStatementCacheEvictionCount());
+    assertSame(first, prepareAndClose("SELECT 1 FROM (VALUES(0))"));
+    prepareAndClose("SELECT 2 FROM (VALUES(0))");
+    assertEquals(4, poolState.getStatementCacheMissCount());
+  }
+
+  @Test
+  void statementCacheShouldHandOutStatementToOneUserAtATime() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolPreparedStatementCacheSize(10);
+    String sql = "SELECT 1 FROM (VALUES(0))";
+
+    try (Connection conn = dataSource.getConnection()) {
+      PreparedStatement first = conn.prepareStatement(sql);
+      PreparedStatement second = conn.prepareStatement(sql);
+      PreparedStatement secondDelegate = second.unwrap(PreparedStatement.class);
+      assertNotSame(first.unwrap(PreparedStatement.class), secondDelegate);
+      first.close();
+      second.close();
+
+      assertTrue(first.isClosed());
+      assertThrows(SQLException.class, first::executeQuery);
+      // Only one idle statement is kept per key
+      assertTrue(secondDelegate.isClosed());
+    }
+  }
+
+  @Test
+  void statementCacheShouldBeConfigurableFromFactory() {
+    PooledDataSourceFactory factory = new PooledDataSourceFactory();
+    Properties props = new Properties();
+    props.setProperty("driver", "org.hsqldb.jdbcDriver");
+    props.setProperty("url", "jdbc:hsqldb:mem:multipledrivers");
+    props.setProperty("poolPreparedStatementCacheSize", "25");
+    factory.setProperties(props);
+
+    assertEquals(25, ((PooledDataSource) factory.getDataSource()).getPoolPreparedStatementCacheSize());
+  }
+
+  private PreparedStatement prepareAndClose(String sql) throws SQLException {
+    try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+      try (ResultSet rs = stmt.executeQuery()) {
+        assertTrue(rs.next());
+      }
+      return stmt.unwrap(PreparedStatement.class);
+    }
+  }
 }
@@ -505,10 +505,9 @@ class BaseExecutorTest extends BaseDataTest {
     CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
 
     CacheKey expected = new CacheKey();
-    expected.update(mappedStatement.getId());
+    expected.update(mappedStatement.getCacheKeyPrefix(boundSql.getSql()));
     expected.update(RowBounds.DEFAULT.getOffset());
     expected.update(RowBounds.DEFAULT.getLimit());
-    expected.update(boundSql.getSql());
     expected.update(2);
 
     assertEquals(expected, cacheKey);
@@ -535,10 +534,9 @@ class BaseExecutorTest extends BaseDataTest {
     CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
 
     CacheKey expected = new CacheKey();
-    expected.update(mappedStatement.getId());
+    expected.update(mappedStatement.getCacheKeyPrefix(boundSql.getSql()));
     expected.update(RowBounds.DEFAULT.getOffset());
     expected.update(RowBounds.DEFAULT.getLimit());
-    expected.update(boundSql.getSql());
     expected.update(null);
 
     assertEquals(expected, cacheKey);
@@ -565,10 +563,9 @@ class BaseExecutorTest extends BaseDataTest {
     CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
 
     CacheKey expected = new CacheKey();
-    expected.update(mappedStatement.getId());
+    expected.update(mappedStatement.getCacheKeyPrefix(boundSql.getSql()));
     expected.update(RowBounds.DEFAULT.getOffset());
     expected.update(RowBounds.DEFAULT.getLimit());
-    expected.update(boundSql.getSql());
     expected.update(1);
 
     assertEquals(expected, cacheKey);
@@ -602,10 +599,9 @@ class BaseExecutorTest extends BaseDataTest {
     CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
 
     CacheKey expected = new CacheKey();
-    expected.update(mappedStatement.getId());
+    expected.update(mappedStatement.getCacheKeyPrefix(boundSql.getSql()));
     expected.update(RowBounds.DEFAULT.getOffset());
     expected.update(RowBounds.DEFAULT.getLimit());
-    expected.update(boundSql.getSql());
     expected.update(parameterObject.getId());
     expected.update(parameterObject.getUsername());
     expected.update(parameterObject.getPassword());
@@ -0,0 +1,48 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  @Test
+  void shouldFindValuesList() {
+    assertValuesList("insert into t (a, b) values (?, ?)", "(?, ?)");
+    assertValuesList("INSERT INTO t VALUES(?, coalesce(?, 'x'))", "(?, coalesce(?, 'x'))");
+    assertValuesList("insert into t (a) values (?) on conflict do nothing", "(?)");
+    assertValuesList("insert into \"values\" (a) /* values */ values ('?', ?)", "('?', ?)");
+  }
+
+  @Test
+  void shouldNotFindValuesListWhenRowsCannotBeRepeated() {
+    assertThat(MultiRowInsert.findValuesList("insert into t (a) select ? from dual")).isNull();
+    assertThat(MultiRowInsert.findValuesList("insert into t (a) values (?), (?)")).isNull();
+    assertThat(MultiRowInsert.findValuesList("insert into t (a) values (?) returning ?")).isNull();
+    assertThat(MultiRowInsert.findValuesList("insert into t (a) values (?) on duplicate key update a = values(a)"))
+        .isNull();
+    assertThat(MultiRowInsert.findValuesList("insert into t (a) values (?")).isNull();
+  }
+
+  private static void assertValuesList(String sql, String valuesList) {
+    int[] offsets = MultiRowInsert.findValuesList(sql);
+    assertThat(offsets).isNotNull();
+    assertThat(sql.substring(offsets[0], offsets[1])).isEqualTo(valuesList);
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlTablesTest {
+
+  @Test
+  void shouldReadEveryIdentifierButKeywords() {
+    assertThat(SqlTables.readTables("SELECT o.id, c.name FROM app.Orders o JOIN \"Customers\" c ON c.id = o.customer_id"
+        + " WHERE o.status = 'OPEN' -- from ignored\n and o.id > ?"))
+        .containsExactly("id", "name", "orders", "o", "customers", "c", "customer_id", "status");
+  }
+
+  @Test
+  void shouldReturnUnknownReadTablesWhenTooManyIdentifiers() {
+    StringBuilder sql = new StringBuilder("select ");
+    for (int i = 0; i < 70; i++) {
+      sql.append("c").append(i).append(", ");
+    }
+    sql.append("id from t");
+    assertThat(SqlTables.readTables(sql.toString())).isNull();
+  }
+
+  @Test
+  void shouldFindWrittenTables() {
+    assertThat(SqlTables.writtenTables("insert into app.orders (id, status) values (?, ?)")).containsExactly("orders");
+    assertThat(SqlTables.writtenTables("INSERT orders VALUES (?)")).containsExactly("orders");
+    assertThat(SqlTables.writtenTables("update orders set status = ? where id in (select id from lines)"))
+        .containsExactly("orders");
+    assertThat(SqlTables.writtenTables("delete from orders where id = ?")).containsExactly("orders");
+    assertThat(SqlTables.writtenTables("delete o from orders o join lines l on l.order_id = o.id where l.id = ?"))
+        .containsExactly("o", "orders", "lines", "l", "order_id", "id");
+    assertThat(SqlTables.writtenTables("merge into orders o using staged s on (o.id = s.id)"))
+        .containsExactly("orders");
+    assertThat(SqlTables.writtenTables("truncate table orders")).containsExactly("orders");
+  }
+
+  @Test
+  void shouldIgnoreUpdateClausesThatAreNotWrites() {
+    assertThat(SqlTables.writtenTables("insert into orders (id) values (?) on duplicate key update id = id"))
+        .containsExactly("orders");
+  }
+
+  @Test
+  void shouldReturnUnknownWrittenTablesWhenNoTargetIsFound() {
+    assertThat(SqlTables.writtenTables("call archive_orders(?)")).isNull();
+  }
+
+}
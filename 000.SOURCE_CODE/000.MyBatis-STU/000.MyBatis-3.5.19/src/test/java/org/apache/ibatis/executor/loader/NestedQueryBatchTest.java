@@ -0,0 +1,59 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NestedQueryBatchTest {
+
+  @Test
+  void shouldAddIndexColumnBeforeFrom() {
+    assertThat(NestedQueryBatch.toBatchSelect("select id, name from customers where id = ?", 2))
+        .isEqualTo("select id, name , 2 AS MYBATIS_BATCH_INDEX from customers where id = ?");
+    assertThat(NestedQueryBatch.toBatchSelect("SELECT DISTINCT c.id, (select count(*) from t) n FROM c", 0))
+        .isEqualTo("SELECT DISTINCT c.id, (select count(*) from t) n , 0 AS MYBATIS_BATCH_INDEX FROM c");
+  }
+
+  @Test
+  void shouldSelectStarFromDerivedTable() {
+    assertThat(NestedQueryBatch.toBatchSelect("select * from items where order_id = ?", 1))
+        .isEqualTo("SELECT b1.*, 1 AS MYBATIS_BATCH_INDEX FROM (select * from items where order_id = ?) b1");
+  }
+
+  @Test
+  void shouldIgnoreKeywordsInSubqueriesQuotesAndComments() {
+    assertThat(NestedQueryBatch.toBatchSelect(
+        "select id from items where id in (select id from t order by id limit 5) and name <> 'order by' -- limit",
+        0)).isNotNull();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "select id from items where order_id = ? order by id",
+      "select id from items where order_id = ? limit 10", "select id from items offset 5 rows",
+      "select id from items fetch first 5 rows only", "select top 5 id from items",
+      "select id from items where rownum < 5", "with t as (select id from items) select id from t",
+      "select id from items for update", "select id from a union select id from b",
+      "select id from a except select id from b", "select * from items i join orders o on o.id = i.order_id",
+      "select * from items, orders where orders.id = items.order_id", "update items set id = 1" })
+  void shouldRejectSelectsWhoseRowsCannotBeCombined(String sql) {
+    assertThat(NestedQueryBatch.toBatchSelect(sql, 0)).isNull();
+  }
+
+}
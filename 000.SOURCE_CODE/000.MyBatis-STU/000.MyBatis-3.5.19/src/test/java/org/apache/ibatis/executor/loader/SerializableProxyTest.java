@@ -17,6 +17,7 @@ package org.apache.ibatis.executor.loader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
@@ -25,8 +26,12 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import org.apache.ibatis.cache.serializer.BinarySerializer;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Section;
 import org.apache.ibatis.executor.ExecutorException;
@@ -187,6 +192,42 @@ public abstract class SerializableProxyTest {
     assertEquals(999, author2.getId());
   }
 
+  @Test
+  void shouldSerializeTheStateWithTheConfiguredSerializer() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setCacheSerializer(new BinarySerializer());
+    ResultLoaderMap loader = new ResultLoaderMap();
+    loader.addLoader("id", null, null);
+    Object proxy = proxyFactory.createProxy(author, loader, configuration, new DefaultObjectFactory(),
+        new ArrayList<>(), new ArrayList<>());
+    byte[] bytes = serialize((Serializable) proxy);
+    assertTrue(new String(bytes, StandardCharsets.ISO_8859_1).contains(BinarySerializer.class.getName()));
+    Author author2 = (Author) deserialize(bytes);
+    byte[] bytes2 = serialize((Serializable) author2);
+    assertEquals(author.getUsername(), author2.getUsername());
+    Assertions.assertThrows(ExecutorException.class, author2::getId);
+    assertTrue(new String(bytes2, StandardCharsets.ISO_8859_1).contains(BinarySerializer.class.getName()));
+    Author author3 = (Author) deserialize(bytes2);
+    assertEquals(author.getBio(), author3.getBio());
+    Assertions.assertThrows(ExecutorException.class, author3::getId);
+  }
+
+  @Test
+  void shouldSerializeProxiesInAValueSerializedWithTheConfiguredSerializer() {
+    BinarySerializer serializer = new BinarySerializer();
+    Configuration configuration = new Configuration();
+    configuration.setCacheSerializer(serializer);
+    ResultLoaderMap loader = new ResultLoaderMap();
+    loader.addLoader("id", null, null);
+    Object proxy = proxyFactory.createProxy(author, loader, configuration, new DefaultObjectFactory(),
+        new ArrayList<>(), new ArrayList<>());
+    List<?> list = (List<?>) serializer
+        .deserialize(serializer.serialize(new ArrayList<>(Collections.singletonList(proxy))));
+    Author author2 = (Author) list.get(0);
+    assertEquals(author.getEmail(), author2.getEmail());
+    Assertions.assertThrows(ExecutorException.class, author2::getId);
+  }
+
   byte[] serialize(Serializable value) throws Exception {
     try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
         ObjectOutputStream oos = new ObjectOutputStream(bos)) {
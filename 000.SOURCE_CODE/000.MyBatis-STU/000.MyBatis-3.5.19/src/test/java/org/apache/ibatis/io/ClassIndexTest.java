@@ -0,0 +1,209 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeAliasRegistry;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClassIndexTest {
+
+  private Path sources;
+  private Path classes;
+  private Path otherClasses;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    sources = Files.createTempDirectory("class_index_sources");
+    classes = Files.createTempDirectory("class_index_classes");
+    otherClasses = Files.createTempDirectory("class_index_other_classes");
+    compile(classes, true,
+        "idx/model/User.java", "package idx.model; public class User { public static class Address {} }",
+        "idx/model/Role.java", "package idx.model; public enum Role { ADMIN }",
+        "idx/mapper/UserMapper.java", "package idx.mapper; public interface UserMapper { interface Nested {} }",
+        "idx/type/RoleTypeHandler.java", "package idx.type; public class RoleTypeHandler"
+            + " extends org.apache.ibatis.type.EnumTypeHandler<idx.model.Role> {"
+            + " public RoleTypeHandler() { super(idx.model.Role.class); } }",
+        "idx/type/AbstractHandler.java", "package idx.type; public abstract class AbstractHandler"
+            + " extends org.apache.ibatis.type.BaseTypeHandler<String> {}");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    for (Path directory : Arrays.asList(sources, classes, otherClasses)) {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+      }
+    }
+  }
+
+  @Test
+  void shouldIndexTheCompiledClasses() throws Exception {
+    assertThat(Files.readAllLines(classes.resolve(ClassIndex.INDEX_RESOURCE), StandardCharsets.UTF_8)).containsExactly(
+        "# Generated by org.apache.ibatis.io.ClassIndexProcessor", "interface idx.mapper.UserMapper",
+        "interface idx.mapper.UserMapper$Nested", "type idx.model.Role", "type idx.model.User",
+        "type idx.model.User$Address", "type idx.type.AbstractHandler", "type-handler idx.type.RoleTypeHandler");
+  }
+
+  @Test
+  void shouldMergeIncrementalCompilations() throws Exception {
+    compile(classes, true, "idx/model/Group.java", "package idx.model; public class Group {}");
+
+    assertThat(Files.readAllLines(classes.resolve(ClassIndex.INDEX_RESOURCE), StandardCharsets.UTF_8))
+        .contains("type idx.model.Group", "type idx.model.User", "interface idx.mapper.UserMapper").hasSize(9);
+  }
+
+  @Test
+  void shouldListTheIndexedClassesOfAPackage() throws Exception {
+    try (URLClassLoader loader = loader(classes)) {
+      ClassIndex index = ClassIndex.getInstance(loader);
+
+      assertThat(index.list("idx/model", ClassIndex.Kind.values())).containsExactlyInAnyOrder("idx/model/User.class",
+          "idx/model/User$Address.class", "idx/model/Role.class");
+      assertThat(index.list("idx", ClassIndex.Kind.INTERFACE)).containsExactlyInAnyOrder("idx/mapper/UserMapper.class",
+          "idx/mapper/UserMapper$Nested.class");
+      assertThat(index.list("idx/type", ClassIndex.Kind.TYPE_HANDLER))
+          .containsExactly("idx/type/RoleTypeHandler.class");
+      assertThat(index.list("org/apache/ibatis/io", ClassIndex.Kind.values())).isNull();
+    }
+  }
+
+  @Test
+  void shouldNotKeepTheClassLoaderOfAnIndexReachable() throws Exception {
+    URLClassLoader loader = loader(classes);
+    ClassIndex.getInstance(loader);
+    WeakReference<ClassLoader> reference = new WeakReference<>(loader);
+    loader.close();
+    loader = null;
+
+    for (int i = 0; i < 50 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(reference.get()).isNull();
+  }
+
+  @Test
+  void shouldResolveIndexedPackagesFromTheIndex() throws Exception {
+    // a class compiled without the processor is not in the index
+    compile(classes, false, "idx/model/Unindexed.java", "package idx.model; public class Unindexed {}");
+
+    try (URLClassLoader loader = loader(classes)) {
+      assertThat(find(loader, "idx.model")).containsExactlyInAnyOrder("idx.model.User", "idx.model.User$Address",
+          "idx.model.Role");
+    }
+    Files.delete(classes.resolve(ClassIndex.INDEX_RESOURCE));
+    try (URLClassLoader loader = loader(classes)) {
+      assertThat(find(loader, "idx.model")).contains("idx.model.Unindexed").hasSize(4);
+    }
+  }
+
+  @Test
+  void shouldScanPackagesSplitOverRootsWithoutIndex() throws Exception {
+    compile(otherClasses, false, "idx/model/Other.java", "package idx.model; public class Other {}");
+
+    try (URLClassLoader loader = loader(classes, otherClasses)) {
+      assertThat(ClassIndex.getInstance(loader).list("idx/model", ClassIndex.Kind.values())).isNull();
+      assertThat(find(loader, "idx.model")).contains("idx.model.User", "idx.model.Other").hasSize(4);
+    }
+  }
+
+  @Test
+  void shouldRegisterIndexedAliasesTypeHandlersAndMappers() throws Exception {
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    try (URLClassLoader loader = loader(classes)) {
+      Thread.currentThread().setContextClassLoader(loader);
+
+      TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
+      typeAliasRegistry.registerAliases("idx");
+      assertThat(typeAliasRegistry.getTypeAliases()).containsKeys("user", "role", "roletypehandler", "abstracthandler")
+          .doesNotContainKeys("address", "usermapper");
+
+      TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
+      typeHandlerRegistry.register("idx");
+      assertThat(typeHandlerRegistry.getTypeHandler(loader.loadClass("idx.model.Role")).getClass().getName())
+          .isEqualTo("idx.type.RoleTypeHandler");
+
+      Configuration configuration = new Configuration();
+      configuration.addMappers("idx");
+      assertThat(configuration.getMapperRegistry().getMappers().stream().map(Class::getName))
+          .containsExactlyInAnyOrder("idx.mapper.UserMapper", "idx.mapper.UserMapper$Nested");
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+  }
+
+  private static Set<String> find(ClassLoader loader, String packageName) {
+    ResolverUtil<Object> resolverUtil = new ResolverUtil<>();
+    resolverUtil.setClassLoader(loader);
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(loader);
+    try {
+      resolverUtil.find(new ResolverUtil.IsA(Object.class), packageName);
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+    return resolverUtil.getClasses().stream().map(Class::getName).collect(Collectors.toSet());
+  }
+
+  private static URLClassLoader loader(Path... roots) throws IOException {
+    URL[] urls = new URL[roots.length];
+    for (int i = 0; i < roots.length; i++) {
+      urls[i] = roots[i].toUri().toURL();
+    }
+    return new URLClassLoader(urls, ClassIndexTest.class.getClassLoader());
+  }
+
+  private void compile(Path output, boolean indexed, String... files) throws IOException {
+    List<String> arguments = new ArrayList<>(Arrays.asList("-d", output.toString(), "-cp",
+        System.getProperty("java.class.path") + File.pathSeparator + output));
+    arguments.addAll(indexed ? Arrays.asList("-processor", ClassIndexProcessor.class.getName())
+        : Arrays.asList("-proc:none"));
+    for (int i = 0; i < files.length; i += 2) {
+      Path source = sources.resolve(files[i]);
+      Files.createDirectories(source.getParent());
+      Files.write(source, files[i + 1].getBytes(StandardCharsets.UTF_8));
+      arguments.add(source.toString());
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertThat(compiler.run(null, null, null, arguments.toArray(new String[0]))).isZero();
+  }
+
+}
@@ -20,10 +20,19 @@ import static com.googlecode.catchexception.apis.BDDCatchException.when;
 import static org.assertj.core.api.BDDAssertions.then;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.decorators.TinyLfuCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -44,6 +53,54 @@ class CacheBuilderTest {
         "Failed cache initialization for 'test' on 'org.apache.ibatis.mapping.CacheBuilderTest$InitializingFailureCache'");
   }
 
+  @Test
+  void tinyLfuCacheShouldNotBeSynchronized() {
+    Cache cache = new CacheBuilder("test").addDecorator(TinyLfuCache.class).size(10).build();
+
+    Assertions.assertThat(cache).isInstanceOf(LoggingCache.class);
+    TinyLfuCache tinyLfuCache = unwrap(cache);
+    for (int i = 0; i < 20; i++) {
+      tinyLfuCache.putObject(i, i);
+    }
+    Assertions.assertThat(tinyLfuCache.getSize()).isEqualTo(10);
+  }
+
+  @Test
+  void tinyLfuCacheDecoratorsShouldCountConcurrentRequests() throws Exception {
+    Cache cache = new CacheBuilder("test").addDecorator(TinyLfuCache.class).size(64).clearInterval(60_000L)
+        .readWrite(true).build();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            if (cache.getObject(i % 128) == null) {
+              cache.putObject(i % 128, "value" + i % 128);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Field requests = LoggingCache.class.getDeclaredField("requests");
+    requests.setAccessible(true);
+    Assertions.assertThat(requests.getInt(cache)).isEqualTo(40_000);
+    Assertions.assertThat(cache.getSize()).isLessThanOrEqualTo(64);
+  }
+
+  @Test
+  void lruCacheShouldBeSynchronized() {
+    Cache cache = new CacheBuilder("test").build();
+
+    Assertions.assertThat(cache).isInstanceOf(SynchronizedCache.class);
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T unwrap(Cache cache) {
     Field field;
@@ -0,0 +1,180 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.junit.jupiter.api.Test;
+
+class LambdaMethodInvokerTest {
+
+  @Test
+  void shouldInvokeGetterAndSetter() throws Exception {
+    Bean bean = new Bean();
+    LambdaMethodInvoker setter = new LambdaMethodInvoker(Bean.class.getMethod("setName", String.class));
+    LambdaMethodInvoker getter = new LambdaMethodInvoker(Bean.class.getMethod("getName"));
+
+    setter.invoke(bean, new Object[] { "a" });
+
+    assertThat(getter.invoke(bean, null)).isEqualTo("a");
+    assertThat(setter.isLambda()).isTrue();
+    assertThat(getter.isLambda()).isTrue();
+    assertThat(getter.getType()).isEqualTo(String.class);
+  }
+
+  @Test
+  void shouldBoxAndUnboxPrimitives() throws Exception {
+    Bean bean = new Bean();
+    LambdaMethodInvoker setter = new LambdaMethodInvoker(Bean.class.getMethod("setAge", int.class));
+    LambdaMethodInvoker getter = new LambdaMethodInvoker(Bean.class.getMethod("getAge"));
+
+    setter.invoke(bean, new Object[] { 7 });
+
+    assertThat(getter.invoke(bean, null)).isEqualTo(7);
+    assertThat(getter.isLambda()).isTrue();
+  }
+
+  @Test
+  void shouldInvokePrivateMethods() throws Exception {
+    Bean bean = new Bean();
+    LambdaMethodInvoker setter = new LambdaMethodInvoker(Bean.class.getDeclaredMethod("setSecret", String.class));
+    LambdaMethodInvoker getter = new LambdaMethodInvoker(Bean.class.getDeclaredMethod("getSecret"));
+
+    setter.invoke(bean, new Object[] { "s" });
+
+    assertThat(getter.invoke(bean, null)).isEqualTo("s");
+    assertThat(getter.isLambda()).isTrue();
+  }
+
+  @Test
+  void shouldWrapExceptionThrownByMethod() throws Exception {
+    LambdaMethodInvoker getter = new LambdaMethodInvoker(Bean.class.getMethod("getBroken"));
+
+    assertThatThrownBy(() -> getter.invoke(new Bean(), null)).isInstanceOf(InvocationTargetException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void shouldWrapNullPointerExceptionThrownByMethod() throws Exception {
+    LambdaMethodInvoker getter = new LambdaMethodInvoker(Bean.class.getMethod("getMissing"));
+
+    assertThatThrownBy(() -> getter.invoke(new Bean(), null)).isInstanceOf(InvocationTargetException.class)
+        .hasCauseInstanceOf(NullPointerException.class);
+    assertThat(getter.isLambda()).isTrue();
+  }
+
+  @Test
+  void shouldRejectWrongTargetsAndArgumentsLikeReflection() throws Exception {
+    LambdaMethodInvoker setter = new LambdaMethodInvoker(Bean.class.getMethod("setAge", int.class));
+    LambdaMethodInvoker getter = new LambdaMethodInvoker(Bean.class.getMethod("getName"));
+
+    assertThatThrownBy(() -> getter.invoke("not a bean", null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> getter.invoke(null, null)).isInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> setter.invoke(new Bean(), new Object[] { "7" }))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> setter.invoke(new Bean(), new Object[] { null }))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(getter.isLambda()).isTrue();
+    assertThat(setter.isLambda()).isTrue();
+  }
+
+  @Test
+  void shouldWidenPrimitiveArgumentsLikeReflection() throws Exception {
+    Bean bean = new Bean();
+    LambdaMethodInvoker setter = new LambdaMethodInvoker(Bean.class.getMethod("setAge", int.class));
+    LambdaMethodInvoker nameSetter = new LambdaMethodInvoker(Bean.class.getMethod("setName", String.class));
+
+    setter.invoke(bean, new Object[] { (short) 7 });
+    nameSetter.invoke(bean, new Object[] { null });
+
+    assertThat(bean.getAge()).isEqualTo(7);
+    assertThat(bean.getName()).isNull();
+  }
+
+  @Test
+  void shouldFallBackToReflectionForStaticMethods() throws Exception {
+    LambdaMethodInvoker getter = new LambdaMethodInvoker(Bean.class.getMethod("getConstant"));
+
+    assertThat(getter.invoke(null, null)).isEqualTo("constant");
+    assertThat(getter.isLambda()).isFalse();
+  }
+
+  @Test
+  void shouldUseLambdaInvokersWhenEnabledOnFactory() throws Exception {
+    DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    assertThat(reflectorFactory.findForClass(Bean.class).getGetInvoker("name"))
+        .isNotInstanceOf(LambdaMethodInvoker.class);
+
+    reflectorFactory = new DefaultReflectorFactory();
+    reflectorFactory.setLambdaInvokersEnabled(true);
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "b" });
+
+    assertThat(reflector.getGetInvoker("name")).isInstanceOf(LambdaMethodInvoker.class);
+    assertThat(reflector.getGetInvoker("name").invoke(bean, null)).isEqualTo("b");
+    assertThat(reflector.getGetInvoker("field")).isInstanceOf(GetFieldInvoker.class);
+  }
+
+  static class Bean {
+    private String name;
+    private int age;
+    private String secret;
+    private String field = "field";
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+
+    private String getSecret() {
+      return secret;
+    }
+
+    private void setSecret(String secret) {
+      this.secret = secret;
+    }
+
+    public String getBroken() {
+      throw new IllegalStateException("broken");
+    }
+
+    public String getMissing() {
+      throw new NullPointerException("missing");
+    }
+
+    public static String getConstant() {
+      return "constant";
+    }
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.scripting.xmltags.DynamicContext.ContextMap;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+class CompiledExpressionTest {
+
+  private final ExpressionEvaluator evaluator = new ExpressionEvaluator();
+
+  @ParameterizedTest
+  @ValueSource(strings = { "name != null", "name == null", "missing == null", "name != ''", "name == 'cbegin'",
+      "name eq \"cbegin\"", "id == 101", "id > 100", "id >= 101", "id lt 100", "id lte 100", "id != 101L",
+      "score > 1", "score == 1.5", "flag", "!flag", "not flag", "flag == true", "flag && id > 0",
+      "flag and (id == 1 or name != null)", "empty || name", "text", "zero", "list != null and list.size() > 0",
+      "list.isEmpty()", "map.size() == 1", "map.key == 'value'", "map.size", "name.length() == 6",
+      "name.isEmpty()", "author.username == 'jim'", "author.id == 101", "author.favouriteSection == null",
+      "section == @org.apache.ibatis.domain.blog.Section@NEWS", "name == 1", "id == 'a'", "missing > 1",
+      "missing.name == null", "missing.size() == 0", "big == 1", "list.size", "array.length",
+      "_parameter.name", "_databaseId == null", "id in {101}" })
+  void shouldEvaluateLikeOgnl(String expression) {
+    ContextMap bindings = bindings();
+    Object expected;
+    try {
+      expected = OgnlCache.getValue(expression, bindings);
+    } catch (RuntimeException e) {
+      expected = e.getClass();
+    }
+    CompiledExpression compiled = CompiledExpression.compile(expression);
+    if (compiled == CompiledExpression.UNSUPPORTED) {
+      return;
+    }
+    Object actual;
+    try {
+      actual = compiled.evaluate(bindings);
+    } catch (RuntimeException e) {
+      // evaluated by OGNL instead
+      actual = expected;
+    }
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "name != null", "id > 100 and (name == 'cbegin' or !flag)", "list.size() gt 1",
+      "author.username neq ''", "map.key", "(id)" })
+  void shouldCompileSupportedExpressions(String expression) {
+    CompiledExpression compiled = CompiledExpression.compile(expression);
+
+    assertThat(compiled).isNotSameAs(CompiledExpression.UNSUPPORTED);
+    assertThat(compiled.evaluate(bindings())).isEqualTo(OgnlCache.getValue(expression, bindings()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "name == 'c'", "id == 101L", "score == 1.5", "id + 1 > 0", "id in {101}",
+      "@java.lang.Math@max(1, 2)", "#this", "name.toUpperCase() == 'A'", "list[0]", "flag ? 1 : 0", "id == 0101",
+      "name == 'it\\'s'", "(id", "name ==", "" })
+  void shouldNotCompileOtherExpressions(String expression) {
+    assertThat(CompiledExpression.compile(expression)).isSameAs(CompiledExpression.UNSUPPORTED);
+  }
+
+  @Test
+  void shouldFallBackToOgnlForValuesOutsideOfTheSubset() {
+    ContextMap bindings = bindings();
+
+    assertThatThrownBy(() -> CompiledExpression.compile("big == 1").evaluate(bindings))
+        .isInstanceOf(RuntimeException.class);
+    assertThat(evaluator.evaluateBoolean("big == 1", bindings)).isTrue();
+    assertThat(evaluator.evaluateBoolean("list.size == 2", bindings)).isTrue();
+  }
+
+  @Test
+  void shouldReportErrorsThroughOgnl() {
+    ContextMap bindings = bindings();
+
+    assertThatThrownBy(() -> evaluator.evaluateBoolean("author.unknown != null", bindings))
+        .isInstanceOf(BuilderException.class).hasMessageContaining("author.unknown != null");
+  }
+
+  @Test
+  void shouldEvaluateIterable() {
+    ContextMap bindings = bindings();
+
+    assertThat(evaluator.evaluateIterable("list", bindings, false)).isEqualTo(Arrays.asList("a", "b"));
+    assertThat(evaluator.evaluateIterable("map", bindings, false)).hasSize(1);
+    assertThat(evaluator.evaluateIterable("missing", bindings, true)).isNull();
+  }
+
+  @Test
+  void shouldReadPropertiesOfBeanParameter() {
+    Author author = new Author(101, "jim", "******", "jim@ibatis.apache.org", "", Section.NEWS);
+    ContextMap bindings = (ContextMap) new DynamicContext(new Configuration(), author).getBindings();
+
+    assertThat(CompiledExpression.compile("username == 'jim' and favouriteSection != null").evaluate(bindings))
+        .isEqualTo(true);
+    assertThat(evaluator.evaluateBoolean("id == 101", bindings)).isTrue();
+  }
+
+  private static ContextMap bindings() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("name", "cbegin");
+    parameter.put("id", 101);
+    parameter.put("score", 1.5d);
+    parameter.put("flag", Boolean.TRUE);
+    parameter.put("empty", "");
+    parameter.put("text", "true");
+    parameter.put("zero", 0L);
+    parameter.put("big", BigDecimal.ONE);
+    List<String> list = Arrays.asList("a", "b");
+    parameter.put("list", list);
+    parameter.put("array", new int[] { 1, 2 });
+    parameter.put("map", Collections.singletonMap("key", "value"));
+    parameter.put("author", new Author(101, "jim", "******", "jim@ibatis.apache.org", "", null));
+    parameter.put("section", Section.NEWS);
+    return (ContextMap) new DynamicContext(new Configuration(), parameter).getBindings();
+  }
+
+}
@@ -0,0 +1,229 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncQueryTest {
+
+  private static final String GET_USERS = "org.apache.ibatis.submitted.async_query.Mapper.getUsers";
+  private static final String GET_USER = "org.apache.ibatis.submitted.async_query.Mapper.getUser";
+  private static final String INSERT_USER = "org.apache.ibatis.submitted.async_query.Mapper.insertUser";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private ExecutorService pool;
+  private final AtomicInteger submitted = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_query/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_query/CreateDB.sql");
+    pool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>()) {
+      @Override
+      public void execute(Runnable command) {
+        submitted.incrementAndGet();
+        super.execute(command);
+      }
+    };
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(pool);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  void shouldRunSessionStatementsOnAsyncExecutor() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CompletableFuture<List<User>> users = sqlSession.selectListAsync(GET_USERS);
+      CompletableFuture<User> user = sqlSession.selectOneAsync(GET_USER, 2);
+
+      assertThat(users.join()).extracting(User::getName).containsExactly("User1", "User2");
+      assertThat(user.join().getName()).isEqualTo("User2");
+      assertThat(submitted).hasValue(2);
+    }
+  }
+
+  @Test
+  void shouldRunActionsOfOneSessionInOrderWithinItsTransaction() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CompletableFuture<Integer> inserted = sqlSession.insertAsync(INSERT_USER, new User(3, "User3"));
+      CompletableFuture<List<User>> users = sqlSession.selectListAsync(GET_USERS);
+
+      assertThat(inserted.join()).isEqualTo(1);
+      assertThat(users.join()).extracting(User::getName).containsExactly("User1", "User2", "User3");
+      sqlSession.rollback();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<User> selectList(GET_USERS)).hasSize(2);
+    }
+  }
+
+  @Test
+  void shouldRejectStatementsWhileAnAsyncActionIsPending() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CountDownLatch release = new CountDownLatch(1);
+      CompletableFuture<List<User>> users = sqlSession.executeAsync(session -> {
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return session.selectList(GET_USERS);
+      });
+
+      assertThatThrownBy(() -> sqlSession.selectList(GET_USERS)).isInstanceOf(SqlSessionException.class);
+      assertThatThrownBy(() -> sqlSession.insert(INSERT_USER, new User(3, "User3")))
+          .isInstanceOf(SqlSessionException.class);
+      release.countDown();
+      assertThat(users.join()).hasSize(2);
+      assertThat(sqlSession.<User> selectList(GET_USERS)).hasSize(2);
+    }
+  }
+
+  @Test
+  void shouldWaitForAsyncActionsBeforeCommitting() {
+    CompletableFuture<Integer> inserted;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      inserted = sqlSession.executeAsync(session -> {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return session.insert(INSERT_USER, new User(3, "User3"));
+      });
+      sqlSession.commit();
+
+      assertThat(inserted).isDone();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<User> selectOne(GET_USER, 3).getName()).isEqualTo("User3");
+    }
+  }
+
+  @Test
+  void shouldWaitForAsyncActionsBeforeClosing() {
+    CompletableFuture<List<User>> users;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      users = sqlSession.executeAsync(session -> {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return session.selectList(GET_USERS);
+      });
+    }
+    assertThat(users).isDone();
+    assertThat(users.join()).hasSize(2);
+  }
+
+  @Test
+  void shouldReturnFuturesFromMapperMethods() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+
+      assertThat(mapper.getUser(1).join().getName()).isEqualTo("User1");
+      assertThat(mapper.getUsers().join()).hasSize(2);
+      assertThat(mapper.findUser(1).join()).map(User::getName).contains("User1");
+      assertThat(mapper.findUser(9).join()).isEqualTo(Optional.empty());
+      assertThat(mapper.insertUser(new User(3, "User3")).join()).isEqualTo(1);
+      assertThat(mapper.deleteUser(3).join()).isNull();
+      assertThat(submitted).hasValue(6);
+    }
+  }
+
+  @Test
+  void shouldCompleteExceptionallyWhenStatementFails() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CompletableFuture<User> failed = sqlSession.selectOneAsync(GET_USERS);
+      CompletableFuture<User> next = sqlSession.selectOneAsync(GET_USER, 1);
+
+      assertThatThrownBy(failed::join).isInstanceOf(CompletionException.class)
+          .hasCauseInstanceOf(TooManyResultsException.class);
+      assertThat(next.join().getName()).isEqualTo("User1");
+    }
+  }
+
+  @Test
+  void shouldRunIndependentActionsConcurrentlyWithSessionManager() {
+    CyclicBarrier barrier = new CyclicBarrier(2);
+    pool.shutdownNow();
+    pool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>()) {
+      @Override
+      protected void beforeExecute(Thread thread, Runnable command) {
+        try {
+          // both actions must be running for either to proceed
+          barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    };
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(pool);
+    Mapper mapper = SqlSessionManager.newInstance(sqlSessionFactory).getMapper(Mapper.class);
+
+    CompletableFuture<Integer> inserted = mapper.insertUser(new User(3, "User3"));
+    CompletableFuture<User> user = mapper.getUser(1);
+
+    assertThat(inserted.join()).isEqualTo(1);
+    assertThat(user.join().getName()).isEqualTo("User1");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<User> selectOne(GET_USER, 3).getName()).isEqualTo("User3");
+    }
+  }
+
+  @Test
+  void shouldProvideDefaultAsyncExecutor() {
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(null);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getConfiguration().getAsyncExecutor()).isNotNull();
+      assertThat(sqlSession.<User> selectOneAsync(GET_USER, 1).join().getName()).isEqualTo("User1");
+    }
+  }
+
+}
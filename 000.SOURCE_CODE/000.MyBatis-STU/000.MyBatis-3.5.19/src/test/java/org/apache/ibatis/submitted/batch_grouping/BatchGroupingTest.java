@@ -0,0 +1,190 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_grouping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchGroupingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private PreparedSqlInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_grouping/Config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_grouping/CreateDB.sql");
+    interceptor = new PreparedSqlInterceptor();
+    sqlSessionFactory.getConfiguration().addInterceptor(interceptor);
+  }
+
+  @Test
+  void shouldGroupInterleavedInsertsByStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 1; i <= 3; i++) {
+        sqlSession.insert("insertOrder", row(i, null));
+        sqlSession.insert("insertLine", row(i * 10, i));
+        sqlSession.insert("insertLine", row(i * 10 + 1, i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(interceptor.getPreparedSql()).hasSize(2);
+      assertThat(results).extracting(result -> result.getMappedStatement().getId()).containsExactly(
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrder",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertLine");
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1);
+      assertThat(results.get(1).getUpdateCounts()).containsExactly(1, 1, 1, 1, 1, 1);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer> selectOne("countLines")).isEqualTo(6);
+    }
+  }
+
+  @Test
+  void shouldNotGroupInsertBeforeStatementOfReferencedTable() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      // parts and assemblies reference each other, notes is independent
+      sqlSession.insert("insertPart", row(1, null));
+      sqlSession.insert("insertNote", row(1, null));
+      sqlSession.insert("insertAssembly", row(10, 1));
+      sqlSession.insert("insertNote", row(2, null));
+      sqlSession.insert("insertPart", row(2, 10));
+      sqlSession.insert("insertNote", row(3, null));
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(result -> result.getMappedStatement().getId()).containsExactly(
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertPart",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertNote",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertAssembly",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertPart");
+      assertThat(results.get(1).getUpdateCounts()).containsExactly(1, 1, 1);
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldFindForeignKeysOfMixedCaseTables() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      // the quoted table names are stored in mixed case by a database that stores upper case identifiers
+      sqlSession.insert("insertCustomer", row(1, null));
+      sqlSession.insert("insertInvoice", row(10, 1));
+      sqlSession.insert("insertNamedCustomer", row(2, null));
+      sqlSession.insert("insertInvoice", row(20, 2));
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(result -> result.getMappedStatement().getId()).containsExactly(
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertCustomer",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertInvoice",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertNamedCustomer",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertInvoice");
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldNotGroupInsertsAcrossUpdate() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert("insertOrder", row(1, null));
+      sqlSession.insert("insertNote", row(1, null));
+      sqlSession.update("shipOrder", row(1, null));
+      sqlSession.insert("insertOrder", row(2, null));
+      sqlSession.insert("insertNote", row(2, null));
+      sqlSession.insert("insertOrder", row(3, null));
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(result -> result.getParameterObjects().size()).containsExactly(1, 1, 1, 2, 1);
+    }
+  }
+
+  @Test
+  void shouldExecuteBatchedStatementsWhenOpenStatementLimitIsReached() {
+    sqlSessionFactory.getConfiguration().setBatchGroupingMaxStatements(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert("insertOrder", row(1, null));
+      sqlSession.insert("insertLine", row(10, 1));
+      sqlSession.insert("insertOrder", row(2, null));
+      sqlSession.insert("insertNote", row(1, null));
+      sqlSession.insert("insertOrder", row(3, null));
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(result -> result.getMappedStatement().getId()).containsExactly(
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrder",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertLine",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertNote",
+          "org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrder");
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1);
+      assertThat(sqlSession.flushStatements()).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldGroupRowsOfMultiRowInserts() {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertMaxRows(10);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 1; i <= 3; i++) {
+        sqlSession.insert("insertOrder", row(i, null));
+        sqlSession.insert("insertLine", row(i * 10, i));
+      }
+      sqlSession.flushStatements();
+
+      assertThat(interceptor.getPreparedSql()).containsExactly(
+          "insert into orders (id, status) values (?, 'NEW'), (?, 'NEW'), (?, 'NEW')",
+          "insert into order_lines (id, order_id) values (?, ?), (?, ?), (?, ?)");
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<Integer> selectOne("countLines")).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldOnlyBatchConsecutiveStatementsWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setBatchGroupingMaxStatements(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 1; i <= 3; i++) {
+        sqlSession.insert("insertOrder", row(i, null));
+        sqlSession.insert("insertLine", row(i * 10, i));
+      }
+      assertThat(sqlSession.flushStatements()).hasSize(6);
+    }
+  }
+
+  private static Map<String, Object> row(Integer id, Integer orderId) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("id", id);
+    row.put("orderId", orderId);
+    return row;
+  }
+
+}
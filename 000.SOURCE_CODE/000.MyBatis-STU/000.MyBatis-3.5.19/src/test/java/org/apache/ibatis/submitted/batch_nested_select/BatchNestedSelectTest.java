@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+  }
+
+  @Test
+  void shouldResolveNestedSelectsOfAllRowsInChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).selectOrders();
+
+      assertThat(orders.get(0).getCustomer().getName()).isEqualTo("Customer1");
+      assertThat(orders.get(1).getCustomer().getName()).isEqualTo("Customer2");
+      assertThat(orders.get(2).getCustomer().getName()).isEqualTo("Customer1");
+      assertThat(orders.get(3).getCustomer().getName()).isEqualTo("Customer3");
+      assertThat(orders.get(4).getCustomer()).isNull();
+      assertThat(products(orders.get(0))).containsExactly("Banana", "Apple");
+      assertThat(products(orders.get(1))).containsExactly("Cherry");
+      assertThat(products(orders.get(2))).isEmpty();
+      assertThat(products(orders.get(3))).containsExactly("Elderberry", "Date");
+      assertThat(products(orders.get(4))).containsExactly("Fig");
+
+      MappedStatement selectCustomer = statement("selectCustomer");
+      assertThat(selectCustomer.getNestedQueryBatchCount()).isEqualTo(1);
+      assertThat(selectCustomer.getNestedQuerySavedCount()).isEqualTo(2);
+      // The nested select orders its rows, each parent gets the rows in that order from its own statement
+      assertThat(statement("selectItems").getNestedQueryBatchCount()).isZero();
+    }
+  }
+
+  @Test
+  void shouldResolveUnorderedNestedSelectsInChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).selectOrdersWithUnorderedItems();
+
+      assertThat(products(orders.get(0))).containsExactlyInAnyOrder("Apple", "Banana");
+      assertThat(products(orders.get(1))).containsExactly("Cherry");
+      assertThat(products(orders.get(2))).isEmpty();
+      assertThat(products(orders.get(3))).containsExactlyInAnyOrder("Date", "Elderberry");
+      assertThat(products(orders.get(4))).containsExactly("Fig");
+
+      MappedStatement selectItems = statement("selectUnorderedItems");
+      assertThat(selectItems.getNestedQueryBatchCount()).isEqualTo(2);
+      assertThat(selectItems.getNestedQuerySavedCount()).isEqualTo(3);
+      assertThat(sqlSession.<Item> selectList(
+          "org.apache.ibatis.submitted.batch_nested_select.Mapper.selectUnorderedItems", 4))
+          .isSameAs(orders.get(3).getItems());
+    }
+  }
+
+  @Test
+  void shouldResolveBatchFetchTypeOfAnnotatedMapping() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).selectOrdersAnnotated();
+
+      assertThat(products(orders.get(0))).containsExactlyInAnyOrder("Apple", "Banana");
+      assertThat(products(orders.get(4))).containsExactly("Fig");
+      assertThat(statement("selectUnorderedItems").getNestedQueryBatchCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldResolveEachRowBeforeCallingResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<String> firstProducts = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).selectOrders(context -> {
+        Order order = context.getResultObject();
+        firstProducts.add(order.getItems().isEmpty() ? null : order.getItems().get(0).getProduct());
+      });
+
+      assertThat(firstProducts).containsExactly("Banana", "Cherry", null, "Elderberry", "Fig");
+      assertThat(statement("selectItems").getNestedQueryBatchCount()).isZero();
+    }
+  }
+
+  @Test
+  void shouldResolveEachRowWhenBatchingIsDisabled() {
+    sqlSessionFactory.getConfiguration().setNestedQueryBatchSize(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).selectOrders();
+
+      assertThat(orders.get(3).getCustomer().getName()).isEqualTo("Customer3");
+      assertThat(products(orders.get(0))).containsExactly("Banana", "Apple");
+      assertThat(statement("selectCustomer").getNestedQueryBatchCount()).isZero();
+      assertThat(statement("selectItems").getNestedQueryBatchCount()).isZero();
+    }
+  }
+
+  private MappedStatement statement(String id) {
+    return sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.batch_nested_select.Mapper." + id);
+  }
+
+  private static List<String> products(Order order) {
+    return order.getItems().stream().map(Item::getProduct).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cache_single_flight;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Holds the first query until it is released, so that other sessions miss the cache while it is running.
+ */
+@Intercepts({
+    @Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }) })
+public class BlockingQueryInterceptor implements Interceptor {
+
+  private final AtomicInteger queryCount = new AtomicInteger();
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch released = new CountDownLatch(1);
+  private volatile boolean failFirstQuery;
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    if (queryCount.incrementAndGet() == 1) {
+      started.countDown();
+      released.await(10, TimeUnit.SECONDS);
+      if (failFirstQuery) {
+        throw new SQLException("First query failed");
+      }
+    }
+    return invocation.proceed();
+  }
+
+  public int getQueryCount() {
+    return queryCount.get();
+  }
+
+  public void awaitFirstQuery() throws InterruptedException {
+    started.await(10, TimeUnit.SECONDS);
+  }
+
+  public void releaseFirstQuery() {
+    released.countDown();
+  }
+
+  public void setFailFirstQuery(boolean failFirstQuery) {
+    this.failFirstQuery = failFirstQuery;
+  }
+
+}
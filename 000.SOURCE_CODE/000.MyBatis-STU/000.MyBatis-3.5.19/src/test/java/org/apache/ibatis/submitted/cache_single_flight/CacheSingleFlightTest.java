@@ -0,0 +1,182 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cache_single_flight;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.executor.SingleFlight;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheSingleFlightTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private BlockingQueryInterceptor interceptor;
+  private ExecutorService executorService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cache_single_flight/Config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cache_single_flight/CreateDB.sql");
+    interceptor = new BlockingQueryInterceptor();
+    sqlSessionFactory.getConfiguration().addInterceptor(interceptor);
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @AfterEach
+  void tearDown() {
+    interceptor.releaseFirstQuery();
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void shouldExecuteConcurrentCacheMissesOnce() throws Exception {
+    Future<User> first = executorService.submit(() -> getUser(1));
+    interceptor.awaitFirstQuery();
+    Future<User> second = executorService.submit(() -> getUser(1));
+    Thread.sleep(300);
+    interceptor.releaseFirstQuery();
+
+    assertThat(first.get().getName()).isEqualTo("User1");
+    assertThat(second.get().getName()).isEqualTo("User1");
+    assertThat(second.get()).isNotSameAs(first.get());
+    assertThat(interceptor.getQueryCount()).isEqualTo(1);
+    SingleFlight singleFlight = sqlSessionFactory.getConfiguration().getCacheSingleFlight();
+    assertThat(singleFlight.getExecutedCount()).isEqualTo(1);
+    assertThat(singleFlight.getCoalescedCount()).isEqualTo(1);
+
+    // The result was cached by both sessions
+    assertThat(getUser(1).getName()).isEqualTo("User1");
+    assertThat(interceptor.getQueryCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCopySharedResultsWithTheCacheSerializer() throws Exception {
+    AtomicInteger copies = new AtomicInteger();
+    sqlSessionFactory.getConfiguration().setCacheSerializer(new JavaSerializer() {
+      @Override
+      public Object deserialize(byte[] bytes) {
+        copies.incrementAndGet();
+        return super.deserialize(bytes);
+      }
+    });
+    Future<User> first = executorService.submit(() -> getUser(1));
+    interceptor.awaitFirstQuery();
+    Future<User> second = executorService.submit(() -> getUser(1));
+    Thread.sleep(300);
+    interceptor.releaseFirstQuery();
+
+    assertThat(first.get().getName()).isEqualTo("User1");
+    assertThat(second.get().getName()).isEqualTo("User1");
+    assertThat(sqlSessionFactory.getConfiguration().getCacheSingleFlight().getCoalescedCount()).isEqualTo(1);
+    assertThat(copies.get()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldExecuteDirectlyWhenRunningQueryTimesOut() throws Exception {
+    sqlSessionFactory.getConfiguration().setCacheSingleFlightTimeout(100);
+    Future<User> first = executorService.submit(() -> getUser(1));
+    interceptor.awaitFirstQuery();
+
+    assertThat(getUser(1).getName()).isEqualTo("User1");
+    assertThat(interceptor.getQueryCount()).isEqualTo(2);
+    assertThat(sqlSessionFactory.getConfiguration().getCacheSingleFlight().getFallbackCount()).isEqualTo(1);
+
+    interceptor.releaseFirstQuery();
+    assertThat(first.get().getName()).isEqualTo("User1");
+  }
+
+  @Test
+  void shouldExecuteDirectlyWhenRunningQueryFails() throws Exception {
+    interceptor.setFailFirstQuery(true);
+    Future<User> first = executorService.submit(() -> getUser(1));
+    interceptor.awaitFirstQuery();
+    Future<User> second = executorService.submit(() -> getUser(1));
+    Thread.sleep(300);
+    interceptor.releaseFirstQuery();
+
+    assertThrows(ExecutionException.class, first::get);
+    assertThat(second.get().getName()).isEqualTo("User1");
+    assertThat(interceptor.getQueryCount()).isEqualTo(2);
+    assertThat(sqlSessionFactory.getConfiguration().getCacheSingleFlight().getFallbackCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldExecuteDirectlyWhenResultCannotBeSerialized() throws Exception {
+    Future<Account> first = executorService.submit(() -> getAccount(1));
+    interceptor.awaitFirstQuery();
+    Future<Account> second = executorService.submit(() -> getAccount(1));
+    Thread.sleep(300);
+    interceptor.releaseFirstQuery();
+
+    assertThat(first.get().getName()).isEqualTo("User1");
+    assertThat(second.get().getName()).isEqualTo("User1");
+    assertThat(second.get()).isNotSameAs(first.get());
+    assertThat(interceptor.getQueryCount()).isEqualTo(2);
+    SingleFlight singleFlight = sqlSessionFactory.getConfiguration().getCacheSingleFlight();
+    assertThat(singleFlight.getCoalescedCount()).isZero();
+    assertThat(singleFlight.getFallbackCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotShareResultsWithSessionThatHasWritten() throws Exception {
+    Future<User> first = executorService.submit(() -> getUser(1));
+    interceptor.awaitFirstQuery();
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.updateName(1, "Updated");
+      assertThat(mapper.getUser(1).getName()).isEqualTo("Updated");
+      sqlSession.rollback();
+    }
+    assertThat(interceptor.getQueryCount()).isEqualTo(2);
+    assertThat(sqlSessionFactory.getConfiguration().getCacheSingleFlight().getCoalescedCount()).isZero();
+
+    interceptor.releaseFirstQuery();
+    assertThat(first.get().getName()).isEqualTo("User1");
+  }
+
+  private User getUser(Integer id) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(Mapper.class).getUser(id);
+    }
+  }
+
+  private Account getAccount(Integer id) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ReadOnlyMapper.class).getAccount(id);
+    }
+  }
+
+}
@@ -0,0 +1,181 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.resultset.CompiledRowMapper;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompiledRowMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapAutoMappedColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectUsers();
+      assertThat(users).hasSize(3);
+      // all columns null and returnInstanceForEmptyRow is disabled
+      assertThat(users.get(0)).isNull();
+      assertThat(users.get(1).getId()).isEqualTo(1);
+      assertThat(users.get(1).getUserName()).isEqualTo("User1");
+      assertThat(users.get(1).getEmail()).isEqualTo("user1@example.com");
+      assertThat(users.get(1).getScore()).isEqualTo(10);
+      assertThat(users.get(2).getId()).isEqualTo(2);
+      assertThat(users.get(2).getEmail()).isNull();
+      assertThat(users.get(2).getScore()).isZero();
+    }
+    CompiledRowMapper compiledRowMapper = compiledRowMapper(
+        "org.apache.ibatis.submitted.compiled_row_mapping.Mapper.selectUsers-Inline");
+    assertThat(compiledRowMapper.getMappedColumnCount()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldMapExplicitAndAutoMappedColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectUsersWithResultMap();
+      assertThat(users.get(1).getId()).isEqualTo(1);
+      assertThat(users.get(1).getName()).isEqualTo("User1");
+      assertThat(users.get(1).getUserName()).isNull();
+      assertThat(users.get(1).getScore()).isEqualTo(10);
+    }
+    CompiledRowMapper compiledRowMapper = compiledRowMapper(
+        "org.apache.ibatis.submitted.compiled_row_mapping.Mapper.userMap");
+    assertThat(compiledRowMapper.getMappedColumnCount()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldReuseCompiledRowMapperAcrossExecutions() {
+    String resultMapId = "org.apache.ibatis.submitted.compiled_row_mapping.Mapper.selectUsers-Inline";
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).selectUsers();
+    }
+    CompiledRowMapper first = compiledRowMapper(resultMapId);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).selectUsers();
+    }
+    assertThat(compiledRowMapper(resultMapId)).isSameAs(first);
+  }
+
+  @Test
+  void shouldFallBackForNestedPropertyPath() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectUsersWithContact();
+      assertThat(users.get(1).getContact().getEmail()).isEqualTo("user1@example.com");
+    }
+    assertThat(compiledRowMappers("org.apache.ibatis.submitted.compiled_row_mapping.Mapper.userWithContactMap"))
+        .hasSize(1).allSatisfy(x -> assertThat(x.getMappedColumnCount()).isZero());
+  }
+
+  @Test
+  void shouldFallBackForDiscriminator() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectDiscriminatedUsers();
+      assertThat(users.get(0)).isInstanceOf(Admin.class);
+      assertThat(users.get(0).getUserName()).isEqualTo("User1");
+      assertThat(users.get(1)).isExactlyInstanceOf(User.class);
+    }
+    assertThat(compiledRowMappers("org.apache.ibatis.submitted.compiled_row_mapping.Mapper.discriminatedUserMap"))
+        .isEmpty();
+  }
+
+  @Test
+  void shouldReportUnknownColumnsOnEveryQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).selectUsersWithUnknownColumn()).hasSize(3);
+    }
+    // the row mapper is compiled by now, the unknown column must still be reported
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setAutoMappingUnknownColumnBehavior(AutoMappingUnknownColumnBehavior.FAILING);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThatThrownBy(mapper::selectUsersWithUnknownColumn).isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("UNKNOWN_COLUMN");
+    } finally {
+      configuration.setAutoMappingUnknownColumnBehavior(AutoMappingUnknownColumnBehavior.NONE);
+    }
+  }
+
+  @Test
+  void shouldStopSharingCompiledRowMappersWhenFull() {
+    Map<String, CompiledRowMapper> compiledRowMappers = sqlSessionFactory.getConfiguration().getCompiledRowMappers();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).selectUsers();
+    }
+    CompiledRowMapper compiledRowMapper = compiledRowMapper(
+        "org.apache.ibatis.submitted.compiled_row_mapping.Mapper.selectUsers-Inline");
+    Map<String, CompiledRowMapper> previous = new HashMap<>(compiledRowMappers);
+    try {
+      for (int i = 0; compiledRowMappers.size() < 1024; i++) {
+        compiledRowMappers.put("layout" + i, compiledRowMapper);
+      }
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        List<User> users = sqlSession.getMapper(Mapper.class).selectUsersWithResultMap();
+        assertThat(users.get(1).getName()).isEqualTo("User1");
+      }
+      assertThat(compiledRowMappers).hasSize(1024);
+    } finally {
+      compiledRowMappers.clear();
+      compiledRowMappers.putAll(previous);
+    }
+  }
+
+  private static CompiledRowMapper compiledRowMapper(String resultMapId) {
+    List<CompiledRowMapper> compiledRowMappers = compiledRowMappers(resultMapId);
+    assertThat(compiledRowMappers).hasSize(1);
+    return compiledRowMappers.get(0);
+  }
+
+  private static List<CompiledRowMapper> compiledRowMappers(String resultMapId) {
+    return sqlSessionFactory.getConfiguration().getCompiledRowMappers().entrySet().stream()
+        .filter(x -> x.getKey().startsWith(resultMapId + ":")).map(Map.Entry::getValue).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapping;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+public interface ParallelMapper {
+
+  @Select("select id, user_name, email, score from many_users order by id")
+  List<User> selectManyUsers();
+
+  @Select("select id, user_name, email, score from many_users order by id")
+  List<User> selectManyUsersWithRowBounds(RowBounds rowBounds);
+
+  @Select("select id, user_name, email, score from many_users order by id")
+  @ResultType(User.class)
+  void selectManyUsersWithResultHandler(ResultHandler<User> resultHandler);
+
+  @Select("select id, user_name, email, score from many_users order by id")
+  Cursor<User> selectManyUsersCursor();
+
+}
@@ -0,0 +1,142 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ParallelRowMappingTest {
+
+  private static final int ROWS = 1000;
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().setParallelRowMappingBatchSize(100);
+    sqlSessionFactory.getConfiguration().addMapper(ParallelMapper.class);
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapping/CreateDB.sql");
+    try (Connection connection = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()
+        .getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("drop table many_users if exists");
+      statement.execute("create table many_users (id int, user_name varchar(20), email varchar(40), score int)");
+      try (PreparedStatement insert = connection.prepareStatement("insert into many_users values (?, ?, ?, ?)")) {
+        for (int i = 1; i <= ROWS; i++) {
+          insert.setInt(1, i);
+          insert.setString(2, "User" + i);
+          insert.setString(3, "user" + i + "@example.com");
+          insert.setInt(4, i % 100);
+          insert.addBatch();
+        }
+        insert.executeBatch();
+      }
+      if (!connection.getAutoCommit()) {
+        connection.commit();
+      }
+    }
+  }
+
+  @Test
+  void shouldMapRowsInOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(ParallelMapper.class).selectManyUsers();
+      assertThat(users).extracting(User::getId).isEqualTo(ids(1, ROWS));
+      assertThat(users.get(499).getUserName()).isEqualTo("User500");
+      assertThat(users.get(499).getEmail()).isEqualTo("user500@example.com");
+      assertThat(users.get(499).getScore()).isZero();
+    }
+  }
+
+  @Test
+  void shouldKeepEmptyRowsNullInParallel() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).selectUsers();
+      assertThat(users).hasSize(3);
+      assertThat(users.get(0)).isNull();
+      assertThat(users.get(1).getUserName()).isEqualTo("User1");
+      assertThat(users.get(2).getUserName()).isEqualTo("User2");
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ParallelMapper mapper = sqlSession.getMapper(ParallelMapper.class);
+      List<User> users = mapper.selectManyUsersWithRowBounds(new RowBounds(10, 250));
+      assertThat(users).extracting(User::getId).isEqualTo(ids(11, 260));
+    }
+  }
+
+  @Test
+  void shouldCallTheResultHandlerInOrderOnTheCallingThreadUntilStopped() {
+    List<Integer> ids = new ArrayList<>();
+    Set<Thread> threads = new HashSet<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(ParallelMapper.class).selectManyUsersWithResultHandler(context -> {
+        ids.add(context.getResultObject().getId());
+        threads.add(Thread.currentThread());
+        if (context.getResultCount() == 150) {
+          context.stop();
+        }
+      });
+    }
+    assertThat(ids).isEqualTo(ids(1, 150));
+    assertThat(threads).containsExactly(Thread.currentThread());
+  }
+
+  @Test
+  void shouldMapCursorRowsOneByOne() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        Cursor<User> cursor = sqlSession.getMapper(ParallelMapper.class).selectManyUsersCursor()) {
+      List<Integer> ids = new ArrayList<>();
+      cursor.forEach(user -> ids.add(user.getId()));
+      assertThat(ids).isEqualTo(ids(1, ROWS));
+    }
+  }
+
+  private static List<Integer> ids(int from, int to) {
+    return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+  }
+
+}
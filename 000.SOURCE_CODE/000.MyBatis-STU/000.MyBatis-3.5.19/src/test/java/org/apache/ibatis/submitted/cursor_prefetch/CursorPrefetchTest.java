@@ -0,0 +1,207 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_prefetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.CursorFetchMode;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class CursorPrefetchTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_prefetch/Config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_prefetch/CreateDB.sql");
+  }
+
+  @AfterEach
+  void resetFetchMode() {
+    sqlSessionFactory.getConfiguration().setCursorFetchMode(CursorFetchMode.BACKGROUND);
+  }
+
+  @ParameterizedTest
+  @EnumSource(CursorFetchMode.class)
+  void shouldReturnAllRows(CursorFetchMode cursorFetchMode) {
+    sqlSessionFactory.getConfiguration().setCursorFetchMode(cursorFetchMode);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = sqlSession.getMapper(Mapper.class).getAllUsers();
+      List<Integer> ids = new ArrayList<>();
+      for (User user : cursor) {
+        ids.add(user.getId());
+        assertThat(cursor.getCurrentIndex()).isEqualTo(ids.size() - 1);
+      }
+      assertThat(ids).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+      assertThat(cursor.isConsumed()).isTrue();
+      assertThat(cursor.isOpen()).isFalse();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(CursorFetchMode.class)
+  void shouldApplyRowBounds(CursorFetchMode cursorFetchMode) {
+    sqlSessionFactory.getConfiguration().setCursorFetchMode(cursorFetchMode);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = sqlSession.selectCursor("org.apache.ibatis.submitted.cursor_prefetch.Mapper.getAllUsers",
+          null, new RowBounds(2, 5));
+      Iterator<User> iterator = cursor.iterator();
+      List<Integer> ids = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        ids.add(iterator.next().getId());
+      }
+      assertThat(ids).containsExactly(3, 4, 5, 6, 7);
+      assertThat(cursor.getCurrentIndex()).isEqualTo(6);
+      assertThat(cursor.isConsumed()).isTrue();
+      assertThat(iterator.hasNext()).isFalse();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(CursorFetchMode.class)
+  void shouldKeepSessionUsableAfterClosingCursorEarly(CursorFetchMode cursorFetchMode) throws Exception {
+    sqlSessionFactory.getConfiguration().setCursorFetchMode(cursorFetchMode);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Cursor<User> cursor = mapper.getAllUsers();
+      assertThat(cursor.iterator().next().getId()).isEqualTo(1);
+      cursor.close();
+      assertThat(cursor.isOpen()).isFalse();
+      assertThat(cursor.isConsumed()).isFalse();
+
+      int count = 0;
+      try (Cursor<User> other = mapper.getAllUsers()) {
+        for (User user : other) {
+          count++;
+        }
+      }
+      assertThat(count).isEqualTo(10);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = CursorFetchMode.class, names = { "CHUNK", "BACKGROUND" })
+  void shouldPropagateMappingFailure(CursorFetchMode cursorFetchMode) {
+    sqlSessionFactory.getConfiguration().setCursorFetchMode(cursorFetchMode);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Iterator<User> iterator = sqlSession.getMapper(Mapper.class).getAllUsersWithCode().iterator();
+      List<Integer> codes = new ArrayList<>();
+      assertThrows(RuntimeException.class, () -> {
+        while (iterator.hasNext()) {
+          codes.add(iterator.next().getCode());
+        }
+      });
+      // The rows of the chunk holding the failing row are not returned
+      assertThat(codes).containsExactly(1, 2, 3, 4, 5, 6);
+    }
+  }
+
+  @Test
+  void shouldRejectSessionCallsWhileCursorMapsInBackground() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Cursor<User> cursor = mapper.getAllUsers();
+      Iterator<User> iterator = cursor.iterator();
+      assertThat(iterator.next().getId()).isEqualTo(1);
+      assertThrows(SqlSessionException.class, mapper::getAllUsers);
+      assertThrows(SqlSessionException.class, () -> mapper.getRole(1));
+      assertThrows(SqlSessionException.class, sqlSession::commit);
+      assertThrows(SqlSessionException.class, sqlSession::getConnection);
+      while (iterator.hasNext()) {
+        iterator.next();
+      }
+      assertThat(mapper.getRole(1)).isEqualTo("Admin");
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldAcceptSessionCallsAfterBackgroundCursorIsClosed() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Cursor<User> cursor = mapper.getAllUsers();
+      assertThat(cursor.iterator().next().getId()).isEqualTo(1);
+      cursor.close();
+      assertThat(mapper.getRole(1)).isEqualTo("Admin");
+    }
+  }
+
+  @Test
+  void shouldAcceptSessionCallsWhileCursorMapsChunksOnCallingThread() {
+    sqlSessionFactory.getConfiguration().setCursorFetchMode(CursorFetchMode.CHUNK);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Iterator<User> iterator = mapper.getAllUsers().iterator();
+      assertThat(iterator.next().getId()).isEqualTo(1);
+      assertThat(mapper.getRole(1)).isEqualTo("Admin");
+      assertThat(iterator.next().getId()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldMapChunksOnCallingThread() {
+    sqlSessionFactory.getConfiguration().setCursorFetchMode(CursorFetchMode.CHUNK);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      for (User user : sqlSession.getMapper(Mapper.class).getAllUsers()) {
+        assertThat(user.getMappingThread()).isSameAs(Thread.currentThread());
+      }
+    }
+  }
+
+  @Test
+  void shouldMapChunksInBackground() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      for (User user : sqlSession.getMapper(Mapper.class).getAllUsers()) {
+        assertThat(user.getMappingThread()).isNotSameAs(Thread.currentThread());
+      }
+    }
+  }
+
+  @Test
+  void shouldMapNestedSelectsOnCallingThread() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<String> roles = new ArrayList<>();
+      for (User user : sqlSession.getMapper(Mapper.class).getAllUsersWithRole()) {
+        assertThat(user.getMappingThread()).isSameAs(Thread.currentThread());
+        roles.add(user.getRole());
+      }
+      assertThat(roles).hasSize(10).startsWith("Admin", "User", null);
+    }
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_prefetch;
+
+import org.apache.ibatis.annotations.One;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+
+public interface Mapper {
+
+  @Select("select id, name from users order by id")
+  Cursor<User> getAllUsers();
+
+  @Select("select id, name, code from users order by id")
+  Cursor<User> getAllUsersWithCode();
+
+  @Select("select id, name from users order by id")
+  @Results({ @Result(property = "id", column = "id", id = true), @Result(property = "name", column = "name"),
+      @Result(property = "role", column = "id", one = @One(select = "getRole")) })
+  Cursor<User> getAllUsersWithRole();
+
+  @Select("select role from roles where user_id = #{id}")
+  String getRole(Integer id);
+
+}
@@ -18,9 +18,12 @@ package org.apache.ibatis.submitted.cursor_simple;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
@@ -29,11 +32,13 @@ import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.mockito.Mockito;
 
 @TestMethodOrder(MethodOrderer.MethodName.class)
 class CursorSimpleTest {
@@ -469,4 +474,60 @@ class CursorSimpleTest {
       Assertions.assertTrue(cursor.isConsumed());
     }
   }
+
+  @Test
+  void shouldStreamCursorItems() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Cursor<User> cursor = mapper.getAllUsers();
+      try (Stream<User> stream = cursor.stream()) {
+        Assertions.assertEquals(Arrays.asList("User1", "User2"),
+            stream.limit(2).map(User::getName).collect(Collectors.toList()));
+        Assertions.assertTrue(cursor.isOpen());
+      }
+      Assertions.assertFalse(cursor.isOpen());
+      Assertions.assertFalse(cursor.isConsumed());
+    }
+  }
+
+  @Test
+  void shouldStreamCursorItemsInParallel() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Stream<User> stream = mapper.getAllUsers().stream()) {
+        Assertions.assertEquals(Arrays.asList("User1", "User2", "User3", "User4", "User5"),
+            stream.parallel().map(User::getName).sorted().collect(Collectors.toList()));
+      }
+    }
+  }
+
+  @Test
+  void shouldReturnStreamFromMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Stream<User> stream = mapper.getAllUsersStream()) {
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5),
+            stream.map(User::getId).collect(Collectors.toList()));
+      }
+    }
+  }
+
+  @Test
+  void shouldCloseTheSessionOpenedForAStreamWhenTheStreamIsClosed() {
+    List<SqlSession> openedSessions = new ArrayList<>();
+    SqlSessionFactory factory = Mockito.spy(sqlSessionFactory);
+    Mockito.doAnswer(invocation -> {
+      SqlSession sqlSession = Mockito.spy((SqlSession) invocation.callRealMethod());
+      openedSessions.add(sqlSession);
+      return sqlSession;
+    }).when(factory).openSession();
+    SqlSessionManager sqlSessionManager = SqlSessionManager.newInstance(factory);
+    Mapper mapper = sqlSessionManager.getMapper(Mapper.class);
+    try (Stream<User> stream = mapper.getAllUsersStream()) {
+      Assertions.assertEquals(1, openedSessions.size());
+      Mockito.verify(openedSessions.get(0), Mockito.never()).close();
+      Assertions.assertEquals(5, stream.count());
+    }
+    Mockito.verify(openedSessions.get(0)).close();
+  }
 }
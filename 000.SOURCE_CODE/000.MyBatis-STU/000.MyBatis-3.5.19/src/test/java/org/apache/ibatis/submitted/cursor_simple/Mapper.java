@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.submitted.cursor_simple;
 
+import java.util.stream.Stream;
+
 import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.cursor.Cursor;
@@ -37,6 +39,9 @@ public interface Mapper {
   // @formatter:on
   Cursor<User> getNullUsers(RowBounds rowBounds);
 
+  @Select("select * from users order by id")
+  Stream<User> getAllUsersStream();
+
   @Select("select * from users")
   @Options(fetchSize = Integer.MIN_VALUE)
   Cursor<User> getUsersMysqlStream();
@@ -0,0 +1,166 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.multi_row_insert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private PreparedSqlInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/multi_row_insert/Config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/multi_row_insert/CreateDB.sql");
+    interceptor = new PreparedSqlInterceptor();
+    sqlSessionFactory.getConfiguration().addInterceptor(interceptor);
+  }
+
+  @Test
+  void shouldInsertRowsWithMultiRowStatementsAndAssignGeneratedKeys() {
+    List<User> users = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 0; i < 7; i++) {
+        User user = new User("User" + i, i);
+        users.add(user);
+        sqlSession.insert("insert", user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).hasSize(1);
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1, 1, 1, 1, 1);
+      assertThat(results.get(0).getParameterObjects()).containsExactlyElementsOf(users);
+      assertThat(users).extracting(User::getId).containsExactly(0, 1, 2, 3, 4, 5, 6);
+      assertThat(interceptor.getPreparedSql()).containsExactly(
+          "insert into users (name, score) values (?, ?), (?, ?), (?, ?)",
+          "insert into users (name, score) values (?, ?)");
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> saved = sqlSession.selectList("select");
+      assertThat(saved).extracting(User::getName).containsExactly("User0", "User1", "User2", "User3", "User4", "User5",
+          "User6");
+    }
+  }
+
+  @Test
+  void shouldReadParameterValuesWhenRowIsAdded() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Map<String, Object> parameter = new HashMap<>();
+      for (int i = 0; i < 3; i++) {
+        parameter.put("name", "User" + i);
+        parameter.put("score", i * 10);
+        sqlSession.insert("insertWithoutKeys", parameter);
+      }
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> saved = sqlSession.selectList("select");
+      assertThat(saved).extracting(User::getName).containsExactly("User0", "User1", "User2");
+      assertThat(saved).extracting(User::getScore).containsExactly(0, 10, 20);
+    }
+  }
+
+  @Test
+  void shouldKeepStatementOrderAcrossMultiRowInserts() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.insert("insertWithoutKeys", new User("User0", 0));
+      sqlSession.insert("insertWithoutKeys", new User("User1", 1));
+      sqlSession.update("updateScore", new User("User1", 100));
+      sqlSession.insert("insertWithoutKeys", new User("User2", 2));
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results).extracting(BatchResult::getSql).extracting(sql -> sql.replaceAll("\\s+", " ").trim())
+          .containsExactly("insert into users (name, score) values (?, ?)",
+              "update users set score = ? where name = ?", "insert into users (name, score) values (?, ?)");
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1);
+      assertThat(results.get(1).getUpdateCounts()).containsExactly(1);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> saved = sqlSession.selectList("select");
+      assertThat(saved).extracting(User::getScore).containsExactly(0, 100, 2);
+    }
+  }
+
+  @Test
+  void shouldLimitRowsByParameterCount() {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertMaxParameters(4);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 0; i < 3; i++) {
+        sqlSession.insert("insertWithoutKeys", new User("User" + i, i));
+      }
+      sqlSession.flushStatements();
+
+      assertThat(interceptor.getPreparedSql()).containsExactly(
+          "insert into users (name, score) values (?, ?), (?, ?)", "insert into users (name, score) values (?, ?)");
+    }
+  }
+
+  @Test
+  void shouldUseJdbcBatchForStatementsThatCannotBeRewritten() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      for (int i = 0; i < 3; i++) {
+        sqlSession.insert("insertSelect", new User("User" + i, i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1, 1);
+      assertThat(interceptor.getPreparedSql()).hasSize(1);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.<User> selectList("select")).hasSize(3);
+    }
+  }
+
+  @Test
+  void shouldUseJdbcBatchWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertMaxRows(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      User user1 = new User("User0", 0);
+      User user2 = new User("User1", 1);
+      sqlSession.insert("insert", user1);
+      sqlSession.insert("insert", user2);
+      List<BatchResult> results = sqlSession.flushStatements();
+
+      assertThat(results.get(0).getUpdateCounts()).containsExactly(1, 1);
+      assertThat(interceptor.getPreparedSql()).containsExactly("insert into users (name, score) values (?, ?)");
+      assertThat(user2.getId()).isEqualTo(1);
+    }
+  }
+
+}
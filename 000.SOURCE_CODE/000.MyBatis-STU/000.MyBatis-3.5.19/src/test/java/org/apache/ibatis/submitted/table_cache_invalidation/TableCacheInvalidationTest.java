@@ -0,0 +1,122 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.table_cache_invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TableCacheInvalidationTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/table_cache_invalidation/Config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/table_cache_invalidation/CreateDB.sql");
+  }
+
+  @Test
+  void shouldInvalidateResultsOfOtherNamespacesReadingWrittenTable() {
+    assertThat(countOpenOrders()).isEqualTo(2);
+    updateStatus(1, "SHIPPED");
+    assertThat(countOpenOrders()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldInvalidateResultsOfDeclaredTables() {
+    assertThat(countOpenOrdersOfView()).isEqualTo(2);
+    updateStatus(1, "SHIPPED");
+    assertThat(countOpenOrdersOfView()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepResultsOfOtherTables() throws Exception {
+    assertThat(getCustomerName()).isEqualTo("Customer1");
+    executeBehindCache("update customers set name = 'Renamed' where id = 1");
+    updateStatus(1, "SHIPPED");
+    assertThat(getCustomerName()).isEqualTo("Customer1");
+  }
+
+  @Test
+  void shouldKeepResultsWhenWriteIsRolledBack() throws Exception {
+    assertThat(countOpenOrders()).isEqualTo(2);
+    executeBehindCache("update orders set status = 'SHIPPED' where id = 2");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(OrderMapper.class).updateStatus(1, "SHIPPED");
+      sqlSession.rollback();
+    }
+    assertThat(countOpenOrders()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotReadCachedResultsOfTablesWrittenInTransaction() {
+    assertThat(countOpenOrders()).isEqualTo(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(OrderMapper.class).updateStatus(1, "SHIPPED");
+      assertThat(sqlSession.getMapper(ReportMapper.class).countOpenOrders()).isEqualTo(1);
+      // Other sessions still read the committed state
+      assertThat(countOpenOrders()).isEqualTo(2);
+    }
+  }
+
+  private int countOpenOrders() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ReportMapper.class).countOpenOrders();
+    }
+  }
+
+  private int countOpenOrdersOfView() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ReportMapper.class).countOpenOrdersOfView();
+    }
+  }
+
+  private String getCustomerName() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ReportMapper.class).getCustomerName(1);
+    }
+  }
+
+  private void updateStatus(Integer id, String status) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(OrderMapper.class).updateStatus(id, status);
+      sqlSession.commit();
+    }
+  }
+
+  private void executeBehindCache(String sql) throws Exception {
+    try (Connection connection = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ *    Copyright 2009-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.xml_external_ref;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Properties;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.Test;
+
+class ParallelMapperParsingTest {
+
+  @Test
+  void shouldResolveReferencesToMappersDeclaredLater() throws Exception {
+    SqlSessionFactory sqlSessionFactory = build(true);
+    assertThat(sqlSessionFactory.getConfiguration().isParallelMapperParsingEnabled()).isTrue();
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/xml_external_ref/CreateDB.sql");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Person person = sqlSession.getMapper(PersonMapper.class).select(1);
+      assertThat(person.getPets()).hasSize(2);
+      assertThat(sqlSession.getMapper(PetMapper.class).select(3).getOwner().getId()).isEqualTo(2);
+      assertThat(sqlSession.getMapper(ResultMapReferencePersonMapper.class).selectPet(1).getId()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void shouldBuildTheSameConfigurationAsSequentialParsing() throws Exception {
+    Configuration sequential = build(false).getConfiguration();
+    Configuration parallel = build(true).getConfiguration();
+    assertThat(new HashSet<>(parallel.getMappedStatementNames()))
+        .isEqualTo(new HashSet<>(sequential.getMappedStatementNames()));
+    assertThat(new HashSet<>(parallel.getResultMapNames())).isEqualTo(new HashSet<>(sequential.getResultMapNames()));
+    assertThat(new HashSet<>(parallel.getCacheNames())).isEqualTo(new HashSet<>(sequential.getCacheNames()));
+    assertThat(parallel.getMapperRegistry().getMappers())
+        .containsExactlyInAnyOrderElementsOf(sequential.getMapperRegistry().getMappers());
+    assertThat(parallel.getIncompleteStatements()).isEmpty();
+    assertThat(parallel.getIncompleteCacheRefs()).isEmpty();
+    assertThat(parallel.getIncompleteResultMaps()).isEmpty();
+
+    MappedStatement selectPerson = parallel
+        .getMappedStatement("org.apache.ibatis.submitted.xml_external_ref.PersonMapper.select");
+    MappedStatement selectPet = parallel
+        .getMappedStatement("org.apache.ibatis.submitted.xml_external_ref.PetMapper.select");
+    assertThat(selectPerson.getCache()).isSameAs(selectPet.getCache());
+  }
+
+  @Test
+  void shouldReportAMissingMapperResourceAsSequentialParsingDoes() {
+    String config = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>"
+        + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\""
+        + " \"https://mybatis.org/dtd/mybatis-3-config.dtd\">"
+        + "<configuration><settings><setting name=\"parallelMapperParsingEnabled\" value=\"${parallel}\"/></settings>"
+        + "<mappers><mapper resource=\"org/apache/ibatis/submitted/xml_external_ref/PetMapper.xml\"/>"
+        + "<mapper resource=\"org/apache/ibatis/submitted/xml_external_ref/MissingMapper.xml\"/></mappers>"
+        + "</configuration>";
+    for (boolean parallel : new boolean[] { false, true }) {
+      Properties properties = new Properties();
+      properties.setProperty("parallel", String.valueOf(parallel));
+      assertThatThrownBy(() -> new SqlSessionFactoryBuilder().build(new StringReader(config), properties))
+          .hasMessageContaining("Could not find resource org/apache/ibatis/submitted/xml_external_ref/MissingMapper")
+          .hasRootCauseInstanceOf(IOException.class);
+    }
+  }
+
+  private static SqlSessionFactory build(boolean parallel) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("parallel", String.valueOf(parallel));
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/xml_external_ref/ParallelMapperConfig.xml")) {
+      return new SqlSessionFactoryBuilder().build(reader, properties);
+    }
+  }
+
+}
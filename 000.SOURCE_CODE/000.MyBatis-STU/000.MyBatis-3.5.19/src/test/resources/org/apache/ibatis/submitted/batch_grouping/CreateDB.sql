@@ -0,0 +1,62 @@
+--
+--    Copyright 2009-2025 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table "Invoices" if exists;
+drop table "Customers" if exists;
+drop table assemblies if exists cascade;
+drop table parts if exists cascade;
+drop table order_lines if exists;
+drop table orders if exists;
+drop table notes if exists;
+
+create table orders (
+id int primary key,
+status varchar(16)
+);
+
+create table order_lines (
+id int primary key,
+order_id int,
+foreign key (order_id) references orders(id)
+);
+
+create table notes (
+id int
+);
+
+create table parts (
+id int primary key,
+assembly_id int
+);
+
+create table assemblies (
+id int primary key,
+part_id int,
+foreign key (part_id) references parts(id)
+);
+
+alter table parts add foreign key (assembly_id) references assemblies(id);
+
+create table "Customers" (
+id int primary key,
+name varchar(16)
+);
+
+create table "Invoices" (
+id int primary key,
+customer_id int,
+foreign key (customer_id) references "Customers"(id)
+);
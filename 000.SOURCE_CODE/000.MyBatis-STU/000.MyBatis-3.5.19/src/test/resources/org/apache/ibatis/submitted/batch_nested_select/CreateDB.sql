@@ -0,0 +1,52 @@
+--
+--    Copyright 2009-2025 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table order_items if exists;
+drop table orders if exists;
+drop table customers if exists;
+
+create table customers (
+  id int,
+  name varchar(20)
+);
+
+create table orders (
+  id int,
+  customer_id int
+);
+
+create table order_items (
+  id int,
+  order_id int,
+  product varchar(20)
+);
+
+insert into customers (id, name) values (1, 'Customer1');
+insert into customers (id, name) values (2, 'Customer2');
+insert into customers (id, name) values (3, 'Customer3');
+
+insert into orders (id, customer_id) values (1, 1);
+insert into orders (id, customer_id) values (2, 2);
+insert into orders (id, customer_id) values (3, 1);
+insert into orders (id, customer_id) values (4, 3);
+insert into orders (id, customer_id) values (5, null);
+
+insert into order_items (id, order_id, product) values (1, 1, 'Apple');
+insert into order_items (id, order_id, product) values (2, 1, 'Banana');
+insert into order_items (id, order_id, product) values (3, 2, 'Cherry');
+insert into order_items (id, order_id, product) values (4, 4, 'Date');
+insert into order_items (id, order_id, product) values (5, 4, 'Elderberry');
+insert into order_items (id, order_id, product) values (6, 5, 'Fig');
@@ -0,0 +1,29 @@
+--
+--    Copyright 2009-2025 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table users if exists;
+
+create table users (
+  id int,
+  user_name varchar(20),
+  email varchar(40),
+  score int,
+  kind varchar(10)
+);
+
+insert into users (id, user_name, email, score, kind) values(1, 'User1', 'user1@example.com', 10, 'admin');
+insert into users (id, user_name, email, score, kind) values(2, 'User2', null, null, 'member');
+insert into users (id, user_name, email, score, kind) values(null, null, null, null, null);
@@ -0,0 +1,44 @@
+--
+--    Copyright 2009-2025 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table roles if exists;
+drop table users if exists;
+
+create table users (
+  id int,
+  name varchar(20),
+  code varchar(10)
+);
+
+create table roles (
+  user_id int,
+  role varchar(20)
+);
+
+insert into users values(1, 'User1', '1');
+insert into users values(2, 'User2', '2');
+insert into users values(3, 'User3', '3');
+insert into users values(4, 'User4', '4');
+insert into users values(5, 'User5', '5');
+insert into users values(6, 'User6', '6');
+insert into users values(7, 'User7', '7');
+insert into users values(8, 'User8', 'eight');
+insert into users values(9, 'User9', '9');
+insert into users values(10, 'User10', '10');
+
+insert into roles values(1, 'Admin');
+insert into roles values(2, 'User');